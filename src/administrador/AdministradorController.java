@@ -1,5 +1,6 @@
 package administrador;
 
+import hospital.CatalogoHospitais;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
@@ -33,6 +34,11 @@ public class AdministradorController {
                 return null;
             }
             
+            if (!CatalogoHospitais.obter().existe(idHospital)) {
+                System.err.println("Hospital não encontrado: " + idHospital);
+                return null;
+            }
+            
             if (AdministradorDAO.loginExiste(login, null)) {
                 System.err.println("Login já existe no sistema");
                 return null;
@@ -0,0 +1,57 @@
+package administrador;
+
+import database.ExecucaoAssincrona;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versões assíncronas das operações de {@link AdministradorController}.
+ *
+ * <p>Cada método executa a operação correspondente em
+ * {@link ExecucaoAssincrona} e devolve um {@link CompletableFuture} com o
+ * mesmo resultado (inclusive null, false ou lista vazia em caso de erro).</p>
+ */
+public final class AdministradorControllerAsync {
+
+    // Construtor privado: classe utilitária
+    private AdministradorControllerAsync() {}
+
+    /** Assíncrono de {@link AdministradorController#criarAdministrador(String, String, String, Long)} */
+    public static CompletableFuture<Administrador> criarAdministrador(String nome, String login, String senha,
+            Long idHospital) {
+        return ExecucaoAssincrona.executar(() -> AdministradorController.criarAdministrador(
+                nome, login, senha, idHospital));
+    }
+
+    /** Assíncrono de {@link AdministradorController#criarAdministrador(String, String, String, String, Long)} */
+    public static CompletableFuture<Administrador> criarAdministrador(String cargo, String nome, String login,
+            String senha, Long idHospital) {
+        return ExecucaoAssincrona.executar(() -> AdministradorController.criarAdministrador(
+                cargo, nome, login, senha, idHospital));
+    }
+
+    /** Assíncrono de {@link AdministradorController#listarTodosAdministradores()} */
+    public static CompletableFuture<List<Administrador>> listarTodosAdministradores() {
+        return ExecucaoAssincrona.executar(() -> AdministradorController.listarTodosAdministradores());
+    }
+
+    /** Assíncrono de {@link AdministradorController#realizarLogin(String, String)} */
+    public static CompletableFuture<Administrador> realizarLogin(String login, String senha) {
+        return ExecucaoAssincrona.executar(() -> AdministradorController.realizarLogin(login, senha));
+    }
+
+    /** Assíncrono de {@link AdministradorController#removerAdministrador(Long)} */
+    public static CompletableFuture<Boolean> removerAdministrador(Long id) {
+        return ExecucaoAssincrona.executar(() -> AdministradorController.removerAdministrador(id));
+    }
+
+    /** Assíncrono de {@link AdministradorController#removerAdministradorPorLogin(String)} */
+    public static CompletableFuture<Boolean> removerAdministradorPorLogin(String login) {
+        return ExecucaoAssincrona.executar(() -> AdministradorController.removerAdministradorPorLogin(login));
+    }
+
+    /** Assíncrono de {@link AdministradorController#listarAdministradoresPorHospital(Long)} */
+    public static CompletableFuture<List<Administrador>> listarAdministradoresPorHospital(Long idHospital) {
+        return ExecucaoAssincrona.executar(() -> AdministradorController.listarAdministradoresPorHospital(idHospital));
+    }
+}
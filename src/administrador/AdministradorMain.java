@@ -1,5 +1,10 @@
 package administrador;
 
+import database.GerenciadorParticoes;
+import doador.DeduplicadorDoadores;
+import doador.DoadorController;
+import exportacao.ExportacaoController;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
 
@@ -70,6 +75,9 @@ public class AdministradorMain {
         System.out.println("║ 2.  Criar Administrador             ║");
         System.out.println("║ 3.  Remover Administrador           ║");
         System.out.println("║ 4.  Fazer Logout                    ║");
+        System.out.println("║ 5.  Exportar Dados                  ║");
+        System.out.println("║ 6.  Arquivar Histórico              ║");
+        System.out.println("║ 7.  Revisar Doadores Duplicados     ║");
         System.out.println("║ 0.  Sair                            ║");
         System.out.println("╚═════════════════════════════════════╝");
         System.out.print("Escolha uma opção: ");
@@ -102,6 +110,15 @@ public class AdministradorMain {
             case 4:
                 realizarLogout();
                 break;
+            case 5:
+                exportarDados();
+                break;
+            case 6:
+                arquivarHistorico();
+                break;
+            case 7:
+                revisarDuplicados();
+                break;
             case 0:
                 System.out.println("Retornando ao Menu Principal...");
                 break;
@@ -151,6 +168,46 @@ public class AdministradorMain {
         AdministradorController.removerAdministradorInterativo();
     }
     
+    private static void exportarDados() {
+        System.out.println("\n=== EXPORTANDO DADOS ===");
+        ExportacaoController.exportarInterativo();
+    }
+    
+    private static void arquivarHistorico() {
+        System.out.println("\n=== ARQUIVANDO HISTÓRICO ===");
+        
+        String[] dados = AdministradorView.solicitarDadosArquivamento();
+        
+        if (dados != null) {
+            try {
+                int mesesRetencao = Integer.parseInt(dados[0]);
+                int arquivadas = GerenciadorParticoes.arquivar(mesesRetencao, Paths.get(dados[1]));
+                
+                if (arquivadas >= 0) {
+                    System.out.println(arquivadas + " partição(ões) arquivada(s) em " + dados[1]);
+                } else {
+                    AdministradorView.exibirMensagemErro("Falha ao arquivar histórico.");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Quantidade de meses deve ser um número válido.");
+            }
+        }
+    }
+    
+    private static void revisarDuplicados() {
+        System.out.println("\n=== REVISANDO DOADORES DUPLICADOS ===");
+        System.out.println("Verificação no cadastro: " + DeduplicadorDoadores.getModo());
+        
+        List<DeduplicadorDoadores.ParSuspeito> pares = DoadorController.listarPossiveisDuplicados();
+        AdministradorView.exibirDuplicados(pares);
+        
+        DeduplicadorDoadores.Modo novoModo = AdministradorView.solicitarModoDuplicidade();
+        if (novoModo != null) {
+            DeduplicadorDoadores.setModo(novoModo);
+            System.out.println("Verificação no cadastro alterada para " + novoModo);
+        }
+    }
+    
     private static void realizarLogin() {
         System.out.println("\n=== REALIZANDO LOGIN ===");
         
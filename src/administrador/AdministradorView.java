@@ -1,6 +1,8 @@
 package administrador;
 
+import doador.DeduplicadorDoadores;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 
 public class AdministradorView {
@@ -187,6 +189,83 @@ public class AdministradorView {
      * Solicita credenciais para login
      * @return Array com [login, senha] ou null se cancelado
      */
+    /** Quantidade máxima de pares exibidos na revisão de duplicados */
+    private static final int LIMITE_DUPLICADOS_EXIBIDOS = 50;
+    
+    /**
+     * Exibe os pares de doadores possivelmente duplicados
+     * @param pares Pares suspeitos, da maior para a menor nota
+     */
+    public static void exibirDuplicados(List<DeduplicadorDoadores.ParSuspeito> pares) {
+        if (pares.isEmpty()) {
+            System.out.println("Nenhum possível doador duplicado encontrado.");
+            return;
+        }
+        
+        System.out.println("=== POSSÍVEIS DOADORES DUPLICADOS ===");
+        System.out.println("Total: " + pares.size() + " pares" +
+            (pares.size() > LIMITE_DUPLICADOS_EXIBIDOS ? " (exibindo os " + LIMITE_DUPLICADOS_EXIBIDOS + " mais prováveis)" : ""));
+        System.out.println(String.format("|%-6s | %-8s | %-25s | %-11s | %-8s | %-25s | %-11s|",
+            "Nota", "ID", "Nome", "CPF", "ID", "Nome", "CPF"));
+        System.out.println(String.format("|%s|%s|%s|%s|%s|%s|%s|",
+            "-".repeat(7), "-".repeat(9), "-".repeat(26), "-".repeat(12), "-".repeat(9), "-".repeat(26), "-".repeat(12)));
+        
+        for (int i = 0; i < pares.size() && i < LIMITE_DUPLICADOS_EXIBIDOS; i++) {
+            DeduplicadorDoadores.ParSuspeito par = pares.get(i);
+            System.out.println(String.format("|%5.0f%% | %-8d | %-25s | %011d | %-8d | %-25s | %011d|",
+                par.getPontuacao() * 100,
+                par.getIdA(), truncar(par.getNomeA(), 25), par.getCpfA(),
+                par.getIdB(), truncar(par.getNomeB(), 25), par.getCpfB()));
+        }
+        
+        System.out.println("=====================================");
+    }
+    
+    /**
+     * Solicita o modo de verificação de duplicidade no cadastro de doadores
+     * @return Novo modo ou null para manter o atual
+     */
+    public static DeduplicadorDoadores.Modo solicitarModoDuplicidade() {
+        System.out.print("Verificação no cadastro (DESATIVADO/AVISAR/BLOQUEAR, Enter mantém): ");
+        String valor = scanner.nextLine().trim();
+        if (valor.isEmpty()) {
+            return null;
+        }
+        try {
+            return DeduplicadorDoadores.Modo.valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Modo inválido. Mantendo o atual.");
+            return null;
+        }
+    }
+    
+    private static String truncar(String texto, int tamanho) {
+        return texto.length() <= tamanho ? texto : texto.substring(0, tamanho - 1) + "…";
+    }
+    
+    /**
+     * Solicita os parâmetros do arquivamento de histórico
+     * @return Array com [meses de retenção, diretório] ou null se inválido
+     */
+    public static String[] solicitarDadosArquivamento() {
+        System.out.println("=== ARQUIVAR HISTÓRICO ===");
+        
+        System.out.print("Meses completos mantidos no banco [12]: ");
+        String meses = scanner.nextLine().trim();
+        if (meses.isEmpty()) {
+            meses = "12";
+        }
+        
+        System.out.print("Diretório do arquivo [arquivo]: ");
+        String diretorio = scanner.nextLine().trim();
+        if (diretorio.isEmpty()) {
+            diretorio = "arquivo";
+        }
+        
+        System.out.println("==========================");
+        return new String[]{meses, diretorio};
+    }
+    
     public static String[] solicitarCredenciais() {
         System.out.println("=== LOGIN DO ADMINISTRADOR ===");
         
@@ -0,0 +1,237 @@
+package benchmark;
+
+import estoque.BalanceadorEstoque;
+import estoque.EstoqueSangue;
+import hospital.CoordenadasCep;
+import hospital.Hospital;
+import hospital.IndiceCep;
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Mede o cálculo das transferências de estoque ({@link BalanceadorEstoque})
+ * e confere que cada plano é ótimo.
+ *
+ * <p>Uso: {@code java benchmark.BenchmarkBalanceamento [hospitais] [rodadas]}</p>
+ *
+ * <p>Cada hospital tem um ritmo de coleta sorteado (parte deles não coleta,
+ * como hospitais sem hemocentro) e os tipos seguem a distribuição aproximada
+ * da população brasileira; estoque e nível alvo seguem as regras padrão do
+ * {@link EstoqueSangue}. São medidos o plano completo (8 tipos, como numa
+ * releitura) e o plano de um tipo depois de uma doação (o que a thread de
+ * fundo refaz). A conferência procura um ciclo de custo negativo no grafo
+ * residual de cada plano (Bellman-Ford): sem ciclo, nenhuma redistribuição
+ * das mesmas bolsas desloca menos.</p>
+ */
+public final class BenchmarkBalanceamento {
+
+    private static final int HOSPITAIS_PADRAO = 300;
+    private static final int RODADAS_PADRAO = 20;
+
+    /** Participação aproximada de cada tipo, na ordem de {@link EstoqueSangue#TIPOS} */
+    private static final double[] FREQUENCIAS = {0.34, 0.08, 0.08, 0.02, 0.025, 0.005, 0.36, 0.09};
+
+    private BenchmarkBalanceamento() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : HOSPITAIS_PADRAO;
+        int rodadas = args.length > 1 ? Integer.parseInt(args[1]) : RODADAS_PADRAO;
+        Random aleatorio = new Random(42);
+
+        List<Hospital> hospitais = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            int cep = (100 + aleatorio.nextInt(40) * 21) * 100_000 + aleatorio.nextInt(100_000);
+            hospitais.add(new Hospital((long) i, "Hospital " + i, String.format("%08d", cep), "Cidade " + i));
+        }
+
+        int[][] distancias;
+        Path arquivo = Files.createTempFile("coordenadas", ".csv");
+        try {
+            try (BufferedWriter escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+                for (int prefixo = 0; prefixo < 1000; prefixo++) {
+                    escritor.write(String.format(Locale.ROOT, "%03d;%.6f;%.6f%n", prefixo,
+                            -33 + aleatorio.nextDouble() * 38, -73 + aleatorio.nextDouble() * 39));
+                }
+            }
+            long inicio = System.nanoTime();
+            IndiceCep indice = IndiceCep.construir(hospitais, CoordenadasCep.carregar(arquivo));
+            distancias = indice.distanciasMetros(hospitais);
+            System.out.printf("%d hospitais; matriz de distâncias em %.1f ms%n%n", quantidade,
+                    (System.nanoTime() - inicio) / 1e6);
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+
+        int[][] saldos = gerarSaldos(quantidade, aleatorio);
+
+        // Aquecimento
+        for (int r = 0; r < 3; r++) {
+            for (int[] saldo : saldos) {
+                BalanceadorEstoque.balancear(saldo, distancias);
+            }
+        }
+
+        System.out.printf("%-5s %7s %7s %10s %14s %10s%n", "Tipo", "Sobra", "Falta", "Enviadas", "Transferências",
+                "ms");
+        int falhas = 0;
+        long totalCompleto = 0;
+        for (int t = 0; t < saldos.length; t++) {
+            long inicio = System.nanoTime();
+            List<int[]> plano = null;
+            for (int r = 0; r < rodadas; r++) {
+                plano = BalanceadorEstoque.balancear(saldos[t], distancias);
+            }
+            long ns = (System.nanoTime() - inicio) / rodadas;
+            totalCompleto += ns;
+
+            long sobra = 0;
+            long falta = 0;
+            for (int saldo : saldos[t]) {
+                sobra += Math.max(0, saldo);
+                falta += Math.max(0, -saldo);
+            }
+            long enviadas = 0;
+            for (int[] envio : plano) {
+                enviadas += envio[2];
+            }
+            if (enviadas != Math.min(sobra, falta) || !otimo(saldos[t], distancias, plano)) {
+                falhas++;
+            }
+            System.out.printf("%-5s %7d %7d %10d %14d %10.2f%n", EstoqueSangue.TIPOS[t], sobra, falta, enviadas,
+                    plano.size(), ns / 1e6);
+        }
+
+        // Uma doação de O+ em um hospital com falta: só o plano de O+ é refeito
+        int[] depois = saldos[6].clone();
+        for (int h = 0; h < depois.length; h++) {
+            if (depois[h] < 0) {
+                depois[h]++;
+                break;
+            }
+        }
+        long inicio = System.nanoTime();
+        for (int r = 0; r < rodadas; r++) {
+            BalanceadorEstoque.balancear(depois, distancias);
+        }
+        long incremental = (System.nanoTime() - inicio) / rodadas;
+
+        System.out.println();
+        System.out.printf("Plano completo (8 tipos): %.1f ms%n", totalCompleto / 1e6);
+        System.out.printf("Plano após uma doação (1 tipo): %.1f ms%n", incremental / 1e6);
+
+        if (falhas > 0) {
+            System.out.println();
+            System.out.println("FALHA: " + falhas + " plano(s) não ótimo(s) ou incompleto(s).");
+            System.exit(1);
+        }
+    }
+
+    /** Saldo (estoque - alvo) por tipo e hospital, pelas regras padrão do estoque */
+    private static int[][] gerarSaldos(int quantidade, Random aleatorio) {
+        double[] ritmo = new double[quantidade];
+        for (int h = 0; h < quantidade; h++) {
+            // Bolsas por dia; um terço dos hospitais não coleta
+            ritmo[h] = aleatorio.nextInt(3) == 0 ? 0 : Math.exp(aleatorio.nextGaussian()) * 2;
+        }
+        int[][] saldos = new int[FREQUENCIAS.length][quantidade];
+        for (int t = 0; t < FREQUENCIAS.length; t++) {
+            for (int h = 0; h < quantidade; h++) {
+                double porDia = ritmo[h] * FREQUENCIAS[t];
+                int estoque = poisson(porDia * EstoqueSangue.VALIDADE_PADRAO_DIAS, aleatorio);
+                int naJanela = estoque + poisson(porDia * (EstoqueSangue.JANELA_PADRAO_DIAS
+                        - EstoqueSangue.VALIDADE_PADRAO_DIAS), aleatorio);
+                int alvo = Math.max(EstoqueSangue.MINIMO_PADRAO, (int) Math.ceil(
+                        (double) naJanela * EstoqueSangue.COBERTURA_PADRAO_DIAS / EstoqueSangue.JANELA_PADRAO_DIAS));
+                saldos[t][h] = estoque - alvo;
+            }
+        }
+        return saldos;
+    }
+
+    private static int poisson(double media, Random aleatorio) {
+        if (media > 30) {
+            return Math.max(0, (int) Math.round(media + Math.sqrt(media) * aleatorio.nextGaussian()));
+        }
+        double limite = Math.exp(-media);
+        double produto = aleatorio.nextDouble();
+        int k = 0;
+        while (produto > limite) {
+            produto *= aleatorio.nextDouble();
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * Procura ciclo negativo no grafo residual: arcos de envio (sobra -> falta,
+     * custo d), de devolução onde há envio (custo -d) e os da origem e do
+     * destino fictícios onde ainda há sobra ou falta, ou já houve envio.
+     */
+    private static boolean otimo(int[] saldos, int[][] distancias, List<int[]> plano) {
+        int n = saldos.length;
+        int origem = n;
+        int destino = n + 1;
+        int[] enviado = new int[n];
+        int[] recebido = new int[n];
+        long[][] fluxo = new long[n][];
+        for (int[] envio : plano) {
+            enviado[envio[0]] += envio[2];
+            recebido[envio[1]] += envio[2];
+            if (fluxo[envio[0]] == null) {
+                fluxo[envio[0]] = new long[n];
+            }
+            fluxo[envio[0]][envio[1]] += envio[2];
+        }
+
+        List<long[]> arcos = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (saldos[i] > 0) {
+                if (enviado[i] < saldos[i]) {
+                    arcos.add(new long[] {origem, i, 0});
+                }
+                if (enviado[i] > 0) {
+                    arcos.add(new long[] {i, origem, 0});
+                }
+                for (int j = 0; j < n; j++) {
+                    if (saldos[j] < 0) {
+                        arcos.add(new long[] {i, j, distancias[i][j]});
+                        if (fluxo[i] != null && fluxo[i][j] > 0) {
+                            arcos.add(new long[] {j, i, -distancias[i][j]});
+                        }
+                    }
+                }
+            } else if (saldos[i] < 0) {
+                if (recebido[i] < -saldos[i]) {
+                    arcos.add(new long[] {i, destino, 0});
+                }
+                if (recebido[i] > 0) {
+                    arcos.add(new long[] {destino, i, 0});
+                }
+            }
+        }
+
+        long[] distancia = new long[n + 2];
+        for (int passo = 0; passo <= n + 2; passo++) {
+            boolean mudou = false;
+            for (long[] arco : arcos) {
+                int de = (int) arco[0];
+                int para = (int) arco[1];
+                if (distancia[de] + arco[2] < distancia[para]) {
+                    distancia[para] = distancia[de] + arco[2];
+                    mudou = true;
+                }
+            }
+            if (!mudou) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,157 @@
+package benchmark;
+
+import eventos.BarramentoEventos;
+import eventos.DadosEvento;
+import eventos.DestinoArquivo;
+import eventos.DestinoEventos;
+import eventos.DestinoSocket;
+import eventos.Evento;
+import eventos.RetransmissorEventos;
+import eventos.TipoEvento;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mede a vazão e o tempo por lote dos destinos de eventos, a parte da
+ * publicação que não depende do banco.
+ *
+ * <p>Uso: {@code java benchmark.BenchmarkEventos [eventos] [tamanho do lote]}</p>
+ *
+ * <p>Os eventos têm o formato dos de doação registrada e são publicados em
+ * lotes como o {@link RetransmissorEventos} faz: log em arquivo com e sem
+ * sincronização em disco, barramento com um consumidor e socket para um
+ * receptor local que lê as linhas. O atraso de um evento no retransmissor é
+ * no máximo a espera com a caixa vazia ({@value RetransmissorEventos#INTERVALO_MS}
+ * ms, ou menos com o aviso das gravações locais) mais o tempo do lote, somado
+ * à leitura e à marcação no banco.</p>
+ */
+public final class BenchmarkEventos {
+
+    private static final int EVENTOS_PADRAO = 200_000;
+
+    /** Lotes publicados antes da medição */
+    private static final int LOTES_AQUECIMENTO = 20;
+
+    private BenchmarkEventos() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : EVENTOS_PADRAO;
+        int tamanhoLote = args.length > 1 ? Integer.parseInt(args[1]) : RetransmissorEventos.LOTE_PADRAO;
+
+        List<List<Evento>> lotes = gerarLotes(total, tamanhoLote);
+        System.out.println("Publicação de " + total + " eventos em lotes de " + tamanhoLote);
+        System.out.println();
+        System.out.printf("%-26s %12s %12s %12s%n", "Destino", "Eventos/s", "Lote p50 ms", "Lote p99 ms");
+
+        Path arquivo = Files.createTempFile("eventos", ".jsonl");
+        try {
+            try (DestinoArquivo destino = new DestinoArquivo(arquivo, true)) {
+                medir("arquivo (sincronizado)", destino, lotes);
+            }
+            try (DestinoArquivo destino = new DestinoArquivo(arquivo, false)) {
+                medir("arquivo", destino, lotes);
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+
+        BarramentoEventos barramento = new BarramentoEventos();
+        AtomicLong recebidos = new AtomicLong();
+        barramento.assinar(TipoEvento.DOACAO_REGISTRADA, evento -> recebidos.incrementAndGet());
+        medir("barramento", barramento, lotes);
+
+        try (ServerSocket servidor = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Thread receptor = new Thread(() -> receber(servidor), "receptor-eventos");
+            receptor.setDaemon(true);
+            receptor.start();
+            try (DestinoSocket destino = new DestinoSocket("localhost", servidor.getLocalPort())) {
+                medir("socket local", destino, lotes);
+            }
+        }
+
+        long esperados = total;
+        for (int i = 0; i < Math.min(LOTES_AQUECIMENTO, lotes.size()); i++) {
+            esperados += lotes.get(i).size();
+        }
+        if (recebidos.get() != esperados) {
+            System.out.println();
+            System.out.println("FALHA: barramento entregou " + recebidos.get() + " de " + esperados + " eventos.");
+            System.exit(1);
+        }
+    }
+
+    private static void medir(String nome, DestinoEventos destino, List<List<Evento>> lotes) throws IOException {
+        // Aquecimento com os primeiros lotes
+        for (int i = 0; i < Math.min(LOTES_AQUECIMENTO, lotes.size()); i++) {
+            destino.publicar(lotes.get(i));
+        }
+
+        long[] tempos = new long[lotes.size()];
+        long eventos = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < lotes.size(); i++) {
+            long t0 = System.nanoTime();
+            destino.publicar(lotes.get(i));
+            tempos[i] = System.nanoTime() - t0;
+            eventos += lotes.get(i).size();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Arrays.sort(tempos);
+        System.out.printf("%-26s %12.0f %12.3f %12.3f%n", nome, eventos / segundos,
+                tempos[tempos.length / 2] / 1e6, tempos[(int) (tempos.length * 0.99)] / 1e6);
+    }
+
+    private static List<List<Evento>> gerarLotes(int total, int tamanhoLote) {
+        List<List<Evento>> lotes = new ArrayList<>();
+        LocalDateTime agora = LocalDateTime.now();
+        Date hoje = new Date(System.currentTimeMillis());
+        List<Evento> lote = new ArrayList<>(tamanhoLote);
+        for (int i = 1; i <= total; i++) {
+            String dados = new DadosEvento()
+                    .texto("data", hoje)
+                    .texto("hora", new Time(i * 1000L % 86_400_000L))
+                    .numero("volume", 350.0 + i % 151)
+                    .numero("triagemId", i)
+                    .numero("doadorId", 1 + i % 10_000)
+                    .json();
+            lote.add(new Evento(i, TipoEvento.DOACAO_REGISTRADA, i, dados, agora));
+            if (lote.size() == tamanhoLote) {
+                lotes.add(lote);
+                lote = new ArrayList<>(tamanhoLote);
+            }
+        }
+        if (!lote.isEmpty()) {
+            lotes.add(lote);
+        }
+        return lotes;
+    }
+
+    /** Lê e descarta as linhas recebidas, como um consumidor simples */
+    private static void receber(ServerSocket servidor) {
+        try (Socket conexao = servidor.accept();
+             BufferedReader entrada = new BufferedReader(
+                     new InputStreamReader(conexao.getInputStream(), StandardCharsets.UTF_8))) {
+            while (entrada.readLine() != null) {
+                // descartado
+            }
+        } catch (IOException e) {
+            System.err.println("Receptor encerrado: " + e.getMessage());
+        }
+    }
+}
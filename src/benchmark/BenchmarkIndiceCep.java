@@ -0,0 +1,203 @@
+package benchmark;
+
+import hospital.CoordenadasCep;
+import hospital.Hospital;
+import hospital.IndiceCep;
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Mede o tempo por consulta do {@link IndiceCep} (hospitais mais próximos de
+ * um CEP) e confere o resultado contra uma ordenação completa.
+ *
+ * <p>Uso: {@code java benchmark.BenchmarkIndiceCep [hospitais] [consultas] [k]}</p>
+ *
+ * <p>Os hospitais recebem CEPs concentrados em algumas faixas, como numa rede
+ * real; as coordenadas são geradas para prefixos de 3 dígitos, em um arquivo
+ * temporário no formato de {@link CoordenadasCep}. São medidos os dois modos:
+ * só prefixos e com coordenadas. A conferência ordena todos os hospitais pela
+ * mesma regra de cada modo e compara as chaves dos k primeiros.</p>
+ */
+public final class BenchmarkIndiceCep {
+
+    private static final int HOSPITAIS_PADRAO = 2_000;
+    private static final int CONSULTAS_PADRAO = 1_000_000;
+    private static final int K_PADRAO = 5;
+
+    /** Consultas conferidas contra a ordenação completa */
+    private static final int CONFERIDAS = 2_000;
+
+    /** Evita que o JIT descarte as consultas */
+    private static volatile long sumidouro;
+
+    private BenchmarkIndiceCep() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : HOSPITAIS_PADRAO;
+        int consultas = args.length > 1 ? Integer.parseInt(args[1]) : CONSULTAS_PADRAO;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : K_PADRAO;
+
+        Random aleatorio = new Random(42);
+        List<Hospital> hospitais = gerarHospitais(quantidade, aleatorio);
+        String[] procurados = new String[consultas];
+        for (int i = 0; i < consultas; i++) {
+            procurados[i] = String.format("%08d", cepAgrupado(aleatorio));
+        }
+
+        Path arquivo = Files.createTempFile("coordenadas", ".csv");
+        try {
+            double[][] centroides = gerarCoordenadas(arquivo, aleatorio);
+            CoordenadasCep coordenadas = CoordenadasCep.carregar(arquivo);
+
+            System.out.println(hospitais.size() + " hospitais, " + consultas + " consultas, k = " + k);
+            System.out.println();
+            System.out.printf("%-20s %12s %14s%n", "Modo", "ns/consulta", "Consultas/s");
+
+            IndiceCep prefixos = IndiceCep.construir(hospitais, CoordenadasCep.VAZIAS);
+            IndiceCep distancias = IndiceCep.construir(hospitais, coordenadas);
+            medir("só prefixos", prefixos, procurados, k);
+            medir("com coordenadas", distancias, procurados, k);
+
+            int falhas = conferirPrefixos(prefixos, hospitais, procurados, k)
+                    + conferirDistancias(distancias, hospitais, centroides, procurados, k);
+            if (falhas > 0) {
+                System.out.println();
+                System.out.println("FALHA: " + falhas + " consultas diferentes da ordenação completa.");
+                System.exit(1);
+            }
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    private static void medir(String nome, IndiceCep indice, String[] procurados, int k) {
+        // Aquecimento
+        for (int i = 0; i < Math.min(200_000, procurados.length); i++) {
+            sumidouro += indice.buscarProximos(procurados[i], k).size();
+        }
+
+        long inicio = System.nanoTime();
+        long soma = 0;
+        for (String cep : procurados) {
+            soma += indice.buscarProximos(cep, k).get(0).getPrefixoComum();
+        }
+        long ns = System.nanoTime() - inicio;
+        sumidouro += soma;
+
+        System.out.printf("%-20s %12.0f %14.0f%n", nome, (double) ns / procurados.length,
+                procurados.length / (ns / 1e9));
+    }
+
+    /** Ordem do modo só prefixos: mais dígitos em comum, depois menor diferença numérica */
+    private static int conferirPrefixos(IndiceCep indice, List<Hospital> hospitais, String[] procurados, int k) {
+        int falhas = 0;
+        for (int c = 0; c < CONFERIDAS; c++) {
+            String procurado = procurados[c];
+            long alvo = Long.parseLong(procurado);
+            Hospital[] ordenados = hospitais.toArray(new Hospital[0]);
+            Arrays.sort(ordenados, Comparator.comparingInt((Hospital h) -> -comum(h.getCep(), procurado))
+                    .thenComparingLong(h -> Math.abs(Long.parseLong(h.getCep()) - alvo)));
+
+            List<IndiceCep.Proximo> resultado = indice.buscarProximos(procurado, k);
+            for (int i = 0; i < k; i++) {
+                Hospital esperado = ordenados[i];
+                Hospital obtido = resultado.get(i).getHospital();
+                boolean mesmaChave = comum(esperado.getCep(), procurado) == comum(obtido.getCep(), procurado)
+                        && Math.abs(Long.parseLong(esperado.getCep()) - alvo)
+                        == Math.abs(Long.parseLong(obtido.getCep()) - alvo);
+                if (!mesmaChave) {
+                    falhas++;
+                    break;
+                }
+            }
+        }
+        return falhas;
+    }
+
+    /** Ordem do modo com coordenadas: distância sobre a esfera */
+    private static int conferirDistancias(IndiceCep indice, List<Hospital> hospitais, double[][] centroides,
+                                          String[] procurados, int k) {
+        int falhas = 0;
+        for (int c = 0; c < CONFERIDAS; c++) {
+            String procurado = procurados[c];
+            double[] origem = centroides[Integer.parseInt(procurado.substring(0, 3))];
+            double[] distancias = new double[hospitais.size()];
+            for (int i = 0; i < distancias.length; i++) {
+                double[] destino = centroides[Integer.parseInt(hospitais.get(i).getCep().substring(0, 3))];
+                distancias[i] = haversine(origem, destino);
+            }
+            Arrays.sort(distancias);
+
+            List<IndiceCep.Proximo> resultado = indice.buscarProximos(procurado, k);
+            for (int i = 0; i < k; i++) {
+                if (Math.abs(resultado.get(i).getDistanciaKm() - distancias[i]) > 1e-6) {
+                    falhas++;
+                    break;
+                }
+            }
+        }
+        return falhas;
+    }
+
+    private static int comum(String cep, String procurado) {
+        int i = 0;
+        while (i < procurado.length() && cep.charAt(i) == procurado.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static double haversine(double[] a, double[] b) {
+        double lat1 = Math.toRadians(a[0]);
+        double lat2 = Math.toRadians(b[0]);
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(b[1] - a[1]);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0 * Math.asin(Math.sqrt(h));
+    }
+
+    private static List<Hospital> gerarHospitais(int quantidade, Random aleatorio) {
+        List<Hospital> hospitais = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            hospitais.add(new Hospital((long) i, "Hospital " + i, String.format("%08d", cepAgrupado(aleatorio)),
+                    "Cidade " + (i % 300)));
+        }
+        return hospitais;
+    }
+
+    /** CEP em uma de 40 faixas de 3 dígitos, como a concentração de uma rede real */
+    private static int cepAgrupado(Random aleatorio) {
+        int faixa = 100 + aleatorio.nextInt(40) * 21;
+        return faixa * 100_000 + aleatorio.nextInt(100_000);
+    }
+
+    /** Centroides aleatórios no território brasileiro para todos os prefixos de 3 dígitos */
+    private static double[][] gerarCoordenadas(Path arquivo, Random aleatorio) throws Exception {
+        double[][] centroides = new double[1000][];
+        try (BufferedWriter escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            escritor.write("# prefixo;latitude;longitude\n");
+            for (int prefixo = 0; prefixo < 1000; prefixo++) {
+                double latitude = -33 + aleatorio.nextDouble() * 38;
+                double longitude = -73 + aleatorio.nextDouble() * 39;
+                centroides[prefixo] = new double[] {latitude, longitude};
+                escritor.write(String.format(Locale.ROOT, "%03d;%.6f;%.6f%n", prefixo, latitude, longitude));
+            }
+        }
+        // As coordenadas conferidas são as mesmas gravadas no arquivo
+        for (double[] centroide : centroides) {
+            centroide[0] = Double.parseDouble(String.format(Locale.ROOT, "%.6f", centroide[0]));
+            centroide[1] = Double.parseDouble(String.format(Locale.ROOT, "%.6f", centroide[1]));
+        }
+        return centroides;
+    }
+}
@@ -0,0 +1,460 @@
+package benchmark;
+
+import database.DatabaseConnection;
+import doacao.Doacao;
+import doacao.MapeadorDoacao;
+import doador.Doador;
+import doador.MapeadorDoador;
+import hospital.Hospital;
+import hospital.MapeadorHospital;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import triagem.MapeadorTriagem;
+import triagem.Triagem;
+
+/**
+ * Mede o custo por linha dos mapeadores de ResultSet: leitura por nome de
+ * coluna (como os DAOs faziam) contra os mapeadores com índices resolvidos
+ * uma vez por consulta ({@link MapeadorDoador} e afins).
+ *
+ * <p>Uso: {@code java benchmark.BenchmarkMapeadores [linhas] [--banco]}</p>
+ *
+ * <p>Sem {@code --banco}, as linhas vêm de um ResultSet em memória que imita
+ * o driver do PostgreSQL: {@code findColumn} por tabela hash com nova busca em
+ * minúsculas, texto decodificado de bytes e datas criadas a cada leitura. O
+ * proxy acrescenta o mesmo custo fixo às duas variantes; a diferença entre
+ * elas é o custo da busca por nome. Com {@code --banco}, as mesmas linhas são
+ * geradas no servidor por {@code generate_series} e lidas pelo driver real.</p>
+ *
+ * <p>Além do tempo e dos bytes alocados por linha, mede os bytes retidos por
+ * objeto quando {@value #RETIDOS} linhas ficam em memória (como num cache),
+ * onde aparece o efeito dos textos internados.</p>
+ */
+public final class BenchmarkMapeadores {
+
+    private static final int LINHAS_PADRAO = 1_000_000;
+    private static final int AQUECIMENTO = 2;
+    private static final int RODADAS = 5;
+
+    /** Objetos mantidos em memória para medir os bytes retidos por linha */
+    private static final int RETIDOS = 200_000;
+
+    /** Linhas distintas do ResultSet em memória (repetidas ciclicamente) */
+    private static final int MODELOS = 4096;
+
+    /** Mantém o último objeto lido, para o JIT não descartar o mapeamento */
+    private static volatile Object sumidouro;
+
+    private interface Mapeamento {
+        Object mapear(ResultSet rs) throws SQLException;
+    }
+
+    private interface Preparacao {
+        Mapeamento preparar(ResultSet rs) throws SQLException;
+    }
+
+    private interface GeradorLinha {
+        Object[] gerar(long g);
+    }
+
+    private static final class Cenario {
+        final String nome;
+        final String[] colunas;
+        final GeradorLinha gerador;
+        final String sql;
+        final Preparacao porNome;
+        final Preparacao porIndice;
+
+        Cenario(String nome, String[] colunas, GeradorLinha gerador, String sql,
+                Preparacao porNome, Preparacao porIndice) {
+            this.nome = nome;
+            this.colunas = colunas;
+            this.gerador = gerador;
+            this.sql = sql;
+            this.porNome = porNome;
+            this.porIndice = porIndice;
+        }
+    }
+
+    private static final String[] TIPOS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+    private static final long DIA = 24L * 60 * 60 * 1000;
+    private static final long NASCIMENTO_BASE = Date.valueOf("1980-01-01").getTime();
+    private static final long DOACAO_BASE = Date.valueOf("2024-01-01").getTime();
+
+    /** Coluna de versão ({@code updated_at}) lida pelos mapeadores */
+    private static final String VERSAO_SQL = "TIMESTAMP '2024-01-01 08:00' + g * INTERVAL '1 second' AS updated_at";
+
+    private static Timestamp versao(long g) {
+        return new Timestamp(DOACAO_BASE + 8 * 3_600_000L + g * 1000);
+    }
+
+    /** Versão em microssegundos, como a leitura por nome faria com getTimestamp */
+    private static long micros(Timestamp valor) {
+        return valor == null ? Long.MIN_VALUE : valor.getTime() / 1000 * 1_000_000 + valor.getNanos() / 1000;
+    }
+
+    private static final Cenario[] CENARIOS = {
+        new Cenario("doador",
+            new String[] {"id", "nome", "cpf", "sexo", "tipo_sanguineo", "data_nascimento", "telefone",
+                          "bairro", "nacionalidade", "cidade", "ultima_doacao", "id_hospital", "updated_at"},
+            g -> new Object[] {g, "Doador " + g, 10_000_000_000L + g, g % 2 == 0 ? "M" : "F", TIPOS[(int) (g % 8)],
+                               new Date(NASCIMENTO_BASE + (g % 15_000) * DIA), 84_990_000_000L + g,
+                               "Bairro " + (g % 500), "Brasileira", "Cidade " + (g % 200),
+                               g % 3 == 0 ? null : new Date(DOACAO_BASE + (g % 600) * DIA), g % 20 + 1,
+                               versao(g)},
+            "SELECT g AS id, 'Doador ' || g AS nome, 10000000000 + g AS cpf, " +
+            "CASE WHEN g % 2 = 0 THEN 'M' ELSE 'F' END AS sexo, " +
+            "(ARRAY['A+','A-','B+','B-','AB+','AB-','O+','O-'])[g % 8 + 1] AS tipo_sanguineo, " +
+            "DATE '1980-01-01' + (g % 15000)::int AS data_nascimento, 84990000000 + g AS telefone, " +
+            "'Bairro ' || (g % 500) AS bairro, 'Brasileira' AS nacionalidade, 'Cidade ' || (g % 200) AS cidade, " +
+            "CASE WHEN g % 3 = 0 THEN NULL ELSE DATE '2024-01-01' + (g % 600)::int END AS ultima_doacao, " +
+            "g % 20 + 1 AS id_hospital, " + VERSAO_SQL + " FROM generate_series(1::bigint, ?) g",
+            rs -> r -> {
+                Doador doador = new Doador(
+                    r.getLong("id"), r.getString("nome"), r.getLong("cpf"), r.getString("sexo"),
+                    r.getString("tipo_sanguineo"), r.getDate("data_nascimento"), r.getLong("telefone"),
+                    r.getString("bairro"), r.getString("nacionalidade"), r.getString("cidade"),
+                    r.getDate("ultima_doacao"), r.getLong("id_hospital"));
+                doador.setVersao(micros(r.getTimestamp("updated_at")));
+                return doador;
+            },
+            rs -> {
+                MapeadorDoador mapeador = new MapeadorDoador(rs);
+                return mapeador::mapear;
+            }),
+
+        new Cenario("triagem",
+            new String[] {"id", "batimentos_por_minuto", "pressao_arterial", "temperatura", "peso", "status", "data",
+                          "updated_at"},
+            g -> new Object[] {g, (int) (60 + g % 40), (110 + g % 20) + "/" + (70 + g % 15), 36.0 + (g % 12) / 10.0,
+                               50.0 + g % 60, g % 5 != 0, new Date(DOACAO_BASE + (g % 600) * DIA), versao(g)},
+            "SELECT g AS id, (60 + g % 40)::int AS batimentos_por_minuto, " +
+            "(110 + g % 20) || '/' || (70 + g % 15) AS pressao_arterial, 36.0 + (g % 12) / 10.0 AS temperatura, " +
+            "50.0 + g % 60 AS peso, g % 5 <> 0 AS status, DATE '2024-01-01' + (g % 600)::int AS data, " +
+            VERSAO_SQL + " FROM generate_series(1::bigint, ?) g",
+            rs -> r -> {
+                Triagem triagem = new Triagem(
+                    r.getLong("id"), r.getInt("batimentos_por_minuto"), r.getString("pressao_arterial"),
+                    r.getDouble("temperatura"), r.getDouble("peso"), r.getBoolean("status"), r.getDate("data"));
+                triagem.setVersao(micros(r.getTimestamp("updated_at")));
+                return triagem;
+            },
+            rs -> {
+                MapeadorTriagem mapeador = new MapeadorTriagem(rs);
+                return mapeador::mapear;
+            }),
+
+        new Cenario("doacao",
+            new String[] {"id", "data", "hora", "volume", "triagem_id", "doador_id", "updated_at"},
+            g -> new Object[] {g, new Date(DOACAO_BASE + (g % 600) * DIA), new Time((g % 36_000) * 1000 + 8 * 3_600_000L),
+                               350.0 + g % 150, g, g / 3 + 1, versao(g)},
+            "SELECT g AS id, DATE '2024-01-01' + (g % 600)::int AS data, " +
+            "TIME '08:00' + (g % 36000) * INTERVAL '1 second' AS hora, 350.0 + g % 150 AS volume, " +
+            "g AS triagem_id, g / 3 + 1 AS doador_id, " + VERSAO_SQL + " FROM generate_series(1::bigint, ?) g",
+            rs -> r -> {
+                Doacao doacao = new Doacao(
+                    r.getLong("id"), r.getDate("data"), r.getTime("hora"), r.getDouble("volume"),
+                    r.getLong("triagem_id"), r.getLong("doador_id"));
+                doacao.setVersao(micros(r.getTimestamp("updated_at")));
+                return doacao;
+            },
+            rs -> {
+                MapeadorDoacao mapeador = new MapeadorDoacao(rs);
+                return mapeador::mapear;
+            }),
+
+        new Cenario("hospital",
+            new String[] {"id", "nome", "cep", "cidade"},
+            g -> new Object[] {g, "Hospital " + g, String.format("%05d-%03d", g % 100_000, g % 1000), "Cidade " + (g % 200)},
+            "SELECT g AS id, 'Hospital ' || g AS nome, lpad((g % 100000)::text, 5, '0') || '-' || " +
+            "lpad((g % 1000)::text, 3, '0') AS cep, 'Cidade ' || (g % 200) AS cidade " +
+            "FROM generate_series(1::bigint, ?) g",
+            rs -> r -> new Hospital(r.getLong("id"), r.getString("nome"), r.getString("cep"), r.getString("cidade")),
+            rs -> {
+                MapeadorHospital mapeador = new MapeadorHospital(rs);
+                return mapeador::mapear;
+            })
+    };
+
+    private BenchmarkMapeadores() {}
+
+    public static void main(String[] args) throws Exception {
+        long linhas = LINHAS_PADRAO;
+        boolean banco = false;
+        for (String arg : args) {
+            if (arg.equals("--banco")) {
+                banco = true;
+            } else {
+                linhas = Long.parseLong(arg);
+            }
+        }
+
+        System.out.println("=== BENCHMARK DE MAPEADORES (" + linhas + " linhas, "
+                + (banco ? "PostgreSQL" : "ResultSet em memória") + ") ===");
+        System.out.printf("%-10s %-10s %12s %14s %14s%n", "Entidade", "Leitura", "ns/linha", "alocados/linha", "retidos/linha");
+        System.out.println("-".repeat(64));
+
+        for (Cenario cenario : CENARIOS) {
+            double[][] medidas = medir(cenario, linhas, banco);
+            double[] nome = medidas[0];
+            double[] indice = medidas[1];
+            double retidosNome = medirRetidos(cenario, cenario.porNome, banco);
+            double retidosIndice = medirRetidos(cenario, cenario.porIndice, banco);
+            System.out.printf("%-10s %-10s %12.1f %14.1f %14.1f%n", cenario.nome, "por nome", nome[0], nome[1], retidosNome);
+            System.out.printf("%-10s %-10s %12.1f %14.1f %14.1f%n", "", "por índice", indice[0], indice[1], retidosIndice);
+            System.out.printf("%-10s %-10s %11.0f%% %13.0f%% %13.0f%%%n", "", "redução",
+                    100 * (1 - indice[0] / nome[0]), 100 * (1 - indice[1] / nome[1]),
+                    100 * (1 - retidosIndice / retidosNome));
+        }
+        System.out.println("-".repeat(64));
+    }
+
+    /**
+     * Alterna rodadas das duas variantes, para que ruído do JIT e do GC afete ambas.
+     * @return Para leitura por nome e por índice: {mediana de ns por linha, mediana de bytes alocados por linha}
+     */
+    private static double[][] medir(Cenario cenario, long linhas, boolean banco) throws Exception {
+        Preparacao[] variantes = {cenario.porNome, cenario.porIndice};
+        double[][] tempos = new double[2][RODADAS];
+        double[][] bytes = new double[2][RODADAS];
+        for (int rodada = -AQUECIMENTO; rodada < RODADAS; rodada++) {
+            for (int v = 0; v < variantes.length; v++) {
+                long bytesAntes = bytesAlocados();
+                long inicio = System.nanoTime();
+
+                long lidas = banco
+                        ? percorrerBanco(cenario, variantes[v], linhas)
+                        : percorrerMemoria(cenario, variantes[v], linhas);
+
+                long duracao = System.nanoTime() - inicio;
+                long alocados = bytesAlocados() - bytesAntes;
+                if (rodada >= 0) {
+                    tempos[v][rodada] = (double) duracao / lidas;
+                    bytes[v][rodada] = (double) alocados / lidas;
+                }
+            }
+        }
+        double[][] medianas = new double[2][];
+        for (int v = 0; v < variantes.length; v++) {
+            Arrays.sort(tempos[v]);
+            Arrays.sort(bytes[v]);
+            medianas[v] = new double[] {tempos[v][RODADAS / 2], bytes[v][RODADAS / 2]};
+        }
+        return medianas;
+    }
+
+    /**
+     * @return Bytes de heap retidos por objeto com {@value #RETIDOS} objetos mapeados em memória
+     */
+    private static double medirRetidos(Cenario cenario, Preparacao preparacao, boolean banco) throws Exception {
+        Object[] objetos = new Object[RETIDOS];
+        long antes = heapUsado();
+        if (banco) {
+            Connection conn = DatabaseConnection.getConnection();
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(cenario.sql)) {
+                stmt.setFetchSize(10_000);
+                stmt.setLong(1, RETIDOS);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    reter(rs, preparacao, objetos);
+                }
+            } finally {
+                conn.commit();
+                conn.setAutoCommit(autoCommit);
+            }
+        } else {
+            reter(ResultSetMemoria.criar(cenario.colunas, cenario.gerador, RETIDOS), preparacao, objetos);
+        }
+        long depois = heapUsado();
+        sumidouro = objetos;
+        return (double) (depois - antes) / RETIDOS;
+    }
+
+    private static void reter(ResultSet rs, Preparacao preparacao, Object[] objetos) throws SQLException {
+        Mapeamento mapeamento = preparacao.preparar(rs);
+        int i = 0;
+        while (i < objetos.length && rs.next()) {
+            objetos[i++] = mapeamento.mapear(rs);
+        }
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long percorrerMemoria(Cenario cenario, Preparacao preparacao, long linhas) throws SQLException {
+        ResultSet rs = ResultSetMemoria.criar(cenario.colunas, cenario.gerador, linhas);
+        return percorrer(rs, preparacao);
+    }
+
+    private static long percorrerBanco(Cenario cenario, Preparacao preparacao, long linhas) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        // Sem autocommit o driver lê por cursor, em lotes de fetchSize
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(cenario.sql)) {
+            stmt.setFetchSize(10_000);
+            stmt.setLong(1, linhas);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return percorrer(rs, preparacao);
+            }
+        } finally {
+            conn.commit();
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static long percorrer(ResultSet rs, Preparacao preparacao) throws SQLException {
+        Mapeamento mapeamento = preparacao.preparar(rs);
+        long lidas = 0;
+        while (rs.next()) {
+            sumidouro = mapeamento.mapear(rs);
+            lidas++;
+        }
+        return Math.max(lidas, 1);
+    }
+
+    private static long bytesAlocados() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * ResultSet somente-leitura em memória, com o comportamento relevante do
+     * driver do PostgreSQL: busca de coluna por nome em tabela hash (com nova
+     * tentativa em minúsculas), texto decodificado de bytes a cada leitura e
+     * {@code Date}/{@code Time} novos a cada leitura.
+     */
+    private static final class ResultSetMemoria implements InvocationHandler {
+
+        private final Object[][] modelos;
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final long total;
+        private long linha = -1;
+        private boolean ultimoNulo;
+
+        private ResultSetMemoria(String[] colunas, GeradorLinha gerador, long total) {
+            this.total = total;
+            for (int i = 0; i < colunas.length; i++) {
+                indices.put(colunas[i], i + 1);
+            }
+            modelos = new Object[MODELOS][];
+            for (int m = 0; m < MODELOS; m++) {
+                Object[] valores = gerador.gerar(m + 1);
+                for (int c = 0; c < valores.length; c++) {
+                    if (valores[c] instanceof String) {
+                        valores[c] = ((String) valores[c]).getBytes(StandardCharsets.UTF_8);
+                    }
+                }
+                modelos[m] = valores;
+            }
+        }
+
+        static ResultSet criar(String[] colunas, GeradorLinha gerador, long total) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] {ResultSet.class}, new ResultSetMemoria(colunas, gerador, total));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            switch (nome) {
+                case "next":
+                    return ++linha < total;
+                case "findColumn":
+                    return indice((String) args[0]);
+                case "wasNull":
+                    return ultimoNulo;
+                case "close":
+                    return null;
+                case "isClosed":
+                    return false;
+                default:
+                    break;
+            }
+            boolean getObject = nome.equals("getObject") && args != null && args.length == 2;
+            if (!nome.startsWith("get") || args == null || (args.length != 1 && !getObject)) {
+                throw new UnsupportedOperationException(nome);
+            }
+
+            int coluna = args[0] instanceof String ? indice((String) args[0]) : (Integer) args[0];
+            Object valor = modelos[(int) (linha % MODELOS)][coluna - 1];
+            ultimoNulo = valor == null;
+
+            if (getObject) {
+                return valor == null ? null : objeto(valor, (Class<?>) args[1]);
+            }
+            switch (nome) {
+                case "getString":
+                    return valor == null ? null : new String((byte[]) valor, StandardCharsets.UTF_8);
+                case "getDate":
+                    return valor == null ? null : new Date(((Date) valor).getTime());
+                case "getTime":
+                    return valor == null ? null : new Time(((Time) valor).getTime());
+                case "getTimestamp":
+                    return valor == null ? null : new Timestamp(((Timestamp) valor).getTime());
+                case "getLong":
+                    return valor == null ? 0L : ((Number) valor).longValue();
+                case "getInt":
+                    return valor == null ? 0 : ((Number) valor).intValue();
+                case "getDouble":
+                    return valor == null ? 0.0 : ((Number) valor).doubleValue();
+                case "getBoolean":
+                    return valor != null && (Boolean) valor;
+                default:
+                    throw new UnsupportedOperationException(nome);
+            }
+        }
+
+        /** getObject(coluna, classe) para as classes do java.time, como o driver */
+        private static Object objeto(Object valor, Class<?> classe) {
+            if (classe == LocalDate.class) {
+                return ((Date) valor).toLocalDate();
+            }
+            if (classe == LocalTime.class) {
+                return ((Time) valor).toLocalTime();
+            }
+            if (classe == LocalDateTime.class) {
+                return ((Timestamp) valor).toLocalDateTime();
+            }
+            throw new UnsupportedOperationException("getObject " + classe.getName());
+        }
+
+        /** Como o PgResultSet: nome exato e, se não achar, em minúsculas */
+        private int indice(String coluna) throws SQLException {
+            Integer indice = indices.get(coluna);
+            if (indice == null) {
+                indice = indices.get(coluna.toLowerCase(Locale.US));
+            }
+            if (indice == null) {
+                throw new SQLException("Coluna não encontrada: " + coluna);
+            }
+            return indice;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package benchmark;
+
+import doacao.Doacao;
+import doador.Doador;
+import java.sql.Date;
+import java.sql.Time;
+import java.util.function.LongFunction;
+
+/**
+ * Mede quantos bytes de heap cada doador e cada doação ocupam quando ficam em
+ * cache: o layout anterior (campos {@code Long}, {@code Date}, {@code Time} e
+ * {@code String}) contra o layout compacto de {@link Doador} e
+ * {@link Doacao} (primitivos com sentinela, epoch day, segundos do dia e
+ * códigos de 1 byte).
+ *
+ * <p>Uso: {@code java benchmark.BenchmarkMemoria [objetos]}</p>
+ *
+ * <p>Sem dependência de ferramentas como o JOL: os objetos são criados como o
+ * mapeador criaria a partir das linhas do banco (textos e datas novos por
+ * linha, textos de baixa cardinalidade compartilhados), mantidos em um array
+ * e medidos pela diferença do heap usado depois de coletas completas. O
+ * resultado inclui tudo o que cada objeto retém. A linha "só o layout" usa
+ * também nome, bairro e cidade compartilhados e mostra apenas o efeito dos
+ * campos. Rodar com {@code -XX:-UseCompressedOops} mostra o caso de heaps
+ * acima de 32 GB.</p>
+ */
+public final class BenchmarkMemoria {
+
+    private static final int OBJETOS_PADRAO = 200_000;
+
+    private static final String[] TIPOS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+    private static final long DIA = 24L * 60 * 60 * 1000;
+    private static final long NASCIMENTO_BASE = Date.valueOf("1980-01-01").getTime();
+    private static final long DOACAO_BASE = Date.valueOf("2024-01-01").getTime();
+
+    /** Mantém os objetos medidos alcançáveis até a leitura do heap */
+    private static volatile Object sumidouro;
+
+    /** Layout do Doador antes da compactação, com os mesmos campos */
+    @SuppressWarnings("unused")
+    private static final class DoadorAnterior {
+        Long id;
+        String nome;
+        Long cpf;
+        String sexo;
+        String tipoSanguineo;
+        Date dataNascimento;
+        Long telefone;
+        String bairro;
+        String nacionalidade;
+        String cidade;
+        Date ultimaDoacao;
+        Long idHospital;
+    }
+
+    /** Layout da Doacao antes da compactação, com os mesmos campos */
+    @SuppressWarnings("unused")
+    private static final class DoacaoAnterior {
+        Long id;
+        Date data;
+        Time hora;
+        double volume;
+        Long triagemId;
+        Long doadorId;
+        Object triagem;
+        Object doador;
+    }
+
+    private BenchmarkMemoria() {
+    }
+
+    public static void main(String[] args) {
+        int objetos = args.length > 0 ? Integer.parseInt(args[0]) : OBJETOS_PADRAO;
+
+        System.out.println("Bytes por objeto em cache (" + objetos + " objetos)");
+        System.out.println();
+        System.out.printf("%-28s %12s %12s %10s%n", "Objeto", "Anterior", "Compacto", "Redução");
+
+        imprimir("Doador", objetos, g -> doadorAnterior(g, false), g -> doadorCompacto(g, false));
+        imprimir("Doador (só o layout)", objetos, g -> doadorAnterior(g, true), g -> doadorCompacto(g, true));
+        imprimir("Doação", objetos, BenchmarkMemoria::doacaoAnterior, BenchmarkMemoria::doacaoCompacta);
+    }
+
+    private static void imprimir(String nome, int objetos, LongFunction<Object> anterior,
+                                 LongFunction<Object> compacto) {
+        // Primeira medição de cada um só aquece as classes e o JIT
+        medir(anterior, Math.min(objetos, 10_000));
+        medir(compacto, Math.min(objetos, 10_000));
+        double bytesAnterior = medir(anterior, objetos);
+        double bytesCompacto = medir(compacto, objetos);
+        System.out.printf("%-28s %12.1f %12.1f %9.1f%%%n", nome, bytesAnterior, bytesCompacto,
+                100.0 * (bytesAnterior - bytesCompacto) / bytesAnterior);
+    }
+
+    /**
+     * @return Bytes de heap retidos por objeto, sem contar o array que os guarda
+     */
+    private static double medir(LongFunction<Object> criar, int objetos) {
+        Object[] retidos = new Object[objetos];
+        long antes = heapUsado();
+        for (int i = 0; i < objetos; i++) {
+            retidos[i] = criar.apply(i + 1);
+        }
+        long depois = heapUsado();
+        sumidouro = retidos;
+        sumidouro = null;
+        return (double) (depois - antes) / objetos;
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Como o driver entrega: um objeto novo por coluna lida */
+    private static String texto(String valor, boolean compartilhado) {
+        return compartilhado ? valor : new String(valor);
+    }
+
+    private static DoadorAnterior doadorAnterior(long g, boolean compartilhado) {
+        DoadorAnterior d = new DoadorAnterior();
+        d.id = g;
+        d.nome = texto(compartilhado ? "Doador" : "Doador " + g, compartilhado);
+        d.cpf = 10_000_000_000L + g;
+        d.sexo = g % 2 == 0 ? "M" : "F";
+        d.tipoSanguineo = TIPOS[(int) (g % 8)];
+        d.dataNascimento = new Date(NASCIMENTO_BASE + (g % 15_000) * DIA);
+        d.telefone = 84_990_000_000L + g;
+        d.bairro = texto(compartilhado ? "Bairro" : "Bairro " + (g % 500), compartilhado);
+        d.nacionalidade = "Brasileira";
+        d.cidade = texto(compartilhado ? "Cidade" : "Cidade " + (g % 200), compartilhado);
+        d.ultimaDoacao = g % 3 == 0 ? null : new Date(DOACAO_BASE + (g % 600) * DIA);
+        d.idHospital = g % 20 + 1;
+        return d;
+    }
+
+    private static Doador doadorCompacto(long g, boolean compartilhado) {
+        return new Doador(
+            g,
+            texto(compartilhado ? "Doador" : "Doador " + g, compartilhado),
+            10_000_000_000L + g,
+            g % 2 == 0 ? "M" : "F",
+            TIPOS[(int) (g % 8)],
+            new Date(NASCIMENTO_BASE + (g % 15_000) * DIA),
+            84_990_000_000L + g,
+            texto(compartilhado ? "Bairro" : "Bairro " + (g % 500), compartilhado),
+            "Brasileira",
+            texto(compartilhado ? "Cidade" : "Cidade " + (g % 200), compartilhado),
+            g % 3 == 0 ? null : new Date(DOACAO_BASE + (g % 600) * DIA),
+            g % 20 + 1);
+    }
+
+    private static DoacaoAnterior doacaoAnterior(long g) {
+        DoacaoAnterior d = new DoacaoAnterior();
+        d.id = g;
+        d.data = new Date(DOACAO_BASE + (g % 600) * DIA);
+        d.hora = new Time((g % 86_400) * 1000);
+        d.volume = 350 + g % 150;
+        d.triagemId = g;
+        d.doadorId = g % 50_000 + 1;
+        return d;
+    }
+
+    private static Doacao doacaoCompacta(long g) {
+        return new Doacao(g, new Date(DOACAO_BASE + (g % 600) * DIA), new Time((g % 86_400) * 1000),
+                350 + g % 150, g, g % 50_000 + 1);
+    }
+}
@@ -0,0 +1,164 @@
+package benchmark;
+
+import estoque.EstoqueSangue;
+import estoque.ModeloPrevisao;
+import java.util.Random;
+
+/**
+ * Mede o ajuste e a atualização do {@link ModeloPrevisao} com todas as séries
+ * hospital × tipo de uma rede grande, e compara a previsão com a média móvel.
+ *
+ * <p>Uso: {@code java benchmark.BenchmarkPrevisao [hospitais] [dias]}</p>
+ *
+ * <p>Cada série diária é Poisson, com ritmo sorteado por hospital, participação
+ * aproximada de cada tipo na população brasileira, uma tendência lenta e
+ * menos coletas no fim de semana. São medidos o ajuste do histórico inteiro
+ * (a leitura da {@code PrevisaoDoacoes}), a virada de um dia (cópia do modelo
+ * e um dia observado) e a projeção de uma semana de todas as séries. O erro
+ * é o da soma prevista para os 7 dias seguintes, nas últimas 8 semanas,
+ * contra a média das últimas 4 semanas e contra o ritmo real sorteado (o
+ * menor erro possível com o ruído de Poisson).</p>
+ */
+public final class BenchmarkPrevisao {
+
+    private static final int HOSPITAIS_PADRAO = 1000;
+    private static final int DIAS_PADRAO = 364;
+    private static final int HORIZONTE = 7;
+    private static final int SEMANAS_AVALIADAS = 8;
+    private static final int RODADAS = 20;
+
+    /** Participação aproximada de cada tipo, na ordem de {@link EstoqueSangue#TIPOS} */
+    private static final double[] FREQUENCIAS = {0.34, 0.08, 0.08, 0.02, 0.025, 0.005, 0.36, 0.09};
+
+    /** Coletas de cada dia da semana em relação à média, de segunda a domingo */
+    private static final double[] SEMANA = {1.25, 1.2, 1.15, 1.1, 1.05, 0.7, 0.55};
+
+    private BenchmarkPrevisao() {
+    }
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : HOSPITAIS_PADRAO;
+        int dias = args.length > 1 ? Integer.parseInt(args[1]) : DIAS_PADRAO;
+        int series = quantidade * FREQUENCIAS.length;
+        Random aleatorio = new Random(42);
+
+        double[] base = new double[series];
+        double[] tendencia = new double[series];
+        for (int h = 0; h < quantidade; h++) {
+            // Bolsas por dia; um terço dos hospitais não coleta
+            double ritmo = aleatorio.nextInt(3) == 0 ? 0 : Math.exp(aleatorio.nextGaussian()) * 2;
+            double variacao = (aleatorio.nextDouble() - 0.5) / dias;
+            for (int t = 0; t < FREQUENCIAS.length; t++) {
+                base[h * FREQUENCIAS.length + t] = ritmo * FREQUENCIAS[t];
+                tendencia[h * FREQUENCIAS.length + t] = ritmo * FREQUENCIAS[t] * variacao;
+            }
+        }
+        int total = dias + HORIZONTE;
+        int[][] contagens = new int[total][series];
+        double[][] ritmos = new double[total][series];
+        for (int d = 0; d < total; d++) {
+            for (int s = 0; s < series; s++) {
+                ritmos[d][s] = Math.max(0, (base[s] + tendencia[s] * d) * SEMANA[d % SEMANA.length]);
+                contagens[d][s] = poisson(ritmos[d][s], aleatorio);
+            }
+        }
+        System.out.printf("%d hospitais, %d séries, %d dias de histórico%n%n", quantidade, series, dias);
+
+        // Aquecimento
+        for (int r = 0; r < 3; r++) {
+            ajustar(contagens, series, dias);
+        }
+
+        long inicio = System.nanoTime();
+        ModeloPrevisao modelo = null;
+        for (int r = 0; r < RODADAS; r++) {
+            modelo = ajustar(contagens, series, dias);
+        }
+        long ajuste = (System.nanoTime() - inicio) / RODADAS;
+
+        inicio = System.nanoTime();
+        for (int r = 0; r < RODADAS; r++) {
+            ModeloPrevisao seguinte = modelo.copia();
+            seguinte.observar(contagens[dias - 1]);
+        }
+        long virada = (System.nanoTime() - inicio) / RODADAS;
+
+        inicio = System.nanoTime();
+        double soma = 0;
+        for (int r = 0; r < RODADAS; r++) {
+            for (int s = 0; s < series; s++) {
+                for (int h = 1; h <= HORIZONTE; h++) {
+                    soma += modelo.prever(s, h);
+                }
+            }
+        }
+        long projecao = (System.nanoTime() - inicio) / RODADAS;
+
+        System.out.printf("Ajuste do histórico: %.1f ms%n", ajuste / 1e6);
+        System.out.printf("Virada do dia: %.2f ms%n", virada / 1e6);
+        System.out.printf("Projeção de %d dias (todas as séries): %.2f ms (%.0f bolsas)%n%n", HORIZONTE,
+                projecao / 1e6, soma / RODADAS);
+
+        avaliar(contagens, ritmos, series, dias);
+    }
+
+    private static ModeloPrevisao ajustar(int[][] contagens, int series, int dias) {
+        ModeloPrevisao modelo = new ModeloPrevisao(series, 0);
+        for (int d = 0; d < dias; d++) {
+            modelo.observar(contagens[d]);
+        }
+        return modelo;
+    }
+
+    /** Erro absoluto médio da soma dos próximos dias, por série e dia avaliado */
+    private static void avaliar(int[][] contagens, double[][] ritmos, int series, int dias) {
+        int inicioAvaliacao = dias - SEMANAS_AVALIADAS * SEMANA.length;
+        ModeloPrevisao modelo = ajustar(contagens, series, inicioAvaliacao);
+        double erroModelo = 0;
+        double erroMedia = 0;
+        double erroMinimo = 0;
+        long pontos = 0;
+        for (int d = inicioAvaliacao; d < dias; d++) {
+            for (int s = 0; s < series; s++) {
+                double previsto = 0;
+                double real = 0;
+                double esperado = 0;
+                for (int h = 1; h <= HORIZONTE; h++) {
+                    previsto += modelo.prever(s, h);
+                    real += contagens[d + h - 1][s];
+                    esperado += ritmos[d + h - 1][s];
+                }
+                double media = 0;
+                for (int k = d - 4 * SEMANA.length; k < d; k++) {
+                    media += contagens[k][s];
+                }
+                media = media / (4 * SEMANA.length) * HORIZONTE;
+
+                erroModelo += Math.abs(previsto - real);
+                erroMedia += Math.abs(media - real);
+                erroMinimo += Math.abs(esperado - real);
+                pontos++;
+            }
+            modelo.observar(contagens[d]);
+        }
+
+        System.out.printf("Erro médio da soma de %d dias (bolsas por série):%n", HORIZONTE);
+        System.out.printf("  modelo:                   %.3f%n", erroModelo / pontos);
+        System.out.printf("  média de 4 semanas:       %.3f%n", erroMedia / pontos);
+        System.out.printf("  ritmo real (referência):  %.3f%n", erroMinimo / pontos);
+    }
+
+    private static int poisson(double media, Random aleatorio) {
+        if (media > 30) {
+            return Math.max(0, (int) Math.round(media + Math.sqrt(media) * aleatorio.nextGaussian()));
+        }
+        double limite = Math.exp(-media);
+        double produto = aleatorio.nextDouble();
+        int k = 0;
+        while (produto > limite) {
+            produto *= aleatorio.nextDouble();
+            k++;
+        }
+        return k;
+    }
+}
@@ -0,0 +1,234 @@
+package benchmark;
+
+import database.DatabaseConnection;
+import database.ExecucaoAssincrona;
+import doacao.Doacao;
+import doacao.DoacaoController;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import util.Calendario;
+
+/**
+ * Teste de estresse do registro simultâneo de doações pelo caminho real:
+ * muitas estações chamando {@link DoacaoController#registrarDoacao(Doacao)}
+ * para um conjunto pequeno de doadores, todas no mesmo dia, contra um banco
+ * de teste.
+ *
+ * <p>Uso: {@code java -Dhemoconnect.db.url=jdbc:postgresql://.../teste
+ * benchmark.StressRegistroDoacao [threads] [doadores] [tentativas por thread]}</p>
+ *
+ * <p>O teste grava no banco e por isso só roda com
+ * {@code hemoconnect.db.url} informado (usuário e senha em
+ * {@code hemoconnect.db.user} e {@code hemoconnect.db.password}). Cria os
+ * doadores de teste (sem doações anteriores) e uma triagem aprovada de hoje;
+ * cada thread registra doações de doadores sorteados. Os registros rodam em
+ * {@link ExecucaoAssincrona}, com uma conexão por tarefa (até
+ * {@value ExecucaoAssincrona#MAX_CONEXOES} ao mesmo tempo), como estações
+ * separadas: passam pelas travas por doador da JVM, pelo bloqueio consultivo
+ * de cada sessão e pela gravação condicional da unidade de trabalho.</p>
+ *
+ * <p>Ao final, as violações são contadas no banco: pares de doações do mesmo
+ * doador com menos de 60 dias entre elas. Os dados de teste são removidos.
+ * Termina com código 1 se houver violações ou se as doações gravadas não
+ * conferirem com as registradas.</p>
+ */
+public final class StressRegistroDoacao {
+
+    private static final int THREADS_PADRAO = 64;
+    private static final int DOADORES_PADRAO = 1_000;
+    private static final int TENTATIVAS_PADRAO = 20;
+
+    /** Intervalo mínimo entre doações, em dias (mesma regra de DoadorController) */
+    private static final int INTERVALO_MINIMO = 60;
+
+    /** Início da faixa de CPFs dos doadores de teste */
+    private static final long CPF_BASE = 99_900_000_000L;
+
+    private static final String INSERT_DOADORES =
+        "INSERT INTO doador (nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, " +
+        "cidade, id_hospital) " +
+        "SELECT 'Estresse ' || g, ? + g, 'F', 'O+', DATE '1990-01-01', 84999999999, 'Centro', 'Brasileira', " +
+        "'Mossoró', (SELECT MIN(id) FROM hospital) FROM generate_series(1, ?) g RETURNING id";
+
+    private static final String INSERT_TRIAGEM =
+        "INSERT INTO triagem (batimentos_por_minuto, pressao_arterial, temperatura, peso, status, data) " +
+        "VALUES (72, '12/8', 36.5, 70, TRUE, ?) RETURNING id";
+
+    private static final String COUNT_DOACOES =
+        "SELECT COUNT(*) FROM doacao WHERE doador_id = ANY (?)";
+
+    private static final String COUNT_VIOLACOES =
+        "SELECT COUNT(*) FROM doacao a JOIN doacao b ON b.doador_id = a.doador_id AND b.id > a.id " +
+        "AND abs(b.data - a.data) < " + INTERVALO_MINIMO + " WHERE a.doador_id = ANY (?)";
+
+    private static final String DELETE_DOACOES = "DELETE FROM doacao WHERE doador_id = ANY (?)";
+    private static final String DELETE_DOADORES = "DELETE FROM doador WHERE id = ANY (?)";
+    private static final String DELETE_TRIAGEM = "DELETE FROM triagem WHERE id = ?";
+
+    private StressRegistroDoacao() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("hemoconnect.db.url") == null) {
+            System.err.println("Informe o banco de teste em -Dhemoconnect.db.url (o teste grava doadores e doações).");
+            System.exit(2);
+        }
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : THREADS_PADRAO;
+        int doadores = args.length > 1 ? Integer.parseInt(args[1]) : DOADORES_PADRAO;
+        int tentativas = args.length > 2 ? Integer.parseInt(args[2]) : TENTATIVAS_PADRAO;
+
+        Connection conn = DatabaseConnection.getConnection();
+        Date hoje = Calendario.paraDate(Calendario.hoje());
+        long[] ids = criarDoadores(conn, doadores);
+        long triagem = criarTriagem(conn, hoje);
+
+        System.out.println("Registro simultâneo de doações: " + threads + " threads, " + doadores
+                + " doadores, " + tentativas + " tentativas por thread");
+        System.out.println();
+
+        ExecutorService estacoes = Executors.newFixedThreadPool(threads);
+        ExecucaoAssincrona.usarExecutor(estacoes);
+        long falhas;
+        try {
+            falhas = executar(conn, ids, triagem, hoje, threads, tentativas);
+        } finally {
+            estacoes.shutdown();
+            remover(conn, ids, triagem);
+            DatabaseConnection.closeConnection();
+        }
+
+        if (falhas > 0) {
+            System.out.println();
+            System.out.println("FALHA: " + falhas + " divergência(s) no banco.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return Violações da regra de intervalo, mais 1 se as doações no banco
+     *         não conferirem com as registradas
+     */
+    private static long executar(Connection conn, long[] ids, long triagem, Date hoje, int threads,
+                                 int tentativas) throws SQLException {
+        AtomicLong gravadas = new AtomicLong();
+        AtomicLong recusadas = new AtomicLong();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<CompletableFuture<Void>> registros = new ArrayList<>();
+
+        // As recusas esperadas são exibidas pela view a cada tentativa
+        PrintStream saida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long inicio;
+        try {
+            for (int t = 0; t < threads * tentativas; t++) {
+                registros.add(ExecucaoAssincrona.executar(() -> {
+                    try {
+                        largada.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                    long doador = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+                    Doacao doacao = new Doacao(hoje, Time.valueOf(LocalTime.now().withNano(0)), 450, triagem, doador);
+                    (DoacaoController.registrarDoacao(doacao) != null ? gravadas : recusadas).incrementAndGet();
+                    return null;
+                }));
+            }
+            inicio = System.nanoTime();
+            largada.countDown();
+            CompletableFuture.allOf(registros.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            System.setOut(saida);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        long noBanco = contar(conn, COUNT_DOACOES, ids);
+        long violacoes = contar(conn, COUNT_VIOLACOES, ids);
+        System.out.printf("%10s %10s %10s %10s %12s%n", "Gravadas", "Recusadas", "No banco", "Violações",
+                "Tentativas/s");
+        System.out.printf("%10d %10d %10d %10d %12.0f%n", gravadas.get(), recusadas.get(), noBanco, violacoes,
+                registros.size() / segundos);
+        return violacoes + (noBanco != gravadas.get() ? 1 : 0);
+    }
+
+    private static long[] criarDoadores(Connection conn, int quantidade) throws SQLException {
+        long[] ids = new long[quantidade];
+        int n = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_DOADORES)) {
+            stmt.setLong(1, CPF_BASE);
+            stmt.setInt(2, quantidade);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids[n++] = rs.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static long criarTriagem(Connection conn, Date hoje) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_TRIAGEM)) {
+            stmt.setDate(1, hoje);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static long contar(Connection conn, String sql, long[] ids) throws SQLException {
+        Array array = conn.createArrayOf("bigint", paraObjetos(ids));
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, array);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } finally {
+            array.free();
+        }
+    }
+
+    /** Remove as doações, os doadores e a triagem do teste */
+    private static void remover(Connection conn, long[] ids, long triagem) throws SQLException {
+        Array array = conn.createArrayOf("bigint", paraObjetos(ids));
+        try {
+            for (String sql : new String[] {DELETE_DOACOES, DELETE_DOADORES}) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setArray(1, array);
+                    stmt.executeUpdate();
+                }
+            }
+        } finally {
+            array.free();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(DELETE_TRIAGEM)) {
+            stmt.setLong(1, triagem);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static Long[] paraObjetos(long[] ids) {
+        Long[] valores = new Long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            valores[i] = ids[i];
+        }
+        return valores;
+    }
+}
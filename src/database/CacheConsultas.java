@@ -0,0 +1,167 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache de {@link PreparedStatement} por texto SQL e conexão.
+ *
+ * <p>Consultas geradas dinamicamente (como as de {@code CriteriosDoador}) têm o
+ * mesmo SQL sempre que a estrutura do filtro se repete, mudando apenas os
+ * parâmetros. Reaproveitar o mesmo statement evita nova análise do SQL no
+ * driver e permite ao PostgreSQL usar o plano já preparado no servidor.</p>
+ *
+ * <p>Cada conexão (a compartilhada e as emprestadas às tarefas de
+ * {@link ExecucaoAssincrona}) tem seu cache, com até {@value #CAPACIDADE}
+ * statements (os menos usados são fechados); o cache de uma conexão fechada é
+ * descartado quando outra conexão é usada pela primeira vez. Os statements retornados
+ * não devem ser fechados por quem os usa; como podem ser compartilhados entre
+ * threads, o preenchimento dos parâmetros, a execução e a leitura do
+ * resultado devem ocorrer dentro de {@code synchronized (stmt)}.</p>
+ *
+ * <p>Cada {@link #preparar(String)} empresta o statement até o
+ * {@link #devolver(PreparedStatement)} correspondente, feito em
+ * {@code finally}:</p>
+ * <pre>
+ * PreparedStatement stmt = CacheConsultas.preparar(sql);
+ * try {
+ *     synchronized (stmt) { ... }
+ * } finally {
+ *     CacheConsultas.devolver(stmt);
+ * }
+ * </pre>
+ * <p>Um statement removido do cache (pelos menos usados ou por
+ * {@link #limpar()}) enquanto está emprestado só é fechado na última
+ * devolução, para não fechar a consulta de outra thread no meio.</p>
+ */
+public final class CacheConsultas {
+
+    /** Quantidade máxima de statements mantidos abertos */
+    private static final int CAPACIDADE = 64;
+
+    private static final Map<Connection, Map<String, PreparedStatement>> porConexao = new HashMap<>();
+
+    /** Empréstimos em aberto de cada statement */
+    private static final Map<PreparedStatement, Integer> emUso = new IdentityHashMap<>();
+
+    /** Removidos do cache enquanto emprestados: fechados na última devolução */
+    private static final Set<PreparedStatement> aFechar = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private static Map<String, PreparedStatement> novoCache() {
+        return new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> maisAntigo) {
+                if (size() > CAPACIDADE) {
+                    descartar(maisAntigo.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Construtor privado: classe utilitária
+    private CacheConsultas() {}
+
+    /**
+     * Empresta o statement preparado para o SQL, criando-o na primeira vez.
+     *
+     * @param sql Consulta parametrizada
+     * @return Statement da conexão atual (não deve ser fechado; devolver com {@link #devolver(PreparedStatement)})
+     * @throws SQLException se houver erro ao preparar a consulta
+     */
+    public static synchronized PreparedStatement preparar(String sql) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        Map<String, PreparedStatement> statements = porConexao.get(conn);
+        if (statements == null) {
+            descartarFechadas();
+            statements = novoCache();
+            porConexao.put(conn, statements);
+        }
+
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = conn.prepareStatement(sql);
+            statements.put(sql, stmt);
+        }
+        emUso.merge(stmt, 1, Integer::sum);
+        return stmt;
+    }
+
+    /**
+     * Devolve um statement emprestado por {@link #preparar(String)}; se já
+     * saiu do cache e não há outro empréstimo, é fechado.
+     *
+     * @param stmt Statement emprestado
+     */
+    public static synchronized void devolver(PreparedStatement stmt) {
+        Integer emprestimos = emUso.get(stmt);
+        if (emprestimos == null) {
+            return;
+        }
+        if (emprestimos > 1) {
+            emUso.put(stmt, emprestimos - 1);
+        } else {
+            emUso.remove(stmt);
+            if (aFechar.remove(stmt)) {
+                fechar(stmt);
+            }
+        }
+    }
+
+    /**
+     * Fecha e descarta todos os statements do cache (os emprestados, na devolução).
+     */
+    public static synchronized void limpar() {
+        for (Map<String, PreparedStatement> statements : porConexao.values()) {
+            for (PreparedStatement stmt : statements.values()) {
+                descartar(stmt);
+            }
+        }
+        porConexao.clear();
+    }
+
+    /** @return Quantidade de statements em cache, somando todas as conexões */
+    public static synchronized int tamanho() {
+        int total = 0;
+        for (Map<String, PreparedStatement> statements : porConexao.values()) {
+            total += statements.size();
+        }
+        return total;
+    }
+
+    /** Descarta os caches de conexões já fechadas (ex.: após reconexão) */
+    private static void descartarFechadas() throws SQLException {
+        Iterator<Connection> conexoes = porConexao.keySet().iterator();
+        while (conexoes.hasNext()) {
+            if (conexoes.next().isClosed()) {
+                conexoes.remove();
+            }
+        }
+    }
+
+    /** Fecha o statement removido do cache, ou adia para a última devolução */
+    private static void descartar(PreparedStatement stmt) {
+        if (emUso.containsKey(stmt)) {
+            aFechar.add(stmt);
+        } else {
+            fechar(stmt);
+        }
+    }
+
+    private static void fechar(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            System.err.println("Erro ao fechar statement em cache: " + e.getMessage());
+        }
+    }
+}
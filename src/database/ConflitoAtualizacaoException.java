@@ -0,0 +1,38 @@
+package database;
+
+import java.sql.SQLException;
+
+/**
+ * Atualização recusada porque o registro foi alterado por outra estação
+ * depois de ter sido lido (a versão em {@code updated_at} não confere).
+ *
+ * <p>Nada foi gravado: quem recebe deve consultar o registro de novo e
+ * refazer a alteração sobre os dados atuais.</p>
+ */
+public class ConflitoAtualizacaoException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String tabela;
+    private final long id;
+
+    /**
+     * @param tabela Tabela do registro
+     * @param id ID do registro
+     */
+    public ConflitoAtualizacaoException(String tabela, long id) {
+        super("Registro " + id + " de " + tabela + " foi alterado por outro usuário desde a consulta.");
+        this.tabela = tabela;
+        this.id = id;
+    }
+
+    /** @return Tabela do registro */
+    public String getTabela() {
+        return tabela;
+    }
+
+    /** @return ID do registro */
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,114 @@
+package database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Controle de concorrência otimista pela coluna {@code updated_at}.
+ *
+ * <p>A versão de um registro é o valor de {@code updated_at} lido junto com
+ * ele, guardado no modelo como microssegundos ({@code long}, sem objeto). A
+ * atualização só grava se a versão no banco ainda for a lida
+ * ({@link #CONDICAO}) e troca a versão na mesma instrução
+ * ({@link #NOVA_VERSAO}), sem {@code SELECT ... FOR UPDATE} e sem manter
+ * bloqueio enquanto o usuário edita:</p>
+ *
+ * <pre>
+ * UPDATE triagem SET ..., updated_at = {@link #NOVA_VERSAO}
+ *  WHERE id = ? AND {@link #CONDICAO} RETURNING updated_at
+ * </pre>
+ *
+ * <p>{@link #executar(PreparedStatement, String, long)} diferencia as três
+ * saídas: gravou (devolve a nova versão), o registro não existe mais
+ * ({@link #SEM_VERSAO}) ou outra estação gravou antes
+ * ({@link ConflitoAtualizacaoException}).</p>
+ */
+public final class ControleVersao {
+
+    /** Versão de registro sem {@code updated_at} (ou que não foi lida) */
+    public static final long SEM_VERSAO = Long.MIN_VALUE;
+
+    /** Nome da coluna de versão */
+    public static final String COLUNA = "updated_at";
+
+    /**
+     * Próxima versão: o horário atual, sempre maior que a versão anterior
+     * (duas gravações no mesmo microssegundo ou com o relógio do servidor
+     * voltando ainda geram versões diferentes).
+     */
+    public static final String NOVA_VERSAO =
+        "GREATEST(clock_timestamp()::timestamp, updated_at + INTERVAL '1 microsecond')";
+
+    /** Condição da versão lida; o parâmetro é preenchido por {@link #definir} */
+    public static final String CONDICAO = "updated_at IS NOT DISTINCT FROM ?";
+
+    private static final long MICROS_SEGUNDO = 1_000_000L;
+
+    private ControleVersao() {
+    }
+
+    /**
+     * @param rs ResultSet posicionado em uma linha
+     * @param indice Índice da coluna {@code updated_at}
+     * @return Versão da linha ou {@link #SEM_VERSAO} se for NULL
+     * @throws SQLException se houver erro ao ler
+     */
+    public static long ler(ResultSet rs, int indice) throws SQLException {
+        LocalDateTime valor = rs.getObject(indice, LocalDateTime.class);
+        if (valor == null) {
+            return SEM_VERSAO;
+        }
+        return valor.toEpochSecond(ZoneOffset.UTC) * MICROS_SEGUNDO + valor.getNano() / 1000;
+    }
+
+    /**
+     * Preenche o parâmetro de {@link #CONDICAO}.
+     * @param stmt Comando
+     * @param indice Índice do parâmetro
+     * @param versao Versão lida ({@link #SEM_VERSAO} confere com NULL)
+     * @throws SQLException se houver erro ao preencher
+     */
+    public static void definir(PreparedStatement stmt, int indice, long versao) throws SQLException {
+        if (versao == SEM_VERSAO) {
+            stmt.setNull(indice, Types.TIMESTAMP);
+        } else {
+            stmt.setObject(indice, LocalDateTime.ofEpochSecond(Math.floorDiv(versao, MICROS_SEGUNDO),
+                    (int) Math.floorMod(versao, MICROS_SEGUNDO) * 1000, ZoneOffset.UTC));
+        }
+    }
+
+    /**
+     * Executa um UPDATE com {@link #CONDICAO} e {@code RETURNING updated_at},
+     * já preenchido.
+     *
+     * @param stmt UPDATE preenchido
+     * @param tabela Tabela atualizada
+     * @param id ID do registro
+     * @return Nova versão ou {@link #SEM_VERSAO} se o registro não existir
+     * @throws ConflitoAtualizacaoException se o registro existir com outra versão
+     * @throws SQLException se houver erro na atualização
+     */
+    public static long executar(PreparedStatement stmt, String tabela, long id) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return ler(rs, 1);
+            }
+        }
+
+        // Nenhuma linha gravada: removido ou alterado por outra estação
+        try (PreparedStatement consulta = stmt.getConnection().prepareStatement(
+                "SELECT 1 FROM " + tabela + " WHERE id = ?")) {
+            consulta.setLong(1, id);
+            try (ResultSet rs = consulta.executeQuery()) {
+                if (rs.next()) {
+                    throw new ConflitoAtualizacaoException(tabela, id);
+                }
+            }
+        }
+        return SEM_VERSAO;
+    }
+}
@@ -11,51 +11,127 @@ import java.util.Properties;
  */
 public class DatabaseConnection {
     
-    // Configurações do banco de dados
-    private static final String DB_URL = "jdbc:postgresql://localhost:5432/HemoConnect";
-    private static final String DB_USER = "postgres";
-    private static final String DB_PASSWORD = "1234"; 
+    // Configurações do banco de dados (as propriedades hemoconnect.db.* apontam para outro banco, ex.: de teste)
+    private static final String DB_URL =
+        System.getProperty("hemoconnect.db.url", "jdbc:postgresql://localhost:5432/HemoConnect");
+    private static final String DB_USER = System.getProperty("hemoconnect.db.user", "postgres");
+    private static final String DB_PASSWORD = System.getProperty("hemoconnect.db.password", "1234"); 
     
     private static Connection connection;
+    private static boolean manutencaoExecutada = false;
     
     // Construtor privado para implementar Singleton
     private DatabaseConnection() {}
     
+    /**
+     * Conexão emprestada à thread por {@link ExecucaoAssincrona} enquanto ela
+     * executa uma tarefa (null nas demais threads)
+     */
+    private static final ThreadLocal<Connection> CONEXAO_DA_THREAD = new ThreadLocal<>();
+    
     /**
      * Obtém a conexão com o banco de dados
+     * 
+     * Nas tarefas de {@link ExecucaoAssincrona}, devolve a conexão emprestada
+     * à tarefa, para que consultas em paralelo não disputem a conexão
+     * compartilhada nem entrem na transação de outra thread
      * @return Connection ativa com PostgreSQL
      * @throws SQLException se houver erro na conexão
      */
     public static Connection getConnection() throws SQLException {
+        Connection emprestada = CONEXAO_DA_THREAD.get();
+        if (emprestada != null) {
+            return emprestada;
+        }
+        
         if (connection == null || connection.isClosed()) {
-            try {
-                // Carregar o driver PostgreSQL
-                Class.forName("org.postgresql.Driver");
-                
-                // Propriedades da conexão
-                Properties props = new Properties();
-                props.setProperty("user", DB_USER);
-                props.setProperty("password", DB_PASSWORD);
-                
-                // Criar conexão
-                connection = DriverManager.getConnection(DB_URL, props);
-                
-                System.out.println("Conexão com PostgreSQL estabelecida com sucesso!");
-                
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("Driver PostgreSQL não encontrado: " + e.getMessage());
-            } catch (SQLException e) {
-                throw new SQLException("Erro ao conectar com PostgreSQL: " + e.getMessage());
+            connection = novaConexao();
+            
+            System.out.println("Conexão com PostgreSQL estabelecida com sucesso!");
+            
+            if (!manutencaoExecutada) {
+                manutencaoExecutada = true;
+                executarManutencao(connection);
             }
         }
         
         return connection;
     }
     
+    /**
+     * Abre uma nova conexão com as configurações do sistema, separada da
+     * compartilhada (ex.: para uma thread de fundo com transações próprias)
+     * @return Conexão nova (quem abre é responsável por fechar)
+     * @throws SQLException se houver erro na conexão
+     */
+    public static Connection novaConexao() throws SQLException {
+        try {
+            // Carregar o driver PostgreSQL
+            Class.forName("org.postgresql.Driver");
+            
+            // Propriedades da conexão
+            Properties props = new Properties();
+            props.setProperty("user", DB_USER);
+            props.setProperty("password", DB_PASSWORD);
+            // Reescreve lotes de INSERT em comandos multi-valores (importação em lote)
+            props.setProperty("reWriteBatchedInserts", "true");
+            // Identifica a instância nas mensagens de invalidação de cache
+            props.setProperty("ApplicationName", InvalidacaoCache.getInstancia());
+            
+            return DriverManager.getConnection(DB_URL, props);
+            
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Driver PostgreSQL não encontrado: " + e.getMessage());
+        } catch (SQLException e) {
+            throw new SQLException("Erro ao conectar com PostgreSQL: " + e.getMessage());
+        }
+    }
+    
+    /** @return Conexão emprestada à thread atual ou null */
+    static Connection conexaoDaThread() {
+        return CONEXAO_DA_THREAD.get();
+    }
+    
+    /**
+     * Define a conexão devolvida por {@link #getConnection()} na thread atual
+     * @param conn Conexão emprestada ou null para voltar à compartilhada
+     */
+    static void usarNaThread(Connection conn) {
+        if (conn == null) {
+            CONEXAO_DA_THREAD.remove();
+        } else {
+            CONEXAO_DA_THREAD.set(conn);
+        }
+    }
+    
+    /**
+     * Executa a manutenção do banco na primeira conexão do processo:
+     * aplica as migrações pendentes do schema e cria antecipadamente
+     * as partições dos próximos meses.
+     * Falhas são apenas registradas, para não impedir o uso do sistema.
+     * @param conn Conexão recém-aberta
+     */
+    private static void executarManutencao(Connection conn) {
+        try {
+            GerenciadorSchema.migrar(conn);
+        } catch (SQLException e) {
+            System.err.println("Aviso: migração do schema não concluída: " + e.getMessage());
+            return;
+        }
+        
+        try {
+            GerenciadorParticoes.manter(conn);
+        } catch (SQLException e) {
+            System.err.println("Aviso: manutenção de partições não concluída: " + e.getMessage());
+        }
+    }
+    
     /**
      * Fecha a conexão com o banco de dados
      */
     public static void closeConnection() {
+        InvalidacaoCache.parar();
+        ExecucaoAssincrona.fecharConexoes();
         if (connection != null) {
             try {
                 connection.close();
@@ -0,0 +1,162 @@
+package database;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Execução de operações de controller fora da thread da tela, para que uma
+ * tela que precisa de várias consultas independentes espere só pela mais
+ * lenta e não pela soma de todas.
+ *
+ * <p>Cada tarefa recebe uma conexão própria enquanto executa
+ * ({@link DatabaseConnection#getConnection()} devolve essa conexão na thread
+ * da tarefa): consultas em paralelo não se enfileiram na conexão
+ * compartilhada e não entram na transação de uma {@link UnidadeDeTrabalho}
+ * aberta em outra thread. As conexões são reaproveitadas entre tarefas e
+ * limitadas a {@value #MAX_CONEXOES}; tarefas além disso esperam uma conexão
+ * livre.</p>
+ *
+ * <p>O executor padrão usa threads virtuais quando a JVM oferece
+ * ({@code Executors.newVirtualThreadPerTaskExecutor}, Java 21 ou superior) e,
+ * nas versões anteriores, threads daemon criadas sob demanda. Pode ser
+ * trocado por {@link #usarExecutor(Executor)}.</p>
+ *
+ * <pre>
+ * CompletableFuture&lt;Doador&gt; doador = DoadorControllerAsync.buscarDoadorPorCpf(cpf);
+ * CompletableFuture&lt;List&lt;Triagem&gt;&gt; triagens = TriagemControllerAsync.listarTriagemDate(hoje);
+ * CompletableFuture.allOf(doador, triagens).join();
+ * </pre>
+ */
+public final class ExecucaoAssincrona {
+
+    /** Conexões abertas no máximo para as tarefas */
+    public static final int MAX_CONEXOES = 8;
+
+    private static volatile Executor executor = executorPadrao();
+
+    /** Conexões abertas e sem tarefa */
+    private static final BlockingQueue<Connection> livres = new LinkedBlockingQueue<>();
+
+    /** Uma licença por conexão que pode estar em uso */
+    private static final Semaphore vagas = new Semaphore(MAX_CONEXOES, true);
+
+    // Construtor privado: classe utilitária
+    private ExecucaoAssincrona() {}
+
+    /**
+     * Substitui o executor das tarefas.
+     * @param novo Executor a usar (ex.: um pool fixo)
+     */
+    public static void usarExecutor(Executor novo) {
+        if (novo == null) {
+            throw new IllegalArgumentException("Executor não pode ser nulo.");
+        }
+        executor = novo;
+    }
+
+    /** @return Executor em uso */
+    public static Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Executa a tarefa no executor, com uma conexão própria.
+     *
+     * <p>As operações de controller tratam os próprios erros de banco (devolvem
+     * null, false ou lista vazia); o futuro só termina com exceção se não for
+     * possível obter uma conexão ou se a tarefa lançar exceção não verificada.</p>
+     *
+     * @param tarefa Operação a executar
+     * @return Futuro com o resultado da operação
+     */
+    public static <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+        return CompletableFuture.supplyAsync(() -> comConexao(tarefa), executor);
+    }
+
+    private static <T> T comConexao(Supplier<T> tarefa) {
+        Connection conn;
+        try {
+            conn = emprestar();
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+
+        Connection anterior = DatabaseConnection.conexaoDaThread();
+        DatabaseConnection.usarNaThread(conn);
+        try {
+            return tarefa.get();
+        } finally {
+            DatabaseConnection.usarNaThread(anterior);
+            devolver(conn);
+        }
+    }
+
+    private static Connection emprestar() throws SQLException {
+        try {
+            vagas.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Espera por conexão interrompida.");
+        }
+        try {
+            Connection conn = livres.poll();
+            while (conn != null && conn.isClosed()) {
+                conn = livres.poll();
+            }
+            return conn != null ? conn : DatabaseConnection.novaConexao();
+        } catch (SQLException | RuntimeException e) {
+            vagas.release();
+            throw e;
+        }
+    }
+
+    private static void devolver(Connection conn) {
+        try {
+            if (!conn.isClosed()) {
+                livres.offer(conn);
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao devolver conexão: " + e.getMessage());
+        } finally {
+            vagas.release();
+        }
+    }
+
+    /**
+     * Fecha as conexões sem tarefa (as que estão em uso voltam para a fila e
+     * são fechadas na próxima chamada).
+     */
+    public static void fecharConexoes() {
+        Connection conn;
+        while ((conn = livres.poll()) != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Erro ao fechar conexão: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Threads virtuais quando disponíveis; senão, threads daemon sob demanda */
+    private static Executor executorPadrao() {
+        try {
+            Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) fabrica.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(tarefa -> {
+                Thread thread = new Thread(tarefa, "hemoconnect-assincrona");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
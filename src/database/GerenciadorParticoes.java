@@ -0,0 +1,456 @@
+package database;
+
+import exportacao.ExportacaoController;
+import exportacao.FormatoExportacao;
+import exportacao.SerializadorDoacao;
+import exportacao.SerializadorExportacao;
+import exportacao.SerializadorParticao;
+import exportacao.SerializadorTriagem;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import util.Calendario;
+
+/**
+ * Gerenciador do particionamento por período das tabelas de histórico.
+ *
+ * <p>As tabelas {@code doacao} e {@code triagem} crescem indefinidamente e são
+ * quase sempre consultadas por período. Ambas são particionadas por intervalo
+ * mensal da coluna {@code data} ({@code <tabela>_pAAAA_MM}), com uma partição
+ * padrão ({@code <tabela>_padrao}) para datas fora dos meses criados. Consultas
+ * que filtram {@code data} por intervalo leem apenas as partições do período.</p>
+ *
+ * <p>Responsabilidades:</p>
+ * <ul>
+ *   <li>Converter tabelas ainda não particionadas, preservando dados e sequências</li>
+ *   <li>Criar antecipadamente as partições dos próximos meses</li>
+ *   <li>Arquivar meses encerrados em arquivos CSV comprimidos e removê-los do banco</li>
+ * </ul>
+ *
+ * <p>A chave primária das tabelas particionadas passa a ser {@code (id, data)},
+ * pois o PostgreSQL exige a coluna de particionamento em toda restrição única.
+ * Por isso a chave estrangeira {@code doacao.triagem_id → triagem.id} não pode
+ * ser mantida no banco; a integridade é garantida pela aplicação
+ * ({@code DoacaoController} valida a triagem e {@code TriagemDAO.remover}
+ * remove as doações dependentes). Acessos só pelo ID (busca, alteração e
+ * remoção de uma doação ou triagem, conferência de versão) não podem
+ * descartar partições: fazem uma busca no índice da chave em cada partição,
+ * custo que cresce com os meses mantidos no banco (ver {@link #arquivar}).</p>
+ *
+ * <p>O mês atual vem de {@link Calendario}, o mesmo relógio do resto do
+ * sistema.</p>
+ */
+public class GerenciadorParticoes {
+
+    /** Tabelas particionadas, na ordem de conversão (referenciadas primeiro) */
+    private static final String[] TABELAS = {"triagem", "doacao"};
+
+    /** Tabelas na ordem de arquivamento (dependentes primeiro) */
+    private static final String[] TABELAS_ARQUIVAMENTO = {"doacao", "triagem"};
+
+    /** Quantidade de meses futuros com partição criada antecipadamente */
+    private static final int MESES_ANTECEDENCIA = 3;
+
+    /** Limite de meses passados com partição própria criada na conversão */
+    private static final int MESES_HISTORICO_CONVERSAO = 120;
+
+    private static final String SELECT_TIPO_TABELA =
+        "SELECT c.relkind FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE c.relname = ? AND n.nspname = current_schema()";
+
+    private static final String SELECT_PARTICOES =
+        "SELECT c.relname FROM pg_inherits i " +
+        "JOIN pg_class c ON c.oid = i.inhrelid " +
+        "JOIN pg_class p ON p.oid = i.inhparent " +
+        "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+        "WHERE p.relname = ? AND n.nspname = current_schema() ORDER BY c.relname";
+
+    private static final String SELECT_CHAVES_ESTRANGEIRAS =
+        "SELECT conname, pg_get_constraintdef(oid), confrelid::regclass::text FROM pg_constraint " +
+        "WHERE conrelid = ?::regclass AND contype = 'f'";
+
+    private static final String SELECT_REFERENCIAS =
+        "SELECT conrelid::regclass::text, conname FROM pg_constraint " +
+        "WHERE confrelid = ?::regclass AND contype = 'f'";
+
+    // Construtor privado: classe utilitária
+    private GerenciadorParticoes() {}
+
+    /**
+     * Executa a manutenção das partições: converte tabelas ainda não
+     * particionadas e garante as partições do mês atual e dos próximos meses.
+     *
+     * <p>Chamado pela {@link DatabaseConnection} ao abrir a conexão. Tabelas
+     * inexistentes são ignoradas.</p>
+     *
+     * @param conn Conexão a ser utilizada
+     * @throws SQLException se houver erro na manutenção
+     */
+    public static void manter(Connection conn) throws SQLException {
+        YearMonth atual = mesAtual();
+
+        for (String tabela : TABELAS) {
+            String tipo = tipoTabela(conn, tabela);
+            if (tipo == null) {
+                continue;
+            }
+
+            if (!"p".equals(tipo)) {
+                converter(conn, tabela);
+            }
+
+            for (int i = 0; i <= MESES_ANTECEDENCIA; i++) {
+                criarParticao(conn, tabela, atual.plusMonths(i));
+            }
+        }
+    }
+
+    /**
+     * Converte uma tabela comum em tabela particionada por mês, em uma única
+     * transação: a tabela original é renomeada, a nova é criada com as mesmas
+     * colunas e valores padrão, os dados são copiados e a original é removida.
+     */
+    private static void converter(Connection conn, String tabela) throws SQLException {
+        String legado = tabela + "_legado";
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+
+        try (Statement stmt = conn.createStatement()) {
+            System.out.println("Convertendo tabela " + tabela + " para particionamento mensal...");
+
+            stmt.execute("LOCK TABLE " + tabela + " IN ACCESS EXCLUSIVE MODE");
+
+            // Chaves estrangeiras que apontam para a tabela deixam de ser possíveis
+            for (String[] referencia : listarReferencias(conn, tabela)) {
+                stmt.execute("ALTER TABLE " + referencia[0] + " DROP CONSTRAINT " + referencia[1]);
+            }
+
+            List<String[]> chavesEstrangeiras = listarChavesEstrangeiras(conn, tabela);
+            String sequencia = buscarSequencia(conn, tabela);
+
+            stmt.execute("ALTER TABLE " + tabela + " RENAME TO " + legado);
+            stmt.execute("CREATE TABLE " + tabela + " (LIKE " + legado +
+                    " INCLUDING DEFAULTS INCLUDING IDENTITY INCLUDING CONSTRAINTS) PARTITION BY RANGE (data)");
+            stmt.execute("ALTER TABLE " + tabela + " ADD PRIMARY KEY (id, data)");
+
+            // Chaves estrangeiras para tabelas não particionadas continuam válidas
+            for (String[] chave : chavesEstrangeiras) {
+                if (!ehParticionada(conn, chave[2])) {
+                    stmt.execute("ALTER TABLE " + tabela + " ADD CONSTRAINT " + chave[0] + " " + chave[1]);
+                }
+            }
+
+            // Partições dos meses já existentes; datas muito antigas ficam na partição padrão
+            YearMonth[] intervalo = intervaloDados(conn, legado);
+            if (intervalo != null) {
+                YearMonth primeiro = intervalo[0];
+                YearMonth limiteHistorico = mesAtual().minusMonths(MESES_HISTORICO_CONVERSAO);
+                if (primeiro.isBefore(limiteHistorico)) {
+                    primeiro = limiteHistorico;
+                }
+                for (YearMonth mes = primeiro; !mes.isAfter(intervalo[1]); mes = mes.plusMonths(1)) {
+                    criarParticao(conn, tabela, mes);
+                }
+            }
+            stmt.execute("CREATE TABLE " + tabela + "_padrao PARTITION OF " + tabela + " DEFAULT");
+
+            int copiadas = stmt.executeUpdate("INSERT INTO " + tabela + " OVERRIDING SYSTEM VALUE SELECT * FROM " + legado);
+
+            String sequenciaNova = buscarSequencia(conn, tabela);
+            if (sequenciaNova == null && sequencia != null) {
+                // Coluna serial: a sequência pertence à coluna antiga e seria removida junto com ela
+                stmt.execute("ALTER SEQUENCE " + sequencia + " OWNED BY " + tabela + ".id");
+            } else if (sequenciaNova != null) {
+                // Coluna identity: a nova sequência continua a partir do maior id migrado
+                stmt.execute("SELECT setval('" + sequenciaNova + "', COALESCE((SELECT MAX(id) FROM " + tabela + "), 0) + 1, false)");
+            }
+
+            stmt.execute("DROP TABLE " + legado);
+            conn.commit();
+
+            System.out.println("Tabela " + tabela + " particionada (" + copiadas + " registros migrados).");
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Erro ao particionar tabela " + tabela + ": " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+    }
+
+    /**
+     * Cria a partição de um mês, caso ainda não exista.
+     *
+     * <p>Se a partição padrão já contiver registros do mês (datas inseridas
+     * antes da partição existir), eles são transferidos para a nova partição.</p>
+     */
+    private static void criarParticao(Connection conn, String tabela, YearMonth mes) throws SQLException {
+        String particao = nomeParticao(tabela, mes);
+        if (tipoTabela(conn, particao) != null) {
+            return;
+        }
+
+        String padrao = tabela + "_padrao";
+        String limites = " FOR VALUES FROM ('" + mes.atDay(1) + "') TO ('" + mes.plusMonths(1).atDay(1) + "')";
+        String filtro = " WHERE data >= '" + mes.atDay(1) + "' AND data < '" + mes.plusMonths(1).atDay(1) + "'";
+
+        try (Statement stmt = conn.createStatement()) {
+            boolean padraoComDados = false;
+            if (tipoTabela(conn, padrao) != null) {
+                try (ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM " + padrao + filtro + ")")) {
+                    padraoComDados = rs.next() && rs.getBoolean(1);
+                }
+            }
+
+            if (!padraoComDados) {
+                stmt.execute("CREATE TABLE " + particao + " PARTITION OF " + tabela + limites);
+                return;
+            }
+
+            boolean autoCommitOriginal = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                stmt.execute("ALTER TABLE " + tabela + " DETACH PARTITION " + padrao);
+                stmt.execute("CREATE TABLE " + particao + " PARTITION OF " + tabela + limites);
+                stmt.execute("INSERT INTO " + tabela + " SELECT * FROM " + padrao + filtro);
+                stmt.execute("DELETE FROM " + padrao + filtro);
+                stmt.execute("ALTER TABLE " + tabela + " ATTACH PARTITION " + padrao + " DEFAULT");
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommitOriginal);
+            }
+        }
+    }
+
+    /**
+     * Arquiva os meses encerrados há mais de {@code mesesRetencao} meses.
+     *
+     * <p>Cada partição é exportada para {@code <diretorio>/<partição>.csv.gz};
+     * somente depois que a quantidade de registros do arquivo confere com a
+     * da partição ela é desanexada e removida. Doações são arquivadas antes das
+     * triagens do mesmo mês.</p>
+     *
+     * @param mesesRetencao Quantidade de meses completos mantidos no banco (mínimo 1)
+     * @param diretorio Diretório dos arquivos de arquivamento
+     * @return Quantidade de partições arquivadas ou -1 em caso de erro
+     */
+    public static int arquivar(int mesesRetencao, Path diretorio) {
+        if (mesesRetencao < 1) {
+            System.err.println("A retenção deve ser de pelo menos 1 mês");
+            return -1;
+        }
+
+        YearMonth limite = mesAtual().minusMonths(mesesRetencao);
+        int arquivadas = 0;
+
+        try {
+            Files.createDirectories(diretorio);
+            Connection conn = DatabaseConnection.getConnection();
+
+            for (String tabela : TABELAS_ARQUIVAMENTO) {
+                for (String particao : listarParticoes(conn, tabela)) {
+                    YearMonth mes = mesDaParticao(tabela, particao);
+                    if (mes == null || !mes.isBefore(limite)) {
+                        continue;
+                    }
+
+                    if (!arquivarParticao(conn, tabela, particao, diretorio)) {
+                        return -1;
+                    }
+                    arquivadas++;
+                }
+            }
+
+            return arquivadas;
+
+        } catch (IOException e) {
+            System.err.println("Erro ao criar diretório de arquivamento: " + e.getMessage());
+            return -1;
+        } catch (SQLException e) {
+            System.err.println("Erro ao arquivar partições: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static boolean arquivarParticao(Connection conn, String tabela, String particao, Path diretorio)
+            throws SQLException {
+        SerializadorExportacao base = "doacao".equals(tabela) ? new SerializadorDoacao() : new SerializadorTriagem();
+        SerializadorExportacao serializador = new SerializadorParticao(base, tabela, particao);
+        Path destino = diretorio.resolve(particao + FormatoExportacao.CSV.getExtensao() + ".gz");
+
+        long esperados;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + particao)) {
+            rs.next();
+            esperados = rs.getLong(1);
+        }
+
+        long exportados = ExportacaoController.exportar(serializador, FormatoExportacao.CSV, destino, true);
+        if (exportados != esperados) {
+            System.err.println("Arquivamento de " + particao + " interrompido: " + exportados +
+                    " de " + esperados + " registros exportados");
+            return false;
+        }
+
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + tabela + " DETACH PARTITION " + particao);
+            stmt.execute("DROP TABLE " + particao);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+
+        System.out.println("Partição " + particao + " arquivada em " + destino + " (" + exportados + " registros)");
+        return true;
+    }
+
+    /**
+     * Lista as partições mensais de uma tabela.
+     * @param tabela Nome da tabela particionada
+     * @return Nomes das partições mensais em ordem cronológica
+     * @throws SQLException se houver erro na consulta
+     */
+    public static List<String> listarParticoes(Connection conn, String tabela) throws SQLException {
+        List<String> particoes = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_PARTICOES)) {
+            stmt.setString(1, tabela);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String nome = rs.getString(1);
+                    if (mesDaParticao(tabela, nome) != null) {
+                        particoes.add(nome);
+                    }
+                }
+            }
+        }
+
+        return particoes;
+    }
+
+    /** @return Mês do dia atual em {@link Calendario} */
+    private static YearMonth mesAtual() {
+        return YearMonth.from(LocalDate.ofEpochDay(Calendario.hoje()));
+    }
+
+    private static String nomeParticao(String tabela, YearMonth mes) {
+        return String.format("%s_p%04d_%02d", tabela, mes.getYear(), mes.getMonthValue());
+    }
+
+    /**
+     * @return Mês de uma partição mensal ou null se o nome não seguir o padrão
+     */
+    private static YearMonth mesDaParticao(String tabela, String particao) {
+        String prefixo = tabela + "_p";
+        if (!particao.startsWith(prefixo) || particao.length() != prefixo.length() + 7) {
+            return null;
+        }
+        try {
+            int ano = Integer.parseInt(particao.substring(prefixo.length(), prefixo.length() + 4));
+            int mes = Integer.parseInt(particao.substring(prefixo.length() + 5));
+            return YearMonth.of(ano, mes);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Tipo da relação no catálogo ("r" tabela comum, "p" particionada) ou null se não existir
+     */
+    private static String tipoTabela(Connection conn, String tabela) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_TIPO_TABELA)) {
+            stmt.setString(1, tabela);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static boolean ehParticionada(Connection conn, String tabela) throws SQLException {
+        for (String particionada : TABELAS) {
+            if (particionada.equals(tabela)) {
+                return true;
+            }
+        }
+        return "p".equals(tipoTabela(conn, tabela));
+    }
+
+    /**
+     * @return Chaves estrangeiras da tabela como [nome, definição, tabela referenciada]
+     */
+    private static List<String[]> listarChavesEstrangeiras(Connection conn, String tabela) throws SQLException {
+        List<String[]> chaves = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_CHAVES_ESTRANGEIRAS)) {
+            stmt.setString(1, tabela);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    chaves.add(new String[]{rs.getString(1), rs.getString(2), rs.getString(3)});
+                }
+            }
+        }
+        return chaves;
+    }
+
+    /**
+     * @return Chaves estrangeiras de outras tabelas que apontam para esta, como [tabela, nome]
+     */
+    private static List<String[]> listarReferencias(Connection conn, String tabela) throws SQLException {
+        List<String[]> referencias = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_REFERENCIAS)) {
+            stmt.setString(1, tabela);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    referencias.add(new String[]{rs.getString(1), rs.getString(2)});
+                }
+            }
+        }
+        return referencias;
+    }
+
+    private static String buscarSequencia(Connection conn, String tabela) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_get_serial_sequence(?, 'id')")) {
+            stmt.setString(1, tabela);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * @return Primeiro e último mês com registros na tabela, ou null se estiver vazia
+     */
+    private static YearMonth[] intervaloDados(Connection conn, String tabela) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(data), MAX(data) FROM " + tabela)) {
+            if (!rs.next()) {
+                return null;
+            }
+            Date minimo = rs.getDate(1);
+            Date maximo = rs.getDate(2);
+            if (minimo == null) {
+                return null;
+            }
+            LocalDate inicio = minimo.toLocalDate();
+            LocalDate fim = maximo.toLocalDate();
+            return new YearMonth[]{YearMonth.from(inicio), YearMonth.from(fim)};
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import util.NormalizadorTexto;
+
+/**
+ * Gerenciador de versões do schema do banco de dados.
+ *
+ * <p>As migrações são declaradas em ordem nesta classe e aplicadas na
+ * inicialização, a partir da {@link DatabaseConnection}. Cada versão aplicada
+ * é registrada na tabela {@code schema_versao}, de modo que somente as
+ * migrações pendentes são executadas. Um bloqueio consultivo do PostgreSQL
+ * impede que duas instâncias migrem o mesmo banco ao mesmo tempo.</p>
+ *
+ * <p>Versões:</p>
+ * <ol>
+ *   <li>Tabelas do sistema e administrador inicial ({@code admin}/{@code admin123})</li>
+ *   <li>Particionamento mensal de {@code doacao} e {@code triagem}</li>
+ *   <li>Índices usados pelas consultas dos DAOs</li>
+ *   <li>Colunas de busca normalizadas de cidade, bairro e nome de hospital</li>
+ *   <li>Índice de blocagem para detecção de doadores duplicados</li>
+ *   <li>Versão ({@code updated_at}) em {@code doador}, para a atualização otimista</li>
+ *   <li>Caixa de saída de eventos ({@code evento_saida})</li>
+ *   <li>Notificações de invalidação de cache em {@code doador}, {@code hospital} e {@code triagem}</li>
+ *   <li>Notificações por comando em {@code doador} e {@code hospital}, com uma só mensagem para gravações em massa</li>
+ *   <li>Motivo da falha dos eventos da caixa de saída que não puderam ser lidos</li>
+ * </ol>
+ *
+ * <p>As instruções da versão 1 usam {@code IF NOT EXISTS}, permitindo adotar
+ * bancos criados antes do controle de versões sem alterar seus dados.</p>
+ */
+public class GerenciadorSchema {
+
+    /** Chave do bloqueio consultivo das migrações */
+    private static final long CHAVE_BLOQUEIO = 0x48656d6f5363L; // "HemoSc"
+
+    private static final String CREATE_SCHEMA_VERSAO =
+        "CREATE TABLE IF NOT EXISTS schema_versao (" +
+        "versao INTEGER PRIMARY KEY, " +
+        "descricao VARCHAR(200) NOT NULL, " +
+        "aplicada_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+
+    private static final String SELECT_VERSAO_ATUAL =
+        "SELECT COALESCE(MAX(versao), 0) FROM schema_versao";
+
+    private static final String INSERT_VERSAO =
+        "INSERT INTO schema_versao (versao, descricao) VALUES (?, ?)";
+
+    /**
+     * Consultas frequentes dos DAOs, com valores de exemplo, que devem ser
+     * resolvidas por índice: {descrição, consulta}.
+     */
+    private static final String[][] CONSULTAS_CRITICAS = {
+        {"DoadorDAO.buscarPorCpf", "SELECT * FROM doador WHERE cpf = 12345678901"},
+        {"DoadorDAO.cpfExiste", "SELECT COUNT(*) FROM doador WHERE cpf = 12345678901 AND id != 0"},
+        {"DoadorDAO.buscarPorHospital", "SELECT * FROM doador WHERE id_hospital = 1 ORDER BY nome, id"},
+        {"DoadorDAO.buscarPorTipoSanguineo", "SELECT * FROM doador WHERE tipo_sanguineo = 'O+' ORDER BY nome, id"},
+        {"DoacaoDAO.buscarPorDoador", "SELECT * FROM doacao WHERE doador_id = 1 ORDER BY data DESC"},
+        {"DoacaoDAO.buscarPorData", "SELECT * FROM doacao WHERE data = CURRENT_DATE ORDER BY hora DESC"},
+        {"DoacaoDAO.buscarPorMes", "SELECT * FROM doacao WHERE data >= date_trunc('month', CURRENT_DATE)::date " +
+                "AND data < (date_trunc('month', CURRENT_DATE) + INTERVAL '1 month')::date ORDER BY data DESC, hora DESC"},
+        {"TriagemDAO.remover (doações da triagem)", "SELECT EXISTS (SELECT 1 FROM doacao WHERE triagem_id = 1)"},
+        {"DoadorDAO.DEPENDENCIAS", "SELECT EXISTS (SELECT 1 FROM doacao WHERE doador_id = 1)"},
+        {"HospitalDAO.DEPENDENCIAS (doadores)", "SELECT (SELECT COUNT(*) FROM (SELECT 1 FROM doador WHERE id_hospital = 1 LIMIT 1001) v0)"},
+        {"TriagemDAO.buscarPorData", "SELECT * FROM triagem WHERE data = CURRENT_DATE"},
+        {"AdministradorDAO.buscarPorLogin", "SELECT * FROM administrador WHERE login = 'admin'"},
+        {"DoadorDAO.buscarPorCidade", "SELECT * FROM doador WHERE cidade_busca LIKE '%' || hc_normalizar('São Paulo') || '%' ORDER BY nome, id"},
+        {"DoadorDAO.buscarPorBairro", "SELECT * FROM doador WHERE bairro_busca LIKE '%' || hc_normalizar('Centro') || '%' ORDER BY nome, id"},
+        {"HospitalDAO.nomeExiste", "SELECT COUNT(*) FROM hospital WHERE nome_busca = hc_normalizar('Hospital Central') AND id != 0"},
+        {"DeduplicadorDoadores.verificarCadastro", "SELECT id, nome, cpf FROM doador WHERE data_nascimento = DATE '1990-01-01' " +
+                "AND cidade_busca = hc_normalizar('Mossoró')"},
+    };
+
+    /**
+     * Passo de uma migração.
+     */
+    private interface Passo {
+        void executar(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Migração versionada.
+     */
+    private static final class Migracao {
+        final int versao;
+        final String descricao;
+        final boolean transacional;
+        final Passo passo;
+
+        Migracao(int versao, String descricao, boolean transacional, Passo passo) {
+            this.versao = versao;
+            this.descricao = descricao;
+            this.transacional = transacional;
+            this.passo = passo;
+        }
+    }
+
+    /** Migrações em ordem de versão */
+    private static final List<Migracao> MIGRACOES = new ArrayList<>();
+
+    static {
+        MIGRACOES.add(sql(1, "Tabelas do sistema e administrador inicial",
+            "CREATE TABLE IF NOT EXISTS hospital (" +
+            "id BIGSERIAL PRIMARY KEY, " +
+            "nome VARCHAR(150) NOT NULL, " +
+            "cep VARCHAR(9) NOT NULL, " +
+            "cidade VARCHAR(100) NOT NULL)",
+
+            "CREATE TABLE IF NOT EXISTS administrador (" +
+            "id BIGSERIAL PRIMARY KEY, " +
+            "cargo_hospital VARCHAR(100), " +
+            "nome_administrador VARCHAR(150) NOT NULL, " +
+            "login VARCHAR(50) NOT NULL, " +
+            "senha VARCHAR(100) NOT NULL, " +
+            "id_hospital BIGINT REFERENCES hospital(id))",
+
+            "CREATE TABLE IF NOT EXISTS doador (" +
+            "id BIGSERIAL PRIMARY KEY, " +
+            "nome VARCHAR(150) NOT NULL, " +
+            "cpf BIGINT NOT NULL, " +
+            "sexo VARCHAR(20) NOT NULL, " +
+            "tipo_sanguineo VARCHAR(3) NOT NULL, " +
+            "data_nascimento DATE NOT NULL, " +
+            "telefone BIGINT NOT NULL, " +
+            "bairro VARCHAR(100) NOT NULL, " +
+            "nacionalidade VARCHAR(60) NOT NULL, " +
+            "cidade VARCHAR(100) NOT NULL, " +
+            "ultima_doacao DATE, " +
+            "id_hospital BIGINT NOT NULL REFERENCES hospital(id))",
+
+            "CREATE TABLE IF NOT EXISTS triagem (" +
+            "id BIGSERIAL PRIMARY KEY, " +
+            "batimentos_por_minuto INTEGER NOT NULL, " +
+            "pressao_arterial VARCHAR(10) NOT NULL, " +
+            "temperatura NUMERIC(4,1) NOT NULL, " +
+            "peso NUMERIC(5,2) NOT NULL, " +
+            "status BOOLEAN NOT NULL, " +
+            "data DATE NOT NULL DEFAULT CURRENT_DATE, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+
+            // doacao.triagem_id não tem chave estrangeira: triagem é particionada (ver GerenciadorParticoes)
+            "CREATE TABLE IF NOT EXISTS doacao (" +
+            "id BIGSERIAL PRIMARY KEY, " +
+            "data DATE NOT NULL, " +
+            "hora TIME NOT NULL, " +
+            "volume NUMERIC(5,1) NOT NULL, " +
+            "triagem_id BIGINT NOT NULL, " +
+            "doador_id BIGINT NOT NULL REFERENCES doador(id), " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+
+            "INSERT INTO hospital (nome, cep, cidade) " +
+            "SELECT 'Hospital Central', '00000-000', 'Mossoró' WHERE NOT EXISTS (SELECT 1 FROM hospital)",
+
+            "INSERT INTO administrador (cargo_hospital, nome_administrador, login, senha, id_hospital) " +
+            "SELECT 'Administrador Geral', 'Administrador', 'admin', 'admin123', (SELECT MIN(id) FROM hospital) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM administrador WHERE login = 'admin')"));
+
+        // Gerencia as próprias transações (conversão e criação de partições)
+        MIGRACOES.add(new Migracao(2, "Particionamento mensal de doacao e triagem", false,
+            GerenciadorParticoes::manter));
+
+        MIGRACOES.add(sql(3, "Índices dos caminhos de acesso dos DAOs",
+            "CREATE INDEX IF NOT EXISTS idx_doacao_doador_data ON doacao (doador_id, data)",
+            "CREATE INDEX IF NOT EXISTS idx_doacao_data_hora ON doacao (data, hora)",
+            "CREATE INDEX IF NOT EXISTS idx_doacao_triagem ON doacao (triagem_id)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS uk_doador_cpf ON doador (cpf)",
+            "CREATE INDEX IF NOT EXISTS idx_doador_hospital ON doador (id_hospital)",
+            "CREATE INDEX IF NOT EXISTS idx_doador_tipo_sanguineo ON doador (tipo_sanguineo)",
+            "CREATE INDEX IF NOT EXISTS idx_triagem_data ON triagem (data)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS uk_administrador_login ON administrador (login)",
+            "ANALYZE doador",
+            "ANALYZE doacao",
+            "ANALYZE triagem",
+            "ANALYZE administrador"));
+
+        MIGRACOES.add(new Migracao(4, "Chaves de busca normalizadas (acentos e maiúsculas)", true,
+            GerenciadorSchema::criarChavesBusca));
+
+        MIGRACOES.add(sql(5, "Índice de blocagem para detecção de doadores duplicados",
+            "CREATE INDEX IF NOT EXISTS idx_doador_nascimento_cidade ON doador (data_nascimento, cidade_busca, id)",
+            "ANALYZE doador"));
+
+        // doacao e triagem já têm updated_at desde a versão 1
+        MIGRACOES.add(sql(6, "Versão de registro do doador para atualização otimista",
+            "ALTER TABLE doador ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"));
+
+        // Índice parcial: o retransmissor só percorre os eventos não publicados
+        MIGRACOES.add(sql(7, "Caixa de saída de eventos para sistemas externos",
+            "CREATE TABLE IF NOT EXISTS evento_saida (" +
+            "id BIGSERIAL PRIMARY KEY, " +
+            "tipo VARCHAR(40) NOT NULL, " +
+            "agregado_id BIGINT NOT NULL, " +
+            "dados JSONB NOT NULL, " +
+            "criado_em TIMESTAMP NOT NULL DEFAULT clock_timestamp(), " +
+            "publicado_em TIMESTAMP)",
+            "CREATE INDEX IF NOT EXISTS idx_evento_saida_pendente ON evento_saida (id) WHERE publicado_em IS NULL",
+            "CREATE INDEX IF NOT EXISTS idx_evento_saida_publicado ON evento_saida (publicado_em) WHERE publicado_em IS NOT NULL"));
+
+        // O nome lógico da tabela vai como argumento: em triagem (particionada) TG_TABLE_NAME é a partição
+        MIGRACOES.add(sql(8, "Notificações de invalidação de cache entre instâncias",
+            "CREATE OR REPLACE FUNCTION hc_notificar_invalidacao() RETURNS trigger LANGUAGE plpgsql AS $$ " +
+            "BEGIN " +
+            "PERFORM pg_notify('" + InvalidacaoCache.CANAL + "', current_setting('application_name') || ' ' || " +
+            "TG_ARGV[0] || ' ' || CASE WHEN TG_OP = 'DELETE' THEN OLD.id ELSE NEW.id END); " +
+            "RETURN NULL; " +
+            "END $$",
+            "DROP TRIGGER IF EXISTS trg_doador_invalidacao ON doador",
+            "CREATE TRIGGER trg_doador_invalidacao AFTER INSERT OR UPDATE OR DELETE ON doador " +
+            "FOR EACH ROW EXECUTE PROCEDURE hc_notificar_invalidacao('doador')",
+            "DROP TRIGGER IF EXISTS trg_hospital_invalidacao ON hospital",
+            "CREATE TRIGGER trg_hospital_invalidacao AFTER INSERT OR UPDATE OR DELETE ON hospital " +
+            "FOR EACH ROW EXECUTE PROCEDURE hc_notificar_invalidacao('hospital')",
+            "DROP TRIGGER IF EXISTS trg_triagem_invalidacao ON triagem",
+            "CREATE TRIGGER trg_triagem_invalidacao AFTER INSERT OR UPDATE OR DELETE ON triagem " +
+            "FOR EACH ROW EXECUTE PROCEDURE hc_notificar_invalidacao('triagem')"));
+
+        // Tabelas de transição não aceitam mais de um evento por gatilho; triagem
+        // (particionada) continua por linha
+        List<String> porComando = new ArrayList<>();
+        porComando.add("CREATE OR REPLACE FUNCTION hc_notificar_invalidacao_comando() RETURNS trigger " +
+            "LANGUAGE plpgsql AS $$ " +
+            "DECLARE prefixo TEXT := current_setting('application_name') || ' ' || TG_ARGV[0] || ' '; " +
+            "BEGIN " +
+            "IF (SELECT count(*) FROM linhas) > " + InvalidacaoCache.LIMITE_POR_TABELA + " THEN " +
+            "PERFORM pg_notify('" + InvalidacaoCache.CANAL + "', prefixo || '" + InvalidacaoCache.TODOS + "'); " +
+            "ELSE " +
+            "PERFORM pg_notify('" + InvalidacaoCache.CANAL + "', prefixo || l.id) FROM linhas l; " +
+            "END IF; " +
+            "RETURN NULL; " +
+            "END $$");
+        for (String tabela : new String[] {"doador", "hospital"}) {
+            porComando.add("DROP TRIGGER IF EXISTS trg_" + tabela + "_invalidacao ON " + tabela);
+            porComando.add("CREATE TRIGGER trg_" + tabela + "_invalidacao_ins AFTER INSERT ON " + tabela + " " +
+                "REFERENCING NEW TABLE AS linhas FOR EACH STATEMENT " +
+                "EXECUTE PROCEDURE hc_notificar_invalidacao_comando('" + tabela + "')");
+            porComando.add("CREATE TRIGGER trg_" + tabela + "_invalidacao_upd AFTER UPDATE ON " + tabela + " " +
+                "REFERENCING NEW TABLE AS linhas FOR EACH STATEMENT " +
+                "EXECUTE PROCEDURE hc_notificar_invalidacao_comando('" + tabela + "')");
+            porComando.add("CREATE TRIGGER trg_" + tabela + "_invalidacao_del AFTER DELETE ON " + tabela + " " +
+                "REFERENCING OLD TABLE AS linhas FOR EACH STATEMENT " +
+                "EXECUTE PROCEDURE hc_notificar_invalidacao_comando('" + tabela + "')");
+        }
+        MIGRACOES.add(sql(9, "Notificações de invalidação por comando em doador e hospital",
+            porComando.toArray(new String[0])));
+
+        MIGRACOES.add(sql(10, "Falha de leitura dos eventos da caixa de saída",
+            "ALTER TABLE evento_saida ADD COLUMN IF NOT EXISTS falha TEXT"));
+    }
+
+    // Construtor privado: classe utilitária
+    private GerenciadorSchema() {}
+
+    /**
+     * Aplica as migrações pendentes.
+     *
+     * <p>Cada migração é executada em sua própria transação junto com o
+     * registro da versão; em caso de falha, a migração é desfeita e as
+     * seguintes não são aplicadas. Após aplicar alguma migração, os planos
+     * das consultas críticas são verificados.</p>
+     *
+     * @param conn Conexão a ser utilizada
+     * @return Quantidade de migrações aplicadas
+     * @throws SQLException se alguma migração falhar
+     */
+    public static int migrar(Connection conn) throws SQLException {
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        int aplicadas = 0;
+
+        try (Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(true);
+            stmt.execute("SELECT pg_advisory_lock(" + CHAVE_BLOQUEIO + ")");
+
+            try {
+                stmt.execute(CREATE_SCHEMA_VERSAO);
+                int versaoAtual = versaoAtual(conn);
+
+                for (Migracao migracao : MIGRACOES) {
+                    if (migracao.versao <= versaoAtual) {
+                        continue;
+                    }
+                    aplicar(conn, migracao);
+                    aplicadas++;
+                }
+            } finally {
+                stmt.execute("SELECT pg_advisory_unlock(" + CHAVE_BLOQUEIO + ")");
+            }
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+
+        if (aplicadas > 0) {
+            List<String> problemas = verificarPlanos(conn);
+            for (String problema : problemas) {
+                System.err.println("Aviso: " + problema);
+            }
+        }
+
+        return aplicadas;
+    }
+
+    /**
+     * @return Versão mais recente aplicada ao banco (0 se nenhuma)
+     * @throws SQLException se houver erro na consulta
+     */
+    public static int versaoAtual(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_VERSAO_ATUAL)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void aplicar(Connection conn, Migracao migracao) throws SQLException {
+        System.out.println("Aplicando migração " + migracao.versao + ": " + migracao.descricao);
+
+        if (!migracao.transacional) {
+            migracao.passo.executar(conn);
+            registrarVersao(conn, migracao);
+            return;
+        }
+
+        conn.setAutoCommit(false);
+        try {
+            migracao.passo.executar(conn);
+            registrarVersao(conn, migracao);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Falha na migração " + migracao.versao + " (" + migracao.descricao + "): "
+                    + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static void registrarVersao(Connection conn, Migracao migracao) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_VERSAO)) {
+            stmt.setInt(1, migracao.versao);
+            stmt.setString(2, migracao.descricao);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Verifica se as consultas críticas dos DAOs são resolvidas por índice.
+     *
+     * <p>Com {@code enable_seqscan} desligado, o planejador só escolhe uma
+     * varredura sequencial quando nenhum índice atende à consulta; assim, um
+     * {@code Seq Scan} no plano indica índice ausente ou inutilizável,
+     * independentemente do volume atual das tabelas.</p>
+     *
+     * @param conn Conexão a ser utilizada
+     * @return Descrição das consultas sem plano por índice (vazia se todas estiverem cobertas)
+     */
+    public static List<String> verificarPlanos(Connection conn) {
+        List<String> problemas = new ArrayList<>();
+
+        try {
+            boolean autoCommitOriginal = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET LOCAL enable_seqscan = off");
+
+                for (String[] consulta : CONSULTAS_CRITICAS) {
+                    StringBuilder plano = new StringBuilder();
+                    try (ResultSet rs = stmt.executeQuery("EXPLAIN " + consulta[1])) {
+                        while (rs.next()) {
+                            plano.append(rs.getString(1)).append('\n');
+                        }
+                    }
+
+                    if (plano.indexOf("Seq Scan") >= 0) {
+                        problemas.add("consulta sem índice adequado em " + consulta[0] + ": " + consulta[1]);
+                    }
+                }
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(autoCommitOriginal);
+            }
+        } catch (SQLException e) {
+            problemas.add("não foi possível verificar os planos de consulta: " + e.getMessage());
+        }
+
+        return problemas;
+    }
+
+    /**
+     * Cria a função {@code hc_normalizar}, as colunas geradas de busca e seus índices.
+     *
+     * <p>As colunas {@code *_busca} são {@code GENERATED ALWAYS ... STORED}, portanto
+     * mantidas pelo próprio banco em toda inserção e atualização. Os índices
+     * {@code text_pattern_ops} atendem igualdade e prefixo; quando a extensão
+     * {@code pg_trgm} está disponível, índices GIN de trigramas atendem também
+     * a busca por trecho ({@code LIKE '%...%'}). Sem permissão para criar a
+     * extensão, a migração prossegue apenas com os índices de prefixo.</p>
+     */
+    private static void criarChavesBusca(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE OR REPLACE FUNCTION hc_normalizar(texto TEXT) RETURNS TEXT " +
+                    "LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$ " +
+                    "SELECT lower(regexp_replace(regexp_replace(" +
+                    "translate(texto, '" + NormalizadorTexto.COM_ACENTO + "', '" + NormalizadorTexto.SEM_ACENTO + "'), " +
+                    "'\\s+', ' ', 'g'), '^ | $', '', 'g')) $$");
+
+            stmt.execute("ALTER TABLE doador ADD COLUMN IF NOT EXISTS cidade_busca TEXT " +
+                    "GENERATED ALWAYS AS (hc_normalizar(cidade)) STORED");
+            stmt.execute("ALTER TABLE doador ADD COLUMN IF NOT EXISTS bairro_busca TEXT " +
+                    "GENERATED ALWAYS AS (hc_normalizar(bairro)) STORED");
+            stmt.execute("ALTER TABLE hospital ADD COLUMN IF NOT EXISTS nome_busca TEXT " +
+                    "GENERATED ALWAYS AS (hc_normalizar(nome)) STORED");
+            stmt.execute("ALTER TABLE hospital ADD COLUMN IF NOT EXISTS cidade_busca TEXT " +
+                    "GENERATED ALWAYS AS (hc_normalizar(cidade)) STORED");
+
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_doador_cidade_busca ON doador (cidade_busca text_pattern_ops)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_doador_bairro_busca ON doador (bairro_busca text_pattern_ops)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_hospital_nome_busca ON hospital (nome_busca text_pattern_ops)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_hospital_cidade_busca ON hospital (cidade_busca text_pattern_ops)");
+
+            Savepoint antesTrigramas = conn.setSavepoint();
+            try {
+                stmt.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_doador_cidade_trgm ON doador USING gin (cidade_busca gin_trgm_ops)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_doador_bairro_trgm ON doador USING gin (bairro_busca gin_trgm_ops)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_hospital_nome_trgm ON hospital USING gin (nome_busca gin_trgm_ops)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_hospital_cidade_trgm ON hospital USING gin (cidade_busca gin_trgm_ops)");
+                conn.releaseSavepoint(antesTrigramas);
+            } catch (SQLException e) {
+                conn.rollback(antesTrigramas);
+                System.err.println("Aviso: extensão pg_trgm indisponível (" + e.getMessage() +
+                        "); buscas por trecho de cidade, bairro e nome não usarão índice.");
+            }
+
+            stmt.execute("ANALYZE doador");
+            stmt.execute("ANALYZE hospital");
+        }
+    }
+
+    private static Migracao sql(int versao, String descricao, String... comandos) {
+        return new Migracao(versao, descricao, true, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String comando : comandos) {
+                    stmt.execute(comando);
+                }
+            }
+        });
+    }
+}
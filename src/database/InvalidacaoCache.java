@@ -0,0 +1,294 @@
+package database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import util.ConjuntoLongs;
+
+/**
+ * Coerência dos caches em memória entre instâncias do sistema ligadas ao
+ * mesmo banco, por {@code LISTEN/NOTIFY} do PostgreSQL.
+ *
+ * <p>Gatilhos em {@code doador}, {@code hospital} e {@code triagem} (versão 8
+ * do schema) enviam, a cada linha gravada, uma mensagem curta no canal
+ * {@value #CANAL}: {@code "<instância> <tabela> <id>"}. A instância é o
+ * {@code application_name} da sessão que gravou ({@link #getInstancia()}),
+ * e cada nó ignora as próprias mensagens, já tratadas pelos ganchos locais.
+ * A notificação só é entregue quando a transação confirma. Comandos que
+ * gravam muitas linhas de {@code doador} ou {@code hospital} de uma vez
+ * (versão 9) enviam uma só mensagem com o id {@value #TODOS}, tratada como
+ * invalidação completa da tabela.</p>
+ *
+ * <p>Uma thread de fundo com conexão própria escuta o canal e repassa cada
+ * mensagem aos caches registrados para a tabela ({@link #registrar}), em
+ * milissegundos. Muitas mensagens da mesma tabela de uma vez (ex.: uma
+ * importação em lote em outro nó) viram uma única invalidação completa. Se a
+ * conexão cair, as mensagens do intervalo se perdem: a thread reconecta com
+ * espera crescente e, ao voltar, invalida todos os caches registrados
+ * (ressincronização completa).</p>
+ *
+ * <p>Os caches se registram no carregamento da própria classe:</p>
+ * <pre>
+ * static {
+ *     InvalidacaoCache.registrar("doador", new InvalidacaoCache.Ouvinte() { ... });
+ * }
+ * </pre>
+ */
+public final class InvalidacaoCache {
+
+    /** Cache que recebe as invalidações de uma tabela */
+    public interface Ouvinte {
+
+        /** Registro alterado, incluído ou removido por outra instância */
+        void invalidar(long id);
+
+        /** Alterações desconhecidas (muitas de uma vez ou mensagens perdidas) */
+        void invalidarTudo();
+    }
+
+    /** Canal das mensagens de invalidação */
+    public static final String CANAL = "hc_invalidacao";
+
+    /** Id das mensagens de comandos que gravaram linhas demais para listar */
+    public static final String TODOS = "*";
+
+    /** Acima disso, as mensagens de uma tabela recebidas juntas viram invalidação completa */
+    static final int LIMITE_POR_TABELA = 512;
+
+    /** Espera máxima por mensagens em cada leitura */
+    private static final int ESPERA_MS = 500;
+
+    /** Sem mensagens, a conexão é conferida nesse intervalo (queda silenciosa da rede) */
+    private static final long VERIFICACAO_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final long ESPERA_MAXIMA_RECONEXAO_MS = 5_000;
+
+    /** Identificação desta instância nas mensagens (application_name das conexões) */
+    private static final String INSTANCIA =
+        "hemoconnect-" + Integer.toHexString(ThreadLocalRandom.current().nextInt() | 0x10000000);
+
+    private static final Map<String, List<Ouvinte>> OUVINTES = new ConcurrentHashMap<>();
+
+    private static volatile boolean rodando;
+    private static Thread thread;
+
+    // Construtor privado: classe utilitária
+    private InvalidacaoCache() {}
+
+    /** @return Identificação desta instância (application_name das conexões) */
+    public static String getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Registra um cache para as invalidações de uma tabela.
+     * @param tabela Tabela observada ("doador", "hospital" ou "triagem")
+     * @param ouvinte Cache a invalidar
+     */
+    public static void registrar(String tabela, Ouvinte ouvinte) {
+        OUVINTES.computeIfAbsent(tabela, t -> new CopyOnWriteArrayList<>()).add(ouvinte);
+    }
+
+    /**
+     * Inicia a escuta do canal em uma thread de fundo (não faz nada se já
+     * estiver em execução).
+     */
+    public static synchronized void iniciar() {
+        if (rodando) {
+            return;
+        }
+        rodando = true;
+        thread = new Thread(InvalidacaoCache::escutar, "hemoconnect-invalidacao");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Para a escuta do canal */
+    public static synchronized void parar() {
+        if (!rodando) {
+            return;
+        }
+        rodando = false;
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void escutar() {
+        boolean perdeuMensagens = false;
+        long espera = 0;
+        while (rodando) {
+            Connection conn = null;
+            try {
+                conn = DatabaseConnection.novaConexao();
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CANAL);
+                }
+                if (perdeuMensagens) {
+                    ressincronizar();
+                    perdeuMensagens = false;
+                }
+                espera = 0;
+                receber(conn);
+            } catch (SQLException e) {
+                if (!rodando) {
+                    break;
+                }
+                System.err.println("Escuta de invalidações interrompida: " + e.getMessage());
+                perdeuMensagens = true;
+                espera = Math.min(Math.max(espera * 2, 100), ESPERA_MAXIMA_RECONEXAO_MS);
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            } finally {
+                fechar(conn);
+            }
+        }
+    }
+
+    /**
+     * Lê as mensagens até a conexão falhar ou a escuta parar.
+     *
+     * <p>A leitura usa {@code PGConnection.getNotifications(int)} do driver
+     * por reflexão: o driver só está no classpath de execução, como em
+     * {@link DatabaseConnection}.</p>
+     */
+    private static void receber(Connection conn) throws SQLException {
+        Object pg;
+        Method lerNotificacoes;
+        Method parametro;
+        try {
+            Class<?> tipoConexao = Class.forName("org.postgresql.PGConnection");
+            pg = conn.unwrap(tipoConexao);
+            lerNotificacoes = tipoConexao.getMethod("getNotifications", int.class);
+            parametro = Class.forName("org.postgresql.PGNotification").getMethod("getParameter");
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("Driver sem suporte a LISTEN/NOTIFY: " + e.getMessage());
+        }
+
+        long proximaVerificacao = System.currentTimeMillis() + VERIFICACAO_MS;
+        while (rodando) {
+            Object[] notificacoes;
+            try {
+                notificacoes = (Object[]) lerNotificacoes.invoke(pg, ESPERA_MS);
+                if (notificacoes != null && notificacoes.length > 0) {
+                    String[] mensagens = new String[notificacoes.length];
+                    for (int i = 0; i < mensagens.length; i++) {
+                        mensagens[i] = (String) parametro.invoke(notificacoes[i]);
+                    }
+                    entregar(mensagens);
+                    proximaVerificacao = System.currentTimeMillis() + VERIFICACAO_MS;
+                }
+            } catch (InvocationTargetException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof SQLException) {
+                    throw (SQLException) causa;
+                }
+                throw new SQLException("Erro ao ler notificações: " + causa);
+            } catch (IllegalAccessException e) {
+                throw new SQLException("Erro ao ler notificações: " + e.getMessage());
+            }
+
+            if (System.currentTimeMillis() >= proximaVerificacao) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT 1");
+                }
+                proximaVerificacao = System.currentTimeMillis() + VERIFICACAO_MS;
+            }
+        }
+    }
+
+    /**
+     * Repassa as mensagens aos caches, agrupadas por tabela.
+     * @param mensagens Mensagens no formato {@code "<instância> <tabela> <id>"}, ou
+     *                  {@code "<instância> <tabela> *"} para a tabela inteira
+     */
+    static void entregar(String[] mensagens) {
+        Map<String, ConjuntoLongs> porTabela = new HashMap<>();
+        Set<String> inteiras = new HashSet<>();
+        for (String mensagem : mensagens) {
+            // Lida da direita: o application_name de outras ferramentas pode ter espaços
+            int fimTabela = mensagem.lastIndexOf(' ');
+            int fimInstancia = fimTabela > 0 ? mensagem.lastIndexOf(' ', fimTabela - 1) : -1;
+            if (fimInstancia < 0) {
+                System.err.println("Mensagem de invalidação inválida: " + mensagem);
+                continue;
+            }
+            if (mensagem.substring(0, fimInstancia).equals(INSTANCIA)) {
+                continue;
+            }
+            String tabela = mensagem.substring(fimInstancia + 1, fimTabela);
+            String id = mensagem.substring(fimTabela + 1);
+            if (id.equals(TODOS)) {
+                inteiras.add(tabela);
+                porTabela.computeIfAbsent(tabela, t -> new ConjuntoLongs());
+                continue;
+            }
+            try {
+                porTabela.computeIfAbsent(tabela, t -> new ConjuntoLongs()).adicionar(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                System.err.println("Mensagem de invalidação inválida: " + mensagem);
+            }
+        }
+
+        for (Map.Entry<String, ConjuntoLongs> tabela : porTabela.entrySet()) {
+            List<Ouvinte> ouvintes = OUVINTES.get(tabela.getKey());
+            if (ouvintes == null) {
+                continue;
+            }
+            ConjuntoLongs ids = tabela.getValue();
+            for (Ouvinte ouvinte : ouvintes) {
+                try {
+                    if (inteiras.contains(tabela.getKey()) || ids.tamanho() > LIMITE_POR_TABELA) {
+                        ouvinte.invalidarTudo();
+                    } else {
+                        for (long id : ids.paraArray()) {
+                            ouvinte.invalidar(id);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Erro ao invalidar cache de " + tabela.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Invalida todos os caches registrados (mensagens podem ter se perdido) */
+    private static void ressincronizar() {
+        for (Map.Entry<String, List<Ouvinte>> tabela : OUVINTES.entrySet()) {
+            for (Ouvinte ouvinte : tabela.getValue()) {
+                try {
+                    ouvinte.invalidarTudo();
+                } catch (RuntimeException e) {
+                    System.err.println("Erro ao invalidar cache de " + tabela.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void fechar(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Erro ao fechar conexão de invalidações: " + e.getMessage());
+            }
+        }
+    }
+}
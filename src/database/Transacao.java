@@ -0,0 +1,78 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transação curta na conexão da thread, para gravações que precisam ir
+ * juntas (ex.: a atualização de uma triagem e o seu evento na caixa de saída).
+ *
+ * <p>Se a conexão já estiver em uma transação (auto-commit desligado), a
+ * operação participa dela e a confirmação fica com quem a abriu. As ações de
+ * {@link #aposConfirmar(Runnable)} rodam depois da confirmação da transação
+ * mais externa aberta por esta classe.</p>
+ *
+ * <pre>
+ * boolean atualizada = Transacao.executar(() -> ...UPDATE e INSERT do evento...);
+ * </pre>
+ */
+public final class Transacao {
+
+    /** Ações a executar depois da confirmação, na transação aberta pela thread */
+    private static final ThreadLocal<List<Runnable>> APOS_CONFIRMAR = new ThreadLocal<>();
+
+    // Construtor privado: classe utilitária
+    private Transacao() {}
+
+    /**
+     * Executa a operação em uma transação.
+     *
+     * @param operacao Operação a executar
+     * @return Resultado da operação
+     * @throws SQLException se a operação falhar (nada é gravado)
+     */
+    public static <R> R executar(UnidadeDeTrabalho.Operacao<R> operacao) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        if (!conn.getAutoCommit()) {
+            return operacao.executar();
+        }
+
+        List<Runnable> acoes = new ArrayList<>();
+        APOS_CONFIRMAR.set(acoes);
+        conn.setAutoCommit(false);
+        R resultado;
+        try {
+            resultado = operacao.executar();
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            APOS_CONFIRMAR.remove();
+            conn.setAutoCommit(true);
+        }
+
+        for (Runnable acao : acoes) {
+            acao.run();
+        }
+        return resultado;
+    }
+
+    /**
+     * Agenda uma ação para depois da confirmação da transação em andamento
+     * (ex.: acordar quem lê o que foi gravado). Fora de uma transação desta
+     * classe, executa na hora.
+     *
+     * @param acao Ação a executar
+     */
+    public static void aposConfirmar(Runnable acao) {
+        List<Runnable> acoes = APOS_CONFIRMAR.get();
+        if (acoes == null) {
+            acao.run();
+        } else {
+            acoes.add(acao);
+        }
+    }
+}
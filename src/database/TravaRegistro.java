@@ -0,0 +1,147 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusão mútua por registro (ex.: por doador), sem serializar registros
+ * diferentes.
+ *
+ * <p>Na JVM, cada ID cai em uma de N travas ({@link ReentrantLock}, listras):
+ * operações sobre o mesmo ID sempre esperam umas pelas outras e operações
+ * sobre IDs diferentes só se encontram quando caem na mesma listra. Entre
+ * instâncias do sistema ligadas ao mesmo banco, a trava da listra é seguida
+ * de um bloqueio consultivo do PostgreSQL na sessão
+ * ({@code pg_try_advisory_lock(namespace, id)}). O bloqueio consultivo é da
+ * sessão e a conexão é compartilhada pelas threads, por isso ele sozinho não
+ * protege operações da mesma JVM; e a tentativa é não bloqueante, repetida
+ * com espera crescente, para que a conexão compartilhada não fique parada
+ * esperando outra estação.</p>
+ *
+ * <pre>
+ * Doacao salva = TRAVAS.executar(doadorId, () -> ...ler, validar e gravar...);
+ * </pre>
+ *
+ * <p>A trava só vale para quem passa por ela: a gravação continua conferindo
+ * os valores lidos (ver {@link UnidadeDeTrabalho}), o que mantém a regra
+ * mesmo para uma instância antiga ou um script que não use a trava.</p>
+ */
+public final class TravaRegistro {
+
+    /** Espera máxima pelo bloqueio consultivo */
+    private static final long ESPERA_MAXIMA_MS = 10_000;
+
+    private static final String TENTAR_BLOQUEIO = "SELECT pg_try_advisory_lock(?, ?)";
+    private static final String LIBERAR_BLOQUEIO = "SELECT pg_advisory_unlock(?, ?)";
+
+    private final int namespace;
+    private final boolean bloqueioBanco;
+    private final ReentrantLock[] listras;
+    private final int mascara;
+
+    /**
+     * @param namespace Primeira chave do bloqueio consultivo (um valor por tipo de registro)
+     * @param listras Quantidade de travas na JVM (arredondada para potência de 2)
+     * @param bloqueioBanco true para usar também o bloqueio consultivo do PostgreSQL
+     */
+    public TravaRegistro(int namespace, int listras, boolean bloqueioBanco) {
+        if (listras < 1) {
+            throw new IllegalArgumentException("Quantidade de listras deve ser positiva.");
+        }
+        int tamanho = listras == 1 ? 1 : Integer.highestOneBit(listras - 1) << 1;
+        this.namespace = namespace;
+        this.bloqueioBanco = bloqueioBanco;
+        this.listras = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            this.listras[i] = new ReentrantLock();
+        }
+        this.mascara = tamanho - 1;
+    }
+
+    /**
+     * Executa a operação com o registro travado.
+     *
+     * @param id ID do registro
+     * @param operacao Operação a executar
+     * @return Resultado da operação
+     * @throws SQLException se a operação falhar ou o registro continuar em uso
+     *         por outra instância depois da espera máxima
+     */
+    public <R> R executar(long id, UnidadeDeTrabalho.Operacao<R> operacao) throws SQLException {
+        ReentrantLock trava = listras[listra(id)];
+        trava.lock();
+        try {
+            if (!bloqueioBanco) {
+                return operacao.executar();
+            }
+            // Bloqueios consultivos de sessão são reentrantes (um unlock por lock)
+            Connection conn = DatabaseConnection.getConnection();
+            bloquear(conn, id);
+            R resultado;
+            try {
+                resultado = operacao.executar();
+            } catch (Throwable e) {
+                // A falha ao liberar (ex.: conexão caída) não esconde o erro da operação
+                try {
+                    liberar(conn, id);
+                } catch (SQLException | RuntimeException falha) {
+                    e.addSuppressed(falha);
+                }
+                throw e;
+            }
+            liberar(conn, id);
+            return resultado;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /** Espalha o ID (IDs sequenciais caem em listras diferentes) */
+    private int listra(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mascara;
+    }
+
+    private void bloquear(Connection conn, long id) throws SQLException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ESPERA_MAXIMA_MS);
+        long espera = 1;
+        try (PreparedStatement stmt = conn.prepareStatement(TENTAR_BLOQUEIO)) {
+            stmt.setInt(1, namespace);
+            stmt.setInt(2, chave(id));
+            while (true) {
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        return;
+                    }
+                }
+                if (System.nanoTime() >= limite) {
+                    throw new SQLException("Registro " + id + " em uso por outra estação; tente novamente.");
+                }
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Espera pelo registro " + id + " interrompida.");
+                }
+                espera = Math.min(espera * 2, 50);
+            }
+        }
+    }
+
+    private void liberar(Connection conn, long id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(LIBERAR_BLOQUEIO)) {
+            stmt.setInt(1, namespace);
+            stmt.setInt(2, chave(id));
+            stmt.executeQuery().close();
+        }
+    }
+
+    /** Segunda chave do bloqueio consultivo; IDs acima de 32 bits podem compartilhar chave, o que só serializa mais */
+    private static int chave(long id) {
+        return (int) (id ^ (id >>> 32));
+    }
+}
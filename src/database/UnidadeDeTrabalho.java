@@ -0,0 +1,357 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Unidade de trabalho de uma operação (ex.: registrar uma doação), com mapa
+ * de identidade e rastreamento de alterações.
+ *
+ * <p>Dentro de {@link #executar(Operacao)}, a mesma linha nunca é lida duas
+ * vezes: os DAOs carregam as entidades por {@link #carregar}, que devolve a
+ * instância já lida pela operação (o doador consultado na verificação de
+ * disponibilidade é o mesmo que recebe a data da última doação). As escritas
+ * não vão ao banco na hora: inserções ficam enfileiradas
+ * ({@link #inserir}) e as entidades rastreadas são comparadas com o estado em
+ * que foram lidas. Ao fim da operação tudo é gravado em uma transação, com um
+ * lote JDBC por comando, e só então os IDs gerados são atribuídos e as ações
+ * de {@link #aposConfirmar(Runnable)} executadas.</p>
+ *
+ * <p>O UPDATE de cada entidade pode conferir os valores lidos das colunas que
+ * mudaram (ex.: {@code ... WHERE id = ? AND ultima_doacao IS NOT DISTINCT FROM ?}).
+ * Se outra operação gravou a mesma linha depois da leitura, nenhuma linha é
+ * atualizada, a transação inteira é desfeita (inclusive as inserções) e a
+ * operação recebe {@link ConflitoAtualizacaoException}: duas doações
+ * simultâneas do mesmo doador não passam as duas pela regra do intervalo.</p>
+ *
+ * <p>A unidade fica associada à thread ({@link ThreadLocal}); fora de uma
+ * unidade os métodos estáticos apenas executam a leitura ou a ação, e os DAOs
+ * continuam gravando na hora, como antes. Operações aninhadas participam da
+ * unidade externa.</p>
+ *
+ * <pre>
+ * Doacao salva = UnidadeDeTrabalho.executar(() -> {
+ *     ...validações e gravações pelos DAOs...
+ * });
+ * </pre>
+ */
+public final class UnidadeDeTrabalho {
+
+    /** Operação executada dentro de uma unidade */
+    public interface Operacao<R> {
+        R executar() throws SQLException;
+    }
+
+    /** Leitura de uma entidade no banco, usada quando ela ainda não está no mapa */
+    public interface Carregador<T> {
+        T carregar() throws SQLException;
+    }
+
+    /** Preenchimento dos parâmetros de um comando enfileirado */
+    public interface Preenchimento {
+        void preencher(PreparedStatement stmt) throws SQLException;
+    }
+
+    /** Recebe o ID gerado por uma inserção, depois da gravação */
+    public interface ChaveGerada {
+        void definir(long id);
+    }
+
+    /**
+     * ID gerado por uma inserção enfileirada, já conhecido durante a gravação
+     * da unidade: o preenchimento de uma inserção enfileirada depois (ex.: o
+     * evento da doação) pode usá-lo na mesma transação.
+     */
+    public static final class Chave {
+        private long valor;
+        private boolean gerada;
+
+        /** @return ID gerado pela inserção */
+        public long valor() {
+            if (!gerada) {
+                throw new IllegalStateException("Inserção ainda não gravada.");
+            }
+            return valor;
+        }
+    }
+
+    /**
+     * Como as alterações de um tipo de entidade são detectadas e gravadas.
+     * Os bits de {@code alteradas} seguem a ordem dos valores de
+     * {@link #estado(Object)} (até 64 colunas).
+     */
+    public interface Rastreamento<T> {
+
+        /** @return Valores das colunas graváveis, comparados com {@code equals} */
+        Object[] estado(T entidade);
+
+        /** @return Tabela da entidade, para a mensagem de conflito */
+        String tabela();
+
+        /**
+         * @return UPDATE das colunas alteradas; a condição pode conferir os
+         *         valores lidos, e a gravação falha se nenhuma linha for atualizada
+         */
+        String sqlAtualizacao(long alteradas);
+
+        /**
+         * Preenche os parâmetros de {@link #sqlAtualizacao(long)}.
+         * @param lido Valores de {@link #estado(Object)} na leitura
+         */
+        void preencher(PreparedStatement stmt, T entidade, Object[] lido, long alteradas) throws SQLException;
+    }
+
+    /** Entidade carregada nesta unidade, com o estado da leitura */
+    private static final class Entrada<T> {
+        final Long id;
+        final T entidade;
+        final Rastreamento<T> rastreamento;
+        final Object[] lido;
+        long alteradas;
+
+        Entrada(Long id, T entidade, Rastreamento<T> rastreamento) {
+            this.id = id;
+            this.entidade = entidade;
+            this.rastreamento = rastreamento;
+            this.lido = rastreamento != null ? rastreamento.estado(entidade) : null;
+        }
+
+        /** Compara o estado atual com o da leitura e guarda as colunas alteradas */
+        boolean verificarAlteracoes() {
+            alteradas = 0L;
+            if (rastreamento == null) {
+                return false;
+            }
+            Object[] atual = rastreamento.estado(entidade);
+            for (int i = 0; i < atual.length; i++) {
+                if (!Objects.equals(lido[i], atual[i])) {
+                    alteradas |= 1L << i;
+                }
+            }
+            return alteradas != 0L;
+        }
+
+        String sqlAtualizacao() {
+            return rastreamento.sqlAtualizacao(alteradas);
+        }
+
+        void preencher(PreparedStatement stmt) throws SQLException {
+            rastreamento.preencher(stmt, entidade, lido, alteradas);
+        }
+    }
+
+    /** Inserção enfileirada */
+    private static final class Insercao {
+        final Preenchimento preenchimento;
+        final ChaveGerada chave;
+        final Chave gerada = new Chave();
+
+        Insercao(Preenchimento preenchimento, ChaveGerada chave) {
+            this.preenchimento = preenchimento;
+            this.chave = chave;
+        }
+    }
+
+    private static final ThreadLocal<UnidadeDeTrabalho> ATUAL = new ThreadLocal<>();
+
+    /** Mapa de identidade: tipo da entidade -> ID -> entrada */
+    private final Map<Class<?>, Map<Long, Entrada<?>>> entidades = new HashMap<>();
+
+    /** Inserções por comando, na ordem do primeiro registro */
+    private final Map<String, List<Insercao>> insercoes = new LinkedHashMap<>();
+
+    private final List<Runnable> aposConfirmar = new ArrayList<>();
+
+    private UnidadeDeTrabalho() {
+    }
+
+    /**
+     * Executa a operação em uma unidade de trabalho e grava as alterações ao
+     * final. Se já houver uma unidade na thread, a operação participa dela e a
+     * gravação fica para a unidade externa.
+     *
+     * @param operacao Operação a executar
+     * @return Resultado da operação
+     * @throws SQLException se a operação ou a gravação falhar (nada é gravado)
+     */
+    public static <R> R executar(Operacao<R> operacao) throws SQLException {
+        if (ATUAL.get() != null) {
+            return operacao.executar();
+        }
+
+        UnidadeDeTrabalho unidade = new UnidadeDeTrabalho();
+        ATUAL.set(unidade);
+        R resultado;
+        try {
+            resultado = operacao.executar();
+            unidade.confirmar();
+        } finally {
+            ATUAL.remove();
+        }
+
+        for (Runnable acao : unidade.aposConfirmar) {
+            acao.run();
+        }
+        return resultado;
+    }
+
+    /** @return Unidade da thread atual ou null se não houver */
+    public static UnidadeDeTrabalho atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Lê uma entidade pelo ID, passando pelo mapa de identidade quando há uma
+     * unidade ativa.
+     *
+     * @param tipo Classe da entidade
+     * @param id ID da entidade
+     * @param rastreamento Como gravar alterações (null para entidades só lidas)
+     * @param carregador Leitura no banco
+     * @return Entidade (a mesma instância em toda a unidade) ou null se não existir
+     * @throws SQLException se houver erro na leitura
+     */
+    public static <T> T carregar(Class<T> tipo, Long id, Rastreamento<T> rastreamento,
+                                 Carregador<T> carregador) throws SQLException {
+        UnidadeDeTrabalho unidade = ATUAL.get();
+        if (unidade == null || id == null) {
+            return carregador.carregar();
+        }
+
+        Map<Long, Entrada<?>> doTipo = unidade.entidades.computeIfAbsent(tipo, t -> new HashMap<>());
+        Entrada<?> entrada = doTipo.get(id);
+        if (entrada != null) {
+            return tipo.cast(entrada.entidade);
+        }
+
+        T entidade = carregador.carregar();
+        if (entidade != null) {
+            doTipo.put(id, new Entrada<>(id, entidade, rastreamento));
+        }
+        return entidade;
+    }
+
+    /**
+     * Enfileira uma inserção para a gravação da unidade. Inserções com o
+     * mesmo comando vão no mesmo lote, e os lotes são gravados na ordem do
+     * primeiro registro de cada comando.
+     *
+     * @param sql INSERT
+     * @param preenchimento Preenchimento dos parâmetros
+     * @param chave Recebe o ID gerado depois da confirmação (ou null)
+     * @return ID gerado, disponível para os lotes gravados depois deste
+     */
+    public Chave inserir(String sql, Preenchimento preenchimento, ChaveGerada chave) {
+        Insercao insercao = new Insercao(preenchimento, chave);
+        insercoes.computeIfAbsent(sql, s -> new ArrayList<>()).add(insercao);
+        return insercao.gerada;
+    }
+
+    /**
+     * Registra uma ação para depois da gravação (ex.: atualizar índices em
+     * memória). Sem unidade ativa, a ação é executada na hora.
+     *
+     * @param acao Ação a executar
+     */
+    public static void aposConfirmar(Runnable acao) {
+        UnidadeDeTrabalho unidade = ATUAL.get();
+        if (unidade == null) {
+            acao.run();
+        } else {
+            unidade.aposConfirmar.add(acao);
+        }
+    }
+
+    /**
+     * Grava as inserções e as entidades alteradas em uma transação.
+     */
+    private void confirmar() throws SQLException {
+        // Entidades alteradas, agrupadas pelo UPDATE das colunas que mudaram
+        Map<String, List<Entrada<?>>> atualizacoes = new LinkedHashMap<>();
+        for (Map<Long, Entrada<?>> doTipo : entidades.values()) {
+            for (Entrada<?> entrada : doTipo.values()) {
+                if (entrada.verificarAlteracoes()) {
+                    atualizacoes.computeIfAbsent(entrada.sqlAtualizacao(), s -> new ArrayList<>()).add(entrada);
+                }
+            }
+        }
+        if (insercoes.isEmpty() && atualizacoes.isEmpty()) {
+            return;
+        }
+
+        Connection conn = DatabaseConnection.getConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            List<long[]> chaves = new ArrayList<>();
+            for (Map.Entry<String, List<Insercao>> lote : insercoes.entrySet()) {
+                chaves.add(gravarInsercoes(conn, lote.getKey(), lote.getValue()));
+            }
+            for (Map.Entry<String, List<Entrada<?>>> lote : atualizacoes.entrySet()) {
+                gravarAtualizacoes(conn, lote.getKey(), lote.getValue());
+            }
+            conn.commit();
+
+            int i = 0;
+            for (List<Insercao> lote : insercoes.values()) {
+                long[] ids = chaves.get(i++);
+                for (int j = 0; j < lote.size(); j++) {
+                    if (lote.get(j).chave != null) {
+                        lote.get(j).chave.definir(ids[j]);
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Inclusive erros no preenchimento dos lotes: restaurar o auto-commit gravaria o lote pela metade
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static long[] gravarInsercoes(Connection conn, String sql, List<Insercao> lote) throws SQLException {
+        long[] ids = new long[lote.size()];
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Insercao insercao : lote) {
+                insercao.preenchimento.preencher(stmt);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                for (int i = 0; i < ids.length && keys.next(); i++) {
+                    ids[i] = keys.getLong(1);
+                    lote.get(i).gerada.valor = ids[i];
+                    lote.get(i).gerada.gerada = true;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void gravarAtualizacoes(Connection conn, String sql, List<Entrada<?>> lote) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Entrada<?> entrada : lote) {
+                entrada.preencher(stmt);
+                stmt.addBatch();
+            }
+            int[] linhas = stmt.executeBatch();
+            for (int i = 0; i < linhas.length; i++) {
+                if (linhas[i] == 0) {
+                    // Removida ou alterada por outra operação depois da leitura
+                    Entrada<?> entrada = lote.get(i);
+                    throw new ConflitoAtualizacaoException(entrada.rastreamento.tabela(), entrada.id);
+                }
+            }
+        }
+    }
+}
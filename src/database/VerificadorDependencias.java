@@ -0,0 +1,242 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Verificação dos registros que impedem a remoção de outro (ex.: doadores e
+ * administradores vinculados a um hospital), sem carregar esses registros.
+ *
+ * <p>Cada verificador declara as tabelas e colunas que referenciam a tabela
+ * verificada. {@link #existe(long)} responde com {@code EXISTS}, que para no
+ * primeiro vínculo encontrado; {@link #contar(long)} conta os vínculos de
+ * todas as tabelas em uma só consulta, com cada contagem limitada a
+ * {@link #getLimite()} registros (acima disso, o resultado informa apenas que
+ * há mais que o limite). Com índice na coluna de referência, o custo não
+ * depende de quantos registros estão vinculados.</p>
+ *
+ * <p>A verificação não substitui as chaves estrangeiras: um vínculo gravado
+ * entre a verificação e a remoção ainda é recusado pelo banco.</p>
+ *
+ * <pre>
+ * VerificadorDependencias.Resultado vinculos = HospitalDAO.DEPENDENCIAS.contar(id);
+ * if (vinculos.existe()) {
+ *     System.err.println("Existem " + vinculos.descrever());
+ * }
+ * </pre>
+ */
+public final class VerificadorDependencias {
+
+    /** Limite padrão de cada contagem */
+    public static final int LIMITE_PADRAO = 1000;
+
+    /** Vínculos de uma tabela */
+    public static final class Dependencia {
+
+        private final String descricao;
+        private final int quantidade;
+        private final boolean acimaDoLimite;
+
+        Dependencia(String descricao, int quantidade, boolean acimaDoLimite) {
+            this.descricao = descricao;
+            this.quantidade = quantidade;
+            this.acimaDoLimite = acimaDoLimite;
+        }
+
+        /** @return Descrição dos registros (ex.: "doador(es)") */
+        public String getDescricao() {
+            return descricao;
+        }
+
+        /** @return Quantidade de vínculos, até o limite da contagem */
+        public int getQuantidade() {
+            return quantidade;
+        }
+
+        /** @return true se há mais vínculos que o limite da contagem */
+        public boolean isAcimaDoLimite() {
+            return acimaDoLimite;
+        }
+
+        /** @return Ex.: "3 doador(es)" ou "mais de 1000 doador(es)" */
+        @Override
+        public String toString() {
+            return (acimaDoLimite ? "mais de " : "") + quantidade + " " + descricao;
+        }
+    }
+
+    /** Resultado de {@link #contar(long)}: apenas as tabelas com vínculos */
+    public static final class Resultado {
+
+        private final List<Dependencia> dependencias;
+
+        Resultado(List<Dependencia> dependencias) {
+            this.dependencias = Collections.unmodifiableList(dependencias);
+        }
+
+        /** @return true se há algum vínculo */
+        public boolean existe() {
+            return !dependencias.isEmpty();
+        }
+
+        /** @return Vínculos por tabela, na ordem de declaração */
+        public List<Dependencia> getDependencias() {
+            return dependencias;
+        }
+
+        /** @return Ex.: "3 doador(es) e 1 administrador(es)" (vazio se não há vínculos) */
+        public String descrever() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < dependencias.size(); i++) {
+                if (i > 0) {
+                    sb.append(i == dependencias.size() - 1 ? " e " : ", ");
+                }
+                sb.append(dependencias.get(i));
+            }
+            return sb.toString();
+        }
+    }
+
+    private final String tabela;
+    private final int limite;
+    private final List<String> descricoes = new ArrayList<>();
+    private final List<String> condicoes = new ArrayList<>();
+
+    // Montadas na primeira consulta, depois das referências
+    private String sqlExiste;
+    private String sqlContagem;
+
+    /**
+     * @param tabela Tabela verificada (para mensagens)
+     */
+    public VerificadorDependencias(String tabela) {
+        this(tabela, LIMITE_PADRAO);
+    }
+
+    /**
+     * @param tabela Tabela verificada (para mensagens)
+     * @param limite Limite de cada contagem
+     */
+    public VerificadorDependencias(String tabela, int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser positivo.");
+        }
+        this.tabela = tabela;
+        this.limite = limite;
+    }
+
+    /**
+     * Declara uma tabela que referencia a tabela verificada.
+     *
+     * @param tabelaOrigem Tabela com a referência (ex.: "doador")
+     * @param coluna Coluna com o ID referenciado (ex.: "id_hospital"), de preferência indexada
+     * @param descricao Descrição dos registros nas mensagens (ex.: "doador(es)")
+     * @return Este verificador, para encadear as declarações
+     */
+    public synchronized VerificadorDependencias referencia(String tabelaOrigem, String coluna, String descricao) {
+        if (sqlExiste != null) {
+            throw new IllegalStateException("Referências de " + tabela + " já em uso.");
+        }
+        condicoes.add("FROM " + tabelaOrigem + " WHERE " + coluna + " = ?");
+        descricoes.add(descricao);
+        return this;
+    }
+
+    /** @return Tabela verificada */
+    public String getTabela() {
+        return tabela;
+    }
+
+    /** @return Limite de cada contagem */
+    public int getLimite() {
+        return limite;
+    }
+
+    /**
+     * Verifica se algum registro referencia o ID.
+     *
+     * @param id ID na tabela verificada
+     * @return true se há ao menos um vínculo
+     * @throws SQLException se houver erro na consulta
+     */
+    public boolean existe(long id) throws SQLException {
+        montarConsultas();
+        if (condicoes.isEmpty()) {
+            return false;
+        }
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sqlExiste)) {
+            for (int i = 1; i <= condicoes.size(); i++) {
+                stmt.setLong(i, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * Conta os vínculos do ID em cada tabela, até o limite.
+     *
+     * @param id ID na tabela verificada
+     * @return Tabelas com vínculos e suas quantidades
+     * @throws SQLException se houver erro na consulta
+     */
+    public Resultado contar(long id) throws SQLException {
+        montarConsultas();
+        List<Dependencia> dependencias = new ArrayList<>();
+        if (condicoes.isEmpty()) {
+            return new Resultado(dependencias);
+        }
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sqlContagem)) {
+            for (int i = 1; i <= condicoes.size(); i++) {
+                stmt.setLong(i, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    for (int i = 0; i < descricoes.size(); i++) {
+                        int quantidade = rs.getInt(i + 1);
+                        if (quantidade > 0) {
+                            boolean acima = quantidade > limite;
+                            dependencias.add(new Dependencia(descricoes.get(i), acima ? limite : quantidade, acima));
+                        }
+                    }
+                }
+            }
+        }
+
+        return new Resultado(dependencias);
+    }
+
+    /**
+     * Monta as consultas, uma vez:
+     * {@code SELECT EXISTS (SELECT 1 FROM a WHERE x = ?) OR EXISTS (...)} e
+     * {@code SELECT (SELECT COUNT(*) FROM (SELECT 1 FROM a WHERE x = ? LIMIT n+1) v), ...}.
+     */
+    private synchronized void montarConsultas() {
+        if (sqlExiste != null) {
+            return;
+        }
+        StringBuilder existe = new StringBuilder("SELECT ");
+        StringBuilder contagem = new StringBuilder("SELECT ");
+        for (int i = 0; i < condicoes.size(); i++) {
+            if (i > 0) {
+                existe.append(" OR ");
+                contagem.append(", ");
+            }
+            existe.append("EXISTS (SELECT 1 ").append(condicoes.get(i)).append(')');
+            contagem.append("(SELECT COUNT(*) FROM (SELECT 1 ").append(condicoes.get(i))
+                    .append(" LIMIT ").append(limite + 1).append(") v").append(i).append(')');
+        }
+        sqlContagem = contagem.toString();
+        sqlExiste = existe.toString();
+    }
+}
@@ -2,33 +2,51 @@ package doacao;
 
 import java.sql.Date;
 import java.sql.Time;
+import java.time.LocalTime;
 import triagem.Triagem;
 import doador.Doador;
+import util.Calendario;
 
 /**
  * Model - Classe Doacao
  * Representa a entidade Doacao com dados e regras de negócio
  * Vinculada à triagem realizada e verificada aptidão para doação
+ * 
+ * Campos guardados em forma compacta, como em {@link Doador}: IDs em long
+ * primitivo ({@link #AUSENTE} no lugar de null), data em epoch day e hora em
+ * segundos do dia; getters e setters mantêm os tipos Long, Date e Time
  */
 public class Doacao {
 
+    /** Valor dos IDs sem valor (o getter devolve null) */
+    public static final long AUSENTE = Long.MIN_VALUE;
+
+    /** Valor da data sem valor (o getter devolve null) */
+    public static final int SEM_DATA = Integer.MIN_VALUE;
+
+    /** Valor da hora sem valor (o getter devolve null) */
+    public static final int SEM_HORA = -1;
+
     /** ID único da doação (chave primária no banco de dados) */
-    private Long id;
+    private long id = AUSENTE;
     
-    /** Data da doação (deve ser do dia atual) */
-    private Date data;
+    /** Data da doação (deve ser do dia atual), em epoch day */
+    private int data = SEM_DATA;
     
-    /** Hora da doação no formato HH:MM:SS */
-    private Time hora;
+    /** Hora da doação, em segundos desde 00:00:00 */
+    private int hora = SEM_HORA;
     
     /** Volume de sangue coletado em mililitros (350-500ml) */
     private double volume;
     
     /** ID da triagem aprovada associada à doação */
-    private Long triagemId;
+    private long triagemId = AUSENTE;
     
     /** ID do doador que realizou a doação */
-    private Long doadorId;
+    private long doadorId = AUSENTE;
+    
+    /** Versão do registro lida do banco ({@code updated_at} em microssegundos) */
+    private long versao = AUSENTE;
 
     // Objetos relacionados (para consultas e exibição)
     /** Objeto Triagem associado (carregado quando necessário) */
@@ -48,12 +66,8 @@ public class Doacao {
      * @param doadorId ID do doador que fez a doação
      */
     public Doacao(Long id, Date data, Time hora, double volume, Long triagemId, Long doadorId) {
-        this.id = id;
-        this.data = data;
-        this.hora = hora;
-        this.volume = volume;
-        this.triagemId = triagemId;
-        this.doadorId = doadorId;
+        this(data, hora, volume, triagemId, doadorId);
+        setId(id);
     }
 
     /**
@@ -66,11 +80,11 @@ public class Doacao {
      * @param doadorId ID do doador que fez a doação
      */
     public Doacao(Date data, Time hora, double volume, Long triagemId, Long doadorId) {
-        this.data = data;
-        this.hora = hora;
+        setData(data);
+        setHora(hora);
         this.volume = volume;
-        this.triagemId = triagemId;
-        this.doadorId = doadorId;
+        this.triagemId = deLong(triagemId);
+        this.doadorId = deLong(doadorId);
     }
 
     /**
@@ -84,13 +98,27 @@ public class Doacao {
      * @param doador Objeto Doador que fez a doação
      */
     public Doacao(Date data, Time hora, double volume, Triagem triagem, Doador doador) {
-        this.data = data;
-        this.hora = hora;
+        setData(data);
+        setHora(hora);
         this.volume = volume;
         setTriagem(triagem);
         setDoador(doador);
-        this.triagemId = triagem.getId();
-        this.doadorId = doador.getId();
+    }
+
+    /**
+     * Construtor com os campos já na forma compacta, usado na leitura do banco
+     * ({@link MapeadorDoacao})
+     * 
+     * @param data Data em epoch day
+     * @param hora Hora em segundos do dia
+     */
+    Doacao(long id, int data, int hora, double volume, long triagemId, long doadorId) {
+        this.id = id;
+        this.data = data;
+        this.hora = hora;
+        this.volume = volume;
+        this.triagemId = triagemId;
+        this.doadorId = doadorId;
     }
 
     
@@ -99,7 +127,7 @@ public class Doacao {
      * @return ID da doação ou null se ainda não foi salva no banco
      */
     public Long getId() {
-        return id;
+        return paraLong(id);
     }
 
     /**
@@ -107,7 +135,7 @@ public class Doacao {
      * @param id ID único da doação
      */
     public void setId(Long id) {
-        this.id = id;
+        this.id = deLong(id);
     }
 
     /**
@@ -115,6 +143,14 @@ public class Doacao {
      * @return Data da doação
      */
     public Date getData() {
+        return data != SEM_DATA ? Calendario.paraDate(data) : null;
+    }
+
+    /**
+     * Obtém a data da doação sem criar objetos
+     * @return Data em epoch day ou {@link #SEM_DATA}
+     */
+    public int getDataDia() {
         return data;
     }
 
@@ -123,9 +159,33 @@ public class Doacao {
      * @return Hora da doação no formato HH:MM:SS
      */
     public Time getHora() {
+        return hora != SEM_HORA ? Time.valueOf(LocalTime.ofSecondOfDay(hora)) : null;
+    }
+
+    /**
+     * Obtém o horário da doação sem criar objetos
+     * @return Segundos desde 00:00:00 ou {@link #SEM_HORA}
+     */
+    public int getHoraSegundos() {
         return hora;
     }
 
+    /**
+     * Obtém a versão do registro, conferida na atualização
+     * @return Versão lida do banco ou {@link #AUSENTE}
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Define a versão do registro (ao copiar uma doação lida para outro objeto)
+     * @param versao Versão lida do banco
+     */
+    public void setVersao(long versao) {
+        this.versao = versao;
+    }
+
     /**
      * Obtém o volume de sangue coletado
      * @return Volume em mililitros
@@ -139,7 +199,7 @@ public class Doacao {
      * @return ID da triagem aprovada
      */
     public Long getTriagemId() {
-        return triagemId;
+        return paraLong(triagemId);
     }
 
     /**
@@ -147,7 +207,7 @@ public class Doacao {
      * @return ID do doador que fez a doação
      */
     public Long getDoadorId() {
-        return doadorId;
+        return paraLong(doadorId);
     }
 
     /**
@@ -172,7 +232,7 @@ public class Doacao {
      */
     public void setTriagem(Triagem triagem) {
         this.triagem = triagem;
-        this.triagemId = triagem != null ? triagem.getId() : null;
+        this.triagemId = triagem != null ? deLong(triagem.getId()) : AUSENTE;
     }
 
     /**
@@ -181,7 +241,7 @@ public class Doacao {
      */
     public void setDoador(Doador doador) {
         this.doador = doador;
-        this.doadorId = doador != null ? doador.getId() : null;
+        this.doadorId = doador != null ? deLong(doador.getId()) : AUSENTE;
     }
 
     /**
@@ -189,7 +249,7 @@ public class Doacao {
      * @param data Data da doação (deve ser do dia atual)
      */
     public void setData(Date data) {
-        this.data = data;
+        this.data = data != null ? Calendario.dia(data) : SEM_DATA;
     }
 
     /**
@@ -197,7 +257,7 @@ public class Doacao {
      * @param hora Hora no formato HH:MM:SS
      */
     public void setHora(Time hora) {
-        this.hora = hora;
+        this.hora = hora != null ? hora.toLocalTime().toSecondOfDay() : SEM_HORA;
     }
 
     /**
@@ -213,11 +273,11 @@ public class Doacao {
      * @return true se todos os campos obrigatórios estão preenchidos
      */
     public boolean validarDados() {
-        return data != null && 
-               hora != null && 
+        return data != SEM_DATA && 
+               hora != SEM_HORA && 
                volume > 0 && 
-               triagemId != null && 
-               doadorId != null;
+               triagemId != AUSENTE && 
+               doadorId != AUSENTE;
     }
 
     /**
@@ -228,11 +288,7 @@ public class Doacao {
     public static boolean validarData(Date data) {
         if (data == null) return false;
         
-        Date hoje = new Date(System.currentTimeMillis());
-        String hojeStr = hoje.toString(); // formato YYYY-MM-DD
-        Date hojeNormalizada = Date.valueOf(hojeStr);
-        
-        return data.compareTo(hojeNormalizada) == 0;
+        return Calendario.ehHoje(Calendario.dia(data));
     }
 
     /**
@@ -320,8 +376,7 @@ public class Doacao {
         if (ultimaDoacao == null) {
             return Long.MAX_VALUE; // Nunca doou antes
         }
-        Date hoje = new Date(System.currentTimeMillis());
-        return (hoje.getTime() - ultimaDoacao.getTime()) / (1000 * 60 * 60 * 24);
+        return Calendario.diasDesde(Calendario.dia(ultimaDoacao));
     }
 
     /**
@@ -330,9 +385,9 @@ public class Doacao {
      */
     public String getDescricaoCompleta() {
         StringBuilder desc = new StringBuilder();
-        desc.append("Doação ID: ").append(id != null ? id : "N/A");
-        desc.append(" | Data: ").append(data);
-        desc.append(" | Hora: ").append(hora);
+        desc.append("Doação ID: ").append(id != AUSENTE ? String.valueOf(id) : "N/A");
+        desc.append(" | Data: ").append(getData());
+        desc.append(" | Hora: ").append(getHora());
         desc.append(" | Volume: ").append(volume).append("ml");
 
         if (doador != null) {
@@ -346,4 +401,12 @@ public class Doacao {
 
         return desc.toString();
     }
+
+    private static Long paraLong(long valor) {
+        return valor != AUSENTE ? valor : null;
+    }
+
+    private static long deLong(Long valor) {
+        return valor != null ? valor : AUSENTE;
+    }
 }
\ No newline at end of file
@@ -2,11 +2,19 @@ package doacao;
 
 import java.sql.Date;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import triagem.Triagem;
 import triagem.TriagemDAO;
+import database.ConflitoAtualizacaoException;
+import database.TravaRegistro;
+import database.UnidadeDeTrabalho;
+import doador.Doador;
 import doador.DoadorController;
+import estoque.EstoqueSangue;
+import estoque.PrevisaoDoacoes;
+import util.Calendario;
 
 /**
  * Controller - Classe DoacaoController
@@ -16,36 +24,75 @@ import doador.DoadorController;
  */
 public class DoacaoController {
 
+    /** Quantidade de doações exibidas na listagem geral */
+    private static final int LIMITE_LISTAGEM = 50;
+
+    /** Namespace do bloqueio consultivo por doador ("Doad") */
+    private static final int NAMESPACE_DOADOR = 0x446F6164;
+
+    /** Registros de doação do mesmo doador, um por vez (em todas as estações) */
+    private static final TravaRegistro TRAVAS_DOADOR = new TravaRegistro(NAMESPACE_DOADOR, 64, true);
+
     /**
      * Registra uma nova doação no sistema com validação completa.
+     * 
+     * Executada em uma {@link UnidadeDeTrabalho}: triagem e doador são lidos
+     * uma vez só (validação, última doação e dados relacionados usam as mesmas
+     * instâncias) e a inserção da doação e a atualização do doador são
+     * gravadas juntas, em uma transação, ao final.
+     * 
+     * Registros do mesmo doador são serializados ({@link TravaRegistro}):
+     * uma segunda estação espera a primeira terminar e já lê a nova data da
+     * última doação. Se ainda assim o doador for gravado por outra operação
+     * entre a leitura e a gravação, nada é gravado
      * @param doacao Objeto Doacao com dados validados
      * @return Doacao persistida com ID gerado, ou null se validação falhar
      * @throws SQLException se houver erro na persistência
      * @see #validarDoacao(Doacao)
      */
     public static Doacao registrarDoacao(Doacao doacao) {
+        Long doadorId = doacao.getDoadorId();
         try {
-            if (!validarDoacao(doacao)) {
-                return null;
-            }
+            UnidadeDeTrabalho.Operacao<Doacao> registro = () -> UnidadeDeTrabalho.executar(() -> {
+                if (!validarDoacao(doacao)) {
+                    return null;
+                }
 
-            // Inserir a doação no banco
-            Doacao doacaoSalva = DoacaoDAO.inserir(doacao);
-            
-            if (doacaoSalva != null) {
-                // CRÍTICO: Atualizar a data da última doação do doador
-                boolean atualizouDoador = DoadorController.atualizarUltimaDoacao(
-                    doacao.getDoadorId(), 
-                    doacao.getData()
-                );
+                // Inserir a doação no banco
+                Doacao doacaoSalva = DoacaoDAO.inserir(doacao);
                 
-                if (!atualizouDoador) {
-                    DoacaoView.exibirMensagemErro("AVISO: Doação registrada, mas falha ao atualizar última doação do doador!");
+                if (doacaoSalva != null) {
+                    // CRÍTICO: Atualizar a data da última doação do doador
+                    boolean atualizouDoador = DoadorController.atualizarUltimaDoacao(
+                        doacao.getDoadorId(), 
+                        doacao.getData()
+                    );
+                    
+                    if (!atualizouDoador) {
+                        DoacaoView.exibirMensagemErro("AVISO: Doação registrada, mas falha ao atualizar última doação do doador!");
+                    }
+                    
+                    DoacaoDAO.carregarDadosRelacionados(doacaoSalva);
+
+                    // Bolsa nova no estoque do hospital do doador, depois da confirmação
+                    Doador doador = doacaoSalva.getDoador();
+                    if (doador != null) {
+                        UnidadeDeTrabalho.aposConfirmar(() -> {
+                            EstoqueSangue.registrarDoacao(doacaoSalva.getDoadorId(),
+                                doador.getIdHospital(), doador.getTipoSanguineo(), doacaoSalva.getData());
+                            PrevisaoDoacoes.registrarDoacao(doacaoSalva.getDoadorId(),
+                                doador.getIdHospital(), doador.getTipoSanguineo(), doacaoSalva.getData());
+                        });
+                    }
                 }
-            }
-            
-            return doacaoSalva;
+                
+                return doacaoSalva;
+            });
+            return doadorId != null ? TRAVAS_DOADOR.executar(doadorId, registro) : registro.executar();
 
+        } catch (ConflitoAtualizacaoException e) {
+            DoacaoView.exibirMensagemErro("Outra doação deste doador foi registrada ao mesmo tempo. Nada foi gravado.");
+            return null;
         } catch (SQLException e) {
             DoacaoView.exibirMensagemErro("Erro ao registrar doação: " + e.getMessage());
             if (e.getMessage().contains("violates foreign key constraint")) {
@@ -56,11 +103,11 @@ public class DoacaoController {
     }
 
     /**
-     * Lista doações de uma data específica
+     * Lista os resumos das doações de uma data específica
      */
-    public static List<Doacao> listarDoacoesPorData(Date data) {
+    public static List<ResumoDoacao> listarDoacoesPorData(Date data) {
         try {
-            return DoacaoDAO.buscarPorData(data);
+            return DoacaoDAO.buscarResumosPorData(data);
         } catch (SQLException e) {
             DoacaoView.exibirMensagemErro("Erro ao buscar doações: " + e.getMessage());
             return null;
@@ -80,11 +127,23 @@ public class DoacaoController {
     }
 
     /**
-     * Lista todas as doações (limitado a 50)
+     * Lista o histórico de doações de um doador
+     */
+    public static List<Doacao> listarDoacoesPorDoador(Long doadorId) {
+        try {
+            return DoacaoDAO.buscarPorDoador(doadorId);
+        } catch (SQLException e) {
+            DoacaoView.exibirMensagemErro("Erro ao buscar doações do doador: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Lista os resumos das doações mais recentes (limitado a 50)
      */
-    public static List<Doacao> listarTodasDoacoes() {
+    public static List<ResumoDoacao> listarTodasDoacoes() {
         try {
-            return DoacaoDAO.buscarTodas();
+            return DoacaoDAO.buscarResumosRecentes(LIMITE_LISTAGEM);
         } catch (SQLException e) {
             DoacaoView.exibirMensagemErro("Erro ao listar doações: " + e.getMessage());
             return null;
@@ -100,8 +159,16 @@ public class DoacaoController {
                 return false;
             }
 
-            return DoacaoDAO.atualizar(doacao);
+            boolean sucesso = DoacaoDAO.atualizar(doacao);
+            if (sucesso) {
+                EstoqueSangue.agendarRecarga();
+                PrevisaoDoacoes.agendarRecarga();
+            }
+            return sucesso;
 
+        } catch (ConflitoAtualizacaoException e) {
+            DoacaoView.exibirMensagemErro("Doação alterada por outro usuário desde a consulta. Consulte novamente e refaça a alteração.");
+            return false;
         } catch (SQLException e) {
             DoacaoView.exibirMensagemErro("Erro ao atualizar doação: " + e.getMessage());
             return false;
@@ -113,7 +180,12 @@ public class DoacaoController {
      */
     public static boolean removerDoacao(Long id) {
         try {
-            return DoacaoDAO.deletar(id);
+            boolean sucesso = DoacaoDAO.deletar(id);
+            if (sucesso) {
+                EstoqueSangue.agendarRecarga();
+                PrevisaoDoacoes.agendarRecarga();
+            }
+            return sucesso;
         } catch (SQLException e) {
             DoacaoView.exibirMensagemErro("Erro ao remover doação: " + e.getMessage());
             return false;
@@ -215,7 +287,7 @@ public class DoacaoController {
     private static void processarListagemDia() {
         Date data = DoacaoView.coletarData();
         if (data != null) {
-            List<Doacao> doacoes = listarDoacoesPorData(data);
+            List<ResumoDoacao> doacoes = listarDoacoesPorData(data);
             if (doacoes != null) {
                 DoacaoView.exibirListaDoacoes(doacoes, "DOAÇÕES DE " + data);
             }
@@ -270,9 +342,9 @@ public class DoacaoController {
      * Processa listagem de todas as doações
      */
     private static void processarListagemTodas() {
-        List<Doacao> doacoes = listarTodasDoacoes();
+        List<ResumoDoacao> doacoes = listarTodasDoacoes();
         if (doacoes != null) {
-            DoacaoView.exibirListaDoacoes(doacoes, "ÚLTIMAS 50 DOAÇÕES");
+            DoacaoView.exibirListaDoacoes(doacoes, "ÚLTIMAS " + LIMITE_LISTAGEM + " DOAÇÕES");
         }
     }
 
@@ -347,7 +419,7 @@ public class DoacaoController {
             return false;
         }
 
-        if (!Doacao.validarData(doacao.getData())) {
+        if (!Calendario.ehHoje(doacao.getDataDia())) {
             DoacaoView.exibirMensagemErro("Data da doação não pode ser anterior à data atual");
             return false;
         }
@@ -403,10 +475,7 @@ public class DoacaoController {
             return false;
         }
         
-        String dataTriagemStr = dataTriagem.toString();
-        String dataDoacaoStr = dataDoacao.toString();
-        
-        if (!dataTriagemStr.equals(dataDoacaoStr)) {
+        if (!Calendario.mesmoDia(dataTriagem, dataDoacao)) {
             DoacaoView.exibirMensagemErro("ERRO - Triagem e doação devem ser realizadas no mesmo dia!");
             DoacaoView.exibirMensagemErro("Data da triagem: " + dataTriagem);
             DoacaoView.exibirMensagemErro("Data da doação: " + dataDoacao);
@@ -0,0 +1,70 @@
+package doacao;
+
+import database.ExecucaoAssincrona;
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versões assíncronas das operações de {@link DoacaoController}.
+ *
+ * <p>Cada método executa a operação correspondente em
+ * {@link ExecucaoAssincrona} e devolve um {@link CompletableFuture} com o
+ * mesmo resultado (inclusive null, false ou lista vazia em caso de erro).</p>
+ */
+public final class DoacaoControllerAsync {
+
+    // Construtor privado: classe utilitária
+    private DoacaoControllerAsync() {}
+
+    /** Assíncrono de {@link DoacaoController#registrarDoacao(Doacao)} */
+    public static CompletableFuture<Doacao> registrarDoacao(Doacao doacao) {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.registrarDoacao(doacao));
+    }
+
+    /** Assíncrono de {@link DoacaoController#listarDoacoesPorData(Date)} */
+    public static CompletableFuture<List<ResumoDoacao>> listarDoacoesPorData(Date data) {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.listarDoacoesPorData(data));
+    }
+
+    /** Assíncrono de {@link DoacaoController#buscarDoacaoPorId(Long)} */
+    public static CompletableFuture<Doacao> buscarDoacaoPorId(Long id) {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.buscarDoacaoPorId(id));
+    }
+
+    /** Assíncrono de {@link DoacaoController#listarDoacoesPorDoador(Long)} */
+    public static CompletableFuture<List<Doacao>> listarDoacoesPorDoador(Long doadorId) {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.listarDoacoesPorDoador(doadorId));
+    }
+
+    /** Assíncrono de {@link DoacaoController#listarTodasDoacoes()} */
+    public static CompletableFuture<List<ResumoDoacao>> listarTodasDoacoes() {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.listarTodasDoacoes());
+    }
+
+    /** Assíncrono de {@link DoacaoController#atualizarDoacao(Doacao)} */
+    public static CompletableFuture<Boolean> atualizarDoacao(Doacao doacao) {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.atualizarDoacao(doacao));
+    }
+
+    /** Assíncrono de {@link DoacaoController#removerDoacao(Long)} */
+    public static CompletableFuture<Boolean> removerDoacao(Long id) {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.removerDoacao(id));
+    }
+
+    /** Assíncrono de {@link DoacaoController#obterEstatisticasDia(Date)} */
+    public static CompletableFuture<Map<String, Object>> obterEstatisticasDia(Date data) {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.obterEstatisticasDia(data));
+    }
+
+    /** Assíncrono de {@link DoacaoController#obterEstatisticasMes(int, int)} */
+    public static CompletableFuture<Map<String, Object>> obterEstatisticasMes(int mes, int ano) {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.obterEstatisticasMes(mes, ano));
+    }
+
+    /** Assíncrono de {@link DoacaoController#obterEstatisticasGerais()} */
+    public static CompletableFuture<Map<String, Object>> obterEstatisticasGerais() {
+        return ExecucaoAssincrona.executar(() -> DoacaoController.obterEstatisticasGerais());
+    }
+}
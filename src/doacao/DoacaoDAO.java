@@ -1,6 +1,12 @@
 package doacao;
 
+import database.ControleVersao;
 import database.DatabaseConnection;
+import database.Transacao;
+import database.UnidadeDeTrabalho;
+import eventos.CaixaSaida;
+import eventos.DadosEvento;
+import eventos.TipoEvento;
 import triagem.Triagem;
 import triagem.TriagemDAO;
 import doador.Doador;
@@ -37,59 +43,112 @@ public class DoacaoDAO {
 
     private static final String SELECT_DOACOES_BY_MES = "SELECT d.id, d.data, d.hora, d.volume, d.triagem_id, d.doador_id, d.created_at, d.updated_at "
             +
-            "FROM doacao d WHERE EXTRACT(MONTH FROM d.data) = ? AND EXTRACT(YEAR FROM d.data) = ? " +
+            "FROM doacao d WHERE d.data >= ? AND d.data < ? " +
             "ORDER BY d.data DESC, d.hora DESC";
 
+    private static final String SELECT_DOACOES_BY_PERIODO = "SELECT d.id, d.data, d.hora, d.volume, d.triagem_id, d.doador_id, d.created_at, d.updated_at "
+            +
+            "FROM doacao d WHERE d.data >= ? AND d.data <= ? " +
+            "ORDER BY d.data DESC, d.hora DESC";
+
+    // Resumos de listagem: data em epoch day e hora em segundos do dia, sem colunas de auditoria
+    private static final String COLUNAS_RESUMO = "d.id, d.data - DATE '1970-01-01', "
+            + "floor(EXTRACT(EPOCH FROM d.hora))::int, d.volume, d.triagem_id, d.doador_id ";
+
+    private static final String SELECT_RESUMOS_BY_DATE = "SELECT " + COLUNAS_RESUMO
+            + "FROM doacao d WHERE d.data = ? ORDER BY d.hora DESC";
+
+    private static final String SELECT_RESUMOS_RECENTES = "SELECT " + COLUNAS_RESUMO
+            + "FROM doacao d ORDER BY d.data DESC, d.hora DESC LIMIT ?";
+
     private static final String COUNT_DOACOES_BY_DATE = "SELECT COUNT(*) FROM doacao WHERE data = ?";
 
-    private static final String COUNT_DOACOES_BY_MES = "SELECT COUNT(*) FROM doacao WHERE EXTRACT(MONTH FROM data) = ? AND EXTRACT(YEAR FROM data) = ?";
+    private static final String COUNT_DOACOES_BY_MES = "SELECT COUNT(*) FROM doacao WHERE data >= ? AND data < ?";
 
     private static final String SELECT_VOLUME_TOTAL_BY_DATE = "SELECT SUM(volume) FROM doacao WHERE data = ?";
 
-    private static final String SELECT_VOLUME_TOTAL_BY_MES = "SELECT SUM(volume) FROM doacao WHERE EXTRACT(MONTH FROM data) = ? AND EXTRACT(YEAR FROM data) = ?";
+    private static final String SELECT_VOLUME_TOTAL_BY_MES = "SELECT SUM(volume) FROM doacao WHERE data >= ? AND data < ?";
 
-    private static final String UPDATE_DOACAO = "UPDATE doacao SET data = ?, hora = ?, volume = ? WHERE id = ?";
+    // Atualização otimista: só grava se a versão lida ainda for a do banco
+    private static final String UPDATE_DOACAO = "UPDATE doacao SET data = ?, hora = ?, volume = ?, updated_at = "
+            + ControleVersao.NOVA_VERSAO + " WHERE id = ? AND " + ControleVersao.CONDICAO + " RETURNING updated_at";
 
-    private static final String DELETE_DOACAO = "DELETE FROM doacao WHERE id = ?";
+    private static final String DELETE_DOACAO = "DELETE FROM doacao WHERE id = ? RETURNING data, triagem_id, doador_id";
 
     /**
      * Insere uma nova doação no banco de dados
      * 
+     * <p>Dentro de uma {@link UnidadeDeTrabalho}, a inserção vai no lote da
+     * unidade e o ID é definido na própria doação quando a unidade grava.
+     * O evento {@link TipoEvento#DOACAO_REGISTRADA} é gravado na mesma
+     * transação da doação.</p>
+     * 
      * @param doacao Objeto doação a ser inserido
      * @return Doacao com ID gerado ou null se erro
      * @throws SQLException se houver erro na operação
      */
     public static Doacao inserir(Doacao doacao) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(INSERT_DOACAO, Statement.RETURN_GENERATED_KEYS)) {
+        UnidadeDeTrabalho unidade = UnidadeDeTrabalho.atual();
+        if (unidade != null) {
+            UnidadeDeTrabalho.Chave chave = unidade.inserir(INSERT_DOACAO, stmt -> preencherInsercao(stmt, doacao),
+                    doacao::setId);
+            CaixaSaida.registrar(unidade, TipoEvento.DOACAO_REGISTRADA, chave, dadosEvento(doacao));
+            return doacao;
+        }
+
+        try {
+            return Transacao.executar(() -> inserirComEvento(doacao));
+        } catch (SQLException e) {
+            System.err.println("Erro ao inserir doação: " + e.getMessage());
+            throw e;
+        }
+    }
 
-            stmt.setDate(1, doacao.getData());
-            stmt.setTime(2, doacao.getHora());
-            stmt.setDouble(3, doacao.getVolume());
-            stmt.setLong(4, doacao.getTriagemId());
-            stmt.setLong(5, doacao.getDoadorId());
+    private static Doacao inserirComEvento(Doacao doacao) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_DOACAO, Statement.RETURN_GENERATED_KEYS)) {
+
+            preencherInsercao(stmt, doacao);
 
             int linhasAfetadas = stmt.executeUpdate();
 
             if (linhasAfetadas > 0) {
-                ResultSet keys = stmt.getGeneratedKeys();
-                if (keys.next()) {
-                    Long novoId = keys.getLong(1);
-
-                    // Retornar nova instância com ID
-                    return new Doacao(novoId, doacao.getData(), doacao.getHora(),
-                            doacao.getVolume(), doacao.getTriagemId(), doacao.getDoadorId());
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        Long novoId = keys.getLong(1);
+                        CaixaSaida.registrar(TipoEvento.DOACAO_REGISTRADA, novoId, dadosEvento(doacao));
+
+                        // Retornar nova instância com ID
+                        return new Doacao(novoId, doacao.getData(), doacao.getHora(),
+                                doacao.getVolume(), doacao.getTriagemId(), doacao.getDoadorId());
+                    }
                 }
             }
 
             return null;
-
-        } catch (SQLException e) {
-            System.err.println("Erro ao inserir doação: " + e.getMessage());
-            throw e;
         }
     }
 
+    /** Dados do evento de doação registrada */
+    private static String dadosEvento(Doacao doacao) {
+        return new DadosEvento()
+                .texto("data", doacao.getData())
+                .texto("hora", doacao.getHora())
+                .numero("volume", doacao.getVolume())
+                .id("triagemId", doacao.getTriagemId())
+                .id("doadorId", doacao.getDoadorId())
+                .json();
+    }
+
+    private static void preencherInsercao(PreparedStatement stmt, Doacao doacao) throws SQLException {
+        stmt.setDate(1, doacao.getData());
+        stmt.setTime(2, doacao.getHora());
+        stmt.setDouble(3, doacao.getVolume());
+        stmt.setLong(4, doacao.getTriagemId());
+        stmt.setLong(5, doacao.getDoadorId());
+    }
+
     /**
      * Busca todas as doações
      * 
@@ -99,12 +158,14 @@ public class DoacaoDAO {
     public static List<Doacao> buscarTodas() throws SQLException {
         List<Doacao> doacoes = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_DOACOES);
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_DOACOES);
                 ResultSet rs = stmt.executeQuery()) {
 
+            MapeadorDoacao mapeador = new MapeadorDoacao(rs);
             while (rs.next()) {
-                Doacao doacao = criarDoacaoFromResultSet(rs);
+                Doacao doacao = mapeador.mapear(rs);
                 doacoes.add(doacao);
             }
         }
@@ -120,14 +181,15 @@ public class DoacaoDAO {
      * @throws SQLException se houver erro na operação
      */
     public static Doacao buscarPorId(Long id) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(SELECT_DOACAO_BY_ID)) {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOACAO_BY_ID)) {
 
             stmt.setLong(1, id);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return criarDoacaoFromResultSet(rs);
+                return new MapeadorDoacao(rs).mapear(rs);
             }
         }
 
@@ -144,14 +206,16 @@ public class DoacaoDAO {
     public static List<Doacao> buscarPorData(Date data) throws SQLException {
         List<Doacao> doacoes = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(SELECT_DOACOES_BY_DATE)) {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOACOES_BY_DATE)) {
 
             stmt.setDate(1, data);
             ResultSet rs = stmt.executeQuery();
 
+            MapeadorDoacao mapeador = new MapeadorDoacao(rs);
             while (rs.next()) {
-                Doacao doacao = criarDoacaoFromResultSet(rs);
+                Doacao doacao = mapeador.mapear(rs);
                 doacoes.add(doacao);
             }
         }
@@ -159,6 +223,52 @@ public class DoacaoDAO {
         return doacoes;
     }
 
+    /**
+     * Busca os resumos de listagem das doações de uma data
+     * 
+     * @param data Data das doações
+     * @return Resumos das doações da data, da mais recente para a mais antiga
+     * @throws SQLException se houver erro na operação
+     */
+    public static List<ResumoDoacao> buscarResumosPorData(Date data) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        List<ResumoDoacao> resumos = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_RESUMOS_BY_DATE)) {
+            stmt.setDate(1, data);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resumos.add(criarResumoFromResultSet(rs));
+                }
+            }
+        }
+
+        return resumos;
+    }
+
+    /**
+     * Busca os resumos de listagem das doações mais recentes
+     * 
+     * @param limite Quantidade máxima de doações
+     * @return Resumos das últimas doações, da mais recente para a mais antiga
+     * @throws SQLException se houver erro na operação
+     */
+    public static List<ResumoDoacao> buscarResumosRecentes(int limite) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        List<ResumoDoacao> resumos = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_RESUMOS_RECENTES)) {
+            stmt.setInt(1, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resumos.add(criarResumoFromResultSet(rs));
+                }
+            }
+        }
+
+        return resumos;
+    }
+
     /**
      * Busca doações por doador
      * 
@@ -169,14 +279,16 @@ public class DoacaoDAO {
     public static List<Doacao> buscarPorDoador(Long doadorId) throws SQLException {
         List<Doacao> doacoes = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(SELECT_DOACOES_BY_DOADOR)) {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOACOES_BY_DOADOR)) {
 
             stmt.setLong(1, doadorId);
             ResultSet rs = stmt.executeQuery();
 
+            MapeadorDoacao mapeador = new MapeadorDoacao(rs);
             while (rs.next()) {
-                Doacao doacao = criarDoacaoFromResultSet(rs);
+                Doacao doacao = mapeador.mapear(rs);
                 doacoes.add(doacao);
             }
         }
@@ -195,15 +307,48 @@ public class DoacaoDAO {
     public static List<Doacao> buscarPorMes(int mes, int ano) throws SQLException {
         List<Doacao> doacoes = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(SELECT_DOACOES_BY_MES)) {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOACOES_BY_MES)) {
 
-            stmt.setInt(1, mes);
-            stmt.setInt(2, ano);
+            definirIntervaloMes(stmt, mes, ano);
             ResultSet rs = stmt.executeQuery();
 
+            MapeadorDoacao mapeador = new MapeadorDoacao(rs);
             while (rs.next()) {
-                Doacao doacao = criarDoacaoFromResultSet(rs);
+                Doacao doacao = mapeador.mapear(rs);
+                doacoes.add(doacao);
+            }
+        }
+
+        return doacoes;
+    }
+
+    /**
+     * Busca doações de um período (datas inclusivas)
+     * 
+     * <p>O filtro por intervalo de {@code data} permite ao banco ler apenas as
+     * partições mensais do período.</p>
+     * 
+     * @param inicio Data inicial
+     * @param fim    Data final
+     * @return Lista de doações do período
+     * @throws SQLException se houver erro na operação
+     */
+    public static List<Doacao> buscarPorPeriodo(Date inicio, Date fim) throws SQLException {
+        List<Doacao> doacoes = new ArrayList<>();
+
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOACOES_BY_PERIODO)) {
+
+            stmt.setDate(1, inicio);
+            stmt.setDate(2, fim);
+            ResultSet rs = stmt.executeQuery();
+
+            MapeadorDoacao mapeador = new MapeadorDoacao(rs);
+            while (rs.next()) {
+                Doacao doacao = mapeador.mapear(rs);
                 doacoes.add(doacao);
             }
         }
@@ -219,8 +364,9 @@ public class DoacaoDAO {
      * @throws SQLException se houver erro na operação
      */
     public static int contarDoacoesPorData(Date data) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(COUNT_DOACOES_BY_DATE)) {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(COUNT_DOACOES_BY_DATE)) {
 
             stmt.setDate(1, data);
             ResultSet rs = stmt.executeQuery();
@@ -242,11 +388,11 @@ public class DoacaoDAO {
      * @throws SQLException se houver erro na operação
      */
     public static int contarDoacoesPorMes(int mes, int ano) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(COUNT_DOACOES_BY_MES)) {
+        Connection conn = DatabaseConnection.getConnection();
 
-            stmt.setInt(1, mes);
-            stmt.setInt(2, ano);
+        try (PreparedStatement stmt = conn.prepareStatement(COUNT_DOACOES_BY_MES)) {
+
+            definirIntervaloMes(stmt, mes, ano);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
@@ -265,8 +411,9 @@ public class DoacaoDAO {
      * @throws SQLException se houver erro na operação
      */
     public static double calcularVolumeTotalPorData(Date data) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(SELECT_VOLUME_TOTAL_BY_DATE)) {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_VOLUME_TOTAL_BY_DATE)) {
 
             stmt.setDate(1, data);
             ResultSet rs = stmt.executeQuery();
@@ -288,11 +435,11 @@ public class DoacaoDAO {
      * @throws SQLException se houver erro na operação
      */
     public static double calcularVolumeTotalPorMes(int mes, int ano) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(SELECT_VOLUME_TOTAL_BY_MES)) {
+        Connection conn = DatabaseConnection.getConnection();
 
-            stmt.setInt(1, mes);
-            stmt.setInt(2, ano);
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_VOLUME_TOTAL_BY_MES)) {
+
+            definirIntervaloMes(stmt, mes, ano);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
@@ -304,56 +451,112 @@ public class DoacaoDAO {
     }
 
     /**
-     * Atualiza uma doação existente
+     * Atualiza uma doação existente, desde que ela não tenha sido alterada
+     * depois da leitura
      * 
      * @param id     ID da doação
      * @param data   Nova data
      * @param hora   Nova hora
      * @param volume Novo volume
-     * @return true se atualizada com sucesso
+     * @param versao Versão lida junto com a doação ({@link Doacao#getVersao()})
+     * @return true se atualizada com sucesso, false se a doação não existe mais
+     * @throws database.ConflitoAtualizacaoException se outro usuário alterou a doação antes
      * @throws SQLException se houver erro na operação
      */
-    public static boolean atualizarDoacao(Long id, Date data, Time hora, double volume) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(UPDATE_DOACAO)) {
+    public static boolean atualizarDoacao(Long id, Date data, Time hora, double volume, long versao) throws SQLException {
+        return gravarAtualizacao(id, data, hora, volume, versao) != ControleVersao.SEM_VERSAO;
+    }
 
-            stmt.setDate(1, data);
-            stmt.setTime(2, hora);
-            stmt.setDouble(3, volume);
-            stmt.setLong(4, id);
+    /**
+     * Grava a atualização e o evento {@link TipoEvento#DOACAO_ATUALIZADA} na mesma transação
+     * @return Nova versão da doação ou {@link ControleVersao#SEM_VERSAO} se ela não existe
+     */
+    private static long gravarAtualizacao(Long id, Date data, Time hora, double volume, long versao) throws SQLException {
+        return Transacao.executar(() -> {
+            Connection conn = DatabaseConnection.getConnection();
 
-            int linhasAfetadas = stmt.executeUpdate();
-            return linhasAfetadas > 0;
-        }
+            try (PreparedStatement stmt = conn.prepareStatement(UPDATE_DOACAO)) {
+
+                stmt.setDate(1, data);
+                stmt.setTime(2, hora);
+                stmt.setDouble(3, volume);
+                stmt.setLong(4, id);
+                ControleVersao.definir(stmt, 5, versao);
+
+                long novaVersao = ControleVersao.executar(stmt, "doacao", id);
+                if (novaVersao != ControleVersao.SEM_VERSAO) {
+                    CaixaSaida.registrar(TipoEvento.DOACAO_ATUALIZADA, id, new DadosEvento()
+                            .texto("data", data)
+                            .texto("hora", hora)
+                            .numero("volume", volume)
+                            .json());
+                }
+                return novaVersao;
+            }
+        });
     }
 
     /**
-     * Remove uma doação
+     * Remove uma doação, gravando o evento {@link TipoEvento#DOACAO_REMOVIDA}
+     * na mesma transação
      * 
      * @param id ID da doação
      * @return true se removida com sucesso
      * @throws SQLException se houver erro na operação
      */
     public static boolean removerDoacao(Long id) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(DELETE_DOACAO)) {
+        return Transacao.executar(() -> {
+            Connection conn = DatabaseConnection.getConnection();
 
-            stmt.setLong(1, id);
+            try (PreparedStatement stmt = conn.prepareStatement(DELETE_DOACAO)) {
 
-            int linhasAfetadas = stmt.executeUpdate();
-            return linhasAfetadas > 0;
-        }
+                stmt.setLong(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    registrarRemocao(id, rs.getDate(1), rs.getLong(2), rs.getLong(3));
+                    return true;
+                }
+            }
+        });
     }
 
     /**
-     * Atualiza uma doação existente
+     * Grava o evento {@link TipoEvento#DOACAO_REMOVIDA} na transação em
+     * andamento (também usado na remoção em cascata da triagem)
+     * 
+     * @param id ID da doação removida
+     * @param data Data da doação
+     * @param triagemId Triagem da doação
+     * @param doadorId Doador da doação
+     * @throws SQLException se houver erro na gravação
+     */
+    public static void registrarRemocao(long id, Date data, long triagemId, long doadorId) throws SQLException {
+        CaixaSaida.registrar(TipoEvento.DOACAO_REMOVIDA, id, new DadosEvento()
+                .texto("data", data)
+                .numero("triagemId", triagemId)
+                .numero("doadorId", doadorId)
+                .json());
+    }
+
+    /**
+     * Atualiza uma doação existente; em caso de sucesso ela recebe a nova versão
      * 
      * @param doacao Doação com novos dados
-     * @return true se atualizada com sucesso
+     * @return true se atualizada com sucesso, false se a doação não existe mais
+     * @throws database.ConflitoAtualizacaoException se outro usuário alterou a doação antes
      * @throws SQLException se houver erro na operação
      */
     public static boolean atualizar(Doacao doacao) throws SQLException {
-        return atualizarDoacao(doacao.getId(), doacao.getData(), doacao.getHora(), doacao.getVolume());
+        long versao = gravarAtualizacao(doacao.getId(), doacao.getData(), doacao.getHora(), doacao.getVolume(),
+                doacao.getVersao());
+        if (versao == ControleVersao.SEM_VERSAO) {
+            return false;
+        }
+        doacao.setVersao(versao);
+        return true;
     }
 
     /**
@@ -394,21 +597,31 @@ public class DoacaoDAO {
     }
 
     /**
-     * Método auxiliar para criar Doacao a partir do ResultSet
+     * Define os parâmetros 1 e 2 como o intervalo [primeiro dia do mês, primeiro dia do mês seguinte).
      * 
-     * @param rs ResultSet com dados da doação
-     * @return Objeto Doacao
-     * @throws SQLException se houver erro ao acessar ResultSet
+     * <p>Comparar {@code data} com um intervalo, em vez de aplicar EXTRACT sobre a coluna,
+     * permite o uso de índices e a poda de partições.</p>
      */
-    private static Doacao criarDoacaoFromResultSet(ResultSet rs) throws SQLException {
-        Long id = rs.getLong("id");
-        Date data = rs.getDate("data");
-        Time hora = rs.getTime("hora");
-        double volume = rs.getDouble("volume");
-        Long triagemId = rs.getLong("triagem_id");
-        Long doadorId = rs.getLong("doador_id");
-
-        return new Doacao(id, data, hora, volume, triagemId, doadorId);
+    private static void definirIntervaloMes(PreparedStatement stmt, int mes, int ano) throws SQLException {
+        if (mes < 1 || mes > 12) {
+            throw new SQLException("Mês inválido: " + mes);
+        }
+        java.time.LocalDate inicio = java.time.LocalDate.of(ano, mes, 1);
+        stmt.setDate(1, Date.valueOf(inicio));
+        stmt.setDate(2, Date.valueOf(inicio.plusMonths(1)));
+    }
+
+    /**
+     * Cria um resumo a partir das colunas de {@link #COLUNAS_RESUMO}, na ordem
+     */
+    private static ResumoDoacao criarResumoFromResultSet(ResultSet rs) throws SQLException {
+        return new ResumoDoacao(
+                rs.getLong(1),
+                rs.getInt(2),
+                rs.getInt(3),
+                rs.getDouble(4),
+                rs.getLong(5),
+                rs.getLong(6));
     }
 
     /**
@@ -417,18 +630,17 @@ public class DoacaoDAO {
     public static java.util.Map<String, Object> obterEstatisticasDia(Date data) throws SQLException {
         java.util.Map<String, Object> resultado = new java.util.HashMap<>();
 
-        try (Connection conn = DatabaseConnection.getConnection()) {
+        Connection conn = DatabaseConnection.getConnection();
 
-            // Total e volume do dia
-            String sql = "SELECT COUNT(*) as total, COALESCE(SUM(volume), 0) as volume_total FROM doacao WHERE data = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setDate(1, data);
-                ResultSet rs = stmt.executeQuery();
+        // Total e volume do dia
+        String sql = "SELECT COUNT(*) as total, COALESCE(SUM(volume), 0) as volume_total FROM doacao WHERE data = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, data);
+            ResultSet rs = stmt.executeQuery();
 
-                if (rs.next()) {
-                    resultado.put("total", rs.getInt("total"));
-                    resultado.put("volumeTotal", rs.getDouble("volume_total"));
-                }
+            if (rs.next()) {
+                resultado.put("total", rs.getInt("total"));
+                resultado.put("volumeTotal", rs.getDouble("volume_total"));
             }
         }
 
@@ -441,20 +653,18 @@ public class DoacaoDAO {
     public static java.util.Map<String, Object> obterEstatisticasMes(int mes, int ano) throws SQLException {
         java.util.Map<String, Object> resultado = new java.util.HashMap<>();
 
-        try (Connection conn = DatabaseConnection.getConnection()) {
+        Connection conn = DatabaseConnection.getConnection();
 
-            String sql = "SELECT COUNT(*) as total, COALESCE(SUM(volume), 0) as volume_total " +
-                    "FROM doacao WHERE EXTRACT(MONTH FROM data) = ? AND EXTRACT(YEAR FROM data) = ?";
+        String sql = "SELECT COUNT(*) as total, COALESCE(SUM(volume), 0) as volume_total " +
+                "FROM doacao WHERE data >= ? AND data < ?";
 
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, mes);
-                stmt.setInt(2, ano);
-                ResultSet rs = stmt.executeQuery();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            definirIntervaloMes(stmt, mes, ano);
+            ResultSet rs = stmt.executeQuery();
 
-                if (rs.next()) {
-                    resultado.put("total", rs.getInt("total"));
-                    resultado.put("volumeTotal", rs.getDouble("volume_total"));
-                }
+            if (rs.next()) {
+                resultado.put("total", rs.getInt("total"));
+                resultado.put("volumeTotal", rs.getDouble("volume_total"));
             }
         }
 
@@ -467,34 +677,34 @@ public class DoacaoDAO {
     public static java.util.Map<String, Object> obterEstatisticasGerais() throws SQLException {
         java.util.Map<String, Object> resultado = new java.util.HashMap<>();
 
-        try (Connection conn = DatabaseConnection.getConnection()) {
+        Connection conn = DatabaseConnection.getConnection();
 
-            // Total geral
-            String sql1 = "SELECT COUNT(*) as total, COALESCE(SUM(volume), 0) as volume_total FROM doacao";
-            try (PreparedStatement stmt1 = conn.prepareStatement(sql1)) {
-                ResultSet rs1 = stmt1.executeQuery();
-                if (rs1.next()) {
-                    resultado.put("totalGeral", rs1.getInt("total"));
-                    resultado.put("volumeGeral", rs1.getDouble("volume_total"));
-                }
+        // Total geral
+        String sql1 = "SELECT COUNT(*) as total, COALESCE(SUM(volume), 0) as volume_total FROM doacao";
+        try (PreparedStatement stmt1 = conn.prepareStatement(sql1)) {
+            ResultSet rs1 = stmt1.executeQuery();
+            if (rs1.next()) {
+                resultado.put("totalGeral", rs1.getInt("total"));
+                resultado.put("volumeGeral", rs1.getDouble("volume_total"));
             }
+        }
 
-            // Doações hoje
-            String sql2 = "SELECT COUNT(*) as hoje FROM doacao WHERE data = CURRENT_DATE";
-            try (PreparedStatement stmt2 = conn.prepareStatement(sql2)) {
-                ResultSet rs2 = stmt2.executeQuery();
-                if (rs2.next()) {
-                    resultado.put("hoje", rs2.getInt("hoje"));
-                }
+        // Doações hoje
+        String sql2 = "SELECT COUNT(*) as hoje FROM doacao WHERE data = CURRENT_DATE";
+        try (PreparedStatement stmt2 = conn.prepareStatement(sql2)) {
+            ResultSet rs2 = stmt2.executeQuery();
+            if (rs2.next()) {
+                resultado.put("hoje", rs2.getInt("hoje"));
             }
+        }
 
-            // Doações este mês
-            String sql3 = "SELECT COUNT(*) as mes FROM doacao WHERE EXTRACT(MONTH FROM data) = EXTRACT(MONTH FROM CURRENT_DATE) AND EXTRACT(YEAR FROM data) = EXTRACT(YEAR FROM CURRENT_DATE)";
-            try (PreparedStatement stmt3 = conn.prepareStatement(sql3)) {
-                ResultSet rs3 = stmt3.executeQuery();
-                if (rs3.next()) {
-                    resultado.put("esteMes", rs3.getInt("mes"));
-                }
+        // Doações este mês
+        String sql3 = "SELECT COUNT(*) as mes FROM doacao WHERE data >= date_trunc('month', CURRENT_DATE)::date "
+                + "AND data < (date_trunc('month', CURRENT_DATE) + INTERVAL '1 month')::date";
+        try (PreparedStatement stmt3 = conn.prepareStatement(sql3)) {
+            ResultSet rs3 = stmt3.executeQuery();
+            if (rs3.next()) {
+                resultado.put("esteMes", rs3.getInt("mes"));
             }
         }
 
@@ -143,7 +143,7 @@ public class DoacaoView {
     /**
      * Exibe lista de doações em formato tabela
      */
-    public static void exibirListaDoacoes(List<Doacao> doacoes, String titulo) {
+    public static void exibirListaDoacoes(List<ResumoDoacao> doacoes, String titulo) {
         if (doacoes == null || doacoes.isEmpty()) {
             System.out.println(" Nenhuma doação encontrada");
             return;
@@ -154,11 +154,11 @@ public class DoacaoView {
                 "ID", "DATA", "HORA", "VOLUME", "TRIAGEM", "DOADOR");
         System.out.println("-".repeat(55));
 
-        for (Doacao doacao : doacoes) {
+        for (ResumoDoacao doacao : doacoes) {
             System.out.printf("%-5d %-12s %-10s %-8.0fml %-8d %-8d%n",
                     doacao.getId(),
                     doacao.getData(),
-                    doacao.getHora(),
+                    doacao.getHoraFormatada(),
                     doacao.getVolume(),
                     doacao.getTriagemId(),
                     doacao.getDoadorId());
@@ -238,8 +238,10 @@ public class DoacaoView {
             double novoVolume = novoVolumeStr.trim().isEmpty() ? doacaoAtual.getVolume()
                     : Double.parseDouble(novoVolumeStr);
 
-            return new Doacao(doacaoAtual.getId(), novaData, novaHora, novoVolume,
+            Doacao doacaoAtualizada = new Doacao(doacaoAtual.getId(), novaData, novaHora, novoVolume,
                     doacaoAtual.getTriagemId(), doacaoAtual.getDoadorId());
+            doacaoAtualizada.setVersao(doacaoAtual.getVersao());
+            return doacaoAtualizada;
 
         } catch (Exception e) {
             System.out.println(" Erro ao coletar dados: " + e.getMessage());
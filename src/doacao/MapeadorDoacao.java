@@ -0,0 +1,62 @@
+package doacao;
+
+import database.ControleVersao;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Mapeador de linhas da tabela {@code doacao} para {@link Doacao}.
+ *
+ * <p>Os índices das colunas são resolvidos uma vez por consulta e cada linha
+ * é lida por posição, com os IDs em {@code long} até a criação do objeto.
+ * Data e hora são lidas como {@link LocalDate} e {@link LocalTime} e
+ * guardadas como epoch day e segundos do dia; {@code updated_at} vira a
+ * versão usada na atualização otimista.</p>
+ */
+public final class MapeadorDoacao {
+
+    private final int id;
+    private final int data;
+    private final int hora;
+    private final int volume;
+    private final int triagemId;
+    private final int doadorId;
+    private final int versao;
+
+    /**
+     * Resolve os índices das colunas do ResultSet.
+     * @param rs ResultSet da consulta
+     * @throws SQLException se alguma coluna de doação não estiver na consulta
+     */
+    public MapeadorDoacao(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        data = rs.findColumn("data");
+        hora = rs.findColumn("hora");
+        volume = rs.findColumn("volume");
+        triagemId = rs.findColumn("triagem_id");
+        doadorId = rs.findColumn("doador_id");
+        versao = rs.findColumn(ControleVersao.COLUNA);
+    }
+
+    /**
+     * Lê a linha corrente.
+     * @param rs ResultSet posicionado em uma linha
+     * @return Doação da linha
+     * @throws SQLException se houver erro ao ler dados
+     */
+    public Doacao mapear(ResultSet rs) throws SQLException {
+        long valorId = rs.getLong(id);
+        long valorTriagem = rs.getLong(triagemId);
+        long valorDoador = rs.getLong(doadorId);
+        LocalDate valorData = rs.getObject(data, LocalDate.class);
+        LocalTime valorHora = rs.getObject(hora, LocalTime.class);
+        Doacao doacao = new Doacao(valorId,
+                valorData != null ? (int) valorData.toEpochDay() : Doacao.SEM_DATA,
+                valorHora != null ? valorHora.toSecondOfDay() : Doacao.SEM_HORA,
+                rs.getDouble(volume), valorTriagem, valorDoador);
+        doacao.setVersao(ControleVersao.ler(rs, versao));
+        return doacao;
+    }
+}
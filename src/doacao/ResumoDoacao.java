@@ -0,0 +1,78 @@
+package doacao;
+
+import java.time.LocalDate;
+
+/**
+ * Resumo de doação para as telas de listagem.
+ *
+ * <p>Data em epoch day, hora em segundos do dia e IDs como {@code long}:
+ * nenhum objeto {@code Date}, {@code Time} ou {@code Long} por linha, e sem
+ * as colunas de auditoria ({@code created_at}, {@code updated_at}).</p>
+ */
+public final class ResumoDoacao {
+
+    private final long id;
+    private final int dataDia;
+    private final int horaSegundos;
+    private final double volume;
+    private final long triagemId;
+    private final long doadorId;
+
+    /**
+     * @param id ID da doação
+     * @param dataDia Data da doação em epoch day
+     * @param horaSegundos Hora da doação em segundos desde 00:00
+     * @param volume Volume coletado em ml
+     * @param triagemId ID da triagem
+     * @param doadorId ID do doador
+     */
+    public ResumoDoacao(long id, int dataDia, int horaSegundos, double volume, long triagemId, long doadorId) {
+        this.id = id;
+        this.dataDia = dataDia;
+        this.horaSegundos = horaSegundos;
+        this.volume = volume;
+        this.triagemId = triagemId;
+        this.doadorId = doadorId;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /** @return Data da doação em epoch day */
+    public int getDataDia() {
+        return dataDia;
+    }
+
+    /** @return Data da doação */
+    public LocalDate getData() {
+        return LocalDate.ofEpochDay(dataDia);
+    }
+
+    /** @return Hora da doação em segundos desde 00:00 */
+    public int getHoraSegundos() {
+        return horaSegundos;
+    }
+
+    /** @return Hora no formato HH:MM:SS (como {@code java.sql.Time}) */
+    public String getHoraFormatada() {
+        return String.format("%02d:%02d:%02d", horaSegundos / 3600, horaSegundos / 60 % 60, horaSegundos % 60);
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public long getTriagemId() {
+        return triagemId;
+    }
+
+    public long getDoadorId() {
+        return doadorId;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumoDoacao{id=" + id + ", data=" + getData() + ", volume=" + volume + "}";
+    }
+}
@@ -0,0 +1,174 @@
+package doador;
+
+import database.ControleVersao;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Campo da tabela {@code doador} usado em {@link CriteriosDoador}.
+ *
+ * <p>O parâmetro de tipo garante em tempo de compilação que cada filtro
+ * recebe um valor do tipo da coluna (ex.: {@code igual(CampoDoador.CPF, 123L)}
+ * compila, {@code igual(CampoDoador.CPF, "123")} não). Cada campo sabe ler a
+ * coluna do {@link ResultSet}, preencher um parâmetro e ler/gravar o valor no
+ * {@link Doador}.</p>
+ *
+ * @param <T> Tipo Java do campo
+ */
+public final class CampoDoador<T> {
+
+    /** Lê o valor de uma coluna (null para NULL) */
+    interface Leitor<T> {
+        T ler(ResultSet rs, int indice) throws SQLException;
+    }
+
+    /** Preenche um parâmetro com um valor não nulo */
+    interface Escritor<T> {
+        void escrever(PreparedStatement stmt, int indice, T valor) throws SQLException;
+    }
+
+    private static final Leitor<Long> LER_LONG = (rs, i) -> {
+        long valor = rs.getLong(i);
+        return rs.wasNull() ? null : valor;
+    };
+    private static final Escritor<Long> ESCREVER_LONG = PreparedStatement::setLong;
+
+    public static final CampoDoador<Long> ID =
+        new CampoDoador<>("id", null, "bigint", LER_LONG, ESCREVER_LONG, Doador::getId, Doador::setId);
+    public static final CampoDoador<String> NOME =
+        texto("nome", null, Doador::getNome, Doador::setNome);
+    public static final CampoDoador<Long> CPF =
+        new CampoDoador<>("cpf", null, "bigint", LER_LONG, ESCREVER_LONG, Doador::getCpf, Doador::setCpf);
+    public static final CampoDoador<String> SEXO =
+        texto("sexo", null, Doador::getSexo, Doador::setSexo);
+    public static final CampoDoador<String> TIPO_SANGUINEO =
+        texto("tipo_sanguineo", null, Doador::getTipoSanguineo, Doador::setTipoSanguineo);
+    public static final CampoDoador<Date> DATA_NASCIMENTO =
+        data("data_nascimento", Doador::getDataNascimento, Doador::setDataNascimento);
+    public static final CampoDoador<Long> TELEFONE =
+        new CampoDoador<>("telefone", null, "bigint", LER_LONG, ESCREVER_LONG, Doador::getTelefone, Doador::setTelefone);
+    public static final CampoDoador<String> BAIRRO =
+        texto("bairro", "bairro_busca", Doador::getBairro, Doador::setBairro);
+    public static final CampoDoador<String> NACIONALIDADE =
+        textoInternado("nacionalidade", null, Doador::getNacionalidade, Doador::setNacionalidade);
+    public static final CampoDoador<String> CIDADE =
+        texto("cidade", "cidade_busca", Doador::getCidade, Doador::setCidade);
+    public static final CampoDoador<Date> ULTIMA_DOACAO =
+        data("ultima_doacao", Doador::getUltimaDoacao, Doador::setUltimaDoacao);
+    public static final CampoDoador<Long> ID_HOSPITAL =
+        new CampoDoador<>("id_hospital", null, "bigint", LER_LONG, ESCREVER_LONG, Doador::getIdHospital, Doador::setIdHospital);
+    /** Versão do registro ({@code updated_at}); lida nas consultas, não é gravada pelo usuário */
+    public static final CampoDoador<Long> VERSAO =
+        new CampoDoador<>(ControleVersao.COLUNA, null, "timestamp",
+            (rs, i) -> {
+                long versao = ControleVersao.ler(rs, i);
+                return versao == ControleVersao.SEM_VERSAO ? null : versao;
+            },
+            ControleVersao::definir,
+            d -> d.getVersao() == Doador.AUSENTE ? null : d.getVersao(),
+            (d, v) -> d.setVersao(v != null ? v : Doador.AUSENTE));
+
+    /** Todos os campos, na ordem das colunas da tabela */
+    public static final List<CampoDoador<?>> TODOS = Collections.unmodifiableList(Arrays.asList(
+        ID, NOME, CPF, SEXO, TIPO_SANGUINEO, DATA_NASCIMENTO, TELEFONE, BAIRRO,
+        NACIONALIDADE, CIDADE, ULTIMA_DOACAO, ID_HOSPITAL, VERSAO));
+
+    private final String coluna;
+    private final String colunaBusca;
+    private final String tipoSql;
+    private final Leitor<T> leitor;
+    private final Escritor<T> escritor;
+    private final Function<Doador, T> obter;
+    private final BiConsumer<Doador, T> definir;
+
+    private CampoDoador(String coluna, String colunaBusca, String tipoSql, Leitor<T> leitor, Escritor<T> escritor,
+            Function<Doador, T> obter, BiConsumer<Doador, T> definir) {
+        this.coluna = coluna;
+        this.colunaBusca = colunaBusca;
+        this.tipoSql = tipoSql;
+        this.leitor = leitor;
+        this.escritor = escritor;
+        this.obter = obter;
+        this.definir = definir;
+    }
+
+    private static CampoDoador<String> texto(String coluna, String colunaBusca,
+            Function<Doador, String> obter, BiConsumer<Doador, String> definir) {
+        return new CampoDoador<>(coluna, colunaBusca, "text", ResultSet::getString,
+                PreparedStatement::setString, obter, definir);
+    }
+
+    /** Texto de baixa cardinalidade: a leitura devolve a instância compartilhada (ver {@link MapeadorDoador}) */
+    private static CampoDoador<String> textoInternado(String coluna, String colunaBusca,
+            Function<Doador, String> obter, BiConsumer<Doador, String> definir) {
+        return new CampoDoador<>(coluna, colunaBusca, "text", (rs, i) -> MapeadorDoador.internar(rs.getString(i)),
+                PreparedStatement::setString, obter, definir);
+    }
+
+    private static CampoDoador<Date> data(String coluna, Function<Doador, Date> obter, BiConsumer<Doador, Date> definir) {
+        return new CampoDoador<>(coluna, null, "date", ResultSet::getDate,
+                PreparedStatement::setDate, obter, definir);
+    }
+
+    /** @return Nome da coluna na tabela */
+    public String getColuna() {
+        return coluna;
+    }
+
+    /** @return Coluna normalizada para busca ({@code *_busca}) ou null se não houver */
+    String getColunaBusca() {
+        return colunaBusca;
+    }
+
+    /** @return Tipo SQL dos arrays usados em {@code = ANY(?)} */
+    String getTipoSql() {
+        return tipoSql;
+    }
+
+    T ler(ResultSet rs, int indice) throws SQLException {
+        return leitor.ler(rs, indice);
+    }
+
+    void escrever(PreparedStatement stmt, int indice, T valor) throws SQLException {
+        escritor.escrever(stmt, indice, valor);
+    }
+
+    /** Preenche um parâmetro com o valor do campo no doador (NULL se não houver) */
+    void gravar(PreparedStatement stmt, int indice, Doador doador) throws SQLException {
+        gravarValor(stmt, indice, obter(doador));
+    }
+
+    /** Preenche um parâmetro com um valor obtido deste campo (ex.: o estado lido na unidade de trabalho) */
+    @SuppressWarnings("unchecked")
+    void gravarValor(PreparedStatement stmt, int indice, Object objeto) throws SQLException {
+        T valor = (T) objeto;
+        if (valor == null) {
+            stmt.setNull(indice, "bigint".equals(tipoSql) ? Types.BIGINT
+                    : "date".equals(tipoSql) ? Types.DATE
+                    : "timestamp".equals(tipoSql) ? Types.TIMESTAMP : Types.VARCHAR);
+        } else {
+            escrever(stmt, indice, valor);
+        }
+    }
+
+    T obter(Doador doador) {
+        return obter.apply(doador);
+    }
+
+    void definir(Doador doador, T valor) {
+        definir.accept(doador, valor);
+    }
+
+    @Override
+    public String toString() {
+        return coluna;
+    }
+}
@@ -0,0 +1,427 @@
+package doador;
+
+import database.CacheConsultas;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import util.NormalizadorTexto;
+
+/**
+ * Montador de consultas sobre a tabela {@code doador}.
+ *
+ * <p>Substitui um método fixo no DAO para cada combinação de filtros:</p>
+ * <pre>
+ * List&lt;Doador&gt; pagina = CriteriosDoador.novo()
+ *     .igual(CampoDoador.TIPO_SANGUINEO, "A+")
+ *     .contem(CampoDoador.CIDADE, "sao paulo")
+ *     .ordenarPor(CampoDoador.NOME, true)
+ *     .selecionar(CampoDoador.ID, CampoDoador.NOME, CampoDoador.CPF)
+ *     .apos(ultimoDaPaginaAnterior)
+ *     .limite(50)
+ *     .listar();
+ * </pre>
+ *
+ * <p>Os valores nunca entram no texto SQL: o SQL depende apenas da estrutura
+ * dos critérios e é executado por statements reaproveitados de
+ * {@link CacheConsultas}. Filtros de texto em cidade e bairro usam as colunas
+ * normalizadas ({@code *_busca}) e seus índices. A paginação pode ser por
+ * {@code limite}/{@code deslocamento} ou por chave ({@link #apos(Doador)}),
+ * que continua a partir do último doador da página anterior sem percorrer as
+ * linhas já exibidas; a ordenação sempre termina pelo ID, para ser estável.</p>
+ *
+ * <p>Com {@link #selecionar(CampoDoador...)} apenas as colunas indicadas são
+ * lidas; os demais campos dos doadores retornados ficam null. As telas de
+ * listagem usam {@link #listarResumos()}, que devolve {@link ResumoDoador}.</p>
+ */
+public final class CriteriosDoador {
+
+    /** Parâmetro a ser preenchido no statement (arrays criados vão para a lista, liberados após a execução) */
+    private interface Parametro {
+        void aplicar(PreparedStatement stmt, int indice, List<Array> arrays) throws SQLException;
+    }
+
+    private final List<String> condicoes = new ArrayList<>();
+    private final List<Parametro> parametros = new ArrayList<>();
+    private final List<CampoDoador<?>> ordem = new ArrayList<>();
+    private final List<Boolean> crescente = new ArrayList<>();
+    private List<CampoDoador<?>> projecao = CampoDoador.TODOS;
+    private Integer limite;
+    private Long deslocamento;
+    private Doador cursor;
+
+    private CriteriosDoador() {}
+
+    /** @return Critérios vazios (todos os doadores, todas as colunas) */
+    public static CriteriosDoador novo() {
+        return new CriteriosDoador();
+    }
+
+    /** Campo igual ao valor (valor null equivale a {@link #nulo(CampoDoador)}) */
+    public <T> CriteriosDoador igual(CampoDoador<T> campo, T valor) {
+        return valor == null ? nulo(campo) : comparar(campo, "=", valor);
+    }
+
+    /** Campo diferente do valor */
+    public <T> CriteriosDoador diferente(CampoDoador<T> campo, T valor) {
+        return comparar(campo, "<>", valor);
+    }
+
+    /** Campo menor que o valor */
+    public <T> CriteriosDoador menorQue(CampoDoador<T> campo, T valor) {
+        return comparar(campo, "<", valor);
+    }
+
+    /** Campo menor ou igual ao valor */
+    public <T> CriteriosDoador menorOuIgual(CampoDoador<T> campo, T valor) {
+        return comparar(campo, "<=", valor);
+    }
+
+    /** Campo maior que o valor */
+    public <T> CriteriosDoador maiorQue(CampoDoador<T> campo, T valor) {
+        return comparar(campo, ">", valor);
+    }
+
+    /** Campo maior ou igual ao valor */
+    public <T> CriteriosDoador maiorOuIgual(CampoDoador<T> campo, T valor) {
+        return comparar(campo, ">=", valor);
+    }
+
+    /** Campo entre os dois valores (inclusive) */
+    public <T> CriteriosDoador entre(CampoDoador<T> campo, T inicio, T fim) {
+        return maiorOuIgual(campo, inicio).menorOuIgual(campo, fim);
+    }
+
+    /** Campo com um dos valores informados ({@code = ANY(?)}) */
+    public <T> CriteriosDoador em(CampoDoador<T> campo, Collection<T> valores) {
+        Object[] elementos = valores.toArray();
+        condicoes.add(campo.getColuna() + " = ANY(?)");
+        parametros.add((stmt, i, arrays) -> {
+            Array array = stmt.getConnection().createArrayOf(campo.getTipoSql(), elementos);
+            arrays.add(array);
+            stmt.setArray(i, array);
+        });
+        return this;
+    }
+
+    /** Campo NULL */
+    public CriteriosDoador nulo(CampoDoador<?> campo) {
+        condicoes.add(campo.getColuna() + " IS NULL");
+        return this;
+    }
+
+    /** Campo não NULL */
+    public CriteriosDoador naoNulo(CampoDoador<?> campo) {
+        condicoes.add(campo.getColuna() + " IS NOT NULL");
+        return this;
+    }
+
+    /**
+     * Texto contido no campo, sem distinção de acentos e maiúsculas.
+     */
+    public CriteriosDoador contem(CampoDoador<String> campo, String texto) {
+        return padraoTexto(campo, "'%' || hc_normalizar(?) || '%'", texto);
+    }
+
+    /**
+     * Campo que começa com o texto, sem distinção de acentos e maiúsculas.
+     */
+    public CriteriosDoador comecaCom(CampoDoador<String> campo, String texto) {
+        return padraoTexto(campo, "hc_normalizar(?) || '%'", texto);
+    }
+
+    /**
+     * Acrescenta um campo à ordenação (o ID é sempre o último critério).
+     * @param campo Campo de ordenação
+     * @param ascendente true para ordem crescente
+     */
+    public CriteriosDoador ordenarPor(CampoDoador<?> campo, boolean ascendente) {
+        ordem.add(campo);
+        crescente.add(ascendente);
+        return this;
+    }
+
+    /**
+     * Restringe as colunas lidas (o ID é sempre incluído).
+     */
+    public CriteriosDoador selecionar(CampoDoador<?>... campos) {
+        List<CampoDoador<?>> colunas = new ArrayList<>();
+        colunas.add(CampoDoador.ID);
+        for (CampoDoador<?> campo : campos) {
+            if (!colunas.contains(campo)) {
+                colunas.add(campo);
+            }
+        }
+        projecao = colunas;
+        return this;
+    }
+
+    /** Quantidade máxima de doadores retornados */
+    public CriteriosDoador limite(int quantidade) {
+        limite = quantidade;
+        return this;
+    }
+
+    /** Quantidade de doadores ignorados no início do resultado */
+    public CriteriosDoador deslocamento(long quantidade) {
+        deslocamento = quantidade;
+        return this;
+    }
+
+    /**
+     * Paginação por chave: retorna os doadores posteriores ao informado na
+     * ordenação definida. O doador precisa ter o ID e os campos de ordenação
+     * preenchidos (não nulos).
+     *
+     * @param ultimo Último doador da página anterior
+     */
+    public CriteriosDoador apos(Doador ultimo) {
+        cursor = ultimo;
+        return this;
+    }
+
+    /**
+     * Executa a consulta.
+     * @return Doadores encontrados (com os campos da projeção preenchidos)
+     * @throws SQLException se houver erro na consulta
+     */
+    public List<Doador> listar() throws SQLException {
+        List<Parametro> valores = new ArrayList<>(parametros);
+        String sql = gerarSql(colunasProjecao(), valores);
+
+        List<Doador> doadores = new ArrayList<>();
+        PreparedStatement stmt = CacheConsultas.preparar(sql);
+        try {
+            synchronized (stmt) {
+                List<Array> arrays = new ArrayList<>();
+                try {
+                    aplicar(stmt, valores, arrays);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Doador doador = new Doador(null, null, null, null, null, null, null, null, null, null,
+                                    null, null);
+                            for (int i = 0; i < projecao.size(); i++) {
+                                copiar(projecao.get(i), rs, i + 1, doador);
+                            }
+                            doadores.add(doador);
+                        }
+                    }
+                } finally {
+                    liberar(arrays);
+                }
+            }
+        } finally {
+            CacheConsultas.devolver(stmt);
+        }
+        return doadores;
+    }
+
+    /**
+     * Executa a consulta lendo apenas as colunas das telas de listagem
+     * (ignora {@link #selecionar(CampoDoador...)}).
+     * @return Resumos dos doadores encontrados
+     * @throws SQLException se houver erro na consulta
+     */
+    public List<ResumoDoador> listarResumos() throws SQLException {
+        List<Parametro> valores = new ArrayList<>(parametros);
+        String sql = gerarSql(DoadorDAO.COLUNAS_RESUMO, valores);
+
+        List<ResumoDoador> resumos = new ArrayList<>();
+        PreparedStatement stmt = CacheConsultas.preparar(sql);
+        try {
+            synchronized (stmt) {
+                List<Array> arrays = new ArrayList<>();
+                try {
+                    aplicar(stmt, valores, arrays);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            resumos.add(DoadorDAO.mapResultSetToResumo(rs));
+                        }
+                    }
+                } finally {
+                    liberar(arrays);
+                }
+            }
+        } finally {
+            CacheConsultas.devolver(stmt);
+        }
+        return resumos;
+    }
+
+    /**
+     * @return Primeiro doador do resultado ou null se não houver
+     * @throws SQLException se houver erro na consulta
+     */
+    public Doador primeiro() throws SQLException {
+        Integer limiteOriginal = limite;
+        limite = 1;
+        try {
+            List<Doador> doadores = listar();
+            return doadores.isEmpty() ? null : doadores.get(0);
+        } finally {
+            limite = limiteOriginal;
+        }
+    }
+
+    /**
+     * Conta os doadores que atendem aos filtros (ignora ordenação, paginação e cursor).
+     * @return Quantidade de doadores
+     * @throws SQLException se houver erro na consulta
+     */
+    public long contar() throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM doador");
+        acrescentarCondicoes(sql, condicoes);
+
+        PreparedStatement stmt = CacheConsultas.preparar(sql.toString());
+        try {
+            synchronized (stmt) {
+                List<Array> arrays = new ArrayList<>();
+                try {
+                    aplicar(stmt, parametros, arrays);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        return rs.getLong(1);
+                    }
+                } finally {
+                    liberar(arrays);
+                }
+            }
+        } finally {
+            CacheConsultas.devolver(stmt);
+        }
+    }
+
+    /**
+     * @return SQL gerado para {@link #listar()} (para diagnóstico)
+     */
+    public String getSql() {
+        return gerarSql(colunasProjecao(), new ArrayList<>(parametros));
+    }
+
+    private <T> CriteriosDoador comparar(CampoDoador<T> campo, String operador, T valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("Valor nulo para " + campo + " " + operador);
+        }
+        condicoes.add(campo.getColuna() + " " + operador + " ?");
+        parametros.add((stmt, i, arrays) -> campo.escrever(stmt, i, valor));
+        return this;
+    }
+
+    private CriteriosDoador padraoTexto(CampoDoador<String> campo, String padrao, String texto) {
+        // Sem coluna normalizada, normaliza a própria coluna (sem índice)
+        String coluna = campo.getColunaBusca() != null
+                ? campo.getColunaBusca()
+                : "hc_normalizar(" + campo.getColuna() + ")";
+        String valor = NormalizadorTexto.escaparLike(texto != null ? texto : "");
+        condicoes.add(coluna + " LIKE " + padrao);
+        parametros.add((stmt, i, arrays) -> stmt.setString(i, valor));
+        return this;
+    }
+
+    private String colunasProjecao() {
+        StringBuilder colunas = new StringBuilder();
+        for (int i = 0; i < projecao.size(); i++) {
+            colunas.append(i > 0 ? ", " : "").append(projecao.get(i).getColuna());
+        }
+        return colunas.toString();
+    }
+
+    /**
+     * Gera o SQL de listagem, acrescentando à lista os parâmetros do cursor e da paginação.
+     */
+    private String gerarSql(String colunas, List<Parametro> valores) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(colunas).append(" FROM doador");
+
+        List<CampoDoador<?>> campos = new ArrayList<>(ordem);
+        List<Boolean> direcoes = new ArrayList<>(crescente);
+        if (!campos.contains(CampoDoador.ID)) {
+            campos.add(CampoDoador.ID);
+            direcoes.add(true);
+        }
+
+        List<String> todas = new ArrayList<>(condicoes);
+        if (cursor != null) {
+            todas.add(condicaoCursor(campos, direcoes, valores));
+        }
+        acrescentarCondicoes(sql, todas);
+
+        if (!ordem.isEmpty() || cursor != null || limite != null || deslocamento != null) {
+            sql.append(" ORDER BY ");
+            for (int i = 0; i < campos.size(); i++) {
+                sql.append(i > 0 ? ", " : "").append(campos.get(i).getColuna())
+                   .append(direcoes.get(i) ? "" : " DESC");
+            }
+        }
+
+        // Limite e deslocamento como parâmetros: o SQL não muda entre páginas
+        if (limite != null) {
+            int quantidade = limite;
+            sql.append(" LIMIT ?");
+            valores.add((stmt, i, arrays) -> stmt.setInt(i, quantidade));
+        }
+        if (deslocamento != null) {
+            long quantidade = deslocamento;
+            sql.append(" OFFSET ?");
+            valores.add((stmt, i, arrays) -> stmt.setLong(i, quantidade));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Condição "depois do cursor" na ordenação: (a > ?) OR (a = ? AND b > ?) OR ...
+     * com o operador invertido para campos em ordem decrescente.
+     */
+    private String condicaoCursor(List<CampoDoador<?>> campos, List<Boolean> direcoes, List<Parametro> valores) {
+        StringBuilder condicao = new StringBuilder("(");
+        for (int k = 0; k < campos.size(); k++) {
+            condicao.append(k > 0 ? " OR " : "").append('(');
+            for (int j = 0; j < k; j++) {
+                condicao.append(campos.get(j).getColuna()).append(" = ? AND ");
+                valores.add(parametroCursor(campos.get(j)));
+            }
+            condicao.append(campos.get(k).getColuna()).append(direcoes.get(k) ? " > ?" : " < ?").append(')');
+            valores.add(parametroCursor(campos.get(k)));
+        }
+        return condicao.append(')').toString();
+    }
+
+    private <T> Parametro parametroCursor(CampoDoador<T> campo) {
+        T valor = campo.obter(cursor);
+        if (valor == null) {
+            throw new IllegalStateException("Cursor sem valor para o campo de ordenação " + campo);
+        }
+        return (stmt, i, arrays) -> campo.escrever(stmt, i, valor);
+    }
+
+    private static void acrescentarCondicoes(StringBuilder sql, List<String> condicoes) {
+        for (int i = 0; i < condicoes.size(); i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ").append(condicoes.get(i));
+        }
+    }
+
+    private static void aplicar(PreparedStatement stmt, List<Parametro> valores, List<Array> arrays)
+            throws SQLException {
+        stmt.clearParameters();
+        for (int i = 0; i < valores.size(); i++) {
+            valores.get(i).aplicar(stmt, i + 1, arrays);
+        }
+    }
+
+    /** Libera os arrays dos parâmetros {@code = ANY(?)} depois da execução */
+    private static void liberar(List<Array> arrays) {
+        for (Array array : arrays) {
+            try {
+                array.free();
+            } catch (SQLException e) {
+                System.err.println("Erro ao liberar array de parâmetros: " + e.getMessage());
+            }
+        }
+    }
+
+    private static <T> void copiar(CampoDoador<T> campo, ResultSet rs, int indice, Doador doador) throws SQLException {
+        campo.definir(doador, campo.ler(rs, indice));
+    }
+}
@@ -0,0 +1,490 @@
+package doador;
+
+import database.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import util.ConjuntoLongs;
+import util.NormalizadorTexto;
+
+/**
+ * Detecção de doadores possivelmente duplicados (mesma pessoa cadastrada com
+ * CPF digitado errado), que burlariam o intervalo mínimo entre doações.
+ *
+ * <p>A detecção ocorre em três etapas, sem comparar todos os pares:</p>
+ * <ol>
+ *   <li><b>Blocagem</b>: só são comparados doadores com a mesma data de
+ *       nascimento e a mesma cidade (normalizada). Os doadores são lidos do
+ *       banco já ordenados por essa chave, de modo que apenas um bloco por vez
+ *       fica em memória na leitura.</li>
+ *   <li><b>MinHash/LSH</b>: em blocos grandes, cada nome recebe uma assinatura
+ *       MinHash dos seus trigramas; somente pares que coincidem em alguma faixa
+ *       da assinatura viram candidatos. Blocos pequenos comparam todos os pares.</li>
+ *   <li><b>Pontuação</b>: cada candidato recebe uma nota que combina a
+ *       similaridade de Jaccard dos trigramas do nome com a distância de edição
+ *       entre os CPFs (dígitos trocados, omitidos ou transpostos).</li>
+ * </ol>
+ *
+ * <p>Os blocos são processados em paralelo. A mesma pontuação é usada na
+ * verificação de um novo cadastro ({@link #verificarCadastro(Doador)}),
+ * conforme o {@link Modo} configurado.</p>
+ */
+public class DeduplicadorDoadores {
+
+    /**
+     * Comportamento da verificação de duplicidade no cadastro de doadores.
+     */
+    public enum Modo {
+        /** Não verifica */
+        DESATIVADO,
+        /** Exibe um aviso e permite o cadastro */
+        AVISAR,
+        /** Recusa o cadastro */
+        BLOQUEAR
+    }
+
+    /** Nota mínima para que um par seja considerado possível duplicidade */
+    private static final double LIMIAR_PONTUACAO = 0.75;
+
+    /** Similaridade mínima de nome; pares abaixo dela nem têm o CPF comparado */
+    private static final double SIMILARIDADE_NOME_MINIMA = 0.5;
+
+    /** Peso do nome na nota (o restante é do CPF) */
+    private static final double PESO_NOME = 0.6;
+
+    /** Blocos até esse tamanho comparam todos os pares diretamente */
+    private static final int TAMANHO_BLOCO_EXAUSTIVO = 32;
+
+    /** Faixas e linhas por faixa da assinatura MinHash (limiar aproximado de Jaccard ~0,6) */
+    private static final int FAIXAS = 8;
+    private static final int LINHAS_POR_FAIXA = 4;
+    private static final int TAMANHO_ASSINATURA = FAIXAS * LINHAS_POR_FAIXA;
+
+    /** Baldes do LSH acima desse tamanho comparam apenas vizinhos em ordem de CPF */
+    private static final int TAMANHO_MAXIMO_BALDE = 256;
+    private static final int JANELA_BALDE_GRANDE = 16;
+
+    /** Sementes das funções de hash da assinatura */
+    private static final int[] SEMENTES = new int[TAMANHO_ASSINATURA];
+
+    private static final int DIGITOS_CPF = 11;
+
+    private static final String SELECT_DOADORES_POR_BLOCO =
+        "SELECT id, nome, cpf, data_nascimento, cidade_busca FROM doador " +
+        "WHERE data_nascimento IS NOT NULL ORDER BY data_nascimento, cidade_busca, id";
+
+    private static final String SELECT_DOADORES_DO_BLOCO =
+        "SELECT id, nome, cpf FROM doador WHERE data_nascimento = ? AND cidade_busca = hc_normalizar(?)";
+
+    private static volatile Modo modo = lerModoInicial();
+
+    static {
+        int semente = 0x2545F491;
+        for (int i = 0; i < SEMENTES.length; i++) {
+            semente = misturar(semente + 0x9E3779B9);
+            SEMENTES[i] = semente;
+        }
+    }
+
+    // Construtor privado: classe utilitária
+    private DeduplicadorDoadores() {}
+
+    /**
+     * Par de doadores possivelmente duplicados.
+     */
+    public static class ParSuspeito {
+        private final long idA;
+        private final String nomeA;
+        private final long cpfA;
+        private final long idB;
+        private final String nomeB;
+        private final long cpfB;
+        private final double similaridadeNome;
+        private final int distanciaCpf;
+        private final double pontuacao;
+
+        ParSuspeito(long idA, String nomeA, long cpfA, long idB, String nomeB, long cpfB,
+                double similaridadeNome, int distanciaCpf, double pontuacao) {
+            this.idA = idA;
+            this.nomeA = nomeA;
+            this.cpfA = cpfA;
+            this.idB = idB;
+            this.nomeB = nomeB;
+            this.cpfB = cpfB;
+            this.similaridadeNome = similaridadeNome;
+            this.distanciaCpf = distanciaCpf;
+            this.pontuacao = pontuacao;
+        }
+
+        /** @return ID do primeiro doador (0 para um cadastro ainda não gravado) */
+        public long getIdA() { return idA; }
+        public String getNomeA() { return nomeA; }
+        public long getCpfA() { return cpfA; }
+        public long getIdB() { return idB; }
+        public String getNomeB() { return nomeB; }
+        public long getCpfB() { return cpfB; }
+        /** @return Similaridade de Jaccard dos trigramas dos nomes (0 a 1) */
+        public double getSimilaridadeNome() { return similaridadeNome; }
+        /** @return Quantidade de edições de dígitos entre os CPFs */
+        public int getDistanciaCpf() { return distanciaCpf; }
+        /** @return Nota combinada (0 a 1) */
+        public double getPontuacao() { return pontuacao; }
+    }
+
+    /**
+     * Registro lido do banco para comparação.
+     */
+    private static final class Registro {
+        final long id;
+        final String nome;
+        final long cpf;
+        int[] trigramas;
+
+        Registro(long id, String nome, long cpf) {
+            this.id = id;
+            this.nome = nome;
+            this.cpf = cpf;
+        }
+    }
+
+    /** @return Modo atual da verificação no cadastro */
+    public static Modo getModo() {
+        return modo;
+    }
+
+    /** Define o modo da verificação no cadastro */
+    public static void setModo(Modo novoModo) {
+        modo = novoModo != null ? novoModo : Modo.AVISAR;
+    }
+
+    /**
+     * Percorre todos os doadores e retorna os pares possivelmente duplicados.
+     *
+     * @return Pares suspeitos, da maior para a menor nota
+     * @throws SQLException se houver erro na leitura dos doadores
+     */
+    public static List<ParSuspeito> detectar() throws SQLException {
+        ConcurrentLinkedQueue<ParSuspeito> encontrados = new ConcurrentLinkedQueue<>();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+        // Fila limitada: se os workers atrasarem, a própria thread de leitura processa o bloco
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        Connection conn = DatabaseConnection.getConnection();
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(false); // necessário para o cursor com fetchSize
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOADORES_POR_BLOCO)) {
+                stmt.setFetchSize(10_000);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<Registro> bloco = new ArrayList<>();
+                    Date dataBloco = null;
+                    String cidadeBloco = null;
+
+                    while (rs.next()) {
+                        Date data = rs.getDate(4);
+                        String cidade = rs.getString(5);
+
+                        if (!bloco.isEmpty() && !(data.equals(dataBloco) && igual(cidade, cidadeBloco))) {
+                            enviarBloco(executor, bloco, encontrados);
+                            bloco = new ArrayList<>();
+                        }
+                        dataBloco = data;
+                        cidadeBloco = cidade;
+                        bloco.add(new Registro(rs.getLong(1), rs.getString(2), rs.getLong(3)));
+                    }
+                    enviarBloco(executor, bloco, encontrados);
+                }
+            }
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.HOURS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<ParSuspeito> resultado = new ArrayList<>(encontrados);
+        resultado.sort((a, b) -> Double.compare(b.getPontuacao(), a.getPontuacao()));
+        return resultado;
+    }
+
+    /**
+     * Compara um novo cadastro com os doadores do mesmo bloco
+     * (mesma data de nascimento e cidade).
+     *
+     * @param doador Doador a ser cadastrado
+     * @return Pares suspeitos envolvendo o novo doador, da maior para a menor nota
+     * @throws SQLException se houver erro na consulta
+     */
+    public static List<ParSuspeito> verificarCadastro(Doador doador) throws SQLException {
+        List<ParSuspeito> suspeitos = new ArrayList<>();
+        if (doador.getDataNascimento() == null || doador.getCidade() == null
+                || doador.getNome() == null || doador.getCpf() == null) {
+            return suspeitos;
+        }
+
+        Registro novo = new Registro(doador.getId() != null ? doador.getId() : 0L, doador.getNome(), doador.getCpf());
+        novo.trigramas = trigramas(novo.nome);
+
+        Connection conn = DatabaseConnection.getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOADORES_DO_BLOCO)) {
+            stmt.setDate(1, doador.getDataNascimento());
+            stmt.setString(2, doador.getCidade());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Registro existente = new Registro(rs.getLong(1), rs.getString(2), rs.getLong(3));
+                    if (existente.id == novo.id) {
+                        continue;
+                    }
+                    existente.trigramas = trigramas(existente.nome);
+                    ParSuspeito par = pontuar(novo, existente);
+                    if (par != null) {
+                        suspeitos.add(par);
+                    }
+                }
+            }
+        }
+
+        suspeitos.sort((a, b) -> Double.compare(b.getPontuacao(), a.getPontuacao()));
+        return suspeitos;
+    }
+
+    private static void enviarBloco(ThreadPoolExecutor executor, List<Registro> bloco,
+            ConcurrentLinkedQueue<ParSuspeito> encontrados) {
+        if (bloco.size() < 2) {
+            return;
+        }
+        executor.execute(() -> encontrados.addAll(compararBloco(bloco)));
+    }
+
+    /**
+     * Compara os doadores de um bloco: todos os pares em blocos pequenos,
+     * apenas os candidatos do LSH em blocos grandes.
+     */
+    private static List<ParSuspeito> compararBloco(List<Registro> bloco) {
+        List<ParSuspeito> pares = new ArrayList<>();
+        int n = bloco.size();
+        for (Registro registro : bloco) {
+            registro.trigramas = trigramas(registro.nome);
+        }
+
+        if (n <= TAMANHO_BLOCO_EXAUSTIVO) {
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    adicionarSeSuspeito(pares, bloco.get(i), bloco.get(j));
+                }
+            }
+            return pares;
+        }
+
+        int[][] assinaturas = new int[n][];
+        for (int i = 0; i < n; i++) {
+            assinaturas[i] = assinatura(bloco.get(i).trigramas);
+        }
+
+        ConjuntoLongs comparados = new ConjuntoLongs();
+        for (int faixa = 0; faixa < FAIXAS; faixa++) {
+            Map<Long, List<Integer>> baldes = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                baldes.computeIfAbsent(chaveFaixa(assinaturas[i], faixa), k -> new ArrayList<>()).add(i);
+            }
+
+            for (List<Integer> balde : baldes.values()) {
+                // Baldes enormes (nomes muito comuns): compara só vizinhos em ordem de CPF
+                int janela = balde.size();
+                if (balde.size() > TAMANHO_MAXIMO_BALDE) {
+                    balde.sort((x, y) -> Long.compare(bloco.get(x).cpf, bloco.get(y).cpf));
+                    janela = JANELA_BALDE_GRANDE;
+                }
+
+                for (int a = 0; a < balde.size(); a++) {
+                    for (int b = a + 1; b < balde.size() && b <= a + janela; b++) {
+                        int i = Math.min(balde.get(a), balde.get(b));
+                        int j = Math.max(balde.get(a), balde.get(b));
+                        if (comparados.adicionar((long) i * n + j)) {
+                            adicionarSeSuspeito(pares, bloco.get(i), bloco.get(j));
+                        }
+                    }
+                }
+            }
+        }
+
+        return pares;
+    }
+
+    private static void adicionarSeSuspeito(List<ParSuspeito> pares, Registro a, Registro b) {
+        ParSuspeito par = a.id <= b.id ? pontuar(a, b) : pontuar(b, a);
+        if (par != null) {
+            pares.add(par);
+        }
+    }
+
+    /**
+     * @return Par pontuado, ou null se a nota ficar abaixo do limiar
+     */
+    private static ParSuspeito pontuar(Registro a, Registro b) {
+        double similaridadeNome = jaccard(a.trigramas, b.trigramas);
+        if (similaridadeNome < SIMILARIDADE_NOME_MINIMA) {
+            return null;
+        }
+
+        int distanciaCpf = distanciaDigitos(a.cpf, b.cpf);
+        double similaridadeCpf = 1.0 - (double) distanciaCpf / DIGITOS_CPF;
+        double pontuacao = PESO_NOME * similaridadeNome + (1.0 - PESO_NOME) * similaridadeCpf;
+
+        if (pontuacao < LIMIAR_PONTUACAO) {
+            return null;
+        }
+        return new ParSuspeito(a.id, a.nome, a.cpf, b.id, b.nome, b.cpf, similaridadeNome, distanciaCpf, pontuacao);
+    }
+
+    /**
+     * Trigramas do nome normalizado (com espaço nas bordas), como hashes
+     * distintos e ordenados.
+     */
+    private static int[] trigramas(String nome) {
+        String texto = " " + (nome != null ? NormalizadorTexto.normalizar(nome) : "") + " ";
+        if (texto.length() < 3) {
+            return new int[0];
+        }
+
+        int[] hashes = new int[texto.length() - 2];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = (texto.charAt(i) * 31 + texto.charAt(i + 1)) * 31 + texto.charAt(i + 2);
+        }
+        Arrays.sort(hashes);
+
+        int distintos = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                hashes[distintos++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, distintos);
+    }
+
+    private static double jaccard(int[] a, int[] b) {
+        if (a.length == 0 && b.length == 0) {
+            return 1.0;
+        }
+        int i = 0;
+        int j = 0;
+        int comuns = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                comuns++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) comuns / (a.length + b.length - comuns);
+    }
+
+    private static int[] assinatura(int[] trigramas) {
+        int[] minimos = new int[TAMANHO_ASSINATURA];
+        Arrays.fill(minimos, Integer.MAX_VALUE);
+        for (int trigrama : trigramas) {
+            for (int k = 0; k < TAMANHO_ASSINATURA; k++) {
+                int valor = misturar(trigrama ^ SEMENTES[k]);
+                if (valor < minimos[k]) {
+                    minimos[k] = valor;
+                }
+            }
+        }
+        return minimos;
+    }
+
+    private static long chaveFaixa(int[] assinatura, int faixa) {
+        long chave = faixa;
+        int inicio = faixa * LINHAS_POR_FAIXA;
+        for (int k = inicio; k < inicio + LINHAS_POR_FAIXA; k++) {
+            chave = chave * 0x100000001B3L + assinatura[k];
+        }
+        return chave;
+    }
+
+    /**
+     * Distância de edição entre os 11 dígitos dos CPFs, contando substituição,
+     * inserção, remoção e transposição de dígitos vizinhos como uma edição.
+     */
+    static int distanciaDigitos(long cpfA, long cpfB) {
+        int[] a = digitos(cpfA);
+        int[] b = digitos(cpfB);
+
+        int[][] d = new int[DIGITOS_CPF + 1][DIGITOS_CPF + 1];
+        for (int i = 0; i <= DIGITOS_CPF; i++) {
+            d[i][0] = i;
+            d[0][i] = i;
+        }
+        for (int i = 1; i <= DIGITOS_CPF; i++) {
+            for (int j = 1; j <= DIGITOS_CPF; j++) {
+                int custo = a[i - 1] == b[j - 1] ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + custo);
+                if (i > 1 && j > 1 && a[i - 1] == b[j - 2] && a[i - 2] == b[j - 1]) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[DIGITOS_CPF][DIGITOS_CPF];
+    }
+
+    private static int[] digitos(long cpf) {
+        int[] digitos = new int[DIGITOS_CPF];
+        long resto = Math.abs(cpf);
+        for (int i = DIGITOS_CPF - 1; i >= 0; i--) {
+            digitos[i] = (int) (resto % 10);
+            resto /= 10;
+        }
+        return digitos;
+    }
+
+    private static int misturar(int x) {
+        x ^= x >>> 16;
+        x *= 0x7FEB352D;
+        x ^= x >>> 15;
+        x *= 0x846CA68B;
+        x ^= x >>> 16;
+        return x;
+    }
+
+    private static boolean igual(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * Modo inicial, configurável pela propriedade de sistema
+     * {@code hemoconnect.duplicidade} (DESATIVADO, AVISAR ou BLOQUEAR).
+     */
+    private static Modo lerModoInicial() {
+        String valor = System.getProperty("hemoconnect.duplicidade", Modo.AVISAR.name());
+        try {
+            return Modo.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Modo de duplicidade inválido: " + valor + " (usando AVISAR)");
+            return Modo.AVISAR;
+        }
+    }
+}
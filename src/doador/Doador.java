@@ -1,6 +1,8 @@
 package doador;
 
 import java.sql.Date;
+import util.Calendario;
+import util.TabelaCodigos;
 
 /**
  * Classe modelo que representa um doador de sangue no sistema HemoConnect.
@@ -12,32 +14,56 @@ import java.sql.Date;
  * <p>A classe implementa validações básicas para garantir a integridade dos dados
  * e fornece métodos utilitários para verificação de elegibilidade para doação.</p>
  * 
+ * <p>Os campos são guardados em forma compacta, pois centenas de milhares de
+ * doadores podem ficar em cache: números como {@code long} primitivo (com
+ * {@link #AUSENTE} no lugar de null), datas como dias desde 01/01/1970
+ * (epoch day, {@link #SEM_DATA} no lugar de null) e sexo e tipo sanguíneo como
+ * códigos de 1 byte. Os getters e setters continuam com os tipos de antes
+ * ({@code Long}, {@code Date}, {@code String}) e fazem a conversão.</p>
+ * 
  * @author Sistema HemoConnect
  * @version 1.0
  * @since 1.0
  */
 public class Doador {
     
+    /** Valor dos campos numéricos sem valor (o getter devolve null) */
+    public static final long AUSENTE = Long.MIN_VALUE;
+    
+    /** Valor das datas sem valor (o getter devolve null) */
+    public static final int SEM_DATA = Integer.MIN_VALUE;
+    
+    /** Códigos de sexo */
+    private static final TabelaCodigos SEXOS = new TabelaCodigos("M", "F");
+    
+    /** Códigos de tipo sanguíneo */
+    private static final TabelaCodigos TIPOS_SANGUINEOS =
+        new TabelaCodigos("A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-");
+    
+    /** Posições de {@link #textosSemCodigo} */
+    private static final int TEXTO_SEXO = 0;
+    private static final int TEXTO_TIPO = 1;
+    
     /** Identificador único do doador na base de dados */
-    private Long id;
+    private long id = AUSENTE;
     
     /** Nome completo do doador */
     private String nome;
     
     /** Número do CPF do doador (formato numérico) */
-    private Long cpf;
+    private long cpf = AUSENTE;
     
-    /** Sexo do doador (M para Masculino, F para Feminino) */
-    private String sexo;
+    /** Sexo do doador (M para Masculino, F para Feminino), código em {@link #SEXOS} */
+    private byte sexo;
     
-    /** Tipo sanguíneo do doador (A+, A-, B+, B-, AB+, AB-, O+, O-) */
-    private String tipoSanguineo;
+    /** Tipo sanguíneo do doador (A+, A-, B+, B-, AB+, AB-, O+, O-), código em {@link #TIPOS_SANGUINEOS} */
+    private byte tipoSanguineo;
     
-    /** Data de nascimento do doador */
-    private Date dataNascimento;
+    /** Data de nascimento do doador (epoch day) */
+    private int dataNascimento = SEM_DATA;
     
     /** Número de telefone para contato */
-    private Long telefone;
+    private long telefone = AUSENTE;
     
     /** Bairro de residência do doador */
     private String bairro;
@@ -48,11 +74,17 @@ public class Doador {
     /** Cidade de residência do doador */
     private String cidade;
     
-    /** Data da última doação realizada pelo doador */
-    private Date ultimaDoacao;
+    /** Data da última doação realizada pelo doador (epoch day) */
+    private int ultimaDoacao = SEM_DATA;
     
     /** Identificador do hospital ao qual o doador está vinculado */
-    private Long idHospital;
+    private long idHospital = AUSENTE;
+    
+    /** Sexo e tipo sanguíneo sem código (tabela de códigos cheia); quase sempre null */
+    private String[] textosSemCodigo;
+    
+    /** Versão do registro lida do banco ({@code updated_at} em microssegundos) ou {@link #AUSENTE} */
+    private long versao = AUSENTE;
 
     /**
      * Construtor completo para objetos vindos da base de dados.
@@ -73,18 +105,9 @@ public class Doador {
     public Doador(Long id, String nome, Long cpf, String sexo, String tipoSanguineo, 
                   Date dataNascimento, Long telefone, String bairro, String nacionalidade, 
                   String cidade, Date ultimaDoacao, Long idHospital) {
-        this.id = id;
-        this.nome = nome;
-        this.cpf = cpf;
-        this.sexo = sexo;
-        this.tipoSanguineo = tipoSanguineo;
-        this.dataNascimento = dataNascimento;
-        this.telefone = telefone;
-        this.bairro = bairro;
-        this.nacionalidade = nacionalidade;
-        this.cidade = cidade;
-        this.ultimaDoacao = ultimaDoacao;
-        this.idHospital = idHospital;
+        this(nome, cpf, sexo, tipoSanguineo, dataNascimento, telefone, bairro, nacionalidade, cidade, idHospital);
+        setId(id);
+        setUltimaDoacao(ultimaDoacao);
     }
 
     /**
@@ -108,14 +131,37 @@ public class Doador {
                   Date dataNascimento, Long telefone, String bairro, String nacionalidade, 
                   String cidade, Long idHospital) {
         this.nome = nome;
+        this.cpf = deLong(cpf);
+        setSexo(sexo);
+        setTipoSanguineo(tipoSanguineo);
+        this.dataNascimento = deData(dataNascimento);
+        this.telefone = deLong(telefone);
+        this.bairro = bairro;
+        this.nacionalidade = nacionalidade;
+        this.cidade = cidade;
+        this.idHospital = deLong(idHospital);
+    }
+
+    /**
+     * Construtor com os campos já na forma compacta, usado na leitura do banco
+     * ({@link MapeadorDoador}) para não criar objetos intermediários.
+     * 
+     * @param dataNascimento Data de nascimento em epoch day
+     * @param ultimaDoacao Data da última doação em epoch day ou {@link #SEM_DATA}
+     */
+    Doador(long id, String nome, long cpf, String sexo, String tipoSanguineo, int dataNascimento,
+           long telefone, String bairro, String nacionalidade, String cidade, int ultimaDoacao, long idHospital) {
+        this.id = id;
+        this.nome = nome;
         this.cpf = cpf;
-        this.sexo = sexo;
-        this.tipoSanguineo = tipoSanguineo;
+        setSexo(sexo);
+        setTipoSanguineo(tipoSanguineo);
         this.dataNascimento = dataNascimento;
         this.telefone = telefone;
         this.bairro = bairro;
         this.nacionalidade = nacionalidade;
         this.cidade = cidade;
+        this.ultimaDoacao = ultimaDoacao;
         this.idHospital = idHospital;
     }
 
@@ -124,14 +170,14 @@ public class Doador {
      * 
      * @return ID do doador ou null se ainda não persistido
      */
-    public Long getId() { return id; }
+    public Long getId() { return paraLong(id); }
     
     /**
      * Define o identificador único do doador.
      * 
      * @param id Identificador único do doador
      */
-    public void setId(Long id) { this.id = id; }
+    public void setId(Long id) { this.id = deLong(id); }
     
     /**
      * Obtém o nome completo do doador.
@@ -152,70 +198,70 @@ public class Doador {
      * 
      * @return Número do CPF (formato numérico)
      */
-    public Long getCpf() { return cpf; }
+    public Long getCpf() { return paraLong(cpf); }
     
     /**
      * Define o número do CPF do doador.
      * 
      * @param cpf Número do CPF (deve ter 11 dígitos)
      */
-    public void setCpf(Long cpf) { this.cpf = cpf; }
+    public void setCpf(Long cpf) { this.cpf = deLong(cpf); }
     
     /**
      * Obtém o sexo do doador.
      * 
      * @return Sexo do doador (M para Masculino, F para Feminino)
      */
-    public String getSexo() { return sexo; }
+    public String getSexo() { return texto(SEXOS, sexo, TEXTO_SEXO); }
     
     /**
      * Define o sexo do doador.
      * 
      * @param sexo Sexo do doador (M para Masculino, F para Feminino)
      */
-    public void setSexo(String sexo) { this.sexo = sexo; }
+    public void setSexo(String sexo) { this.sexo = codigo(SEXOS, sexo, TEXTO_SEXO); }
     
     /**
      * Obtém o tipo sanguíneo do doador.
      * 
      * @return Tipo sanguíneo (A+, A-, B+, B-, AB+, AB-, O+, O-)
      */
-    public String getTipoSanguineo() { return tipoSanguineo; }
+    public String getTipoSanguineo() { return texto(TIPOS_SANGUINEOS, tipoSanguineo, TEXTO_TIPO); }
     
     /**
      * Define o tipo sanguíneo do doador.
      * 
      * @param tipoSanguineo Tipo sanguíneo válido (A+, A-, B+, B-, AB+, AB-, O+, O-)
      */
-    public void setTipoSanguineo(String tipoSanguineo) { this.tipoSanguineo = tipoSanguineo; }
+    public void setTipoSanguineo(String tipoSanguineo) { this.tipoSanguineo = codigo(TIPOS_SANGUINEOS, tipoSanguineo, TEXTO_TIPO); }
     
     /**
      * Obtém a data de nascimento do doador.
      * 
      * @return Data de nascimento
      */
-    public Date getDataNascimento() { return dataNascimento; }
+    public Date getDataNascimento() { return paraData(dataNascimento); }
     
     /**
      * Define a data de nascimento do doador.
      * 
      * @param dataNascimento Data de nascimento
      */
-    public void setDataNascimento(Date dataNascimento) { this.dataNascimento = dataNascimento; }
+    public void setDataNascimento(Date dataNascimento) { this.dataNascimento = deData(dataNascimento); }
     
     /**
      * Obtém o número de telefone do doador.
      * 
      * @return Número de telefone para contato
      */
-    public Long getTelefone() { return telefone; }
+    public Long getTelefone() { return paraLong(telefone); }
     
     /**
      * Define o número de telefone do doador.
      * 
      * @param telefone Número de telefone para contato
      */
-    public void setTelefone(Long telefone) { this.telefone = telefone; }
+    public void setTelefone(Long telefone) { this.telefone = deLong(telefone); }
     
     /**
      * Obtém o bairro de residência do doador.
@@ -264,28 +310,83 @@ public class Doador {
      * 
      * @return Data da última doação ou null se nunca doou
      */
-    public Date getUltimaDoacao() { return ultimaDoacao; }
+    public Date getUltimaDoacao() { return paraData(ultimaDoacao); }
     
     /**
      * Define a data da última doação realizada.
      * 
      * @param ultimaDoacao Data da última doação
      */
-    public void setUltimaDoacao(Date ultimaDoacao) { this.ultimaDoacao = ultimaDoacao; }
+    public void setUltimaDoacao(Date ultimaDoacao) { this.ultimaDoacao = deData(ultimaDoacao); }
 
     /**
      * Obtém o identificador do hospital vinculado.
      * 
      * @return ID do hospital ao qual o doador está vinculado
      */
-    public Long getIdHospital() { return idHospital; }
+    public Long getIdHospital() { return paraLong(idHospital); }
     
     /**
      * Define o identificador do hospital vinculado.
      * 
      * @param idHospital ID do hospital ao qual o doador será vinculado
      */
-    public void setIdHospital(Long idHospital) { this.idHospital = idHospital; }
+    public void setIdHospital(Long idHospital) { this.idHospital = deLong(idHospital); }
+
+    /**
+     * Obtém a data de nascimento sem criar objeto.
+     * @return Data de nascimento em epoch day ou {@link #SEM_DATA}
+     */
+    public int getDataNascimentoDia() { return dataNascimento; }
+    
+    /**
+     * Obtém a data da última doação sem criar objeto.
+     * @return Data da última doação em epoch day ou {@link #SEM_DATA} se nunca doou
+     */
+    public int getUltimaDoacaoDia() { return ultimaDoacao; }
+    
+    /**
+     * Obtém a versão do registro, conferida na atualização.
+     * @return Versão lida do banco ou {@link #AUSENTE} se não foi lida
+     */
+    public long getVersao() { return versao; }
+    
+    /**
+     * Define a versão do registro (ao copiar um doador lido para outro objeto).
+     * @param versao Versão lida do banco
+     */
+    public void setVersao(long versao) { this.versao = versao; }
+    
+    private static Long paraLong(long valor) {
+        return valor == AUSENTE ? null : valor;
+    }
+    
+    private static long deLong(Long valor) {
+        return valor == null ? AUSENTE : valor;
+    }
+    
+    private static Date paraData(int dia) {
+        return dia == SEM_DATA ? null : Calendario.paraDate(dia);
+    }
+    
+    private static int deData(Date data) {
+        return data == null ? SEM_DATA : Calendario.dia(data);
+    }
+    
+    private String texto(TabelaCodigos tabela, byte codigo, int posicao) {
+        return codigo == TabelaCodigos.SEM_CODIGO ? textosSemCodigo[posicao] : tabela.texto(codigo);
+    }
+    
+    private byte codigo(TabelaCodigos tabela, String texto, int posicao) {
+        byte codigo = tabela.codigo(texto);
+        if (codigo == TabelaCodigos.SEM_CODIGO) {
+            if (textosSemCodigo == null) {
+                textosSemCodigo = new String[2];
+            }
+            textosSemCodigo[posicao] = texto;
+        }
+        return codigo;
+    }
 
     /**
      * Valida se todos os dados obrigatórios do doador estão preenchidos.
@@ -297,15 +398,15 @@ public class Doador {
      */
     public boolean validarDados() {
         return nome != null && !nome.trim().isEmpty() &&
-               cpf != null && cpf > 0 &&
-               sexo != null && !sexo.trim().isEmpty() &&
-               tipoSanguineo != null && !tipoSanguineo.trim().isEmpty() &&
-               dataNascimento != null &&
-               telefone != null && telefone > 0 &&
+               cpf > 0 &&
+               getSexo() != null && !getSexo().trim().isEmpty() &&
+               getTipoSanguineo() != null && !getTipoSanguineo().trim().isEmpty() &&
+               dataNascimento != SEM_DATA &&
+               telefone > 0 &&
                bairro != null && !bairro.trim().isEmpty() &&
                nacionalidade != null && !nacionalidade.trim().isEmpty() &&
                cidade != null && !cidade.trim().isEmpty() &&
-               idHospital != null && idHospital > 0;
+               idHospital > 0;
     }
 
     /**
@@ -346,16 +447,14 @@ public class Doador {
     /**
      * Calcula a idade atual do doador em anos.
      * 
-     * <p>Calcula a idade com base na data de nascimento e a data atual.
-     * O cálculo é aproximado, baseado em dias divididos por 365.</p>
+     * <p>Calcula a idade com base na data de nascimento e a data atual
+     * ({@link Calendario}), em aniversários completos.</p>
      * 
      * @return Idade do doador em anos, ou 0 se data de nascimento for null
      */
     public int calcularIdade() {
-        if (dataNascimento == null) return 0;
-        long diffInMillies = System.currentTimeMillis() - dataNascimento.getTime();
-        long diffInDays = diffInMillies / (24 * 60 * 60 * 1000);
-        return (int) (diffInDays / 365);
+        if (dataNascimento == SEM_DATA) return 0;
+        return Calendario.idade(dataNascimento);
     }
 
     /**
@@ -4,6 +4,13 @@ import java.sql.Date;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
+import database.ConflitoAtualizacaoException;
+import database.UnidadeDeTrabalho;
+import estoque.EstoqueSangue;
+import estoque.PrevisaoDoacoes;
+import hospital.CatalogoHospitais;
+import util.BitmapCompacto;
+import util.Calendario;
 
 /**
  * Controlador responsável pela lógica de negócio relacionada aos doadores.
@@ -56,6 +63,10 @@ public class DoadorController {
                 return null;
             }
             
+            if (!hospitalExiste(idHospital)) {
+                return null;
+            }
+            
             if (DoadorDAO.cpfExiste(cpf, null)) {
                 System.err.println("CPF já existe no sistema");
                 return null;
@@ -68,7 +79,16 @@ public class DoadorController {
                 return null;
             }
             
-            return DoadorDAO.inserir(doador);
+            if (!verificarDuplicidade(doador)) {
+                return null;
+            }
+            
+            Doador criado = DoadorDAO.inserir(doador);
+            if (criado != null && criado.getId() != null) {
+                IndiceNomesDoador.registrar(criado.getId(), criado.getNome());
+                IndiceBitmapDoador.registrar(criado);
+            }
+            return criado;
             
         } catch (SQLException e) {
             System.err.println("Erro ao criar doador: " + e.getMessage());
@@ -76,6 +96,38 @@ public class DoadorController {
         }
     }
     
+    /**
+     * Compara o novo doador com os cadastrados na mesma data de nascimento e
+     * cidade, conforme o modo de {@link DeduplicadorDoadores}.
+     * 
+     * @param doador Doador a ser cadastrado
+     * @return false se o cadastro deve ser recusado por possível duplicidade
+     * @throws SQLException se houver erro na consulta
+     */
+    private static boolean verificarDuplicidade(Doador doador) throws SQLException {
+        DeduplicadorDoadores.Modo modo = DeduplicadorDoadores.getModo();
+        if (modo == DeduplicadorDoadores.Modo.DESATIVADO) {
+            return true;
+        }
+        
+        List<DeduplicadorDoadores.ParSuspeito> suspeitos = DeduplicadorDoadores.verificarCadastro(doador);
+        if (suspeitos.isEmpty()) {
+            return true;
+        }
+        
+        DeduplicadorDoadores.ParSuspeito maisProvavel = suspeitos.get(0);
+        String mensagem = String.format("Possível doador duplicado: %s (ID %d, CPF %d), semelhança %.0f%%",
+                maisProvavel.getNomeB(), maisProvavel.getIdB(), maisProvavel.getCpfB(),
+                maisProvavel.getPontuacao() * 100);
+        
+        if (modo == DeduplicadorDoadores.Modo.BLOQUEAR) {
+            System.err.println(mensagem + " - cadastro recusado");
+            return false;
+        }
+        System.err.println("Aviso: " + mensagem);
+        return true;
+    }
+    
     /**
      * Cria um novo doador e exibe mensagem de resultado.
      * 
@@ -106,11 +158,13 @@ public class DoadorController {
     /**
      * Lista todos os doadores cadastrados no sistema.
      * 
-     * @return Lista de todos os doadores ou lista vazia em caso de erro
+     * <p>Lê apenas as colunas exibidas na listagem (ver {@link ResumoDoador}).</p>
+     * 
+     * @return Resumos de todos os doadores ou lista vazia em caso de erro
      */
-    public static List<Doador> listarTodosDoadores() {
+    public static List<ResumoDoador> listarTodosDoadores() {
         try {
-            return DoadorDAO.buscarTodos();
+            return criteriosListagem().listarResumos();
         } catch (SQLException e) {
             System.err.println("Erro ao listar doadores: " + e.getMessage());
             return new ArrayList<>();
@@ -125,7 +179,7 @@ public class DoadorController {
      */
     public static void exibirTodosDoadores() {
         try {
-            List<Doador> doadores = DoadorDAO.buscarTodos();
+            List<ResumoDoador> doadores = criteriosListagem().listarResumos();
             DoadorView.exibirListaDoadores(doadores);
         } catch (SQLException e) {
             System.err.println("Erro ao buscar doadores: " + e.getMessage());
@@ -133,6 +187,13 @@ public class DoadorController {
         }
     }
     
+    /**
+     * @return Critérios das telas de listagem, em ordem de nome
+     */
+    private static CriteriosDoador criteriosListagem() {
+        return CriteriosDoador.novo().ordenarPor(CampoDoador.NOME, true);
+    }
+    
     /**
      * Busca um doador pelo seu identificador único.
      * 
@@ -171,12 +232,149 @@ public class DoadorController {
      */
     public static List<Doador> listarDoadoresPorHospital(Long idHospital) {
         try {
-            return DoadorDAO.buscarPorHospital(idHospital);
+            return criteriosListagem().igual(CampoDoador.ID_HOSPITAL, idHospital).listar();
         } catch (SQLException e) {
             System.err.println("Erro ao buscar doadores por hospital: " + e.getMessage());
             return new ArrayList<>();
         }
     }
+    
+    /**
+     * Lista os resumos dos doadores vinculados a um hospital, para a tela de listagem.
+     * 
+     * @param idHospital Identificador único do hospital
+     * @return Resumos dos doadores do hospital ou lista vazia em caso de erro
+     */
+    public static List<ResumoDoador> listarResumosPorHospital(Long idHospital) {
+        try {
+            return criteriosListagem().igual(CampoDoador.ID_HOSPITAL, idHospital).listarResumos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar doadores por hospital: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Lista os doadores de uma cidade, sem distinção de acentos e maiúsculas.
+     * 
+     * @param cidade Cidade (ou parte do nome) a ser buscada
+     * @return Resumos dos doadores da cidade ou lista vazia em caso de erro
+     */
+    public static List<ResumoDoador> listarDoadoresPorCidade(String cidade) {
+        try {
+            return criteriosListagem().contem(CampoDoador.CIDADE, cidade).listarResumos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar doadores por cidade: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Lista os doadores de um bairro, sem distinção de acentos e maiúsculas.
+     * 
+     * @param bairro Bairro (ou parte do nome) a ser buscado
+     * @return Resumos dos doadores do bairro ou lista vazia em caso de erro
+     */
+    public static List<ResumoDoador> listarDoadoresPorBairro(String bairro) {
+        try {
+            return criteriosListagem().contem(CampoDoador.BAIRRO, bairro).listarResumos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar doadores por bairro: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Busca doadores pelo nome (ou início de palavras do nome), para autocompletar.
+     * 
+     * <p>Usa o {@link IndiceNomesDoador} em memória para encontrar os IDs e
+     * carrega apenas os resumos dos doadores encontrados, na ordem de relevância.</p>
+     * 
+     * @param nome Texto digitado (ex.: "maria s" ou "silva jo")
+     * @param limite Quantidade máxima de doadores retornados
+     * @return Resumos dos doadores encontrados ou lista vazia em caso de erro
+     */
+    public static List<ResumoDoador> buscarDoadoresPorNome(String nome, int limite) {
+        try {
+            long[] ids = IndiceNomesDoador.buscar(nome, limite);
+            return DoadorDAO.buscarResumosPorIds(ids);
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar doadores por nome: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Filtra doadores combinando atributos, pelos índices de bitmap em memória.
+     * 
+     * <p>Cada critério informado como null é ignorado; os demais são combinados
+     * com E. Apenas os doadores resultantes são lidos do banco.</p>
+     * 
+     * @param tipoSanguineo Tipo sanguíneo (ex.: "A+") ou null
+     * @param sexo Sexo ("M"/"F") ou null
+     * @param cidade Cidade (sem distinção de acentos e maiúsculas) ou null
+     * @param idHospital ID do hospital ou null
+     * @param idadeMinima Idade mínima ou null
+     * @param idadeMaxima Idade máxima ou null
+     * @param apenasAptos true para manter apenas doadores aptos a doar hoje
+     * @param limite Quantidade máxima de doadores retornados
+     * @return Resumos dos doadores encontrados (em ordem de ID) ou lista vazia em caso de erro
+     */
+    public static List<ResumoDoador> filtrarDoadores(String tipoSanguineo, String sexo, String cidade, Long idHospital,
+            Integer idadeMinima, Integer idadeMaxima, boolean apenasAptos, int limite) {
+        try {
+            IndiceBitmapDoador indice = IndiceBitmapDoador.obter();
+            List<BitmapCompacto> criterios = new ArrayList<>();
+            
+            if (tipoSanguineo != null) {
+                criterios.add(indice.tipoSanguineo(tipoSanguineo));
+            }
+            if (sexo != null) {
+                criterios.add(indice.sexo(sexo));
+            }
+            if (cidade != null) {
+                criterios.add(indice.cidade(cidade));
+            }
+            if (idHospital != null) {
+                criterios.add(indice.hospital(idHospital));
+            }
+            if (idadeMinima != null || idadeMaxima != null) {
+                criterios.add(indice.faixaEtaria(idadeMinima != null ? idadeMinima : 0,
+                        idadeMaxima != null ? idadeMaxima : 200));
+            }
+            if (apenasAptos) {
+                criterios.add(indice.aptos());
+            }
+            
+            // Interseção a partir do critério mais seletivo: os resultados intermediários ficam pequenos
+            criterios.sort((a, b) -> Integer.compare(a.cardinalidade(), b.cardinalidade()));
+            BitmapCompacto filtro = criterios.isEmpty() ? indice.todos() : criterios.get(0);
+            for (int i = 1; i < criterios.size(); i++) {
+                filtro = filtro.e(criterios.get(i));
+            }
+            
+            return indice.buscar(filtro, limite);
+            
+        } catch (SQLException e) {
+            System.err.println("Erro ao filtrar doadores: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Lista os pares de doadores possivelmente duplicados (CPF digitado errado),
+     * para revisão pelo administrador.
+     * 
+     * @return Pares suspeitos, da maior para a menor nota, ou lista vazia em caso de erro
+     */
+    public static List<DeduplicadorDoadores.ParSuspeito> listarPossiveisDuplicados() {
+        try {
+            return DeduplicadorDoadores.detectar();
+        } catch (SQLException e) {
+            System.err.println("Erro ao detectar doadores duplicados: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
     /**
      * Atualiza os dados de um doador existente.
@@ -198,13 +396,28 @@ public class DoadorController {
                 return false;
             }
             
+            if (!hospitalExiste(doador.getIdHospital())) {
+                return false;
+            }
+            
             if (DoadorDAO.cpfExiste(doador.getCpf(), doador.getId())) {
                 System.err.println("CPF já existe no sistema");
                 return false;
             }
             
-            return DoadorDAO.atualizar(doador);
+            boolean sucesso = DoadorDAO.atualizar(doador);
+            if (sucesso) {
+                IndiceNomesDoador.registrar(doador.getId(), doador.getNome());
+                IndiceBitmapDoador.registrar(doador);
+                // Tipo sanguíneo ou hospital podem ter mudado: as bolsas do doador mudam de lugar
+                EstoqueSangue.agendarDoador(doador.getId());
+                PrevisaoDoacoes.agendarDoador(doador.getId());
+            }
+            return sucesso;
             
+        } catch (ConflitoAtualizacaoException e) {
+            System.err.println("Doador alterado por outro usuário desde a consulta. Consulte novamente e refaça a alteração.");
+            return false;
         } catch (SQLException e) {
             System.err.println("Erro ao atualizar doador: " + e.getMessage());
             return false;
@@ -223,7 +436,16 @@ public class DoadorController {
                 return false;
             }
             
-            return DoadorDAO.remover(id);
+            if (possuiDoacoes(id)) {
+                return false;
+            }
+            
+            boolean sucesso = DoadorDAO.remover(id);
+            if (sucesso) {
+                IndiceNomesDoador.remover(id);
+                IndiceBitmapDoador.remover(id);
+            }
+            return sucesso;
             
         } catch (SQLException e) {
             System.err.println("Erro ao remover doador: " + e.getMessage());
@@ -243,7 +465,17 @@ public class DoadorController {
                 return false;
             }
             
-            return DoadorDAO.removerPorCpf(cpf);
+            Doador existente = DoadorDAO.buscarPorCpf(cpf);
+            if (existente != null && possuiDoacoes(existente.getId())) {
+                return false;
+            }
+            
+            boolean sucesso = DoadorDAO.removerPorCpf(cpf);
+            if (sucesso && existente != null) {
+                IndiceNomesDoador.remover(existente.getId());
+                IndiceBitmapDoador.remover(existente.getId());
+            }
+            return sucesso;
             
         } catch (SQLException e) {
             System.err.println("Erro ao remover doador: " + e.getMessage());
@@ -251,6 +483,23 @@ public class DoadorController {
         }
     }
     
+    /**
+     * Verifica, com contagem limitada, se o doador tem doações registradas
+     * (que impedem a remoção), exibindo o erro nesse caso.
+     * 
+     * @param id Identificador único do doador
+     * @return true se há doações vinculadas ao doador
+     * @throws SQLException se houver erro na consulta
+     */
+    private static boolean possuiDoacoes(Long id) throws SQLException {
+        if (!DoadorDAO.DEPENDENCIAS.existe(id)) {
+            return false;
+        }
+        System.err.println("Não é possível remover o doador: existem " +
+                         DoadorDAO.DEPENDENCIAS.contar(id).descrever() + " registrada(s)");
+        return true;
+    }
+    
     /**
      * Remove um doador através de interação com o usuário.
      * 
@@ -301,6 +550,8 @@ public class DoadorController {
                         (Date) dados[10],       // ultimaDoacao
                         (Long) dados[11]        // idHospital
                     );
+                    // Versão lida na consulta: a gravação é recusada se outro usuário alterou o doador
+                    doadorAtualizado.setVersao(doadorAtual.getVersao());
                     
                     boolean sucesso = atualizarDoador(doadorAtualizado);
                     
@@ -328,7 +579,11 @@ public class DoadorController {
      */
     public static boolean atualizarUltimaDoacao(Long doadorId, Date dataDoacao) {
         try {
-            return DoadorDAO.atualizarUltimaDoacao(doadorId, dataDoacao);
+            boolean sucesso = DoadorDAO.atualizarUltimaDoacao(doadorId, dataDoacao);
+            if (sucesso) {
+                UnidadeDeTrabalho.aposConfirmar(() -> IndiceBitmapDoador.registrarDoacao(doadorId, dataDoacao));
+            }
+            return sucesso;
         } catch (SQLException e) {
             System.err.println("Erro ao atualizar última doação: " + e.getMessage());
             return false;
@@ -366,10 +621,8 @@ public class DoadorController {
                 return false;
             }
             
-            if (doador.getUltimaDoacao() != null) {
-                long diffInMillies = System.currentTimeMillis() - doador.getUltimaDoacao().getTime();
-                long diffInDays = diffInMillies / (24 * 60 * 60 * 1000);
-                return diffInDays >= 60;
+            if (doador.getUltimaDoacaoDia() != Doador.SEM_DATA) {
+                return Calendario.diasDesde(doador.getUltimaDoacaoDia()) >= 60;
             }
             
             return true;
@@ -383,13 +636,7 @@ public class DoadorController {
     /**
      * Valida os dados de entrada antes da criação ou atualização de um doador.
      * 
-     * <p>Realiza validação de todos os campos obrigatórios, verificando:</p>
-     * <ul>
-     *   <li>Campos não nulos e não vazios</li>
-     *   <li>Formato do CPF (11 dígitos)</li>
-     *   <li>Tipo sanguíneo válido</li>
-     *   <li>Valores numéricos positivos</li>
-     * </ul>
+     * <p>Exibe no console de erros o motivo da primeira regra violada.</p>
      * 
      * @param nome Nome completo do doador
      * @param cpf Número do CPF
@@ -402,58 +649,92 @@ public class DoadorController {
      * @param cidade Cidade de residência
      * @param idHospital ID do hospital vinculado
      * @return true se todos os dados são válidos, false caso contrário
+     * @see #motivoDadosInvalidos(String, Long, String, String, Date, Long, String, String, String, Long)
      */
     private static boolean validarDadosEntrada(String nome, Long cpf, String sexo, String tipoSanguineo, Date dataNascimento, Long telefone, String bairro, String nacionalidade, String cidade, Long idHospital) {
-        if (nome == null || nome.trim().isEmpty()) {
-            System.err.println("Nome não pode ser vazio");
+        String motivo = motivoDadosInvalidos(nome, cpf, sexo, tipoSanguineo, dataNascimento, telefone, bairro, nacionalidade, cidade, idHospital);
+        
+        if (motivo != null) {
+            System.err.println(motivo);
             return false;
         }
         
-        if (!Doador.validarCpf(cpf)) {
-            System.err.println("CPF deve ter 11 dígitos");
+        return true;
+    }
+    
+    /**
+     * Verifica no {@link CatalogoHospitais} (sem consulta ao banco) se o
+     * hospital do vínculo existe, exibindo o erro caso contrário.
+     * 
+     * @param idHospital ID do hospital vinculado
+     * @return true se o hospital existe
+     * @throws SQLException se o catálogo ainda não carregado não puder ser lido
+     */
+    private static boolean hospitalExiste(Long idHospital) throws SQLException {
+        if (!CatalogoHospitais.obter().existe(idHospital)) {
+            System.err.println("Hospital não encontrado: " + idHospital);
             return false;
         }
+        return true;
+    }
+    
+    /**
+     * Aplica as regras de validação dos dados de entrada de um doador.
+     * 
+     * <p>Verifica todos os campos obrigatórios:</p>
+     * <ul>
+     *   <li>Campos não nulos e não vazios</li>
+     *   <li>Formato do CPF (11 dígitos)</li>
+     *   <li>Tipo sanguíneo válido</li>
+     *   <li>Valores numéricos positivos</li>
+     * </ul>
+     * 
+     * <p>Compartilhado entre o cadastro individual e a importação em lote,
+     * para que ambos rejeitem exatamente os mesmos registros.</p>
+     * 
+     * @return Descrição da primeira regra violada, ou null se os dados são válidos
+     */
+    static String motivoDadosInvalidos(String nome, Long cpf, String sexo, String tipoSanguineo, Date dataNascimento, Long telefone, String bairro, String nacionalidade, String cidade, Long idHospital) {
+        if (nome == null || nome.trim().isEmpty()) {
+            return "Nome não pode ser vazio";
+        }
+        
+        if (!Doador.validarCpf(cpf)) {
+            return "CPF deve ter 11 dígitos";
+        }
         
         if (sexo == null || sexo.trim().isEmpty()) {
-            System.err.println("Sexo não pode ser vazio");
-            return false;
+            return "Sexo não pode ser vazio";
         }
         
         if (!Doador.validarTipoSanguineo(tipoSanguineo)) {
-            System.err.println("Tipo sanguíneo inválido");
-            return false;
+            return "Tipo sanguíneo inválido";
         }
         
         if (dataNascimento == null) {
-            System.err.println("Data de nascimento não pode ser vazia");
-            return false;
+            return "Data de nascimento não pode ser vazia";
         }
         
         if (telefone == null || telefone <= 0) {
-            System.err.println("Telefone inválido");
-            return false;
+            return "Telefone inválido";
         }
         
         if (bairro == null || bairro.trim().isEmpty()) {
-            System.err.println("Bairro não pode ser vazio");
-            return false;
+            return "Bairro não pode ser vazio";
         }
         
         if (nacionalidade == null || nacionalidade.trim().isEmpty()) {
-            System.err.println("Nacionalidade não pode ser vazia");
-            return false;
+            return "Nacionalidade não pode ser vazia";
         }
         
         if (cidade == null || cidade.trim().isEmpty()) {
-            System.err.println("Cidade não pode ser vazia");
-            return false;
+            return "Cidade não pode ser vazia";
         }
         
         if (idHospital == null || idHospital <= 0) {
-            System.err.println("ID do hospital inválido");
-            return false;
+            return "ID do hospital inválido";
         }
         
-        return true;
+        return null;
     }
 }
\ No newline at end of file
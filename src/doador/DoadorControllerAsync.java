@@ -0,0 +1,128 @@
+package doador;
+
+import database.ExecucaoAssincrona;
+import doacao.DoacaoControllerAsync;
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import triagem.Triagem;
+import triagem.TriagemControllerAsync;
+import util.Calendario;
+
+/**
+ * Versões assíncronas das operações de {@link DoadorController}.
+ *
+ * <p>Cada método executa a operação correspondente em
+ * {@link ExecucaoAssincrona} e devolve um {@link CompletableFuture} com o
+ * mesmo resultado (inclusive null, false ou lista vazia em caso de erro).</p>
+ */
+public final class DoadorControllerAsync {
+
+    // Construtor privado: classe utilitária
+    private DoadorControllerAsync() {}
+
+    /** Assíncrono de {@link DoadorController#criarDoador(String, Long, String, String, Date, Long, String, String, String, Long)} */
+    public static CompletableFuture<Doador> criarDoador(String nome, Long cpf, String sexo, String tipoSanguineo,
+            Date dataNascimento, Long telefone, String bairro, String nacionalidade, String cidade, Long idHospital) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.criarDoador(
+                nome, cpf, sexo, tipoSanguineo, dataNascimento, telefone, bairro, nacionalidade, cidade, idHospital));
+    }
+
+    /** Assíncrono de {@link DoadorController#listarTodosDoadores()} */
+    public static CompletableFuture<List<ResumoDoador>> listarTodosDoadores() {
+        return ExecucaoAssincrona.executar(() -> DoadorController.listarTodosDoadores());
+    }
+
+    /** Assíncrono de {@link DoadorController#buscarDoadorPorId(Long)} */
+    public static CompletableFuture<Doador> buscarDoadorPorId(Long id) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.buscarDoadorPorId(id));
+    }
+
+    /** Assíncrono de {@link DoadorController#buscarDoadorPorCpf(Long)} */
+    public static CompletableFuture<Doador> buscarDoadorPorCpf(Long cpf) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.buscarDoadorPorCpf(cpf));
+    }
+
+    /** Assíncrono de {@link DoadorController#listarDoadoresPorHospital(Long)} */
+    public static CompletableFuture<List<Doador>> listarDoadoresPorHospital(Long idHospital) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.listarDoadoresPorHospital(idHospital));
+    }
+
+    /** Assíncrono de {@link DoadorController#listarResumosPorHospital(Long)} */
+    public static CompletableFuture<List<ResumoDoador>> listarResumosPorHospital(Long idHospital) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.listarResumosPorHospital(idHospital));
+    }
+
+    /** Assíncrono de {@link DoadorController#listarDoadoresPorCidade(String)} */
+    public static CompletableFuture<List<ResumoDoador>> listarDoadoresPorCidade(String cidade) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.listarDoadoresPorCidade(cidade));
+    }
+
+    /** Assíncrono de {@link DoadorController#listarDoadoresPorBairro(String)} */
+    public static CompletableFuture<List<ResumoDoador>> listarDoadoresPorBairro(String bairro) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.listarDoadoresPorBairro(bairro));
+    }
+
+    /** Assíncrono de {@link DoadorController#buscarDoadoresPorNome(String, int)} */
+    public static CompletableFuture<List<ResumoDoador>> buscarDoadoresPorNome(String nome, int limite) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.buscarDoadoresPorNome(nome, limite));
+    }
+
+    /** Assíncrono de {@link DoadorController#filtrarDoadores(String, String, String, Long, Integer, Integer, boolean, int)} */
+    public static CompletableFuture<List<ResumoDoador>> filtrarDoadores(String tipoSanguineo, String sexo,
+            String cidade, Long idHospital, Integer idadeMinima, Integer idadeMaxima, boolean apenasAptos, int limite) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.filtrarDoadores(
+                tipoSanguineo, sexo, cidade, idHospital, idadeMinima, idadeMaxima, apenasAptos, limite));
+    }
+
+    /** Assíncrono de {@link DoadorController#listarPossiveisDuplicados()} */
+    public static CompletableFuture<List<DeduplicadorDoadores.ParSuspeito>> listarPossiveisDuplicados() {
+        return ExecucaoAssincrona.executar(() -> DoadorController.listarPossiveisDuplicados());
+    }
+
+    /** Assíncrono de {@link DoadorController#atualizarDoador(Doador)} */
+    public static CompletableFuture<Boolean> atualizarDoador(Doador doador) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.atualizarDoador(doador));
+    }
+
+    /** Assíncrono de {@link DoadorController#removerDoador(Long)} */
+    public static CompletableFuture<Boolean> removerDoador(Long id) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.removerDoador(id));
+    }
+
+    /** Assíncrono de {@link DoadorController#removerDoadorPorCpf(Long)} */
+    public static CompletableFuture<Boolean> removerDoadorPorCpf(Long cpf) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.removerDoadorPorCpf(cpf));
+    }
+
+    /** Assíncrono de {@link DoadorController#atualizarUltimaDoacao(Long, Date)} */
+    public static CompletableFuture<Boolean> atualizarUltimaDoacao(Long doadorId, Date dataDoacao) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.atualizarUltimaDoacao(doadorId, dataDoacao));
+    }
+
+    /** Assíncrono de {@link DoadorController#verificarDisponibilidadeDoacao(Long)} */
+    public static CompletableFuture<Boolean> verificarDisponibilidadeDoacao(Long doadorId) {
+        return ExecucaoAssincrona.executar(() -> DoadorController.verificarDisponibilidadeDoacao(doadorId));
+    }
+
+    /**
+     * Carrega a ficha do doador: a busca pelo CPF seguida do histórico de
+     * doações, em paralelo com as triagens do dia. O tempo total é o do mais
+     * lento dos dois caminhos, não a soma das três consultas.
+     *
+     * @param cpf CPF do doador
+     * @return Futuro com a ficha ou null se o doador não for encontrado
+     */
+    public static CompletableFuture<FichaDoador> carregarFicha(Long cpf) {
+        Date hoje = Calendario.dataHoje();
+        CompletableFuture<List<Triagem>> triagens = TriagemControllerAsync.listarTriagemDate(hoje);
+
+        return buscarDoadorPorCpf(cpf).thenCompose(doador -> {
+            if (doador == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return DoacaoControllerAsync.listarDoacoesPorDoador(doador.getId())
+                    .thenCombine(triagens, (historico, doDia) -> new FichaDoador(doador, historico, hoje, doDia));
+        });
+    }
+}
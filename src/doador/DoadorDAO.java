@@ -1,37 +1,42 @@
 package doador;
 
+import database.ControleVersao;
 import database.DatabaseConnection;
+import database.UnidadeDeTrabalho;
+import database.VerificadorDependencias;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import util.ConjuntoLongs;
 
 public class DoadorDAO {
+    
+    /** Registros que impedem a remoção de um doador */
+    public static final VerificadorDependencias DEPENDENCIAS = new VerificadorDependencias("doador")
+        .referencia("doacao", "doador_id", "doação(ões)");
     private static final String INSERT_DOADOR = 
         "INSERT INTO doador (nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, id_hospital) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     
-    private static final String SELECT_ALL_DOADORES = 
-        "SELECT id, nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, ultima_doacao, id_hospital FROM doador ORDER BY nome";
-    
-    private static final String SELECT_DOADOR_BY_ID = 
-        "SELECT id, nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, ultima_doacao, id_hospital FROM doador WHERE id = ?";
-    
-    private static final String SELECT_DOADOR_BY_CPF = 
-        "SELECT id, nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, ultima_doacao, id_hospital FROM doador WHERE cpf = ?";
-    
-    private static final String SELECT_DOADORES_BY_TIPO_SANGUINEO = 
-        "SELECT id, nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, ultima_doacao, id_hospital FROM doador WHERE tipo_sanguineo = ? ORDER BY nome";
+    private static final String SELECT_DOADORES_BY_IDS = 
+        "SELECT id, nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, ultima_doacao, id_hospital, updated_at FROM doador WHERE id = ANY(?)";
     
-    private static final String SELECT_DOADORES_BY_CIDADE = 
-        "SELECT id, nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, ultima_doacao, id_hospital FROM doador WHERE cidade ILIKE ? ORDER BY nome";
+    /** Colunas de {@link ResumoDoador}: datas como epoch day, sem data como {@link ResumoDoador#SEM_DATA} */
+    static final String COLUNAS_RESUMO = 
+        "id, nome, cpf, tipo_sanguineo, data_nascimento - DATE '1970-01-01', cidade, id_hospital, " +
+        "COALESCE(ultima_doacao - DATE '1970-01-01', " + ResumoDoador.SEM_DATA + ")";
     
-    private static final String SELECT_DOADORES_BY_HOSPITAL = 
-        "SELECT id, nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, ultima_doacao, id_hospital FROM doador WHERE id_hospital = ? ORDER BY nome";
+    private static final String SELECT_RESUMOS_BY_IDS = 
+        "SELECT " + COLUNAS_RESUMO + " FROM doador WHERE id = ANY(?)";
     
+    /** Atualização otimista: só grava se a versão lida ainda for a do banco (ver {@link ControleVersao}) */
     private static final String UPDATE_DOADOR = 
-        "UPDATE doador SET nome = ?, cpf = ?, sexo = ?, tipo_sanguineo = ?, data_nascimento = ?, telefone = ?, bairro = ?, nacionalidade = ?, cidade = ?, id_hospital = ? WHERE id = ?";
+        "UPDATE doador SET nome = ?, cpf = ?, sexo = ?, tipo_sanguineo = ?, data_nascimento = ?, telefone = ?, bairro = ?, nacionalidade = ?, cidade = ?, id_hospital = ?, " +
+        "updated_at = " + ControleVersao.NOVA_VERSAO + " WHERE id = ? AND " + ControleVersao.CONDICAO + " RETURNING updated_at";
     
     private static final String UPDATE_ULTIMA_DOACAO = 
-        "UPDATE doador SET ultima_doacao = ? WHERE id = ?";
+        "UPDATE doador SET ultima_doacao = ?, updated_at = " + ControleVersao.NOVA_VERSAO + " WHERE id = ?";
     
     private static final String DELETE_DOADOR = 
         "DELETE FROM doador WHERE id = ?";
@@ -41,6 +46,15 @@ public class DoadorDAO {
     
     private static final String CHECK_CPF_EXISTS = 
         "SELECT COUNT(*) FROM doador WHERE cpf = ? AND id != ?";
+    
+    private static final String SELECT_CPFS_EXISTENTES = 
+        "SELECT cpf FROM doador WHERE cpf = ANY(?)";
+    
+    private static final String INSERT_DOADOR_IMPORTACAO = 
+        "INSERT INTO doador (nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, ultima_doacao, id_hospital) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    /** Quantidade máxima de CPFs enviados em um único array para o banco */
+    private static final int LIMITE_CPFS_POR_CONSULTA = 50_000;
 
     /**
      * Insere um novo doador no banco de dados
@@ -84,40 +98,20 @@ public class DoadorDAO {
      * @throws SQLException se houver erro na consulta
      */
     public static List<Doador> buscarTodos() throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
-        List<Doador> doadores = new ArrayList<>();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_DOADORES);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            while (rs.next()) {
-                doadores.add(mapResultSetToDoador(rs));
-            }
-        }
-        
-        return doadores;
+        return CriteriosDoador.novo().ordenarPor(CampoDoador.NOME, true).listar();
     }
     
     /**
-     * Busca doador por ID
+     * Busca doador por ID (dentro de uma {@link UnidadeDeTrabalho}, a mesma
+     * instância é devolvida em todas as buscas e suas alterações são gravadas
+     * ao final)
      * @param id ID do doador
      * @return Doador encontrado ou null se não existir
      * @throws SQLException se houver erro na consulta
      */
     public static Doador buscarPorId(Long id) throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOADOR_BY_ID)) {
-            stmt.setLong(1, id);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToDoador(rs);
-                }
-            }
-        }
-        
-        return null;
+        return UnidadeDeTrabalho.carregar(Doador.class, id, RastreamentoDoador.INSTANCIA,
+            () -> CriteriosDoador.novo().igual(CampoDoador.ID, id).primeiro());
     }
     
     /**
@@ -127,19 +121,7 @@ public class DoadorDAO {
      * @throws SQLException se houver erro na consulta
      */
     public static Doador buscarPorCpf(Long cpf) throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOADOR_BY_CPF)) {
-            stmt.setLong(1, cpf);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToDoador(rs);
-                }
-            }
-        }
-        
-        return null;
+        return CriteriosDoador.novo().igual(CampoDoador.CPF, cpf).primeiro();
     }
     
     /**
@@ -149,66 +131,132 @@ public class DoadorDAO {
      * @throws SQLException se houver erro na consulta
      */
     public static List<Doador> buscarPorTipoSanguineo(String tipoSanguineo) throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
-        List<Doador> doadores = new ArrayList<>();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOADORES_BY_TIPO_SANGUINEO)) {
-            stmt.setString(1, tipoSanguineo);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    doadores.add(mapResultSetToDoador(rs));
-                }
-            }
-        }
-        
-        return doadores;
+        return CriteriosDoador.novo()
+            .igual(CampoDoador.TIPO_SANGUINEO, tipoSanguineo)
+            .ordenarPor(CampoDoador.NOME, true)
+            .listar();
     }
     
     /**
-     * Busca doadores por cidade
+     * Busca doadores por cidade (busca parcial, sem distinção de acentos e maiúsculas)
      * @param cidade Cidade dos doadores
      * @return Lista de doadores da cidade
      * @throws SQLException se houver erro na consulta
      */
     public static List<Doador> buscarPorCidade(String cidade) throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
+        return CriteriosDoador.novo()
+            .contem(CampoDoador.CIDADE, cidade)
+            .ordenarPor(CampoDoador.NOME, true)
+            .listar();
+    }
+    
+    /**
+     * Busca doadores por bairro (busca parcial, sem distinção de acentos e maiúsculas)
+     * @param bairro Bairro dos doadores
+     * @return Lista de doadores do bairro
+     * @throws SQLException se houver erro na consulta
+     */
+    public static List<Doador> buscarPorBairro(String bairro) throws SQLException {
+        return CriteriosDoador.novo()
+            .contem(CampoDoador.BAIRRO, bairro)
+            .ordenarPor(CampoDoador.NOME, true)
+            .listar();
+    }
+    
+    /**
+     * Busca doadores por hospital
+     * @param idHospital ID do hospital
+     * @return Lista de doadores do hospital
+     * @throws SQLException se houver erro na consulta
+     */
+    public static List<Doador> buscarPorHospital(Long idHospital) throws SQLException {
+        return CriteriosDoador.novo()
+            .igual(CampoDoador.ID_HOSPITAL, idHospital)
+            .ordenarPor(CampoDoador.NOME, true)
+            .listar();
+    }
+    
+    /**
+     * Busca vários doadores pelos IDs, em uma única consulta
+     * @param ids IDs dos doadores, na ordem desejada
+     * @return Doadores encontrados, na mesma ordem dos IDs informados
+     * @throws SQLException se houver erro na consulta
+     */
+    public static List<Doador> buscarPorIds(long[] ids) throws SQLException {
         List<Doador> doadores = new ArrayList<>();
+        if (ids.length == 0) {
+            return doadores;
+        }
         
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOADORES_BY_CIDADE)) {
-            stmt.setString(1, "%" + cidade + "%");
-            
+        Connection conn = DatabaseConnection.getConnection();
+        Map<Long, Doador> porId = new HashMap<>();
+        
+        Array array = arrayIds(conn, ids);
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOADORES_BY_IDS)) {
+            stmt.setArray(1, array);
             try (ResultSet rs = stmt.executeQuery()) {
+                MapeadorDoador mapeador = new MapeadorDoador(rs);
                 while (rs.next()) {
-                    doadores.add(mapResultSetToDoador(rs));
+                    Doador doador = mapeador.mapear(rs);
+                    porId.put(doador.getId(), doador);
                 }
             }
+        } finally {
+            array.free();
         }
         
+        for (long id : ids) {
+            Doador doador = porId.get(id);
+            if (doador != null) {
+                doadores.add(doador);
+            }
+        }
         return doadores;
     }
     
     /**
-     * Busca doadores por hospital
-     * @param idHospital ID do hospital
-     * @return Lista de doadores do hospital
+     * Busca os resumos de listagem de vários doadores pelos IDs, mantendo a ordem dos IDs informados.
+     * @param ids IDs dos doadores
+     * @return Resumos encontrados (IDs inexistentes são ignorados)
      * @throws SQLException se houver erro na consulta
      */
-    public static List<Doador> buscarPorHospital(Long idHospital) throws SQLException {
+    public static List<ResumoDoador> buscarResumosPorIds(long[] ids) throws SQLException {
+        List<ResumoDoador> resumos = new ArrayList<>();
+        if (ids.length == 0) {
+            return resumos;
+        }
+        
         Connection conn = DatabaseConnection.getConnection();
-        List<Doador> doadores = new ArrayList<>();
+        Map<Long, ResumoDoador> porId = new HashMap<>();
         
-        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOADORES_BY_HOSPITAL)) {
-            stmt.setLong(1, idHospital);
-            
+        Array array = arrayIds(conn, ids);
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_RESUMOS_BY_IDS)) {
+            stmt.setArray(1, array);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    doadores.add(mapResultSetToDoador(rs));
+                    ResumoDoador resumo = mapResultSetToResumo(rs);
+                    porId.put(resumo.getId(), resumo);
                 }
             }
+        } finally {
+            array.free();
         }
         
-        return doadores;
+        for (long id : ids) {
+            ResumoDoador resumo = porId.get(id);
+            if (resumo != null) {
+                resumos.add(resumo);
+            }
+        }
+        return resumos;
+    }
+    
+    private static Array arrayIds(Connection conn, long[] ids) throws SQLException {
+        Long[] valores = new Long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            valores[i] = ids[i];
+        }
+        return conn.createArrayOf("bigint", valores);
     }
     
     /**
@@ -236,9 +284,113 @@ public class DoadorDAO {
     }
     
     /**
-     * Atualiza um doador existente
+     * Verifica, em consultas baseadas em conjunto, quais CPFs já estão cadastrados.
+     * 
+     * <p>Os CPFs são enviados como um único array por consulta ({@code cpf = ANY(?)}),
+     * em blocos de até {@value #LIMITE_CPFS_POR_CONSULTA} valores, substituindo
+     * uma consulta por doador.</p>
+     * 
+     * @param cpfs CPFs a serem verificados
+     * @return Conjunto com os CPFs que já existem na tabela
+     * @throws SQLException se houver erro na consulta
+     */
+    public static ConjuntoLongs buscarCpfsExistentes(long[] cpfs) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        ConjuntoLongs existentes = new ConjuntoLongs();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_CPFS_EXISTENTES)) {
+            for (int inicio = 0; inicio < cpfs.length; inicio += LIMITE_CPFS_POR_CONSULTA) {
+                int fim = Math.min(cpfs.length, inicio + LIMITE_CPFS_POR_CONSULTA);
+                Long[] bloco = new Long[fim - inicio];
+                for (int i = inicio; i < fim; i++) {
+                    bloco[i - inicio] = cpfs[i];
+                }
+                
+                Array array = conn.createArrayOf("bigint", bloco);
+                try {
+                    stmt.setArray(1, array);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            existentes.adicionar(rs.getLong(1));
+                        }
+                    }
+                } finally {
+                    array.free();
+                }
+            }
+        }
+        
+        return existentes;
+    }
+    
+    /**
+     * Insere uma lista de doadores em lote, dentro de uma única transação
+     * por chamada.
+     * 
+     * <p>As linhas são enviadas com {@code addBatch} em grupos de {@code tamanhoLote},
+     * todos na mesma transação, confirmada só no fim; em caso de erro a transação
+     * inteira é desfeita, de modo que a lista nunca fica parcialmente gravada.
+     * A importação de arquivos ({@link ImportadorDoadores}) chama este método uma
+     * vez por grupo de doadores: os grupos anteriores a uma falha permanecem
+     * gravados. Os IDs gerados não são atribuídos aos objetos.</p>
+     * 
+     * @param doadores Doadores a serem inseridos (já validados)
+     * @param tamanhoLote Quantidade de linhas por envio ao banco
+     * @return Quantidade de doadores inseridos
+     * @throws SQLException se houver erro na inserção
+     */
+    public static int inserirLote(List<Doador> doadores, int tamanhoLote) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        int inseridos = 0;
+        
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_DOADOR_IMPORTACAO)) {
+            conn.setAutoCommit(false);
+            int pendentes = 0;
+            
+            for (Doador doador : doadores) {
+                stmt.setString(1, doador.getNome());
+                stmt.setLong(2, doador.getCpf());
+                stmt.setString(3, doador.getSexo());
+                stmt.setString(4, doador.getTipoSanguineo());
+                stmt.setDate(5, doador.getDataNascimento());
+                stmt.setLong(6, doador.getTelefone());
+                stmt.setString(7, doador.getBairro());
+                stmt.setString(8, doador.getNacionalidade());
+                stmt.setString(9, doador.getCidade());
+                stmt.setDate(10, doador.getUltimaDoacao());
+                stmt.setLong(11, doador.getIdHospital());
+                stmt.addBatch();
+                
+                if (++pendentes == tamanhoLote) {
+                    stmt.executeBatch();
+                    inseridos += pendentes;
+                    pendentes = 0;
+                }
+            }
+            
+            if (pendentes > 0) {
+                stmt.executeBatch();
+                inseridos += pendentes;
+            }
+            
+            conn.commit();
+            return inseridos;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+    }
+    
+    /**
+     * Atualiza um doador existente, desde que ele não tenha sido alterado
+     * depois da leitura (versão em {@link Doador#getVersao()}). Em caso de
+     * sucesso, o doador recebe a nova versão.
      * @param doador Doador com dados atualizados
-     * @return true se atualização foi bem-sucedida, false caso contrário
+     * @return true se atualização foi bem-sucedida, false se o doador não existe mais
+     * @throws database.ConflitoAtualizacaoException se outro usuário alterou o doador antes
      * @throws SQLException se houver erro na atualização
      */
     public static boolean atualizar(Doador doador) throws SQLException {
@@ -256,8 +408,14 @@ public class DoadorDAO {
             stmt.setString(9, doador.getCidade());
             stmt.setLong(10, doador.getIdHospital());
             stmt.setLong(11, doador.getId());
+            ControleVersao.definir(stmt, 12, doador.getVersao());
             
-            return stmt.executeUpdate() > 0;
+            long versao = ControleVersao.executar(stmt, "doador", doador.getId());
+            if (versao == ControleVersao.SEM_VERSAO) {
+                return false;
+            }
+            doador.setVersao(versao);
+            return true;
         }
     }
     
@@ -269,6 +427,16 @@ public class DoadorDAO {
      * @throws SQLException se houver erro na atualização
      */
     public static boolean atualizarUltimaDoacao(Long doadorId, Date dataDoacao) throws SQLException {
+        if (UnidadeDeTrabalho.atual() != null) {
+            // Altera o doador do mapa de identidade; o UPDATE vai no lote da unidade
+            Doador doador = buscarPorId(doadorId);
+            if (doador == null) {
+                return false;
+            }
+            doador.setUltimaDoacao(dataDoacao);
+            return true;
+        }
+        
         Connection conn = DatabaseConnection.getConnection();
         
         try (PreparedStatement stmt = conn.prepareStatement(UPDATE_ULTIMA_DOACAO)) {
@@ -310,27 +478,23 @@ public class DoadorDAO {
             return stmt.executeUpdate() > 0;
         }
     }
-    
+
     /**
-     * Mapeia um ResultSet para um objeto Doador
-     * @param rs ResultSet com dados do doador
-     * @return Doador criado a partir do ResultSet
+     * Mapeia uma linha com as colunas de {@link #COLUNAS_RESUMO}, na ordem, para um resumo
+     * @param rs ResultSet posicionado na linha
+     * @return Resumo do doador
      * @throws SQLException se houver erro ao ler dados
      */
-    private static Doador mapResultSetToDoador(ResultSet rs) throws SQLException {
-        return new Doador(
-            rs.getLong("id"),
-            rs.getString("nome"),
-            rs.getLong("cpf"),
-            rs.getString("sexo"),
-            rs.getString("tipo_sanguineo"),
-            rs.getDate("data_nascimento"),
-            rs.getLong("telefone"),
-            rs.getString("bairro"),
-            rs.getString("nacionalidade"),
-            rs.getString("cidade"),
-            rs.getDate("ultima_doacao"),
-            rs.getLong("id_hospital")
+    static ResumoDoador mapResultSetToResumo(ResultSet rs) throws SQLException {
+        return new ResumoDoador(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getLong(3),
+            rs.getString(4),
+            rs.getInt(5),
+            rs.getString(6),
+            rs.getLong(7),
+            rs.getInt(8)
         );
     }
-}
\ No newline at end of file
+}
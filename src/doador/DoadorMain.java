@@ -1,5 +1,8 @@
 package doador;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Date;
 import java.util.List;
 import java.util.Scanner;
@@ -19,6 +22,10 @@ import java.util.Scanner;
  *   <li>Listar doadores por hospital</li>
  *   <li>Atualizar dados de doador</li>
  *   <li>Remover doador</li>
+ *   <li>Importar doadores em lote a partir de CSV</li>
+ *   <li>Buscar doadores pelo nome (autocompletar)</li>
+ *   <li>Filtrar doadores combinando atributos</li>
+ *   <li>Ficha do doador (dados, histórico e triagens do dia)</li>
  * </ul>
  * 
  * @author Sistema HemoConnect
@@ -33,6 +40,12 @@ public class DoadorMain {
     /** Scanner para entrada de dados do usuário */
     private static final Scanner scanner = new Scanner(System.in);
     
+    /** Quantidade máxima de doadores exibidos na busca por nome */
+    private static final int LIMITE_BUSCA_NOME = 20;
+    
+    /** Quantidade máxima de doadores exibidos no filtro combinado */
+    private static final int LIMITE_FILTRO = 100;
+    
     /**
      * Método principal de entrada do módulo.
      * 
@@ -74,6 +87,18 @@ public class DoadorMain {
                 case 6:
                     removerDoador();
                     break;
+                case 7:
+                    importarDoadores();
+                    break;
+                case 8:
+                    buscarDoadorPorNome();
+                    break;
+                case 9:
+                    filtrarDoadores();
+                    break;
+                case 10:
+                    exibirFichaDoador();
+                    break;
                 case 0:
                     System.out.println("Retornando ao Menu Principal...");
                     break;
@@ -130,13 +155,51 @@ public class DoadorMain {
         }
     }
     
+    private static void exibirFichaDoador() {
+        System.out.println("\n=== FICHA DO DOADOR ===");
+        
+        Long cpf = DoadorView.solicitarCpf();
+        if (cpf != null) {
+            // Doador, histórico e triagens do dia carregados em paralelo
+            FichaDoador ficha = DoadorControllerAsync.carregarFicha(cpf).join();
+            
+            if (ficha != null) {
+                DoadorView.exibirFichaDoador(ficha);
+            } else {
+                System.out.println("Doador não encontrado com o CPF: " + cpf);
+            }
+        }
+    }
+    
+    private static void buscarDoadorPorNome() {
+        System.out.println("\n=== BUSCAR DOADOR POR NOME ===");
+        
+        String nome = DoadorView.solicitarNomeBusca();
+        if (nome != null) {
+            List<ResumoDoador> doadores = DoadorController.buscarDoadoresPorNome(nome, LIMITE_BUSCA_NOME);
+            DoadorView.exibirListaDoadores(doadores);
+        }
+    }
+    
+    private static void filtrarDoadores() {
+        System.out.println("\n=== FILTRAR DOADORES ===");
+        
+        Object[] filtro = DoadorView.solicitarFiltroDoadores();
+        if (filtro != null) {
+            List<ResumoDoador> doadores = DoadorController.filtrarDoadores(
+                (String) filtro[0], (String) filtro[1], (String) filtro[2], (Long) filtro[3],
+                (Integer) filtro[4], (Integer) filtro[5], (Boolean) filtro[6], LIMITE_FILTRO);
+            DoadorView.exibirListaDoadores(doadores);
+        }
+    }
+    
     private static void listarPorHospital() {
         System.out.println("\n=== LISTAR POR HOSPITAL ===");
         
         System.out.print("Digite o ID do hospital: ");
         try {
             Long idHospital = Long.parseLong(scanner.nextLine());
-            List<Doador> doadores = DoadorController.listarDoadoresPorHospital(idHospital);
+            List<ResumoDoador> doadores = DoadorController.listarResumosPorHospital(idHospital);
             
             if (doadores.isEmpty()) {
                 System.out.println("Nenhum doador encontrado para o hospital ID: " + idHospital);
@@ -152,7 +215,7 @@ public class DoadorMain {
     private static void atualizarDoador() {
         System.out.println("\n=== ATUALIZANDO DOADOR ===");
         
-        List<Doador> doadores = DoadorController.listarTodosDoadores();
+        List<ResumoDoador> doadores = DoadorController.listarTodosDoadores();
         
         if (doadores.isEmpty()) {
             System.out.println("Nenhum doador encontrado para atualização.");
@@ -168,7 +231,7 @@ public class DoadorMain {
     private static void removerDoador() {
         System.out.println("\n=== REMOVENDO DOADOR ===");
         
-        List<Doador> doadores = DoadorController.listarTodosDoadores();
+        List<ResumoDoador> doadores = DoadorController.listarTodosDoadores();
         
         if (doadores.isEmpty()) {
             System.out.println("Nenhum doador encontrado para remoção.");
@@ -180,6 +243,28 @@ public class DoadorMain {
         DoadorController.removerDoadorInterativo();
     }
     
+    private static void importarDoadores() {
+        System.out.println("\n=== IMPORTANDO DOADORES ===");
+        
+        Object[] dados = DoadorView.solicitarDadosImportacao();
+        
+        if (dados != null) {
+            Path arquivo = Paths.get((String) dados[0]);
+            if (!Files.isRegularFile(arquivo)) {
+                System.out.println("Arquivo não encontrado: " + arquivo);
+                return;
+            }
+            
+            ImportadorDoadores.ResultadoImportacao resultado = ImportadorDoadores.importar(arquivo, (Long) dados[1]);
+            
+            if (resultado != null) {
+                DoadorView.exibirResultadoImportacao(resultado);
+            } else {
+                DoadorView.exibirMensagemErro("Erro ao importar doadores");
+            }
+        }
+    }
+    
     private static int lerOpcao() {
         try {
             String input = scanner.nextLine();
@@ -1,8 +1,10 @@
 package doador;
 
+import doacao.Doacao;
 import java.sql.Date;
 import java.util.List;
 import java.util.Scanner;
+import triagem.TriagemView;
 
 /**
  * Classe responsável pela interface de usuário do módulo de doadores.
@@ -59,6 +61,31 @@ public class DoadorView {
         System.out.println("======================");
     }
     
+    /**
+     * Exibe a ficha do doador: dados, histórico de doações e triagens do dia.
+     * 
+     * @param ficha Ficha carregada
+     */
+    public static void exibirFichaDoador(FichaDoador ficha) {
+        exibirDoador(ficha.getDoador());
+        
+        List<Doacao> historico = ficha.getHistorico();
+        System.out.println("\n=== HISTÓRICO DE DOAÇÕES ===");
+        if (historico.isEmpty()) {
+            System.out.println("Nenhuma doação registrada.");
+        } else {
+            System.out.printf("%-8s %-12s %-10s %-10s %-8s%n", "ID", "Data", "Hora", "Volume", "Triagem");
+            for (Doacao doacao : historico) {
+                System.out.printf("%-8d %-12s %-10s %-10.0f %-8d%n", doacao.getId(), doacao.getData(),
+                        doacao.getHora(), doacao.getVolume(), doacao.getTriagemId());
+            }
+            System.out.println("Total: " + historico.size() + " doação(ões)");
+        }
+        
+        System.out.println();
+        TriagemView.exibirTriagensDodia(ficha.getData(), ficha.getTriagensDoDia());
+    }
+    
     /**
      * Exibe uma lista de doadores em formato tabular.
      * 
@@ -67,7 +94,7 @@ public class DoadorView {
      * 
      * @param doadores Lista de doadores a ser exibida
      */
-    public static void exibirListaDoadores(List<Doador> doadores) {
+    public static void exibirListaDoadores(List<ResumoDoador> doadores) {
         if (doadores.isEmpty()) {
             System.out.println("Nenhum doador encontrado.");
             return;
@@ -75,20 +102,21 @@ public class DoadorView {
         
         System.out.println("=== LISTA DE DOADORES ===");
         System.out.println("Total: " + doadores.size() + " doadores");
-        System.out.println(String.format("|%-5s | %-25s | %-12s | %-5s | %-5s | %-20s | %-8s|", 
-            "ID", "Nome", "CPF", "Tipo", "Idade", "Cidade", "Hospital"));
-        System.out.println(String.format("|%s|%s|%s|%s|%s|%s|%s|", 
-            "-".repeat(6), "-".repeat(26), "-".repeat(13), "-".repeat(6), "-".repeat(6), "-".repeat(21), "-".repeat(9)));
-        
-        for (Doador doador : doadores) {
-            System.out.println(String.format("|%-5s | %-25s | %-12s | %-5s | %-5s | %-20s | %-8s|", 
-                doador.getId() != null ? doador.getId() : "N/A",
+        System.out.println(String.format("|%-5s | %-25s | %-12s | %-5s | %-5s | %-20s | %-8s | %-11s|", 
+            "ID", "Nome", "CPF", "Tipo", "Idade", "Cidade", "Hospital", "Últ. Doação"));
+        System.out.println(String.format("|%s|%s|%s|%s|%s|%s|%s|%s|", 
+            "-".repeat(6), "-".repeat(26), "-".repeat(13), "-".repeat(6), "-".repeat(6), "-".repeat(21), "-".repeat(10), "-".repeat(12)));
+        
+        for (ResumoDoador doador : doadores) {
+            System.out.println(String.format("|%-5s | %-25s | %-12s | %-5s | %-5s | %-20s | %-8s | %-11s|", 
+                doador.getId(),
                 doador.getNome().length() > 25 ? doador.getNome().substring(0, 22) + "..." : doador.getNome(),
                 doador.getCpf(),
                 doador.getTipoSanguineo(),
                 doador.calcularIdade(),
                 doador.getCidade().length() > 20 ? doador.getCidade().substring(0, 17) + "..." : doador.getCidade(),
-                doador.getIdHospital() != null ? doador.getIdHospital() : "N/A"));
+                doador.getIdHospital(),
+                doador.temUltimaDoacao() ? doador.getUltimaDoacao() : "-"));
         }
         
         System.out.println("=========================");
@@ -235,11 +263,110 @@ public class DoadorView {
         System.out.println("║ 4.  Listar Doadores por Hospital    ║");
         System.out.println("║ 5.  Atualizar Doador                ║");
         System.out.println("║ 6.  Remover Doador                  ║");
+        System.out.println("║ 7.  Importar Doadores (CSV)         ║");
+        System.out.println("║ 8.  Buscar Doador por Nome          ║");
+        System.out.println("║ 9.  Filtrar Doadores                ║");
+        System.out.println("║ 10. Ficha do Doador                 ║");
         System.out.println("║ 0.  Voltar ao Menu Principal        ║");
         System.out.println("╚═════════════════════════════════════╝");
         System.out.print("Escolha uma opção: "); 
     }
     
+    /**
+     * Solicita o arquivo CSV e o hospital padrão para importação em lote
+     * @return Array com [caminho do arquivo (String), ID do hospital padrão (Long ou null)] ou null se cancelado
+     */
+    public static Object[] solicitarDadosImportacao() {
+        System.out.print("Caminho do arquivo CSV: ");
+        String caminho = scanner.nextLine().trim();
+        if (caminho.isEmpty()) {
+            System.out.println("Caminho não pode ser vazio.");
+            return null;
+        }
+        
+        System.out.print("ID do hospital para linhas sem id_hospital [Enter = nenhum]: ");
+        String idTexto = scanner.nextLine().trim();
+        Long idHospital = null;
+        if (!idTexto.isEmpty()) {
+            try {
+                idHospital = Long.parseLong(idTexto);
+            } catch (NumberFormatException e) {
+                System.out.println("ID inválido.");
+                return null;
+            }
+        }
+        
+        return new Object[]{caminho, idHospital};
+    }
+    
+    /**
+     * Exibe o resumo de uma importação em lote
+     * @param resultado Resultado da importação
+     */
+    public static void exibirResultadoImportacao(ImportadorDoadores.ResultadoImportacao resultado) {
+        System.out.println("=== IMPORTAÇÃO CONCLUÍDA ===");
+        System.out.println("Registros lidos: " + resultado.getLidos());
+        System.out.println("Doadores importados: " + resultado.getImportados());
+        System.out.println("Registros rejeitados: " + resultado.getRejeitados());
+        if (resultado.getRejeitados() > 0) {
+            System.out.println("Relatório de rejeições: " + resultado.getRelatorio());
+        }
+        System.out.printf("Tempo total: %.1f s%n", resultado.getDuracaoMs() / 1000.0);
+        System.out.println("============================");
+    }
+    
+    public static String solicitarNomeBusca() {
+        System.out.print("Digite o nome (ou o início de nome e sobrenome): ");
+        String nome = scanner.nextLine().trim();
+        if (nome.isEmpty()) {
+            System.out.println("Nome inválido.");
+            return null;
+        }
+        return nome;
+    }
+    
+    /**
+     * Solicita os critérios do filtro combinado; Enter deixa o critério em branco.
+     * 
+     * @return Array com [tipo, sexo, cidade, idHospital, idadeMinima, idadeMaxima, apenasAptos]
+     *         ou null se algum número for inválido
+     */
+    public static Object[] solicitarFiltroDoadores() {
+        System.out.println("=== FILTRAR DOADORES (Enter ignora o critério) ===");
+        try {
+            System.out.print("Tipo sanguíneo: ");
+            String tipo = textoOuNull(scanner.nextLine());
+            System.out.print("Sexo (M/F): ");
+            String sexo = textoOuNull(scanner.nextLine());
+            System.out.print("Cidade: ");
+            String cidade = textoOuNull(scanner.nextLine());
+            System.out.print("ID do hospital: ");
+            String hospital = textoOuNull(scanner.nextLine());
+            System.out.print("Idade mínima: ");
+            String idadeMinima = textoOuNull(scanner.nextLine());
+            System.out.print("Idade máxima: ");
+            String idadeMaxima = textoOuNull(scanner.nextLine());
+            System.out.print("Apenas aptos a doar hoje? (S/N): ");
+            boolean apenasAptos = scanner.nextLine().trim().equalsIgnoreCase("S");
+            
+            return new Object[]{
+                tipo, sexo, cidade,
+                hospital != null ? Long.valueOf(hospital) : null,
+                idadeMinima != null ? Integer.valueOf(idadeMinima) : null,
+                idadeMaxima != null ? Integer.valueOf(idadeMaxima) : null,
+                apenasAptos
+            };
+        } catch (NumberFormatException e) {
+            System.out.println("Valor numérico inválido.");
+            return null;
+        }
+    }
+    
+    private static String textoOuNull(String texto) {
+        String valor = texto.trim();
+        return valor.isEmpty() ? null : valor;
+    }
+    
     public static Long solicitarCpf() {
         System.out.print("Digite o CPF (apenas números): ");
         try {
@@ -260,7 +387,7 @@ public class DoadorView {
         }
     }
     
-    public static void exibirDoadoresPorHospital(Long idHospital, List<Doador> doadores) {
+    public static void exibirDoadoresPorHospital(Long idHospital, List<ResumoDoador> doadores) {
         System.out.println("=== DOADORES DO HOSPITAL ID: " + idHospital + " ===");
         
         if (doadores.isEmpty()) {
@@ -269,7 +396,7 @@ public class DoadorView {
             System.out.println("Total: " + doadores.size() + " doadores");
             
             int aptos = 0;
-            for (Doador doador : doadores) {
+            for (ResumoDoador doador : doadores) {
                 if (doador.podeDoar()) aptos++;
             }
             
@@ -0,0 +1,52 @@
+package doador;
+
+import doacao.Doacao;
+import java.sql.Date;
+import java.util.List;
+import triagem.Triagem;
+
+/**
+ * Dados da tela "Ficha do doador": o doador, o histórico de doações e as
+ * triagens do dia (entre as quais está a do doador, antes de registrar a
+ * doação). Carregada por {@link DoadorControllerAsync#carregarFicha(Long)}.
+ */
+public final class FichaDoador {
+
+    private final Doador doador;
+    private final List<Doacao> historico;
+    private final Date data;
+    private final List<Triagem> triagensDoDia;
+
+    /**
+     * @param doador Doador
+     * @param historico Doações do doador
+     * @param data Data das triagens
+     * @param triagensDoDia Triagens realizadas na data
+     */
+    public FichaDoador(Doador doador, List<Doacao> historico, Date data, List<Triagem> triagensDoDia) {
+        this.doador = doador;
+        this.historico = historico;
+        this.data = data;
+        this.triagensDoDia = triagensDoDia;
+    }
+
+    /** @return Doador */
+    public Doador getDoador() {
+        return doador;
+    }
+
+    /** @return Doações do doador */
+    public List<Doacao> getHistorico() {
+        return historico;
+    }
+
+    /** @return Data das triagens */
+    public Date getData() {
+        return data;
+    }
+
+    /** @return Triagens realizadas na data */
+    public List<Triagem> getTriagensDoDia() {
+        return triagensDoDia;
+    }
+}
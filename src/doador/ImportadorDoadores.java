@@ -0,0 +1,665 @@
+package doador;
+
+import exportacao.CanalBufferizado;
+import exportacao.EscritorRegistros;
+import exportacao.FormatoExportacao;
+import hospital.CatalogoHospitais;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import util.ConjuntoLongs;
+
+/**
+ * Importação em lote de doadores a partir de arquivos CSV.
+ *
+ * <p>Usada na integração de um novo hospital, cujo cadastro de doadores já
+ * existente precisa ser carregado de uma só vez. O processamento é dividido
+ * em etapas:</p>
+ * <ol>
+ *   <li>Leitura do arquivo em fluxo, dividido em blocos de registros (respeitando aspas)</li>
+ *   <li>Interpretação e validação dos blocos em paralelo, com as mesmas regras
+ *       do cadastro individual</li>
+ *   <li>Eliminação de CPFs repetidos dentro do próprio arquivo</li>
+ *   <li>Verificação de CPFs já cadastrados com consultas baseadas em conjunto</li>
+ *   <li>Inserção em lotes, cada um em sua própria transação</li>
+ * </ol>
+ *
+ * <p>As etapas 3 a 5 seguem bloco a bloco, na ordem do arquivo, enquanto os
+ * blocos seguintes são interpretados: só alguns blocos ficam em memória por
+ * vez, mais os CPFs já vistos. Cada transação de
+ * {@value #DOADORES_POR_TRANSACAO} doadores é confirmada ao ser gravada; se a
+ * importação for interrompida por um erro, as transações anteriores
+ * permanecem gravadas e o relatório de rejeições registra apenas as linhas
+ * já processadas.</p>
+ *
+ * <p>As colunas são localizadas pelo cabeçalho, em qualquer ordem; arquivos
+ * gerados pela exportação de doadores podem ser importados diretamente (a
+ * coluna {@code id} é ignorada). Separadores {@code ,} e {@code ;} são aceitos.
+ * Cada linha recusada é registrada em {@code <arquivo>.rejeitados.csv}
+ * com o número da linha, o CPF informado e o motivo.</p>
+ */
+public class ImportadorDoadores {
+
+    /** Colunas obrigatórias do arquivo */
+    private static final String[] COLUNAS_OBRIGATORIAS =
+        {"nome", "cpf", "sexo", "tipo_sanguineo", "data_nascimento", "telefone",
+         "bairro", "nacionalidade", "cidade"};
+
+    /** Colunas do relatório de rejeições */
+    private static final String[] COLUNAS_REJEICAO = {"linha", "cpf", "motivo"};
+
+    /** Quantidade de registros interpretados por tarefa paralela */
+    private static final int REGISTROS_POR_BLOCO = 20_000;
+
+    /** Quantidade de doadores gravados por transação */
+    private static final int DOADORES_POR_TRANSACAO = 10_000;
+
+    /** Quantidade de linhas enviadas ao banco por executeBatch */
+    private static final int TAMANHO_LOTE = 1_000;
+
+    // Construtor privado: classe utilitária
+    private ImportadorDoadores() {}
+
+    /**
+     * Resultado consolidado de uma importação.
+     */
+    public static class ResultadoImportacao {
+        private final long lidos;
+        private final long importados;
+        private final long rejeitados;
+        private final Path relatorio;
+        private final long duracaoMs;
+
+        ResultadoImportacao(long lidos, long importados, long rejeitados, Path relatorio, long duracaoMs) {
+            this.lidos = lidos;
+            this.importados = importados;
+            this.rejeitados = rejeitados;
+            this.relatorio = relatorio;
+            this.duracaoMs = duracaoMs;
+        }
+
+        public long getLidos() { return lidos; }
+        public long getImportados() { return importados; }
+        public long getRejeitados() { return rejeitados; }
+        public Path getRelatorio() { return relatorio; }
+        public long getDuracaoMs() { return duracaoMs; }
+    }
+
+    /**
+     * Importa os doadores de um arquivo CSV.
+     *
+     * @param arquivo Arquivo CSV com cabeçalho
+     * @param idHospitalPadrao Hospital atribuído às linhas sem {@code id_hospital}
+     *                         (pode ser null se o arquivo sempre informar a coluna)
+     * @return Resultado da importação ou null se o arquivo não puder ser processado
+     */
+    public static ResultadoImportacao importar(Path arquivo, Long idHospitalPadrao) {
+        long inicio = System.currentTimeMillis();
+        Path relatorio = arquivo.resolveSibling(arquivo.getFileName() + ".rejeitados.csv");
+
+        InputStream entrada;
+        try {
+            entrada = Files.newInputStream(arquivo);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivo de importação: " + e.getMessage());
+            return null;
+        }
+
+        Importacao importacao = null;
+        try (InputStream leitura = entrada;
+             CanalBufferizado canal = new CanalBufferizado(relatorio, false);
+             EscritorRegistros rejeicoes = new EscritorRegistros(canal, FormatoExportacao.CSV, COLUNAS_REJEICAO)) {
+
+            DivisorRegistros divisor = new DivisorRegistros(leitura);
+            byte[] primeiro = divisor.proximoBloco(1);
+            LeitorCsv leitorCabecalho = primeiro != null ? new LeitorCsv(primeiro, divisor.getTamanho()) : null;
+            List<String> cabecalho = leitorCabecalho != null ? leitorCabecalho.lerCabecalho() : null;
+            if (cabecalho == null) {
+                System.err.println("Arquivo de importação vazio");
+                return null;
+            }
+
+            int[] indices = mapearColunas(cabecalho);
+            if (indices == null) {
+                return null;
+            }
+
+            // Retrato imutável: lido pelas threads sem trava, para recusar vínculos inválidos
+            CatalogoHospitais hospitais = CatalogoHospitais.obter();
+
+            // Etapas 1 e 2 em paralelo; 3 a 5 bloco a bloco, na ordem do arquivo
+            importacao = new Importacao(rejeicoes);
+            processarEmParalelo(divisor, leitorCabecalho.getSeparador(), indices, idHospitalPadrao, hospitais,
+                    importacao);
+            importacao.gravar(true);
+
+            return new ResultadoImportacao(importacao.lidos, importacao.importados, importacao.rejeitados,
+                    relatorio, System.currentTimeMillis() - inicio);
+
+        } catch (SQLException e) {
+            System.err.println("Erro ao importar doadores" + gravados(importacao) + ": " + e.getMessage());
+            return null;
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivo ou gravar relatório de rejeições" + gravados(importacao)
+                    + ": " + e.getMessage());
+            return null;
+        } finally {
+            if (importacao != null && importacao.importados > 0) {
+                IndiceNomesDoador.invalidar();
+                IndiceBitmapDoador.invalidar();
+            }
+        }
+    }
+
+    /** Aviso dos doadores já confirmados quando a importação é interrompida */
+    private static String gravados(Importacao importacao) {
+        return importacao != null && importacao.importados > 0
+                ? " (" + importacao.importados + " doadores já gravados permanecem)" : "";
+    }
+
+    /**
+     * Localiza no cabeçalho a posição de cada coluna reconhecida.
+     * @return Índices na ordem {@link #COLUNAS_OBRIGATORIAS}, seguidos de
+     *         {@code ultima_doacao} e {@code id_hospital} (-1 se ausentes),
+     *         ou null se faltar alguma coluna obrigatória
+     */
+    private static int[] mapearColunas(List<String> cabecalho) {
+        int[] indices = new int[COLUNAS_OBRIGATORIAS.length + 2];
+
+        for (int i = 0; i < COLUNAS_OBRIGATORIAS.length; i++) {
+            indices[i] = indiceColuna(cabecalho, COLUNAS_OBRIGATORIAS[i]);
+            if (indices[i] < 0) {
+                System.err.println("Coluna obrigatória ausente no arquivo: " + COLUNAS_OBRIGATORIAS[i]);
+                return null;
+            }
+        }
+        indices[COLUNAS_OBRIGATORIAS.length] = indiceColuna(cabecalho, "ultima_doacao");
+        indices[COLUNAS_OBRIGATORIAS.length + 1] = indiceColuna(cabecalho, "id_hospital");
+
+        return indices;
+    }
+
+    private static int indiceColuna(List<String> cabecalho, String nome) {
+        for (int i = 0; i < cabecalho.size(); i++) {
+            if (cabecalho.get(i).trim().equalsIgnoreCase(nome)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lê os blocos do arquivo e interpreta cada um em uma thread do pool. Os
+     * resultados são processados na ordem do arquivo, com no máximo um bloco
+     * por thread aguardando, o que limita a memória usada.
+     */
+    private static void processarEmParalelo(DivisorRegistros divisor, byte separador, int[] indices,
+            Long idHospitalPadrao, CatalogoHospitais hospitais, Importacao importacao)
+            throws IOException, SQLException {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            ArrayDeque<Future<ResultadoBloco>> tarefas = new ArrayDeque<>();
+            int linhaInicial = 2; // linha 1 é o cabeçalho
+
+            byte[] dados;
+            while ((dados = divisor.proximoBloco(REGISTROS_POR_BLOCO)) != null) {
+                final byte[] bloco = dados;
+                final int fim = divisor.getTamanho();
+                final int primeiraLinha = linhaInicial;
+                tarefas.add(executor.submit(() ->
+                        interpretarBloco(bloco, 0, fim, primeiraLinha, separador, indices, idHospitalPadrao,
+                                hospitais)));
+                linhaInicial += divisor.getRegistros();
+
+                if (tarefas.size() > threads) {
+                    importacao.processar(tarefas.poll().get());
+                }
+            }
+            while (!tarefas.isEmpty()) {
+                importacao.processar(tarefas.poll().get());
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erro ao interpretar arquivo: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Interpreta e valida os registros de um bloco do arquivo.
+     * Executado em paralelo; não acessa o banco nem estado compartilhado mutável.
+     */
+    private static ResultadoBloco interpretarBloco(byte[] dados, int inicio, int fim, int primeiraLinha,
+            byte separador, int[] indices, Long idHospitalPadrao, CatalogoHospitais hospitais) {
+        LeitorCsv leitor = new LeitorCsv(dados, inicio, fim, separador);
+        ResultadoBloco bloco = new ResultadoBloco();
+        int linha = primeiraLinha;
+        int base = COLUNAS_OBRIGATORIAS.length;
+
+        List<String> campos;
+        while ((campos = leitor.lerRegistro()) != null) {
+            bloco.registros++;
+            int linhaAtual = linha++;
+
+            if (campos.size() == 1 && campos.get(0).trim().isEmpty()) {
+                bloco.registros--; // linha em branco
+                continue;
+            }
+
+            String cpfTexto = campo(campos, indices[1]);
+            try {
+                String nome = campo(campos, indices[0]);
+                Long cpf = lerDigitos(cpfTexto);
+                String sexo = campo(campos, indices[2]);
+                String tipoSanguineo = campo(campos, indices[3]);
+                tipoSanguineo = tipoSanguineo != null ? tipoSanguineo.toUpperCase() : null;
+                Date dataNascimento = lerData(campo(campos, indices[4]));
+                Long telefone = lerDigitos(campo(campos, indices[5]));
+                String bairro = campo(campos, indices[6]);
+                String nacionalidade = campo(campos, indices[7]);
+                String cidade = campo(campos, indices[8]);
+                Date ultimaDoacao = indices[base] >= 0 ? lerData(campo(campos, indices[base])) : null;
+                String idHospitalTexto = indices[base + 1] >= 0 ? campo(campos, indices[base + 1]) : null;
+                Long idHospital = idHospitalTexto != null ? Long.valueOf(idHospitalTexto) : idHospitalPadrao;
+
+                String motivo = DoadorController.motivoDadosInvalidos(nome, cpf, sexo, tipoSanguineo,
+                        dataNascimento, telefone, bairro, nacionalidade, cidade, idHospital);
+                if (motivo == null && !hospitais.existe(idHospital)) {
+                    motivo = "Hospital não encontrado: " + idHospital;
+                }
+                if (motivo != null) {
+                    bloco.rejeitar(linhaAtual, cpfTexto, motivo);
+                    continue;
+                }
+
+                Doador doador = new Doador(nome, cpf, sexo, tipoSanguineo, dataNascimento, telefone,
+                        bairro, nacionalidade, cidade, idHospital);
+                doador.setUltimaDoacao(ultimaDoacao);
+                bloco.aceitar(doador, linhaAtual);
+
+            } catch (IllegalArgumentException e) {
+                bloco.rejeitar(linhaAtual, cpfTexto, "Valor inválido: " + e.getMessage());
+            }
+        }
+
+        return bloco;
+    }
+
+    /**
+     * @return Valor do campo sem espaços nas extremidades, ou null se ausente ou vazio
+     */
+    private static String campo(List<String> campos, int indice) {
+        if (indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    /**
+     * Lê um número ignorando a formatação usual de CPFs e telefones
+     * (pontos, hífens, parênteses e espaços).
+     * @return Número lido ou null se o campo estiver vazio
+     * @throws IllegalArgumentException se houver outros caracteres
+     */
+    private static Long lerDigitos(String valor) {
+        if (valor == null) {
+            return null;
+        }
+
+        long numero = 0;
+        int digitos = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > 18) {
+                    throw new IllegalArgumentException(valor);
+                }
+                numero = numero * 10 + (c - '0');
+            } else if (c != '.' && c != '-' && c != '(' && c != ')' && c != ' ') {
+                throw new IllegalArgumentException(valor);
+            }
+        }
+
+        return digitos > 0 ? numero : null;
+    }
+
+    /**
+     * Lê uma data no formato ISO (YYYY-MM-DD).
+     * @return Data lida ou null se o campo estiver vazio
+     * @throws IllegalArgumentException se o formato for inválido
+     */
+    private static Date lerData(String valor) {
+        return valor != null ? Date.valueOf(valor) : null;
+    }
+
+    private static void registrarRejeicao(EscritorRegistros rejeicoes, int linha, String cpf, String motivo)
+            throws IOException {
+        rejeicoes.iniciarRegistro();
+        rejeicoes.campoLong(linha);
+        if (cpf != null) {
+            rejeicoes.campoTexto(cpf);
+        } else {
+            rejeicoes.campoNulo();
+        }
+        rejeicoes.campoTexto(motivo);
+        rejeicoes.finalizarRegistro();
+    }
+
+    private static String mensagemRaiz(SQLException e) {
+        SQLException proxima = e.getNextException();
+        return proxima != null ? proxima.getMessage() : e.getMessage();
+    }
+
+    /**
+     * Etapas 3 a 5 de cada bloco interpretado, na ordem do arquivo, com os
+     * totais da importação.
+     */
+    private static class Importacao {
+        private final EscritorRegistros rejeicoes;
+        private final ConjuntoLongs cpfsArquivo = new ConjuntoLongs(REGISTROS_POR_BLOCO);
+        private final List<Doador> novos = new ArrayList<>();
+        private final List<Integer> linhasNovos = new ArrayList<>();
+        private long lidos;
+        private long importados;
+        private long rejeitados;
+
+        Importacao(EscritorRegistros rejeicoes) {
+            this.rejeicoes = rejeicoes;
+        }
+
+        void processar(ResultadoBloco bloco) throws IOException, SQLException {
+            lidos += bloco.registros;
+            rejeitados += bloco.escreverRejeicoes(rejeicoes);
+
+            // Etapa 3: CPFs repetidos dentro do arquivo (prevalece a primeira ocorrência)
+            ConjuntoLongs cpfsBloco = new ConjuntoLongs(bloco.validos.size());
+            List<Doador> unicos = new ArrayList<>(bloco.validos.size());
+            List<Integer> linhasUnicas = new ArrayList<>(bloco.validos.size());
+            for (int i = 0; i < bloco.validos.size(); i++) {
+                Doador doador = bloco.validos.get(i);
+                if (cpfsArquivo.adicionar(doador.getCpf())) {
+                    cpfsBloco.adicionar(doador.getCpf());
+                    unicos.add(doador);
+                    linhasUnicas.add(bloco.linhasValidos[i]);
+                } else {
+                    registrarRejeicao(rejeicoes, bloco.linhasValidos[i], String.valueOf(doador.getCpf()),
+                            "CPF repetido no arquivo");
+                    rejeitados++;
+                }
+            }
+
+            // Etapa 4: CPFs já cadastrados
+            ConjuntoLongs existentes = cpfsBloco.vazio()
+                    ? cpfsBloco : DoadorDAO.buscarCpfsExistentes(cpfsBloco.paraArray());
+            for (int i = 0; i < unicos.size(); i++) {
+                Doador doador = unicos.get(i);
+                if (existentes.contem(doador.getCpf())) {
+                    registrarRejeicao(rejeicoes, linhasUnicas.get(i), String.valueOf(doador.getCpf()),
+                            "CPF já existe no sistema");
+                    rejeitados++;
+                } else {
+                    novos.add(doador);
+                    linhasNovos.add(linhasUnicas.get(i));
+                }
+            }
+
+            gravar(false);
+        }
+
+        /**
+         * Etapa 5: inserção das transações completas (e do restante, no fim);
+         * uma transação com falha rejeita apenas as suas linhas.
+         */
+        void gravar(boolean fim) throws IOException {
+            while (novos.size() >= DOADORES_POR_TRANSACAO || (fim && !novos.isEmpty())) {
+                int ate = Math.min(novos.size(), DOADORES_POR_TRANSACAO);
+                List<Doador> transacao = novos.subList(0, ate);
+                try {
+                    importados += DoadorDAO.inserirLote(transacao, TAMANHO_LOTE);
+                } catch (SQLException e) {
+                    String motivo = "Erro ao gravar lote: " + mensagemRaiz(e);
+                    for (int i = 0; i < ate; i++) {
+                        registrarRejeicao(rejeicoes, linhasNovos.get(i), String.valueOf(novos.get(i).getCpf()),
+                                motivo);
+                    }
+                    rejeitados += ate;
+                }
+                transacao.clear();
+                linhasNovos.subList(0, ate).clear();
+            }
+        }
+    }
+
+    /**
+     * Doadores aceitos e linhas recusadas de um bloco do arquivo.
+     */
+    private static class ResultadoBloco {
+        private final List<Doador> validos = new ArrayList<>();
+        private int[] linhasValidos = new int[64];
+        private final List<Object[]> rejeicoes = new ArrayList<>();
+        private int registros;
+
+        void aceitar(Doador doador, int linha) {
+            if (validos.size() == linhasValidos.length) {
+                int[] maior = new int[linhasValidos.length * 2];
+                System.arraycopy(linhasValidos, 0, maior, 0, linhasValidos.length);
+                linhasValidos = maior;
+            }
+            linhasValidos[validos.size()] = linha;
+            validos.add(doador);
+        }
+
+        void rejeitar(int linha, String cpf, String motivo) {
+            rejeicoes.add(new Object[]{linha, cpf, motivo});
+        }
+
+        int escreverRejeicoes(EscritorRegistros escritor) throws IOException {
+            for (Object[] rejeicao : rejeicoes) {
+                registrarRejeicao(escritor, (Integer) rejeicao[0], (String) rejeicao[1], (String) rejeicao[2]);
+            }
+            int total = rejeicoes.size();
+            rejeicoes.clear();
+            return total;
+        }
+    }
+
+    /**
+     * Lê o arquivo em blocos de registros inteiros, sem carregá-lo todo na
+     * memória. Acompanha as aspas para não cortar um campo com quebra de
+     * linha ao meio.
+     */
+    private static class DivisorRegistros {
+        private final InputStream entrada;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int posicao;
+        private int limite;
+        private int tamanho;
+        private int registros;
+
+        DivisorRegistros(InputStream entrada) {
+            this.entrada = entrada;
+        }
+
+        /**
+         * Lê os próximos {@code quantidade} registros.
+         * @return Bytes do bloco (válidos até {@link #getTamanho()}) ou null no fim do arquivo
+         */
+        byte[] proximoBloco(int quantidade) throws IOException {
+            byte[] bloco = new byte[buffer.length];
+            tamanho = 0;
+            registros = 0;
+            boolean entreAspas = false;
+
+            while (registros < quantidade) {
+                if (posicao == limite) {
+                    int lidos = entrada.read(buffer);
+                    if (lidos <= 0) {
+                        break;
+                    }
+                    posicao = 0;
+                    limite = lidos;
+                }
+                int inicio = posicao;
+                while (posicao < limite && registros < quantidade) {
+                    byte b = buffer[posicao++];
+                    if (b == '"') {
+                        entreAspas = !entreAspas;
+                    } else if (b == '\n' && !entreAspas) {
+                        registros++;
+                    }
+                }
+                int trecho = posicao - inicio;
+                if (tamanho + trecho > bloco.length) {
+                    bloco = Arrays.copyOf(bloco, Math.max(bloco.length * 2, tamanho + trecho));
+                }
+                System.arraycopy(buffer, inicio, bloco, tamanho, trecho);
+                tamanho += trecho;
+            }
+
+            if (tamanho == 0) {
+                return null;
+            }
+            if (bloco[tamanho - 1] != '\n') {
+                registros++; // último registro sem quebra de linha
+            }
+            return bloco;
+        }
+
+        /** @return Bytes válidos do último bloco */
+        int getTamanho() { return tamanho; }
+
+        /** @return Registros do último bloco (incluindo linhas em branco) */
+        int getRegistros() { return registros; }
+    }
+
+    /**
+     * Leitor de CSV sobre os bytes do arquivo (UTF-8), com suporte a campos
+     * entre aspas contendo separadores, quebras de linha e aspas duplicadas.
+     */
+    private static class LeitorCsv {
+        private final byte[] dados;
+        private final int fim;
+        private int posicao;
+        private byte separador;
+
+        /** Leitor do cabeçalho, nos primeiros {@code fim} bytes */
+        LeitorCsv(byte[] dados, int fim) {
+            this(dados, 0, fim, (byte) ',');
+            // Ignora a marca de ordem de bytes (BOM) do UTF-8
+            if (fim >= 3 && (dados[0] & 0xFF) == 0xEF && (dados[1] & 0xFF) == 0xBB && (dados[2] & 0xFF) == 0xBF) {
+                posicao = 3;
+            }
+        }
+
+        LeitorCsv(byte[] dados, int inicio, int fim, byte separador) {
+            this.dados = dados;
+            this.posicao = inicio;
+            this.fim = fim;
+            this.separador = separador;
+        }
+
+        byte getSeparador() { return separador; }
+
+        /**
+         * Lê o cabeçalho, detectando o separador ({@code ;} quando não houver vírgulas).
+         */
+        List<String> lerCabecalho() {
+            int quebra = posicao;
+            while (quebra < fim && dados[quebra] != '\n') {
+                quebra++;
+            }
+            boolean temVirgula = false;
+            boolean temPontoVirgula = false;
+            for (int i = posicao; i < quebra; i++) {
+                temVirgula |= dados[i] == ',';
+                temPontoVirgula |= dados[i] == ';';
+            }
+            if (temPontoVirgula && !temVirgula) {
+                separador = ';';
+            }
+            return lerRegistro();
+        }
+
+        /**
+         * Lê o próximo registro.
+         * @return Campos do registro ou null no fim do trecho
+         */
+        List<String> lerRegistro() {
+            if (posicao >= fim) {
+                return null;
+            }
+
+            List<String> campos = new ArrayList<>();
+            while (true) {
+                int inicioCampo = posicao;
+                String valor;
+
+                if (posicao < fim && dados[posicao] == '"') {
+                    StringBuilder sb = null;
+                    int trecho = ++posicao;
+                    while (posicao < fim) {
+                        if (dados[posicao] == '"') {
+                            if (posicao + 1 < fim && dados[posicao + 1] == '"') {
+                                if (sb == null) {
+                                    sb = new StringBuilder();
+                                }
+                                sb.append(new String(dados, trecho, posicao + 1 - trecho, StandardCharsets.UTF_8));
+                                posicao += 2;
+                                trecho = posicao;
+                                continue;
+                            }
+                            break;
+                        }
+                        posicao++;
+                    }
+                    String resto = new String(dados, trecho, posicao - trecho, StandardCharsets.UTF_8);
+                    valor = sb != null ? sb.append(resto).toString() : resto;
+                    posicao++; // aspas de fechamento
+                    // Descarta qualquer conteúdo após as aspas até o separador
+                    while (posicao < fim && dados[posicao] != separador && dados[posicao] != '\n') {
+                        posicao++;
+                    }
+                } else {
+                    while (posicao < fim && dados[posicao] != separador && dados[posicao] != '\n') {
+                        posicao++;
+                    }
+                    int fimCampo = posicao;
+                    if (fimCampo > inicioCampo && dados[fimCampo - 1] == '\r') {
+                        fimCampo--;
+                    }
+                    valor = new String(dados, inicioCampo, fimCampo - inicioCampo, StandardCharsets.UTF_8);
+                }
+
+                campos.add(valor);
+
+                if (posicao >= fim) {
+                    return campos;
+                }
+                if (dados[posicao] == '\n') {
+                    posicao++;
+                    return campos;
+                }
+                posicao++; // separador
+            }
+        }
+    }
+}
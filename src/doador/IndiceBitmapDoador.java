@@ -0,0 +1,579 @@
+package doador;
+
+import database.DatabaseConnection;
+import database.InvalidacaoCache;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import util.BitmapCompacto;
+import util.Calendario;
+import util.ConjuntoLongs;
+import util.NormalizadorTexto;
+
+/**
+ * Índices de bitmap em memória sobre os atributos dos doadores, para filtros
+ * combinados (ex.: "A+, sexo feminino, 18 a 30 anos, hospital 7, apto a doar").
+ *
+ * <p>Cada doador recebe um ordinal denso (posição na ordem de ID). Para cada
+ * valor de tipo sanguíneo, sexo, cidade, hospital e ano de nascimento há um
+ * {@link BitmapCompacto} com os ordinais dos doadores que têm esse valor; o
+ * filtro combinado é obtido com E/OU/EXCETO entre bitmaps e apenas os doadores
+ * resultantes são lidos do banco ({@link #buscar(BitmapCompacto, int)}).</p>
+ *
+ * <p>A faixa etária usa os bitmaps por ano de nascimento e refina os anos das
+ * extremidades pela data exata; o bitmap de aptos (idade de 16 a 69 anos e
+ * 60 dias desde a última doação) é calculado uma vez por dia.</p>
+ *
+ * <p>Cada instância é um retrato imutável do índice, de modo que os ordinais
+ * dos bitmaps de uma mesma consulta sempre correspondem. Inclusões, alterações
+ * e remoções de doadores ({@link #registrar(Doador)}, {@link #remover(long)})
+ * publicam um retrato novo que troca só os blocos afetados dos bitmaps do
+ * doador: o ordinal é acrescentado no fim (IDs crescentes) ou sai de todos os
+ * bitmaps, sem reconstrução e sem bloquear as consultas. Os arrays por
+ * ordinal são compartilhados entre retratos, cada um lendo só até o próprio
+ * tamanho; novas doações apenas atualizam a data da última doação. Doadores
+ * gravados por outra instância ({@link InvalidacaoCache}) ficam pendentes e
+ * são relidos de uma vez no próximo {@link #obter()}, aplicados da mesma
+ * forma; só alterações demais de uma vez descartam o retrato.</p>
+ */
+public class IndiceBitmapDoador {
+
+    /** Idade mínima e máxima para doar (mesma regra de {@link Doador#podeDoar()}) */
+    private static final int IDADE_MINIMA = 16;
+    private static final int IDADE_MAXIMA = 69;
+
+    /** Intervalo mínimo entre doações, em dias (mesma regra de DoadorController) */
+    private static final int INTERVALO_MINIMO_DIAS = 60;
+
+    /** Marca de data ausente nos arrays de datas */
+    private static final int SEM_DATA = Integer.MIN_VALUE;
+
+    private static final String SELECT_ATRIBUTOS =
+        "SELECT id, sexo, tipo_sanguineo, cidade_busca, id_hospital, data_nascimento, ultima_doacao " +
+        "FROM doador ORDER BY id";
+
+    private static final String SELECT_ATRIBUTOS_BY_IDS =
+        "SELECT id, sexo, tipo_sanguineo, cidade_busca, id_hospital, data_nascimento, ultima_doacao " +
+        "FROM doador WHERE id = ANY (?) ORDER BY id";
+
+    private static IndiceBitmapDoador atual;
+
+    /** Doadores gravados por outra instância, a reler no próximo {@link #obter()} */
+    private static ConjuntoLongs pendentes = new ConjuntoLongs();
+
+    private final long[] ids;         // ordem crescente; posições além de tamanho são de retratos futuros
+    private final int tamanho;        // ordinais deste retrato (removidos continuam, fora dos bitmaps)
+    private final int[] nascimento;   // dia epoch
+    private final int[] ultimaDoacao; // dia epoch, SEM_DATA se nunca doou
+    private final BitmapCompacto todos;
+    private final Map<String, BitmapCompacto> porTipoSanguineo;
+    private final Map<String, BitmapCompacto> porSexo;
+    private final Map<String, BitmapCompacto> porCidade;
+    private final Map<Long, BitmapCompacto> porHospital;
+    private final Map<Integer, BitmapCompacto> porAnoNascimento;
+
+    private BitmapCompacto aptos;
+    private long diaAptos = Long.MIN_VALUE;
+
+    static {
+        InvalidacaoCache.registrar("doador", new InvalidacaoCache.Ouvinte() {
+            @Override
+            public void invalidar(long id) {
+                IndiceBitmapDoador.agendar(id);
+            }
+
+            @Override
+            public void invalidarTudo() {
+                IndiceBitmapDoador.invalidar();
+            }
+        });
+    }
+
+    private IndiceBitmapDoador(long[] ids, int tamanho, int[] nascimento, int[] ultimaDoacao, BitmapCompacto todos,
+            Map<String, BitmapCompacto> porTipoSanguineo, Map<String, BitmapCompacto> porSexo,
+            Map<String, BitmapCompacto> porCidade, Map<Long, BitmapCompacto> porHospital,
+            Map<Integer, BitmapCompacto> porAnoNascimento) {
+        this.ids = ids;
+        this.tamanho = tamanho;
+        this.nascimento = nascimento;
+        this.ultimaDoacao = ultimaDoacao;
+        this.todos = todos;
+        this.porTipoSanguineo = porTipoSanguineo;
+        this.porSexo = porSexo;
+        this.porCidade = porCidade;
+        this.porHospital = porHospital;
+        this.porAnoNascimento = porAnoNascimento;
+    }
+
+    /**
+     * Retorna o retrato atual do índice, construindo-o a partir do banco se
+     * ainda não existir ou se tiver sido invalidado.
+     *
+     * @return Índice pronto para consulta
+     * @throws SQLException se houver erro na leitura dos doadores
+     */
+    public static synchronized IndiceBitmapDoador obter() throws SQLException {
+        if (atual == null) {
+            // A leitura completa já inclui os pendentes
+            pendentes = new ConjuntoLongs();
+            atual = construir();
+        } else if (!pendentes.vazio()) {
+            resolverPendentes();
+        }
+        return atual;
+    }
+
+    /**
+     * Descarta o retrato atual; o próximo {@link #obter()} reconstrói o índice.
+     */
+    public static synchronized void invalidar() {
+        atual = null;
+        pendentes = new ConjuntoLongs();
+    }
+
+    /**
+     * Marca um doador gravado por outra instância para releitura no próximo
+     * {@link #obter()}.
+     */
+    private static synchronized void agendar(long idDoador) {
+        if (atual != null) {
+            pendentes.adicionar(idDoador);
+        }
+    }
+
+    /**
+     * Lê os atributos atuais dos doadores pendentes e os aplica ao retrato;
+     * os que não existem mais saem do índice.
+     */
+    private static void resolverPendentes() throws SQLException {
+        long[] lista = pendentes.paraArray();
+        Arrays.sort(lista);
+        Long[] valores = new Long[lista.length];
+        for (int i = 0; i < lista.length; i++) {
+            valores[i] = lista[i];
+        }
+
+        IndiceBitmapDoador indice = atual;
+        int proximo = 0;
+        Connection conn = DatabaseConnection.getConnection();
+        Array array = conn.createArrayOf("bigint", valores);
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_ATRIBUTOS_BY_IDS)) {
+            stmt.setArray(1, array);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next() && indice != null) {
+                    long id = rs.getLong(1);
+                    for (; lista[proximo] != id; proximo++) {
+                        indice = indice.semId(lista[proximo]);
+                    }
+                    proximo++;
+
+                    long idHospital = rs.getLong(5);
+                    Long hospital = rs.wasNull() ? null : idHospital;
+                    Date dataNascimento = rs.getDate(6);
+                    Date ultima = rs.getDate(7);
+                    indice = indice.com(id, chaveMaiuscula(rs.getString(2)), chaveMaiuscula(rs.getString(3)),
+                            rs.getString(4), hospital,
+                            dataNascimento != null ? Calendario.dia(dataNascimento) : SEM_DATA,
+                            ultima != null ? Calendario.dia(ultima) : SEM_DATA, true);
+                }
+            }
+        } finally {
+            array.free();
+        }
+        for (; indice != null && proximo < lista.length; proximo++) {
+            indice = indice.semId(lista[proximo]);
+        }
+        pendentes = new ConjuntoLongs();
+        // null: ID novo fora da ordem dos indexados, reconstruído por inteiro
+        atual = indice != null ? indice : construir();
+    }
+
+    /**
+     * Inclui ou atualiza um doador gravado por este processo no retrato atual
+     * (se houver). A data da última doação de um doador já indexado é mantida:
+     * ela muda por {@link #registrarDoacao(long, Date)}. Um ID novo menor que
+     * o último indexado descarta o retrato (reconstruído no próximo {@link #obter()}).
+     *
+     * @param doador Doador gravado (com ID)
+     */
+    public static synchronized void registrar(Doador doador) {
+        if (atual == null || doador == null || doador.getId() == null) {
+            return;
+        }
+        atual = atual.com(doador.getId(), chaveMaiuscula(doador.getSexo()), chaveMaiuscula(doador.getTipoSanguineo()),
+                NormalizadorTexto.normalizar(doador.getCidade()), doador.getIdHospital(),
+                doador.getDataNascimentoDia(), doador.getUltimaDoacaoDia(), false);
+    }
+
+    /**
+     * Retira um doador removido por este processo do retrato atual (se houver).
+     *
+     * @param idDoador ID do doador removido
+     */
+    public static synchronized void remover(long idDoador) {
+        if (atual != null) {
+            atual = atual.semId(idDoador);
+        }
+    }
+
+    /**
+     * Atualiza a data da última doação de um doador no retrato atual (se houver).
+     */
+    public static synchronized void registrarDoacao(long idDoador, Date data) {
+        if (atual == null || data == null) {
+            return;
+        }
+        int ordinal = Arrays.binarySearch(atual.ids, 0, atual.tamanho, idDoador);
+        if (ordinal >= 0) {
+            synchronized (atual) {
+                atual.ultimaDoacao[ordinal] = Calendario.dia(data);
+                atual.diaAptos = Long.MIN_VALUE;
+            }
+        }
+    }
+
+    /** @return Quantidade de doadores indexados */
+    public int tamanho() {
+        return todos.cardinalidade();
+    }
+
+    /** @return Todos os doadores (universo para negações) */
+    public BitmapCompacto todos() {
+        return todos;
+    }
+
+    /** @return Doadores do tipo sanguíneo (ex.: "A+") */
+    public BitmapCompacto tipoSanguineo(String tipo) {
+        return valorOuVazio(porTipoSanguineo, chaveMaiuscula(tipo));
+    }
+
+    /** @return Doadores do sexo informado ("M" ou "F") */
+    public BitmapCompacto sexo(String sexo) {
+        return valorOuVazio(porSexo, chaveMaiuscula(sexo));
+    }
+
+    /** @return Doadores da cidade, sem distinção de acentos e maiúsculas */
+    public BitmapCompacto cidade(String cidade) {
+        return valorOuVazio(porCidade, NormalizadorTexto.normalizar(cidade));
+    }
+
+    /** @return Doadores vinculados ao hospital */
+    public BitmapCompacto hospital(long idHospital) {
+        return valorOuVazio(porHospital, idHospital);
+    }
+
+    /**
+     * Doadores com idade entre os limites informados (inclusive), calculada
+     * como em {@link Doador#calcularIdade()}.
+     *
+     * @param idadeMinima Idade mínima em anos
+     * @param idadeMaxima Idade máxima em anos
+     * @return Doadores da faixa etária
+     */
+    public BitmapCompacto faixaEtaria(int idadeMinima, int idadeMaxima) {
+        if (idadeMinima > idadeMaxima) {
+            return BitmapCompacto.vazio();
+        }
+
+        // idade >= minima  <=>  nascimento <= hoje menos "minima" anos;
+        // idade <= maxima  <=>  nascimento >  hoje menos "maxima + 1" anos
+        int hoje = Calendario.hoje();
+        long primeiroDia = Calendario.anosAntes(hoje, idadeMaxima + 1) + 1L;
+        long ultimoDia = Calendario.anosAntes(hoje, idadeMinima);
+
+        int primeiroAno = Calendario.ano((int) primeiroDia);
+        int ultimoAno = Calendario.ano((int) ultimoDia);
+
+        BitmapCompacto resultado = BitmapCompacto.vazio();
+        for (int ano = primeiroAno; ano <= ultimoAno; ano++) {
+            BitmapCompacto doAno = porAnoNascimento.get(ano);
+            if (doAno == null) {
+                continue;
+            }
+            boolean inteiro = Calendario.epochDay(ano, 1, 1) >= primeiroDia
+                    && Calendario.epochDay(ano, 12, 31) <= ultimoDia;
+            resultado = resultado.ou(inteiro ? doAno : filtrarNascimento(doAno, primeiroDia, ultimoDia));
+        }
+        return resultado;
+    }
+
+    /**
+     * Doadores aptos a doar hoje: idade de 16 a 69 anos e pelo menos 60 dias
+     * desde a última doação (ou que nunca doaram).
+     *
+     * @return Doadores aptos
+     */
+    public synchronized BitmapCompacto aptos() {
+        long hoje = Calendario.hoje();
+        if (diaAptos != hoje) {
+            BitmapCompacto faixa = faixaEtaria(IDADE_MINIMA, IDADE_MAXIMA);
+            long limite = hoje - INTERVALO_MINIMO_DIAS;
+
+            BitmapCompacto.Construtor construtor = new BitmapCompacto.Construtor();
+            for (int ordinal : faixa.paraArray()) {
+                int ultima = ultimaDoacao[ordinal];
+                if (ultima == SEM_DATA || ultima <= limite) {
+                    construtor.adicionar(ordinal);
+                }
+            }
+            aptos = construtor.construir();
+            diaAptos = hoje;
+        }
+        return aptos;
+    }
+
+    /**
+     * @param filtro Bitmap obtido desta instância
+     * @param limite Quantidade máxima de IDs
+     * @return IDs dos doadores do filtro, em ordem crescente de ID
+     */
+    public long[] ids(BitmapCompacto filtro, int limite) {
+        int[] ordinais = filtro.paraArray(limite);
+        long[] resultado = new long[ordinais.length];
+        for (int i = 0; i < ordinais.length; i++) {
+            resultado[i] = ids[ordinais[i]];
+        }
+        return resultado;
+    }
+
+    /**
+     * Lê do banco apenas os resumos de listagem dos doadores do filtro.
+     *
+     * @param filtro Bitmap obtido desta instância
+     * @param limite Quantidade máxima de doadores
+     * @return Resumos dos doadores do filtro, em ordem crescente de ID
+     * @throws SQLException se houver erro na consulta
+     */
+    public List<ResumoDoador> buscar(BitmapCompacto filtro, int limite) throws SQLException {
+        return DoadorDAO.buscarResumosPorIds(ids(filtro, limite));
+    }
+
+    /**
+     * Retrato com o doador incluído (novo ordinal no fim) ou com os atributos
+     * trocados; os bitmaps que não mudam são compartilhados.
+     *
+     * @return Retrato novo, ou null se o ID for menor que o último indexado sem estar no índice
+     */
+    private IndiceBitmapDoador com(long id, String sexo, String tipo, String cidade, Long idHospital,
+                                   int diaNascimento, int diaUltimaDoacao, boolean gravarUltimaDoacao) {
+        long[] novosIds = ids;
+        int[] novoNascimento = nascimento;
+        int[] novaUltimaDoacao = ultimaDoacao;
+        int novoTamanho = tamanho;
+
+        int ordinal = Arrays.binarySearch(ids, 0, tamanho, id);
+        if (ordinal < 0) {
+            if (tamanho > 0 && id < ids[tamanho - 1]) {
+                return null;
+            }
+            ordinal = tamanho;
+            novoTamanho = tamanho + 1;
+            if (ordinal == ids.length) {
+                int capacidade = Math.max(1024, ids.length * 2);
+                novosIds = Arrays.copyOf(ids, capacidade);
+                novoNascimento = Arrays.copyOf(nascimento, capacidade);
+                novaUltimaDoacao = Arrays.copyOf(ultimaDoacao, capacidade);
+            }
+            // Posições além do tamanho: nenhum retrato publicado as lê
+            novosIds[ordinal] = id;
+            novoNascimento[ordinal] = diaNascimento;
+            novaUltimaDoacao[ordinal] = diaUltimaDoacao;
+        } else {
+            if (nascimento[ordinal] != diaNascimento) {
+                novoNascimento = Arrays.copyOf(nascimento, nascimento.length);
+                novoNascimento[ordinal] = diaNascimento;
+            }
+            if (gravarUltimaDoacao) {
+                synchronized (this) {
+                    ultimaDoacao[ordinal] = diaUltimaDoacao;
+                }
+            }
+        }
+
+        BitmapCompacto unico = new BitmapCompacto.Construtor().adicionar(ordinal).construir();
+        Integer ano = diaNascimento != SEM_DATA ? Calendario.ano(diaNascimento) : null;
+        IndiceBitmapDoador novo = new IndiceBitmapDoador(novosIds, novoTamanho, novoNascimento, novaUltimaDoacao,
+                todos.contem(ordinal) ? todos : todos.ou(unico),
+                mover(porTipoSanguineo, tipo, ordinal, unico), mover(porSexo, sexo, ordinal, unico),
+                mover(porCidade, cidade, ordinal, unico), mover(porHospital, idHospital, ordinal, unico),
+                mover(porAnoNascimento, ano, ordinal, unico));
+        novo.herdarAptos(this, ordinal, unico);
+        return novo;
+    }
+
+    /** Retrato sem o doador, se indexado */
+    private IndiceBitmapDoador semId(long id) {
+        int ordinal = Arrays.binarySearch(ids, 0, tamanho, id);
+        return ordinal >= 0 && todos.contem(ordinal) ? sem(ordinal) : this;
+    }
+
+    /** Retrato sem o doador do ordinal, que continua reservado nos arrays */
+    private IndiceBitmapDoador sem(int ordinal) {
+        BitmapCompacto unico = new BitmapCompacto.Construtor().adicionar(ordinal).construir();
+        IndiceBitmapDoador novo = new IndiceBitmapDoador(ids, tamanho, nascimento, ultimaDoacao, todos.exceto(unico),
+                mover(porTipoSanguineo, null, ordinal, unico), mover(porSexo, null, ordinal, unico),
+                mover(porCidade, null, ordinal, unico), mover(porHospital, null, ordinal, unico),
+                mover(porAnoNascimento, null, ordinal, unico));
+        novo.herdarAptos(this, ordinal, unico);
+        return novo;
+    }
+
+    /**
+     * Copia o bitmap de aptos do retrato anterior, se já calculado hoje,
+     * corrigindo só o ordinal alterado.
+     */
+    private void herdarAptos(IndiceBitmapDoador anterior, int ordinal, BitmapCompacto unico) {
+        int hoje = Calendario.hoje();
+        BitmapCompacto base;
+        synchronized (anterior) {
+            if (anterior.diaAptos != hoje) {
+                return;
+            }
+            base = anterior.aptos;
+        }
+        boolean apto = false;
+        if (todos.contem(ordinal) && nascimento[ordinal] != SEM_DATA) {
+            int dia = nascimento[ordinal];
+            int ultima = ultimaDoacao[ordinal];
+            apto = dia > Calendario.anosAntes(hoje, IDADE_MAXIMA + 1) && dia <= Calendario.anosAntes(hoje, IDADE_MINIMA)
+                    && (ultima == SEM_DATA || ultima <= hoje - INTERVALO_MINIMO_DIAS);
+        }
+        aptos = apto ? base.ou(unico) : base.exceto(unico);
+        diaAptos = hoje;
+    }
+
+    /**
+     * Cópia do mapa com o ordinal só no bitmap da chave informada (em nenhum
+     * se a chave for null). Devolve o próprio mapa se nada mudar.
+     */
+    private static <K> Map<K, BitmapCompacto> mover(Map<K, BitmapCompacto> mapa, K chave, int ordinal,
+                                                    BitmapCompacto unico) {
+        Map<K, BitmapCompacto> novo = null;
+        for (Map.Entry<K, BitmapCompacto> entrada : mapa.entrySet()) {
+            if (!entrada.getKey().equals(chave) && entrada.getValue().contem(ordinal)) {
+                if (novo == null) {
+                    novo = new HashMap<>(mapa);
+                }
+                BitmapCompacto restante = entrada.getValue().exceto(unico);
+                if (restante.estaVazio()) {
+                    novo.remove(entrada.getKey());
+                } else {
+                    novo.put(entrada.getKey(), restante);
+                }
+            }
+        }
+        if (chave != null) {
+            BitmapCompacto bitmap = mapa.get(chave);
+            if (bitmap == null || !bitmap.contem(ordinal)) {
+                if (novo == null) {
+                    novo = new HashMap<>(mapa);
+                }
+                novo.put(chave, bitmap == null ? unico : bitmap.ou(unico));
+            }
+        }
+        return novo != null ? novo : mapa;
+    }
+
+    private BitmapCompacto filtrarNascimento(BitmapCompacto doAno, long primeiroDia, long ultimoDia) {
+        BitmapCompacto.Construtor construtor = new BitmapCompacto.Construtor();
+        for (int ordinal : doAno.paraArray()) {
+            int dia = nascimento[ordinal];
+            if (dia >= primeiroDia && dia <= ultimoDia) {
+                construtor.adicionar(ordinal);
+            }
+        }
+        return construtor.construir();
+    }
+
+    private static <K> BitmapCompacto valorOuVazio(Map<K, BitmapCompacto> mapa, K chave) {
+        BitmapCompacto bitmap = chave != null ? mapa.get(chave) : null;
+        return bitmap != null ? bitmap : BitmapCompacto.vazio();
+    }
+
+    private static String chaveMaiuscula(String valor) {
+        return valor != null ? valor.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Lê os atributos de todos os doadores, em ordem de ID, e monta os bitmaps.
+     */
+    private static IndiceBitmapDoador construir() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+
+        int capacidade = 1024;
+        long[] ids = new long[capacidade];
+        int[] nascimento = new int[capacidade];
+        int[] ultimaDoacao = new int[capacidade];
+        Map<String, BitmapCompacto.Construtor> tipos = new HashMap<>();
+        Map<String, BitmapCompacto.Construtor> sexos = new HashMap<>();
+        Map<String, BitmapCompacto.Construtor> cidades = new HashMap<>();
+        Map<Long, BitmapCompacto.Construtor> hospitais = new HashMap<>();
+        Map<Integer, BitmapCompacto.Construtor> anos = new HashMap<>();
+        int n = 0;
+
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        conn.setAutoCommit(false); // necessário para o cursor com fetchSize
+        try (Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(10_000);
+            try (ResultSet rs = stmt.executeQuery(SELECT_ATRIBUTOS)) {
+                while (rs.next()) {
+                    if (n == capacidade) {
+                        capacidade *= 2;
+                        ids = Arrays.copyOf(ids, capacidade);
+                        nascimento = Arrays.copyOf(nascimento, capacidade);
+                        ultimaDoacao = Arrays.copyOf(ultimaDoacao, capacidade);
+                    }
+
+                    ids[n] = rs.getLong(1);
+                    adicionar(sexos, chaveMaiuscula(rs.getString(2)), n);
+                    adicionar(tipos, chaveMaiuscula(rs.getString(3)), n);
+                    adicionar(cidades, rs.getString(4), n);
+                    long idHospital = rs.getLong(5);
+                    adicionar(hospitais, rs.wasNull() ? null : idHospital, n);
+
+                    Date dataNascimento = rs.getDate(6);
+                    if (dataNascimento != null) {
+                        nascimento[n] = Calendario.dia(dataNascimento);
+                        adicionar(anos, Calendario.ano(nascimento[n]), n);
+                    } else {
+                        nascimento[n] = SEM_DATA;
+                    }
+
+                    Date ultima = rs.getDate(7);
+                    ultimaDoacao[n] = ultima != null ? Calendario.dia(ultima) : SEM_DATA;
+                    n++;
+                }
+            }
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+
+        return new IndiceBitmapDoador(ids, n, nascimento, ultimaDoacao, BitmapCompacto.ate(n),
+                construirTodos(tipos), construirTodos(sexos),
+                construirTodos(cidades), construirTodos(hospitais), construirTodos(anos));
+    }
+
+    private static <K> void adicionar(Map<K, BitmapCompacto.Construtor> mapa, K chave, int ordinal) {
+        if (chave != null) {
+            mapa.computeIfAbsent(chave, k -> new BitmapCompacto.Construtor()).adicionar(ordinal);
+        }
+    }
+
+    private static <K> Map<K, BitmapCompacto> construirTodos(Map<K, BitmapCompacto.Construtor> construtores) {
+        Map<K, BitmapCompacto> bitmaps = new HashMap<>();
+        for (Map.Entry<K, BitmapCompacto.Construtor> entrada : construtores.entrySet()) {
+            bitmaps.put(entrada.getKey(), entrada.getValue().construir());
+        }
+        return bitmaps;
+    }
+}
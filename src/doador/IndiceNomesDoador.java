@@ -0,0 +1,687 @@
+package doador;
+
+import database.DatabaseConnection;
+import database.InvalidacaoCache;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import util.ConjuntoLongs;
+import util.NormalizadorTexto;
+
+/**
+ * Índice em memória para busca de doadores por nome, com autocompletar.
+ *
+ * <p>Estrutura (arrays ordenados, sem objetos por entrada):</p>
+ * <ul>
+ *   <li>{@code ids}/{@code chaves}: doadores ordenados pelo nome normalizado
+ *       (sem acentos, minúsculo); a posição nesses arrays é o <em>ordinal</em>
+ *       do doador</li>
+ *   <li>{@code tokens}: palavras distintas dos nomes normalizados, em ordem;
+ *       as postagens de cada palavra ({@code postagens[inicio[t]..inicio[t+1])})
+ *       são ordinais em ordem crescente</li>
+ * </ul>
+ *
+ * <p>Como os ordinais seguem a ordem alfabética, os nomes que começam com o
+ * texto digitado formam um intervalo contíguo, encontrado por busca binária;
+ * as palavras que começam com um prefixo também formam um intervalo de
+ * {@code tokens}. Alterações posteriores à construção ficam em uma camada
+ * delta (inclusões e atualizações) com marcas de remoção sobre a base; quando
+ * o delta cresce, base e delta são fundidos em uma nova base.</p>
+ *
+ * <p>O índice é gravado em {@code dados/indice_nomes_doador.bin} e recarregado
+ * na inicialização quando a quantidade de doadores, o maior ID e a última
+ * atualização ({@code MAX(updated_at)}) do banco conferem com o arquivo; caso
+ * contrário é reconstruído a partir do banco. A última atualização detecta
+ * nomes alterados com o sistema fora do ar, que não mudam as outras duas.</p>
+ *
+ * <p>Doadores gravados por outra instância chegam por {@link InvalidacaoCache}:
+ * saem da base na hora e o nome atual é lido do banco, em uma única consulta
+ * para todos os pendentes, na próxima busca.</p>
+ */
+public class IndiceNomesDoador {
+
+    /** Arquivo do snapshot do índice */
+    private static final Path ARQUIVO_SNAPSHOT = Paths.get("dados", "indice_nomes_doador.bin");
+
+    private static final int MAGICO = 0x48434E31; // "HCN1"
+    private static final int VERSAO_ARQUIVO = 2;
+
+    /** Tamanho mínimo do delta que dispara a fusão com a base */
+    private static final int DELTA_MINIMO_FUSAO = 4096;
+
+    /** Limite de postagens examinadas por busca de palavras (prefixos muito curtos) */
+    private static final int LIMITE_CANDIDATOS = 50_000;
+
+    private static final String SELECT_NOMES = "SELECT id, nome FROM doador";
+
+    private static final String SELECT_CARIMBO = "SELECT COUNT(*), COALESCE(MAX(id), 0), " +
+        "COALESCE((EXTRACT(EPOCH FROM MAX(updated_at)) * 1000000)::BIGINT, 0) FROM doador";
+
+    private static final String SELECT_NOMES_BY_IDS = "SELECT id, nome FROM doador WHERE id = ANY (?)";
+
+    // Base imutável
+    private static long[] ids = new long[0];
+    private static String[] chaves = new String[0];
+    private static String[] tokens = new String[0];
+    private static int[] inicio = new int[]{0};
+    private static int[] postagens = new int[0];
+
+    // Camada de alterações (id -> nome normalizado)
+    private static final Map<Long, String> delta = new HashMap<>();
+    private static ConjuntoLongs removidos = new ConjuntoLongs();
+
+    /** Alterados por outra instância, com o nome ainda a ler do banco */
+    private static ConjuntoLongs pendentes = new ConjuntoLongs();
+
+    private static boolean carregado = false;
+    private static boolean alterado = false;
+    private static boolean ganchoRegistrado = false;
+
+    static {
+        InvalidacaoCache.registrar("doador", new InvalidacaoCache.Ouvinte() {
+            @Override
+            public void invalidar(long id) {
+                marcarPendente(id);
+            }
+
+            @Override
+            public void invalidarTudo() {
+                IndiceNomesDoador.invalidar();
+            }
+        });
+    }
+
+    // Construtor privado: classe utilitária
+    private IndiceNomesDoador() {}
+
+    /**
+     * Busca os doadores cujo nome corresponde ao texto digitado.
+     *
+     * <p>Primeiro são retornados os nomes que começam com o texto (em ordem
+     * alfabética); as vagas restantes são preenchidas com nomes que contêm
+     * palavras começando com cada termo digitado (ex.: "sil mar" encontra
+     * "Maria da Silva"). Acentos e maiúsculas são ignorados.</p>
+     *
+     * @param consulta Texto digitado
+     * @param limite Quantidade máxima de resultados
+     * @return IDs dos doadores encontrados, do mais ao menos relevante
+     * @throws SQLException se o índice precisar ser construído e houver erro no banco
+     */
+    public static synchronized long[] buscar(String consulta, int limite) throws SQLException {
+        garantirCarregado();
+        resolverPendentes();
+
+        String chave = NormalizadorTexto.normalizar(consulta);
+        if (chave == null || chave.isEmpty() || limite <= 0) {
+            return new long[0];
+        }
+        String[] termos = chave.split(" ");
+
+        ConjuntoLongs vistos = new ConjuntoLongs(limite * 2);
+        long[] resultado = new long[limite];
+        int total = 0;
+
+        // 1) Nomes que começam com o texto: intervalo contíguo da base
+        for (int ord = limiteInferiorNome(chave); ord < ids.length && total < limite; ord++) {
+            if (!chaves[ord].startsWith(chave)) {
+                break;
+            }
+            if (!removidos.contem(ids[ord]) && vistos.adicionar(ids[ord])) {
+                resultado[total++] = ids[ord];
+            }
+        }
+
+        // 2) Alterações recentes que começam com o texto
+        if (total < limite) {
+            total = adicionarDelta(chave, termos, true, resultado, total, vistos);
+        }
+
+        // 3) Nomes com palavras que começam com cada termo
+        if (total < limite) {
+            total = adicionarPorPalavras(termos, resultado, total, vistos);
+        }
+        if (total < limite) {
+            total = adicionarDelta(chave, termos, false, resultado, total, vistos);
+        }
+
+        return Arrays.copyOf(resultado, total);
+    }
+
+    /**
+     * Registra a inclusão ou a alteração do nome de um doador.
+     * Ignorado enquanto o índice não tiver sido carregado.
+     */
+    public static synchronized void registrar(long id, String nome) {
+        if (!carregado || nome == null) {
+            return;
+        }
+        removidos.adicionar(id);
+        delta.put(id, NormalizadorTexto.normalizar(nome));
+        alterado = true;
+        fundirSeNecessario();
+    }
+
+    /**
+     * Registra a remoção de um doador.
+     * Ignorado enquanto o índice não tiver sido carregado.
+     */
+    public static synchronized void remover(long id) {
+        if (!carregado) {
+            return;
+        }
+        removidos.adicionar(id);
+        delta.remove(id);
+        alterado = true;
+    }
+
+    /**
+     * Tira da busca um doador gravado por outra instância; o nome atual é
+     * lido do banco na próxima busca.
+     * Ignorado enquanto o índice não tiver sido carregado.
+     */
+    static synchronized void marcarPendente(long id) {
+        if (!carregado) {
+            return;
+        }
+        removidos.adicionar(id);
+        delta.remove(id);
+        pendentes.adicionar(id);
+        alterado = true;
+    }
+
+    /**
+     * Lê os nomes atuais dos doadores pendentes (os removidos no banco
+     * continuam fora do índice).
+     */
+    private static void resolverPendentes() throws SQLException {
+        if (pendentes.vazio()) {
+            return;
+        }
+        long[] lista = pendentes.paraArray();
+        Long[] valores = new Long[lista.length];
+        for (int i = 0; i < lista.length; i++) {
+            valores[i] = lista[i];
+        }
+
+        Connection conn = DatabaseConnection.getConnection();
+        Array array = conn.createArrayOf("bigint", valores);
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_NOMES_BY_IDS)) {
+            stmt.setArray(1, array);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String nome = rs.getString(2);
+                    delta.put(rs.getLong(1), nome != null ? NormalizadorTexto.normalizar(nome) : "");
+                }
+            }
+        } finally {
+            array.free();
+        }
+        pendentes = new ConjuntoLongs();
+        fundirSeNecessario();
+    }
+
+    /**
+     * Descarta o índice (e o snapshot), forçando a reconstrução no próximo uso.
+     * Usado após alterações em massa, como a importação de doadores.
+     */
+    public static synchronized void invalidar() {
+        carregado = false;
+        alterado = false;
+        delta.clear();
+        removidos = new ConjuntoLongs();
+        pendentes = new ConjuntoLongs();
+        try {
+            Files.deleteIfExists(ARQUIVO_SNAPSHOT);
+        } catch (IOException e) {
+            System.err.println("Erro ao remover snapshot do índice de nomes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Grava o snapshot do índice, fundindo antes as alterações pendentes.
+     */
+    public static synchronized void salvar() {
+        if (!carregado) {
+            return;
+        }
+
+        // A última atualização gravada é a do banco, lida depois de aplicar os pendentes
+        long ultimaAtualizacao;
+        try {
+            resolverPendentes();
+            ultimaAtualizacao = carimboBanco()[2];
+        } catch (SQLException e) {
+            System.err.println("Erro ao gravar snapshot do índice de nomes: " + e.getMessage());
+            return;
+        }
+        if (!delta.isEmpty() || removidos.tamanho() > 0) {
+            fundir();
+        }
+
+        try {
+            Files.createDirectories(ARQUIVO_SNAPSHOT.getParent());
+            Path temporario = ARQUIVO_SNAPSHOT.resolveSibling(ARQUIVO_SNAPSHOT.getFileName() + ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario), 1 << 16))) {
+                out.writeInt(MAGICO);
+                out.writeInt(VERSAO_ARQUIVO);
+                out.writeLong(ids.length);
+                out.writeLong(maiorId());
+                out.writeLong(ultimaAtualizacao);
+
+                out.writeInt(ids.length);
+                for (int i = 0; i < ids.length; i++) {
+                    out.writeLong(ids[i]);
+                    out.writeUTF(chaves[i]);
+                }
+
+                out.writeInt(tokens.length);
+                for (String token : tokens) {
+                    out.writeUTF(token);
+                }
+                for (int valor : inicio) {
+                    out.writeInt(valor);
+                }
+                for (int valor : postagens) {
+                    out.writeInt(valor);
+                }
+            }
+
+            Files.move(temporario, ARQUIVO_SNAPSHOT, StandardCopyOption.REPLACE_EXISTING);
+            alterado = false;
+
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar snapshot do índice de nomes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carrega o índice a partir do snapshot válido ou o constrói a partir do banco.
+     */
+    private static void garantirCarregado() throws SQLException {
+        if (carregado) {
+            return;
+        }
+
+        long[] carimbo = carimboBanco();
+        if (!carregarSnapshot(carimbo)) {
+            construirDoBanco();
+            carregado = true;
+            salvar();
+        }
+        carregado = true;
+
+        if (!ganchoRegistrado) {
+            ganchoRegistrado = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                synchronized (IndiceNomesDoador.class) {
+                    if (carregado && alterado) {
+                        salvar();
+                    }
+                }
+            }, "indice-nomes-snapshot"));
+        }
+    }
+
+    /** @return Quantidade de doadores, maior ID e última atualização (microssegundos) do banco */
+    private static long[] carimboBanco() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_CARIMBO)) {
+            rs.next();
+            return new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)};
+        }
+    }
+
+    private static boolean carregarSnapshot(long[] carimbo) {
+        if (!Files.isRegularFile(ARQUIVO_SNAPSHOT)) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(ARQUIVO_SNAPSHOT), 1 << 16))) {
+            if (in.readInt() != MAGICO || in.readInt() != VERSAO_ARQUIVO) {
+                return false;
+            }
+            if (in.readLong() != carimbo[0] || in.readLong() != carimbo[1] || in.readLong() != carimbo[2]) {
+                return false;
+            }
+
+            int n = in.readInt();
+            long[] novosIds = new long[n];
+            String[] novasChaves = new String[n];
+            for (int i = 0; i < n; i++) {
+                novosIds[i] = in.readLong();
+                novasChaves[i] = in.readUTF();
+            }
+
+            int t = in.readInt();
+            String[] novosTokens = new String[t];
+            for (int i = 0; i < t; i++) {
+                novosTokens[i] = in.readUTF();
+            }
+            int[] novoInicio = new int[t + 1];
+            for (int i = 0; i <= t; i++) {
+                novoInicio[i] = in.readInt();
+            }
+            int[] novasPostagens = new int[novoInicio[t]];
+            for (int i = 0; i < novasPostagens.length; i++) {
+                novasPostagens[i] = in.readInt();
+            }
+
+            ids = novosIds;
+            chaves = novasChaves;
+            tokens = novosTokens;
+            inicio = novoInicio;
+            postagens = novasPostagens;
+            delta.clear();
+            removidos = new ConjuntoLongs();
+            alterado = false;
+            return true;
+
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Snapshot do índice de nomes inválido, reconstruindo: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void construirDoBanco() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        List<Long> listaIds = new ArrayList<>();
+        List<String> listaChaves = new ArrayList<>();
+
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        conn.setAutoCommit(false); // necessário para o cursor com fetchSize
+        try (Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(10_000);
+            try (ResultSet rs = stmt.executeQuery(SELECT_NOMES)) {
+                while (rs.next()) {
+                    listaIds.add(rs.getLong(1));
+                    String nome = rs.getString(2);
+                    listaChaves.add(nome != null ? NormalizadorTexto.normalizar(nome) : "");
+                }
+            }
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+
+        long[] novosIds = new long[listaIds.size()];
+        for (int i = 0; i < novosIds.length; i++) {
+            novosIds[i] = listaIds.get(i);
+        }
+        construirBase(novosIds, listaChaves.toArray(new String[0]));
+        delta.clear();
+        removidos = new ConjuntoLongs();
+    }
+
+    /**
+     * Constrói a base a partir de pares (id, nome normalizado) em qualquer ordem.
+     */
+    private static void construirBase(long[] idsEntrada, String[] chavesEntrada) {
+        int n = idsEntrada.length;
+        Integer[] ordem = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, (a, b) -> {
+            int cmp = chavesEntrada[a].compareTo(chavesEntrada[b]);
+            return cmp != 0 ? cmp : Long.compare(idsEntrada[a], idsEntrada[b]);
+        });
+
+        long[] novosIds = new long[n];
+        String[] novasChaves = new String[n];
+        for (int ord = 0; ord < n; ord++) {
+            novosIds[ord] = idsEntrada[ordem[ord]];
+            novasChaves[ord] = chavesEntrada[ordem[ord]];
+        }
+
+        // Postagens por palavra; como os ordinais são percorridos em ordem, cada lista já sai ordenada
+        Map<String, int[]> listas = new HashMap<>();
+        Map<String, Integer> tamanhos = new HashMap<>();
+        long totalPostagens = 0;
+        for (int ord = 0; ord < n; ord++) {
+            for (String palavra : novasChaves[ord].split(" ")) {
+                if (palavra.isEmpty()) {
+                    continue;
+                }
+                int[] lista = listas.get(palavra);
+                int tamanho = lista == null ? 0 : tamanhos.get(palavra);
+                if (tamanho > 0 && lista[tamanho - 1] == ord) {
+                    continue; // palavra repetida no mesmo nome
+                }
+                if (lista == null) {
+                    lista = new int[2];
+                    listas.put(palavra, lista);
+                } else if (tamanho == lista.length) {
+                    lista = Arrays.copyOf(lista, tamanho * 2);
+                    listas.put(palavra, lista);
+                }
+                lista[tamanho] = ord;
+                tamanhos.put(palavra, tamanho + 1);
+                totalPostagens++;
+            }
+        }
+
+        String[] novosTokens = listas.keySet().toArray(new String[0]);
+        Arrays.sort(novosTokens);
+        int[] novoInicio = new int[novosTokens.length + 1];
+        int[] novasPostagens = new int[(int) totalPostagens];
+        int pos = 0;
+        for (int t = 0; t < novosTokens.length; t++) {
+            novoInicio[t] = pos;
+            int tamanho = tamanhos.get(novosTokens[t]);
+            System.arraycopy(listas.get(novosTokens[t]), 0, novasPostagens, pos, tamanho);
+            pos += tamanho;
+        }
+        novoInicio[novosTokens.length] = pos;
+
+        ids = novosIds;
+        chaves = novasChaves;
+        tokens = novosTokens;
+        inicio = novoInicio;
+        postagens = novasPostagens;
+    }
+
+    private static void fundirSeNecessario() {
+        if (delta.size() >= Math.max(DELTA_MINIMO_FUSAO, ids.length / 32)) {
+            fundir();
+        }
+    }
+
+    /**
+     * Funde a base (sem os registros marcados como removidos) com o delta.
+     */
+    private static void fundir() {
+        int vivos = 0;
+        for (long id : ids) {
+            if (!removidos.contem(id)) {
+                vivos++;
+            }
+        }
+
+        long[] novosIds = new long[vivos + delta.size()];
+        String[] novosNomes = new String[novosIds.length];
+        int i = 0;
+        for (int ord = 0; ord < ids.length; ord++) {
+            if (!removidos.contem(ids[ord])) {
+                novosIds[i] = ids[ord];
+                novosNomes[i++] = chaves[ord];
+            }
+        }
+        for (Map.Entry<Long, String> entrada : delta.entrySet()) {
+            novosIds[i] = entrada.getKey();
+            novosNomes[i++] = entrada.getValue();
+        }
+
+        construirBase(novosIds, novosNomes);
+        delta.clear();
+        removidos = new ConjuntoLongs();
+    }
+
+    /**
+     * @return Primeiro ordinal cujo nome normalizado é maior ou igual à chave
+     */
+    private static int limiteInferiorNome(String chave) {
+        int baixo = 0;
+        int alto = ids.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (chaves[meio].compareTo(chave) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * @return Primeira posição de {@code tokens} maior ou igual ao valor
+     */
+    private static int limiteInferiorToken(String valor) {
+        int baixo = 0;
+        int alto = tokens.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (tokens[meio].compareTo(valor) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Percorre as postagens do termo mais seletivo e confere os demais termos
+     * no nome do candidato. Os resultados mantêm a ordem alfabética.
+     */
+    private static int adicionarPorPalavras(String[] termos, long[] resultado, int total, ConjuntoLongs vistos) {
+        int melhorInicio = 0;
+        int melhorFim = 0;
+        long menorQuantidade = Long.MAX_VALUE;
+
+        for (String termo : termos) {
+            int de = limiteInferiorToken(termo);
+            int ate = limiteInferiorToken(termo + Character.MAX_VALUE);
+            long quantidade = (long) inicio[ate] - inicio[de];
+            if (quantidade < menorQuantidade) {
+                menorQuantidade = quantidade;
+                melhorInicio = de;
+                melhorFim = ate;
+            }
+        }
+        if (menorQuantidade == 0) {
+            return total;
+        }
+
+        // Uma única palavra: as postagens já estão em ordem alfabética e a leitura pode parar cedo
+        if (melhorFim - melhorInicio == 1) {
+            for (int p = inicio[melhorInicio]; p < inicio[melhorFim] && total < resultado.length; p++) {
+                total = adicionarCandidato(postagens[p], termos, resultado, total, vistos);
+            }
+            return total;
+        }
+
+        // Várias palavras com o prefixo: une as postagens (limitadas) e ordena por ordinal
+        int quantidade = (int) Math.min(menorQuantidade, LIMITE_CANDIDATOS);
+        int[] candidatos = new int[quantidade];
+        int c = 0;
+        for (int t = melhorInicio; t < melhorFim && c < quantidade; t++) {
+            int tamanho = Math.min(inicio[t + 1] - inicio[t], quantidade - c);
+            System.arraycopy(postagens, inicio[t], candidatos, c, tamanho);
+            c += tamanho;
+        }
+        Arrays.sort(candidatos, 0, c);
+
+        for (int i = 0; i < c && total < resultado.length; i++) {
+            if (i == 0 || candidatos[i] != candidatos[i - 1]) {
+                total = adicionarCandidato(candidatos[i], termos, resultado, total, vistos);
+            }
+        }
+
+        return total;
+    }
+
+    private static int adicionarCandidato(int ord, String[] termos, long[] resultado, int total, ConjuntoLongs vistos) {
+        long id = ids[ord];
+        if (removidos.contem(id) || vistos.contem(id) || !contemTodosTermos(chaves[ord], termos)) {
+            return total;
+        }
+        vistos.adicionar(id);
+        resultado[total++] = id;
+        return total;
+    }
+
+    private static int adicionarDelta(String chave, String[] termos, boolean somentePrefixoNome,
+            long[] resultado, int total, ConjuntoLongs vistos) {
+        if (delta.isEmpty()) {
+            return total;
+        }
+
+        List<Object[]> encontrados = new ArrayList<>();
+        for (Map.Entry<Long, String> entrada : delta.entrySet()) {
+            if (vistos.contem(entrada.getKey())) {
+                continue;
+            }
+            String normalizado = entrada.getValue();
+            boolean corresponde = somentePrefixoNome
+                    ? normalizado.startsWith(chave)
+                    : contemTodosTermos(normalizado, termos);
+            if (corresponde) {
+                encontrados.add(new Object[]{normalizado, entrada.getKey()});
+            }
+        }
+        encontrados.sort((a, b) -> ((String) a[0]).compareTo((String) b[0]));
+
+        for (Object[] encontrado : encontrados) {
+            if (total >= resultado.length) {
+                break;
+            }
+            long id = (Long) encontrado[1];
+            vistos.adicionar(id);
+            resultado[total++] = id;
+        }
+
+        return total;
+    }
+
+    /**
+     * @return true se cada termo é prefixo de alguma palavra do nome
+     */
+    private static boolean contemTodosTermos(String nomeNormalizado, String[] termos) {
+        for (String termo : termos) {
+            boolean encontrado = nomeNormalizado.startsWith(termo)
+                    || nomeNormalizado.contains(" " + termo);
+            if (!encontrado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long maiorId() {
+        long maior = 0;
+        for (long id : ids) {
+            maior = Math.max(maior, id);
+        }
+        return maior;
+    }
+}
@@ -0,0 +1,118 @@
+package doador;
+
+import database.ControleVersao;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import util.InternadorTextos;
+
+/**
+ * Mapeador de linhas da tabela {@code doador} para {@link Doador}.
+ *
+ * <p>Escrito à mão, como os serializadores de exportação: os índices das
+ * colunas são resolvidos uma única vez por consulta, no construtor, e cada
+ * linha é lida por posição, sem a busca do nome da coluna (que ignora
+ * maiúsculas) a cada campo de cada linha. A consulta pode trazer as colunas
+ * em qualquer ordem, desde que traga todas.</p>
+ *
+ * <p>As datas são lidas como {@link LocalDate} e guardadas como epoch day,
+ * sem passar por {@code java.sql.Date}, e {@code updated_at} vira a versão
+ * conferida na atualização ({@link Doador#getVersao()}).</p>
+ *
+ * <p>A nacionalidade tem pouquíssimos valores distintos e é internada: os
+ * doadores carregados compartilham a mesma instância do texto (sexo e tipo
+ * sanguíneo já são guardados como códigos no {@link Doador}).</p>
+ *
+ * <pre>
+ * MapeadorDoador mapeador = new MapeadorDoador(rs);
+ * while (rs.next()) {
+ *     doadores.add(mapeador.mapear(rs));
+ * }
+ * </pre>
+ */
+public final class MapeadorDoador {
+
+    /** Textos de baixa cardinalidade compartilhados pelos doadores carregados */
+    private static final InternadorTextos TEXTOS = new InternadorTextos(256);
+
+    private final int id;
+    private final int nome;
+    private final int cpf;
+    private final int sexo;
+    private final int tipoSanguineo;
+    private final int dataNascimento;
+    private final int telefone;
+    private final int bairro;
+    private final int nacionalidade;
+    private final int cidade;
+    private final int ultimaDoacao;
+    private final int idHospital;
+    private final int versao;
+
+    /**
+     * Resolve os índices das colunas do ResultSet.
+     * @param rs ResultSet da consulta (antes ou durante a leitura)
+     * @throws SQLException se alguma coluna de doador não estiver na consulta
+     */
+    public MapeadorDoador(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        nome = rs.findColumn("nome");
+        cpf = rs.findColumn("cpf");
+        sexo = rs.findColumn("sexo");
+        tipoSanguineo = rs.findColumn("tipo_sanguineo");
+        dataNascimento = rs.findColumn("data_nascimento");
+        telefone = rs.findColumn("telefone");
+        bairro = rs.findColumn("bairro");
+        nacionalidade = rs.findColumn("nacionalidade");
+        cidade = rs.findColumn("cidade");
+        ultimaDoacao = rs.findColumn("ultima_doacao");
+        idHospital = rs.findColumn("id_hospital");
+        versao = rs.findColumn(ControleVersao.COLUNA);
+    }
+
+    /**
+     * Lê a linha corrente.
+     * @param rs ResultSet posicionado em uma linha
+     * @return Doador da linha
+     * @throws SQLException se houver erro ao ler dados
+     */
+    public Doador mapear(ResultSet rs) throws SQLException {
+        long valorId = lerLong(rs, id);
+        long valorCpf = lerLong(rs, cpf);
+        long valorTelefone = lerLong(rs, telefone);
+        long valorHospital = lerLong(rs, idHospital);
+        LocalDate nascimento = rs.getObject(dataNascimento, LocalDate.class);
+        LocalDate ultima = rs.getObject(ultimaDoacao, LocalDate.class);
+
+        Doador doador = new Doador(
+            valorId,
+            rs.getString(nome),
+            valorCpf,
+            rs.getString(sexo),
+            rs.getString(tipoSanguineo),
+            nascimento != null ? (int) nascimento.toEpochDay() : Doador.SEM_DATA,
+            valorTelefone,
+            rs.getString(bairro),
+            internar(rs.getString(nacionalidade)),
+            rs.getString(cidade),
+            ultima != null ? (int) ultima.toEpochDay() : Doador.SEM_DATA,
+            valorHospital
+        );
+        doador.setVersao(ControleVersao.ler(rs, versao));
+        return doador;
+    }
+
+    /** Coluna numérica, com {@link Doador#AUSENTE} para NULL (como null em {@link CampoDoador}) */
+    private static long lerLong(ResultSet rs, int coluna) throws SQLException {
+        long valor = rs.getLong(coluna);
+        return rs.wasNull() ? Doador.AUSENTE : valor;
+    }
+
+    /**
+     * @param texto Texto de coluna de baixa cardinalidade
+     * @return Instância compartilhada do texto
+     */
+    static String internar(String texto) {
+        return TEXTOS.internar(texto);
+    }
+}
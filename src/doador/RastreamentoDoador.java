@@ -0,0 +1,89 @@
+package doador;
+
+import database.ControleVersao;
+import database.UnidadeDeTrabalho;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rastreamento de alterações de {@link Doador} na
+ * {@link UnidadeDeTrabalho}: o estado são os valores de todos os campos
+ * exceto o ID e a versão, e a gravação atualiza apenas as colunas que mudaram
+ * (ex.: {@code UPDATE doador SET ultima_doacao = ?, updated_at = ... WHERE id = ?}
+ * no registro de uma doação). A versão é sempre trocada, para que uma edição
+ * aberta com os dados anteriores seja recusada por {@link DoadorDAO#atualizar}.
+ *
+ * <p>O UPDATE confere que as colunas alteradas ainda têm o valor lido
+ * ({@code AND ultima_doacao IS NOT DISTINCT FROM ?}): se outra estação
+ * registrou uma doação do mesmo doador entre a leitura e a gravação, esta
+ * gravação não atualiza nenhuma linha e a unidade é desfeita. A comparação é
+ * só das colunas alteradas, então a edição do nome por outra estação não
+ * impede o registro da doação.</p>
+ */
+final class RastreamentoDoador implements UnidadeDeTrabalho.Rastreamento<Doador> {
+
+    static final RastreamentoDoador INSTANCIA = new RastreamentoDoador();
+
+    /** Campos graváveis, na ordem dos bits de alteração */
+    private static final List<CampoDoador<?>> CAMPOS = new ArrayList<>(CampoDoador.TODOS);
+
+    static {
+        CAMPOS.remove(CampoDoador.ID);
+        CAMPOS.remove(CampoDoador.VERSAO);
+    }
+
+    private RastreamentoDoador() {
+    }
+
+    @Override
+    public String tabela() {
+        return "doador";
+    }
+
+    @Override
+    public Object[] estado(Doador doador) {
+        Object[] valores = new Object[CAMPOS.size()];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = CAMPOS.get(i).obter(doador);
+        }
+        return valores;
+    }
+
+    @Override
+    public String sqlAtualizacao(long alteradas) {
+        StringBuilder sql = new StringBuilder("UPDATE doador SET ");
+        String separador = "";
+        for (int i = 0; i < CAMPOS.size(); i++) {
+            if ((alteradas & (1L << i)) != 0) {
+                sql.append(separador).append(CAMPOS.get(i).getColuna()).append(" = ?");
+                separador = ", ";
+            }
+        }
+        sql.append(", ").append(ControleVersao.COLUNA).append(" = ").append(ControleVersao.NOVA_VERSAO)
+                .append(" WHERE id = ?");
+        for (int i = 0; i < CAMPOS.size(); i++) {
+            if ((alteradas & (1L << i)) != 0) {
+                sql.append(" AND ").append(CAMPOS.get(i).getColuna()).append(" IS NOT DISTINCT FROM ?");
+            }
+        }
+        return sql.toString();
+    }
+
+    @Override
+    public void preencher(PreparedStatement stmt, Doador doador, Object[] lido, long alteradas) throws SQLException {
+        int indice = 1;
+        for (int i = 0; i < CAMPOS.size(); i++) {
+            if ((alteradas & (1L << i)) != 0) {
+                CAMPOS.get(i).gravar(stmt, indice++, doador);
+            }
+        }
+        stmt.setLong(indice++, doador.getId());
+        for (int i = 0; i < CAMPOS.size(); i++) {
+            if ((alteradas & (1L << i)) != 0) {
+                CAMPOS.get(i).gravarValor(stmt, indice++, lido[i]);
+            }
+        }
+    }
+}
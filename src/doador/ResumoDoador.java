@@ -0,0 +1,116 @@
+package doador;
+
+import java.time.LocalDate;
+import util.Calendario;
+
+/**
+ * Resumo de doador para as telas de listagem.
+ *
+ * <p>Contém apenas as colunas exibidas nas listas, com campos primitivos:
+ * datas como dias desde 01/01/1970 (epoch day) e ausência de valor
+ * representada por constante, sem objetos {@code Long} e {@code java.sql.Date}
+ * por linha. Para editar ou exibir os detalhes, carregue o {@link Doador}
+ * completo pelo ID.</p>
+ */
+public final class ResumoDoador {
+
+    /** Valor de {@link #getUltimaDoacaoDia()} para doador que ainda não doou */
+    public static final int SEM_DATA = Integer.MIN_VALUE;
+
+    private final long id;
+    private final String nome;
+    private final long cpf;
+    private final String tipoSanguineo;
+    private final int dataNascimentoDia;
+    private final String cidade;
+    private final long idHospital;
+    private final int ultimaDoacaoDia;
+
+    /**
+     * @param id ID do doador
+     * @param nome Nome completo
+     * @param cpf CPF
+     * @param tipoSanguineo Tipo sanguíneo
+     * @param dataNascimentoDia Data de nascimento em epoch day
+     * @param cidade Cidade de residência
+     * @param idHospital ID do hospital vinculado
+     * @param ultimaDoacaoDia Última doação em epoch day ou {@link #SEM_DATA}
+     */
+    public ResumoDoador(long id, String nome, long cpf, String tipoSanguineo, int dataNascimentoDia,
+            String cidade, long idHospital, int ultimaDoacaoDia) {
+        this.id = id;
+        this.nome = nome;
+        this.cpf = cpf;
+        this.tipoSanguineo = tipoSanguineo;
+        this.dataNascimentoDia = dataNascimentoDia;
+        this.cidade = cidade;
+        this.idHospital = idHospital;
+        this.ultimaDoacaoDia = ultimaDoacaoDia;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getCpf() {
+        return cpf;
+    }
+
+    public String getTipoSanguineo() {
+        return tipoSanguineo;
+    }
+
+    /** @return Data de nascimento em epoch day */
+    public int getDataNascimentoDia() {
+        return dataNascimentoDia;
+    }
+
+    public String getCidade() {
+        return cidade;
+    }
+
+    public long getIdHospital() {
+        return idHospital;
+    }
+
+    /** @return Última doação em epoch day ou {@link #SEM_DATA} */
+    public int getUltimaDoacaoDia() {
+        return ultimaDoacaoDia;
+    }
+
+    /** @return true se o doador já tem doação registrada */
+    public boolean temUltimaDoacao() {
+        return ultimaDoacaoDia != SEM_DATA;
+    }
+
+    /** @return Data da última doação ou null se ainda não doou */
+    public LocalDate getUltimaDoacao() {
+        return temUltimaDoacao() ? LocalDate.ofEpochDay(ultimaDoacaoDia) : null;
+    }
+
+    /**
+     * Calcula a idade com a mesma regra de {@link Doador#calcularIdade()}.
+     * @return Idade em anos
+     */
+    public int calcularIdade() {
+        return Calendario.idade(dataNascimentoDia);
+    }
+
+    /**
+     * Verifica a faixa etária de doação, como {@link Doador#podeDoar()}.
+     * @return true se a idade está entre 16 e 69 anos
+     */
+    public boolean podeDoar() {
+        int idade = calcularIdade();
+        return idade >= 16 && idade <= 69;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumoDoador{id=" + id + ", nome='" + nome + "', tipoSanguineo='" + tipoSanguineo + "'}";
+    }
+}
@@ -0,0 +1,189 @@
+package estoque;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Transferências de bolsas entre hospitais com o menor deslocamento total,
+ * para um tipo sanguíneo.
+ *
+ * <p>É um problema de transporte: os hospitais com sobra enviam, os com falta
+ * recebem e cada bolsa custa a distância entre os dois. A solução é por fluxo
+ * de custo mínimo com caminhos mínimos sucessivos: a cada passo, Dijkstra
+ * encontra o envio mais barato ainda possível, inclusive os que desfazem
+ * parte de um envio anterior para atender melhor outro hospital, e o caminho
+ * recebe o máximo de bolsas que comporta. Os potenciais dos nós (distância
+ * desde a origem no passo anterior) mantêm os custos reduzidos não
+ * negativos, e como o grafo é bipartido completo, o Dijkstra é a versão
+ * densa, sobre arrays: O((S + F)²) por passo, com S hospitais com sobra e F
+ * com falta. O resultado é ótimo: nenhuma outra distribuição das mesmas
+ * bolsas desloca menos.</p>
+ *
+ * <p>Quando a sobra total é menor que a falta, toda a sobra é enviada (e
+ * o contrário): a quantidade transferida é a maior possível.</p>
+ */
+public final class BalanceadorEstoque {
+
+    private static final long INFINITO = Long.MAX_VALUE / 4;
+
+    private BalanceadorEstoque() {
+    }
+
+    /**
+     * Calcula as transferências.
+     *
+     * @param saldos Saldo de cada hospital: positivo = bolsas de sobra, negativo = bolsas em falta
+     * @param custos Custo de enviar uma bolsa de [i] para [j] (ex.: distância em metros), não negativo
+     * @return Transferências {origem, destino, bolsas}, pelas posições em {@code saldos}
+     */
+    public static List<int[]> balancear(int[] saldos, int[][] custos) {
+        int s = 0;
+        int f = 0;
+        for (int saldo : saldos) {
+            if (saldo > 0) {
+                s++;
+            } else if (saldo < 0) {
+                f++;
+            }
+        }
+        List<int[]> transferencias = new ArrayList<>();
+        if (s == 0 || f == 0) {
+            return transferencias;
+        }
+
+        // Nós 0..s-1: hospitais com sobra; s..s+f-1: hospitais com falta
+        int[] origens = new int[s];
+        int[] destinos = new int[f];
+        int[] sobra = new int[s];
+        int[] falta = new int[f];
+        s = 0;
+        f = 0;
+        for (int h = 0; h < saldos.length; h++) {
+            if (saldos[h] > 0) {
+                origens[s] = h;
+                sobra[s++] = saldos[h];
+            } else if (saldos[h] < 0) {
+                destinos[f] = h;
+                falta[f++] = -saldos[h];
+            }
+        }
+
+        long[][] custo = new long[s][f];
+        for (int i = 0; i < s; i++) {
+            int[] linha = custos[origens[i]];
+            for (int j = 0; j < f; j++) {
+                custo[i][j] = linha[destinos[j]];
+            }
+        }
+
+        int nos = s + f;
+        int[][] fluxo = new int[s][f];
+        long[] potencial = new long[nos];
+        long[] distancia = new long[nos];
+        int[] anterior = new int[nos];
+        boolean[] fixado = new boolean[nos];
+
+        while (true) {
+            Arrays.fill(distancia, INFINITO);
+            Arrays.fill(fixado, false);
+            for (int i = 0; i < s; i++) {
+                if (sobra[i] > 0) {
+                    // Arco da origem fictícia (custo 0) até o hospital com sobra
+                    distancia[i] = -potencial[i];
+                    anterior[i] = -1;
+                }
+            }
+
+            // O primeiro hospital com falta fixado é o destino do passo: a busca para nele
+            int melhor = -1;
+            for (int passo = 0; passo < nos && melhor < 0; passo++) {
+                int u = -1;
+                long menor = INFINITO;
+                for (int v = 0; v < nos; v++) {
+                    if (!fixado[v] && distancia[v] < menor) {
+                        menor = distancia[v];
+                        u = v;
+                    }
+                }
+                if (u < 0) {
+                    break;
+                }
+                fixado[u] = true;
+
+                if (u >= s && falta[u - s] > 0) {
+                    melhor = u - s;
+                } else if (u < s) {
+                    // Envio: todo hospital com sobra alcança todo hospital com falta
+                    long base = menor + potencial[u];
+                    long[] linha = custo[u];
+                    for (int j = 0; j < f; j++) {
+                        int v = s + j;
+                        long d = base + linha[j] - potencial[v];
+                        if (!fixado[v] && d < distancia[v]) {
+                            distancia[v] = d;
+                            anterior[v] = u;
+                        }
+                    }
+                } else {
+                    // Desfazer um envio já feito a este hospital (custo negativo)
+                    int j = u - s;
+                    long base = menor + potencial[u];
+                    for (int i = 0; i < s; i++) {
+                        if (fluxo[i][j] > 0 && !fixado[i]) {
+                            long d = base - custo[i][j] - potencial[i];
+                            if (d < distancia[i]) {
+                                distancia[i] = d;
+                                anterior[i] = u;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (melhor < 0) {
+                break;
+            }
+
+            // Os nós não fixados ficam com a distância do destino, o que mantém
+            // os custos reduzidos não negativos no passo seguinte
+            long limite = distancia[s + melhor];
+            for (int v = 0; v < nos; v++) {
+                potencial[v] += fixado[v] ? distancia[v] : limite;
+            }
+
+            int gargalo = falta[melhor];
+            int v = s + melhor;
+            while (anterior[v] >= 0) {
+                int u = anterior[v];
+                if (v < s) {
+                    gargalo = Math.min(gargalo, fluxo[v][u - s]);
+                }
+                v = u;
+            }
+            gargalo = Math.min(gargalo, sobra[v]);
+
+            sobra[v] -= gargalo;
+            falta[melhor] -= gargalo;
+            v = s + melhor;
+            while (anterior[v] >= 0) {
+                int u = anterior[v];
+                if (v >= s) {
+                    fluxo[u][v - s] += gargalo;
+                } else {
+                    fluxo[v][u - s] -= gargalo;
+                }
+                v = u;
+            }
+        }
+
+        for (int i = 0; i < s; i++) {
+            for (int j = 0; j < f; j++) {
+                if (fluxo[i][j] > 0) {
+                    transferencias.add(new int[] {origens[i], destinos[j], fluxo[i][j]});
+                }
+            }
+        }
+        return transferencias;
+    }
+}
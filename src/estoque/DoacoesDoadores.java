@@ -0,0 +1,203 @@
+package estoque;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Doações de uma janela de dias, por doador, com a série (hospital × tipo)
+ * do doador quando foram lidas.
+ *
+ * <p>É o que cada doador soma ao {@link EstoqueSangue} e à
+ * {@link PrevisaoDoacoes}: quando um doador muda, as doações dele são relidas
+ * do banco e a diferença entre as guardadas aqui e as novas é aplicada ao
+ * retrato, sem reler a janela inteira. A base fica em vetores primitivos em
+ * ordem de doador (uma posição por doação); os doadores alterados depois da
+ * leitura ficam em um mapa que substitui a base para eles. Imutável.</p>
+ */
+final class DoacoesDoadores {
+
+    /** Série de uma doação de hospital fora do retrato (não soma em nenhuma) */
+    static final int FORA = -1;
+
+    private final long[] doadores;              // ordem crescente
+    private final int[] series;
+    private final int[] dias;                   // epoch day
+    private final int tamanho;
+    private final Map<Long, int[]> alterados;   // doador -> pares (série, dia), no lugar da base
+
+    private DoacoesDoadores(long[] doadores, int[] series, int[] dias, int tamanho, Map<Long, int[]> alterados) {
+        this.doadores = doadores;
+        this.series = series;
+        this.dias = dias;
+        this.tamanho = tamanho;
+        this.alterados = alterados;
+    }
+
+    /** Recebe cada doação guardada */
+    interface Visitante {
+        void visitar(int serie, int dia);
+    }
+
+    /** Recebe as doações em ordem de doador e monta a base */
+    static final class Construtor {
+        private long[] doadores = new long[1024];
+        private int[] series = new int[1024];
+        private int[] dias = new int[1024];
+        private int tamanho;
+
+        /**
+         * @param doador ID do doador, nunca menor que o da doação anterior
+         * @param serie Série do doador, ou {@link #FORA}
+         * @param dia Dia da doação (epoch day)
+         * @throws IllegalArgumentException se os doadores não vierem em ordem
+         */
+        void adicionar(long doador, int serie, int dia) {
+            if (tamanho > 0 && doador < doadores[tamanho - 1]) {
+                throw new IllegalArgumentException("Doações fora da ordem de doador: " + doador);
+            }
+            if (tamanho == doadores.length) {
+                doadores = Arrays.copyOf(doadores, tamanho * 2);
+                series = Arrays.copyOf(series, tamanho * 2);
+                dias = Arrays.copyOf(dias, tamanho * 2);
+            }
+            doadores[tamanho] = doador;
+            series[tamanho] = serie;
+            dias[tamanho] = dia;
+            tamanho++;
+        }
+
+        DoacoesDoadores construir() {
+            return new DoacoesDoadores(doadores, series, dias, tamanho, new HashMap<>());
+        }
+    }
+
+    /**
+     * Lê as doações da faixa de datas, com a série de cada doador entre os
+     * hospitais dados ({@code h * TIPOS.length + t}).
+     * @param conn Conexão a usar
+     * @param inicio Primeiro dia (epoch day)
+     * @param fim Último dia (epoch day)
+     * @param doadores Doadores a ler, ou null para todos
+     * @param hospitais IDs dos hospitais do retrato, em ordem crescente
+     * @throws SQLException se houver erro na consulta
+     */
+    static DoacoesDoadores ler(Connection conn, int inicio, int fim, long[] doadores, long[] hospitais)
+            throws SQLException {
+        Construtor construtor = new Construtor();
+        EstoqueDAO.lerDoacoesDoadores(conn, inicio, fim, doadores, (idDoador, idHospital, tipoSanguineo, dia) -> {
+            int h = Arrays.binarySearch(hospitais, idHospital);
+            int t = EstoqueSangue.tipo(tipoSanguineo);
+            construtor.adicionar(idDoador, h >= 0 && t >= 0 ? h * EstoqueSangue.TIPOS.length + t : FORA, dia);
+        });
+        return construtor.construir();
+    }
+
+    /**
+     * @param doador ID do doador
+     * @return Pares (série, dia) das doações guardadas do doador
+     */
+    int[] doDoador(long doador) {
+        int[] pares = alterados.get(doador);
+        if (pares != null) {
+            return pares;
+        }
+        int i = Arrays.binarySearch(doadores, 0, tamanho, doador);
+        if (i < 0) {
+            return new int[0];
+        }
+        int de = i;
+        while (de > 0 && doadores[de - 1] == doador) {
+            de--;
+        }
+        int ate = i + 1;
+        while (ate < tamanho && doadores[ate] == doador) {
+            ate++;
+        }
+        pares = new int[(ate - de) * 2];
+        for (int k = de; k < ate; k++) {
+            pares[(k - de) * 2] = series[k];
+            pares[(k - de) * 2 + 1] = dias[k];
+        }
+        return pares;
+    }
+
+    /** Percorre as doações guardadas, já com as dos doadores alterados */
+    void paraCada(Visitante visitante) {
+        for (int i = 0; i < tamanho; i++) {
+            if (!alterados.containsKey(doadores[i])) {
+                visitante.visitar(series[i], dias[i]);
+            }
+        }
+        for (int[] pares : alterados.values()) {
+            for (int k = 0; k < pares.length; k += 2) {
+                visitante.visitar(pares[k], pares[k + 1]);
+            }
+        }
+    }
+
+    /**
+     * @param doador ID do doador
+     * @param pares Pares (série, dia) que passam a ser as doações do doador
+     * @return Cópia com as doações do doador trocadas
+     */
+    DoacoesDoadores comDoador(long doador, int[] pares) {
+        Map<Long, int[]> novos = new HashMap<>(alterados);
+        novos.put(doador, pares);
+        return new DoacoesDoadores(doadores, series, dias, tamanho, novos);
+    }
+
+    /**
+     * @return Cópia com uma doação a mais do doador
+     */
+    DoacoesDoadores comDoacao(long doador, int serie, int dia) {
+        int[] anteriores = doDoador(doador);
+        int[] pares = Arrays.copyOf(anteriores, anteriores.length + 2);
+        pares[anteriores.length] = serie;
+        pares[anteriores.length + 1] = dia;
+        return comDoador(doador, pares);
+    }
+
+    /**
+     * Base nova só com as doações a partir do dia dado, já com os doadores
+     * alterados (usada na virada do dia, quando a janela anda).
+     * @param primeiroDia Primeiro dia mantido (epoch day)
+     */
+    DoacoesDoadores aPartirDe(int primeiroDia) {
+        long[] chaves = new long[alterados.size()];
+        int c = 0;
+        for (long doador : alterados.keySet()) {
+            chaves[c++] = doador;
+        }
+        Arrays.sort(chaves);
+
+        Construtor construtor = new Construtor();
+        int j = 0;
+        for (int i = 0; i < tamanho; i++) {
+            while (j < chaves.length && chaves[j] < doadores[i]) {
+                adicionarAlterado(construtor, chaves[j++], primeiroDia);
+            }
+            if (alterados.containsKey(doadores[i])) {
+                continue;
+            }
+            if (dias[i] >= primeiroDia) {
+                construtor.adicionar(doadores[i], series[i], dias[i]);
+            }
+        }
+        while (j < chaves.length) {
+            adicionarAlterado(construtor, chaves[j++], primeiroDia);
+        }
+        return construtor.construir();
+    }
+
+    private void adicionarAlterado(Construtor construtor, long doador, int primeiroDia) {
+        int[] pares = alterados.get(doador);
+        for (int k = 0; k < pares.length; k += 2) {
+            if (pares[k + 1] >= primeiroDia) {
+                construtor.adicionar(doador, pares[k], pares[k + 1]);
+            }
+        }
+    }
+}
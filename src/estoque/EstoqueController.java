@@ -0,0 +1,88 @@
+package estoque;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller - Classe EstoqueController
+ * Consulta do estoque de sangue da rede e das transferências sugeridas entre
+ * hospitais ({@link EstoqueSangue})
+ */
+public class EstoqueController {
+
+    /**
+     * Calcula as transferências sugeridas
+     * @param tipoSanguineo Tipo sanguíneo (ex.: "O-"), ou null para todos
+     * @return Transferências sugeridas, ou lista vazia em caso de erro
+     */
+    public static List<Transferencia> calcularTransferencias(String tipoSanguineo) {
+        try {
+            EstoqueSangue estoque = EstoqueSangue.obter();
+            return tipoSanguineo == null
+                ? estoque.getTransferencias()
+                : new ArrayList<>(estoque.getTransferencias(tipoSanguineo));
+        } catch (SQLException e) {
+            System.err.println("Erro ao calcular transferências de estoque: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Exibe as transferências sugeridas e a falta que elas não cobrem
+     * @param tipoSanguineo Tipo sanguíneo (ex.: "O-"), ou null para todos
+     */
+    public static void exibirBalanceamento(String tipoSanguineo) {
+        try {
+            EstoqueSangue estoque = EstoqueSangue.obter();
+
+            Map<String, Integer> faltas = new LinkedHashMap<>();
+            for (String tipo : EstoqueSangue.TIPOS) {
+                if (tipoSanguineo == null || tipo.equals(tipoSanguineo)) {
+                    faltas.put(tipo, estoque.getFaltaRestante(tipo));
+                }
+            }
+            List<Transferencia> transferencias = tipoSanguineo == null
+                ? estoque.getTransferencias()
+                : estoque.getTransferencias(tipoSanguineo);
+
+            EstoqueView.exibirTransferencias(estoque.getDia(), transferencias, faltas);
+        } catch (SQLException e) {
+            EstoqueView.exibirMensagemErro("Erro ao calcular transferências de estoque: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Calcula o estoque esperado daqui a alguns dias ({@link PrevisaoDoacoes})
+     * @param idHospital ID do hospital, ou null para todos
+     * @param tipoSanguineo Tipo sanguíneo (ex.: "O-"), ou null para todos
+     * @param dias Dias à frente (0 a {@value PrevisaoDoacoes#HORIZONTE_MAXIMO_DIAS})
+     * @return Previsões, ou lista vazia em caso de erro
+     */
+    public static List<PrevisaoEstoque> calcularPrevisoes(Long idHospital, String tipoSanguineo, int dias) {
+        try {
+            return PrevisaoDoacoes.obter().getPrevisoes(idHospital, tipoSanguineo, dias);
+        } catch (SQLException | IllegalArgumentException e) {
+            System.err.println("Erro ao calcular previsão de estoque: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Exibe o estoque esperado daqui a alguns dias
+     * @param idHospital ID do hospital, ou null para todos
+     * @param tipoSanguineo Tipo sanguíneo (ex.: "O-"), ou null para todos
+     * @param dias Dias à frente (0 a {@value PrevisaoDoacoes#HORIZONTE_MAXIMO_DIAS})
+     */
+    public static void exibirPrevisao(Long idHospital, String tipoSanguineo, int dias) {
+        try {
+            PrevisaoDoacoes previsao = PrevisaoDoacoes.obter();
+            EstoqueView.exibirPrevisoes(previsao.getDia(), dias, previsao.getDiasObservados(),
+                previsao.getPrevisoes(idHospital, tipoSanguineo, dias));
+        } catch (SQLException | IllegalArgumentException e) {
+            EstoqueView.exibirMensagemErro("Erro ao calcular previsão de estoque: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package estoque;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import util.Calendario;
+
+/**
+ * Leitura das bolsas coletadas por hospital e tipo sanguíneo
+ * ({@code doacao ⋈ doador}), base do {@link EstoqueSangue} e da
+ * {@link PrevisaoDoacoes}.
+ */
+public class EstoqueDAO {
+
+    /**
+     * Uma linha por doação da faixa de datas, com o hospital e o tipo atuais do
+     * doador, em ordem de doador. O dia vem como deslocamento a partir do
+     * início da faixa; a faixa usa o índice (data, hora) e poda as partições
+     * mensais fora dela.
+     */
+    private static final String SELECT_DOACOES_DOADORES =
+        "SELECT dc.doador_id, d.id_hospital, d.tipo_sanguineo, dc.data - ?::date " +
+        "FROM doacao dc JOIN doador d ON d.id = dc.doador_id " +
+        "WHERE dc.data >= ? AND dc.data <= ? %s ORDER BY dc.doador_id";
+
+    private static final String SELECT_DOACOES_TODOS = String.format(SELECT_DOACOES_DOADORES, "");
+
+    private static final String SELECT_DOACOES_POR_DOADORES =
+        String.format(SELECT_DOACOES_DOADORES, "AND dc.doador_id = ANY (?)");
+
+    /**
+     * Doações por dia, hospital e tipo, em ordem de data. O dia vem como
+     * deslocamento inteiro a partir do início da faixa, sem datas por linha.
+     */
+    private static final String SELECT_DOACOES_DIARIAS =
+        "SELECT dc.data - ?::date AS dia, d.id_hospital, d.tipo_sanguineo, COUNT(*) " +
+        "FROM doacao dc JOIN doador d ON d.id = dc.doador_id " +
+        "WHERE dc.data >= ? AND dc.data <= ? " +
+        "GROUP BY dc.data, d.id_hospital, d.tipo_sanguineo " +
+        "ORDER BY dc.data";
+
+    /** Recebe as contagens diárias à medida que são lidas, sem guardar as linhas */
+    interface LeitorDoacoesDiarias {
+        /**
+         * @param dia Dias desde o início da faixa
+         * @param idHospital Hospital do doador
+         * @param tipoSanguineo Tipo sanguíneo do doador
+         * @param doacoes Doações do dia
+         */
+        void ler(int dia, long idHospital, String tipoSanguineo, int doacoes);
+    }
+
+    /** Recebe as doações por doador à medida que são lidas */
+    interface LeitorDoacoesDoadores {
+        /**
+         * @param idDoador Doador, em ordem crescente
+         * @param idHospital Hospital atual do doador (0 se nenhum)
+         * @param tipoSanguineo Tipo sanguíneo atual do doador
+         * @param dia Dia da doação (epoch day)
+         */
+        void ler(long idDoador, long idHospital, String tipoSanguineo, int dia);
+    }
+
+    /**
+     * Lê as doações da faixa de datas, uma por linha, em ordem de doador.
+     * @param conn Conexão a usar
+     * @param inicio Primeiro dia da faixa (epoch day)
+     * @param fim Último dia da faixa (epoch day)
+     * @param doadores Doadores a ler, ou null para todos
+     * @param leitor Recebe cada doação
+     * @throws SQLException se houver erro na consulta
+     */
+    static void lerDoacoesDoadores(Connection conn, int inicio, int fim, long[] doadores,
+                                   LeitorDoacoesDoadores leitor) throws SQLException {
+        Array array = null;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                doadores != null ? SELECT_DOACOES_POR_DOADORES : SELECT_DOACOES_TODOS)) {
+            Date primeiro = Calendario.paraDate(inicio);
+            stmt.setDate(1, primeiro);
+            stmt.setDate(2, primeiro);
+            stmt.setDate(3, Calendario.paraDate(fim));
+            if (doadores != null) {
+                Long[] valores = new Long[doadores.length];
+                for (int i = 0; i < doadores.length; i++) {
+                    valores[i] = doadores[i];
+                }
+                array = conn.createArrayOf("bigint", valores);
+                stmt.setArray(4, array);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    leitor.ler(rs.getLong(1), rs.getLong(2), rs.getString(3), inicio + rs.getInt(4));
+                }
+            }
+        } finally {
+            if (array != null) {
+                array.free();
+            }
+        }
+    }
+
+    /**
+     * Lê as doações por dia, hospital (o do doador) e tipo sanguíneo, em
+     * ordem de data.
+     * @param conn Conexão a usar
+     * @param inicio Primeiro dia da faixa
+     * @param fim Último dia da faixa
+     * @param leitor Recebe cada contagem, em ordem de data
+     * @throws SQLException se houver erro na consulta
+     */
+    static void lerDoacoesDiarias(Connection conn, Date inicio, Date fim, LeitorDoacoesDiarias leitor)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_DOACOES_DIARIAS)) {
+            stmt.setDate(1, inicio);
+            stmt.setDate(2, inicio);
+            stmt.setDate(3, fim);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    leitor.ler(rs.getInt(1), rs.getLong(2), rs.getString(3), rs.getInt(4));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,711 @@
+package estoque;
+
+import database.DatabaseConnection;
+import database.InvalidacaoCache;
+import hospital.CatalogoHospitais;
+import hospital.Hospital;
+import hospital.IndiceCep;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import util.Calendario;
+import util.ConjuntoLongs;
+
+/**
+ * Estoque de sangue por hospital e tipo sanguíneo, com as transferências
+ * sugeridas para equilibrar a rede.
+ *
+ * <p>O sistema não registra consumo nem movimentação de bolsas: o estoque de
+ * um hospital são as bolsas coletadas dos seus doadores ainda dentro da
+ * validade ({@code hemoconnect.estoque.validade}, padrão
+ * {@value #VALIDADE_PADRAO_DIAS} dias), e a demanda é estimada pelo ritmo de
+ * coleta na janela {@code hemoconnect.estoque.janela} (padrão
+ * {@value #JANELA_PADRAO_DIAS} dias), que acompanha o tamanho da população
+ * atendida. O nível alvo de cada hospital e tipo é o maior entre o mínimo
+ * configurado ({@code hemoconnect.estoque.minimo}: um número para todos os
+ * tipos ou pares como {@code "O-:8,O+:12"}; padrão {@value #MINIMO_PADRAO}
+ * bolsas) e a demanda de {@code hemoconnect.estoque.cobertura} dias (padrão
+ * {@value #COBERTURA_PADRAO_DIAS}). Acima do alvo é sobra, abaixo é falta, e
+ * o {@link BalanceadorEstoque} distribui a sobra de cada tipo pelo menor
+ * deslocamento total (distâncias de {@link IndiceCep#distanciasMetros}).</p>
+ *
+ * <p>O retrato é imutável e publicado por referência volátil. Cada doação
+ * registrada por este processo ({@link #registrarDoacao}) entra em uma fila;
+ * a thread de fundo ({@link #iniciar()}) soma as bolsas e refaz o plano só
+ * dos tipos que mudaram, juntando as doações que chegaram enquanto calculava.
+ * O retrato guarda as doações da janela por doador ({@link DoacoesDoadores}):
+ * um doador alterado (por outra instância, via {@link InvalidacaoCache}, ou
+ * por {@link #agendarDoador(long)}) tem só as suas doações relidas, e a
+ * diferença é somada ao retrato. O retrato inteiro é relido a cada
+ * {@value #RECARGA_PADRAO_MIN} minutos ({@code hemoconnect.estoque.recarga}),
+ * na virada do dia (bolsas vencidas), quando os hospitais mudam e quando
+ * chegam alterações demais de uma vez.</p>
+ */
+public final class EstoqueSangue {
+
+    /** Tipos sanguíneos, na ordem das colunas internas */
+    public static final String[] TIPOS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+
+    /** Validade padrão de uma bolsa, em dias (concentrado de hemácias em CPDA-1) */
+    public static final int VALIDADE_PADRAO_DIAS = 35;
+
+    /** Janela padrão do cálculo da demanda, em dias */
+    public static final int JANELA_PADRAO_DIAS = 90;
+
+    /** Dias de demanda que o nível alvo cobre, por padrão */
+    public static final int COBERTURA_PADRAO_DIAS = 7;
+
+    /** Nível mínimo padrão de cada tipo, em bolsas */
+    public static final int MINIMO_PADRAO = 4;
+
+    /** Intervalo padrão entre releituras completas, em minutos */
+    public static final long RECARGA_PADRAO_MIN = 60;
+
+    /** Releituras seguidas descartadas por doações registradas durante a leitura */
+    private static final int TENTATIVAS_RECARGA = 3;
+
+    static final int VALIDADE = inteiro("hemoconnect.estoque.validade", VALIDADE_PADRAO_DIAS);
+    private static final int JANELA = inteiro("hemoconnect.estoque.janela", JANELA_PADRAO_DIAS);
+    private static final int COBERTURA = inteiro("hemoconnect.estoque.cobertura", COBERTURA_PADRAO_DIAS);
+    private static final int[] MINIMOS = minimos();
+
+    /** Bolsas registradas por este processo, ainda não somadas ao retrato */
+    private static final class Coleta {
+        final long idDoador;
+        final long idHospital;
+        final int tipo;
+        final int dia;
+
+        Coleta(long idDoador, long idHospital, int tipo, int dia) {
+            this.idDoador = idDoador;
+            this.idHospital = idHospital;
+            this.tipo = tipo;
+            this.dia = dia;
+        }
+    }
+
+    private static volatile EstoqueSangue atual;
+
+    /** Releituras e somas de doações, uma por vez (os registros só usam a trava da classe) */
+    private static final Object CALCULO = new Object();
+
+    /** Doações registradas por este processo, sob a trava da classe */
+    private static long geracao;
+    private static final List<Coleta> pendentes = new ArrayList<>();
+
+    /** Doadores alterados, com as doações a reler, sob a trava da classe */
+    private static ConjuntoLongs doadoresAlterados = new ConjuntoLongs();
+
+    private static volatile boolean rodando;
+    private static volatile boolean recargaPendente;
+    private static Thread thread;
+
+    private final IndiceCep indice;             // retrato dos hospitais usado
+    private final int dia;                      // epoch day
+    private final Hospital[] hospitais;         // ordem de ID
+    private final long[] ids;
+    private final int[][] distancias;           // metros, compartilhada entre retratos dos mesmos hospitais
+    private final int[] estoque;                // [h * TIPOS.length + t]
+    private final int[] coletas;
+    private final DoacoesDoadores doacoes;      // doações da janela, por doador
+    private final List<List<Transferencia>> planos;
+
+    static {
+        // Doações de outras instâncias gravam ultima_doacao do doador
+        InvalidacaoCache.registrar("doador", new InvalidacaoCache.Ouvinte() {
+            @Override
+            public void invalidar(long id) {
+                agendarDoador(id);
+            }
+
+            @Override
+            public void invalidarTudo() {
+                agendarRecarga();
+            }
+        });
+    }
+
+    private EstoqueSangue(IndiceCep indice, int dia, Hospital[] hospitais, long[] ids, int[][] distancias,
+                          int[] estoque, int[] coletas, DoacoesDoadores doacoes,
+                          List<List<Transferencia>> anteriores, boolean[] refazer) {
+        this.indice = indice;
+        this.dia = dia;
+        this.hospitais = hospitais;
+        this.ids = ids;
+        this.distancias = distancias;
+        this.estoque = estoque;
+        this.coletas = coletas;
+        this.doacoes = doacoes;
+
+        List<List<Transferencia>> novos = new ArrayList<>(TIPOS.length);
+        for (int t = 0; t < TIPOS.length; t++) {
+            novos.add(anteriores == null || refazer[t] ? planejar(t) : anteriores.get(t));
+        }
+        planos = Collections.unmodifiableList(novos);
+    }
+
+    /**
+     * Retorna o retrato atual, lendo as coletas se ainda não tiver sido
+     * carregado (ou, sem a thread de fundo, se estiver desatualizado).
+     *
+     * @return Estoque pronto para consulta
+     * @throws SQLException se houver erro na leitura
+     */
+    public static EstoqueSangue obter() throws SQLException {
+        EstoqueSangue estoque = atual;
+        if (estoque != null && estoque.indice == IndiceCep.obter() && estoque.dia == Calendario.hoje()) {
+            if (!rodando) {
+                atualizarDoadores();
+                return atual != null ? atual : estoque;
+            }
+            return estoque;
+        }
+        if (estoque != null && rodando) {
+            agendarRecarga();
+            return estoque;
+        }
+        recarregar();
+        return atual;
+    }
+
+    /**
+     * Carrega o estoque e inicia a thread de fundo (não faz nada se já estiver
+     * em execução). Falhas na carga são apenas registradas: o estoque é lido
+     * na primeira consulta.
+     */
+    public static void iniciar() {
+        if (rodando) {
+            return;
+        }
+        // Carga fora da trava da classe: o cálculo usa a trava ao publicar
+        try {
+            obter();
+        } catch (SQLException e) {
+            System.err.println("Erro ao carregar estoque de sangue: " + e.getMessage());
+        }
+        synchronized (EstoqueSangue.class) {
+            if (rodando) {
+                return;
+            }
+            rodando = true;
+            thread = new Thread(EstoqueSangue::executar, "hemoconnect-estoque");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /** Para a thread de fundo */
+    public static void parar() {
+        Thread parada;
+        synchronized (EstoqueSangue.class) {
+            if (!rodando) {
+                return;
+            }
+            rodando = false;
+            parada = thread;
+        }
+        LockSupport.unpark(parada);
+        try {
+            parada.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Sem a thread, as doações ainda na fila são somadas aqui
+        somarPendentes();
+    }
+
+    /**
+     * Soma uma doação confirmada por este processo ao estoque do hospital do
+     * doador. Com a thread de fundo em execução, só entra na fila.
+     *
+     * @param idDoador Doador
+     * @param idHospital Hospital do doador
+     * @param tipoSanguineo Tipo sanguíneo do doador
+     * @param data Data da doação
+     */
+    public static void registrarDoacao(Long idDoador, Long idHospital, String tipoSanguineo, Date data) {
+        int tipo = tipo(tipoSanguineo);
+        if (idDoador == null || idHospital == null || tipo < 0 || data == null) {
+            return;
+        }
+        int dia = Calendario.dia(data);
+        long dias = Calendario.diasDesde(dia);
+        if (dias < 0 || dias >= Math.max(VALIDADE, JANELA)) {
+            return;
+        }
+        synchronized (EstoqueSangue.class) {
+            geracao++;
+            pendentes.add(new Coleta(idDoador, idHospital, tipo, dia));
+        }
+        if (rodando) {
+            LockSupport.unpark(thread);
+        } else {
+            somarPendentes();
+        }
+    }
+
+    /**
+     * Relê as coletas, em conexão própria, e publica o retrato novo.
+     * @throws SQLException se houver erro na leitura (o retrato atual é mantido)
+     */
+    public static void recarregar() throws SQLException {
+        synchronized (CALCULO) {
+            IndiceCep indice = IndiceCep.obter();
+            List<Hospital> lista = CatalogoHospitais.obter().todos();
+            lista.sort(Comparator.comparing(Hospital::getId));
+            long[] idsHospitais = new long[lista.size()];
+            for (int h = 0; h < idsHospitais.length; h++) {
+                idsHospitais[h] = lista.get(h).getId();
+            }
+
+            int hoje;
+            DoacoesDoadores doacoes;
+            try (Connection conn = DatabaseConnection.novaConexao()) {
+                for (int tentativa = 1; ; tentativa++) {
+                    long inicio;
+                    synchronized (EstoqueSangue.class) {
+                        inicio = geracao;
+                        // Já confirmadas e gravadas: a leitura as inclui
+                        pendentes.clear();
+                        doadoresAlterados = new ConjuntoLongs();
+                    }
+                    hoje = Calendario.hoje();
+                    doacoes = DoacoesDoadores.ler(conn, primeiroDia(hoje), hoje, null, idsHospitais);
+                    synchronized (EstoqueSangue.class) {
+                        // Doações confirmadas durante a leitura podem ou não estar nela: lê de novo. Se não
+                        // param de chegar, fica a leitura (diferença de poucas bolsas até a próxima)
+                        if (inicio == geracao || tentativa == TENTATIVAS_RECARGA) {
+                            pendentes.clear();
+                            break;
+                        }
+                    }
+                }
+            }
+
+            // As doações registradas durante o cálculo ficam na fila para o retrato novo
+            EstoqueSangue anterior = atual;
+            int[][] distancias = anterior != null && anterior.indice == indice
+                ? anterior.distancias : indice.distanciasMetros(lista);
+            atual = montar(indice, hoje, lista, distancias, doacoes);
+        }
+        somarPendentes();
+    }
+
+    /**
+     * Pede a releitura das doações de um doador alterado (hospital, tipo ou
+     * doações), somando ao retrato só a diferença.
+     *
+     * @param idDoador Doador alterado
+     */
+    public static void agendarDoador(long idDoador) {
+        synchronized (EstoqueSangue.class) {
+            doadoresAlterados.adicionar(idDoador);
+        }
+        if (rodando) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Relê as doações dos doadores alterados e publica o retrato com a
+     * diferença. Doações registradas durante a leitura podem ou não estar
+     * nela: a fila é somada e a leitura refeita, como em {@link #recarregar()}.
+     */
+    private static void atualizarDoadores() throws SQLException {
+        synchronized (CALCULO) {
+            long[] alterados;
+            synchronized (EstoqueSangue.class) {
+                if (doadoresAlterados.vazio() || atual == null) {
+                    // Sem retrato, a primeira leitura inclui as alterações
+                    return;
+                }
+                alterados = doadoresAlterados.paraArray();
+                doadoresAlterados = new ConjuntoLongs();
+            }
+            Arrays.sort(alterados);
+
+            EstoqueSangue base;
+            DoacoesDoadores lidas;
+            try (Connection conn = DatabaseConnection.novaConexao()) {
+                for (int tentativa = 1; ; tentativa++) {
+                    long inicio;
+                    synchronized (EstoqueSangue.class) {
+                        inicio = geracao;
+                    }
+                    somarPendentes();
+                    base = atual;
+                    if (base == null) {
+                        return;
+                    }
+                    lidas = DoacoesDoadores.ler(conn, primeiroDia(base.dia), base.dia, alterados, base.ids);
+                    synchronized (EstoqueSangue.class) {
+                        if (inicio == geracao || tentativa == TENTATIVAS_RECARGA) {
+                            break;
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                // Sem a diferença, o retrato inteiro é relido
+                agendarRecarga();
+                throw e;
+            }
+
+            EstoqueSangue novo = base.comDoadores(alterados, lidas);
+            synchronized (EstoqueSangue.class) {
+                if (atual == base) {
+                    atual = novo;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pede uma releitura à thread de fundo ou, se ela não estiver em
+     * execução, descarta o retrato (relido na próxima consulta).
+     */
+    public static void agendarRecarga() {
+        if (rodando) {
+            recargaPendente = true;
+            LockSupport.unpark(thread);
+        } else {
+            synchronized (EstoqueSangue.class) {
+                atual = null;
+                pendentes.clear();
+                doadoresAlterados = new ConjuntoLongs();
+            }
+        }
+    }
+
+    private static void executar() {
+        long intervalo = TimeUnit.MINUTES.toNanos(intervaloRecarga());
+        long proxima = System.nanoTime() + intervalo;
+        while (rodando) {
+            LockSupport.parkNanos(Math.max(0, proxima - System.nanoTime()));
+            if (!rodando) {
+                break;
+            }
+            EstoqueSangue estoque = atual;
+            boolean vencido = estoque != null && estoque.dia != Calendario.hoje();
+            if (recargaPendente || vencido || System.nanoTime() - proxima >= 0) {
+                recargaPendente = false;
+                try {
+                    recarregar();
+                } catch (SQLException e) {
+                    System.err.println("Erro ao recarregar estoque de sangue: " + e.getMessage());
+                }
+                proxima = System.nanoTime() + intervalo;
+            } else {
+                somarPendentes();
+                try {
+                    atualizarDoadores();
+                } catch (SQLException e) {
+                    System.err.println("Erro ao reler doadores do estoque de sangue: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Soma as doações da fila ao retrato atual e refaz o plano dos tipos
+     * afetados, fora da trava da classe: os registros só esperam a cópia da
+     * fila.
+     */
+    private static void somarPendentes() {
+        synchronized (CALCULO) {
+            EstoqueSangue base;
+            List<Coleta> lote;
+            synchronized (EstoqueSangue.class) {
+                base = atual;
+                if (pendentes.isEmpty() || base == null) {
+                    // Sem retrato, as doações entram na primeira leitura
+                    return;
+                }
+                lote = new ArrayList<>(pendentes);
+                pendentes.clear();
+            }
+
+            EstoqueSangue novo = base.comColetas(lote);
+            synchronized (EstoqueSangue.class) {
+                // Descartado nesse meio tempo (agendarRecarga): fica a releitura
+                if (atual == base) {
+                    atual = novo;
+                }
+            }
+        }
+    }
+
+    private static EstoqueSangue montar(IndiceCep indice, int dia, List<Hospital> lista, int[][] distancias,
+                                        DoacoesDoadores doacoes) {
+        int n = lista.size();
+        Hospital[] hospitais = lista.toArray(new Hospital[0]);
+        long[] ids = new long[n];
+        for (int h = 0; h < n; h++) {
+            ids[h] = hospitais[h].getId();
+        }
+
+        int[] estoque = new int[n * TIPOS.length];
+        int[] coletas = new int[n * TIPOS.length];
+        doacoes.paraCada((serie, diaDoacao) -> somar(estoque, coletas, dia, serie, diaDoacao, 1));
+        return new EstoqueSangue(indice, dia, hospitais, ids, distancias, estoque, coletas, doacoes, null, null);
+    }
+
+    /**
+     * Soma (ou subtrai, com sinal -1) uma doação às bolsas em estoque e às
+     * coletas da janela contadas no dia dado.
+     * @return true se a doação conta em alguma das duas
+     */
+    private static boolean somar(int[] estoque, int[] coletas, int dia, int serie, int diaDoacao, int sinal) {
+        int dias = dia - diaDoacao;
+        if (serie == DoacoesDoadores.FORA || dias < 0) {
+            return false;
+        }
+        boolean conta = false;
+        if (dias < VALIDADE) {
+            estoque[serie] += sinal;
+            conta = true;
+        }
+        if (dias < JANELA) {
+            coletas[serie] += sinal;
+            conta = true;
+        }
+        return conta;
+    }
+
+    /**
+     * Retrato com as doações somadas, refazendo só os tipos afetados.
+     * @return Retrato novo, ou null se alguma doação é de um hospital fora do retrato (releitura)
+     */
+    private EstoqueSangue comColetas(List<Coleta> lote) {
+        int[] novoEstoque = estoque.clone();
+        int[] novasColetas = coletas.clone();
+        DoacoesDoadores novasDoacoes = doacoes;
+        boolean[] refazer = new boolean[TIPOS.length];
+        for (Coleta coleta : lote) {
+            int h = Arrays.binarySearch(ids, coleta.idHospital);
+            if (h < 0) {
+                return null;
+            }
+            int serie = h * TIPOS.length + coleta.tipo;
+            somar(novoEstoque, novasColetas, dia, serie, coleta.dia, 1);
+            novasDoacoes = novasDoacoes.comDoacao(coleta.idDoador, serie, coleta.dia);
+            refazer[coleta.tipo] = true;
+        }
+        return new EstoqueSangue(indice, dia, hospitais, ids, distancias, novoEstoque, novasColetas, novasDoacoes,
+                planos, refazer);
+    }
+
+    /**
+     * Retrato com as doações guardadas dos doadores trocadas pelas relidas,
+     * refazendo só os tipos afetados.
+     * @param alterados Doadores relidos
+     * @param lidas Doações atuais dos doadores relidos
+     */
+    private EstoqueSangue comDoadores(long[] alterados, DoacoesDoadores lidas) {
+        int[] novoEstoque = estoque.clone();
+        int[] novasColetas = coletas.clone();
+        DoacoesDoadores novasDoacoes = doacoes;
+        boolean[] refazer = new boolean[TIPOS.length];
+        for (long idDoador : alterados) {
+            int[] antigas = doacoes.doDoador(idDoador);
+            int[] novas = lidas.doDoador(idDoador);
+            if (Arrays.equals(antigas, novas)) {
+                continue;
+            }
+            for (int k = 0; k < antigas.length; k += 2) {
+                if (somar(novoEstoque, novasColetas, dia, antigas[k], antigas[k + 1], -1)) {
+                    refazer[antigas[k] % TIPOS.length] = true;
+                }
+            }
+            for (int k = 0; k < novas.length; k += 2) {
+                if (somar(novoEstoque, novasColetas, dia, novas[k], novas[k + 1], 1)) {
+                    refazer[novas[k] % TIPOS.length] = true;
+                }
+            }
+            novasDoacoes = novasDoacoes.comDoador(idDoador, novas);
+        }
+        return new EstoqueSangue(indice, dia, hospitais, ids, distancias, novoEstoque, novasColetas, novasDoacoes,
+                planos, refazer);
+    }
+
+    /** Transferências de um tipo, das maiores para as menores */
+    private List<Transferencia> planejar(int t) {
+        int[] saldos = new int[hospitais.length];
+        for (int h = 0; h < hospitais.length; h++) {
+            saldos[h] = estoque[h * TIPOS.length + t] - alvo(h, t);
+        }
+
+        List<Transferencia> plano = new ArrayList<>();
+        for (int[] envio : BalanceadorEstoque.balancear(saldos, distancias)) {
+            plano.add(new Transferencia(hospitais[envio[0]], hospitais[envio[1]], TIPOS[t], envio[2],
+                    distancias[envio[0]][envio[1]] / 1000.0));
+        }
+        plano.sort(Comparator.comparingInt(Transferencia::getBolsas).reversed()
+                .thenComparingDouble(Transferencia::getDistanciaKm));
+        return Collections.unmodifiableList(plano);
+    }
+
+    private int alvo(int h, int t) {
+        int demanda = (int) Math.ceil((double) coletas[h * TIPOS.length + t] * COBERTURA / JANELA);
+        return Math.max(MINIMOS[t], demanda);
+    }
+
+    /** @return Todas as transferências sugeridas, por tipo sanguíneo */
+    public List<Transferencia> getTransferencias() {
+        List<Transferencia> todas = new ArrayList<>();
+        for (List<Transferencia> plano : planos) {
+            todas.addAll(plano);
+        }
+        return todas;
+    }
+
+    /**
+     * @param tipoSanguineo Tipo sanguíneo (ex.: "O-")
+     * @return Transferências sugeridas do tipo (vazia se o tipo for inválido)
+     */
+    public List<Transferencia> getTransferencias(String tipoSanguineo) {
+        int t = tipo(tipoSanguineo);
+        return t >= 0 ? planos.get(t) : Collections.<Transferencia>emptyList();
+    }
+
+    /** @return Hospitais do retrato, em ordem de ID (cópias) */
+    public List<Hospital> getHospitais() {
+        List<Hospital> lista = new ArrayList<>(hospitais.length);
+        for (Hospital hospital : hospitais) {
+            lista.add(new Hospital(hospital.getId(), hospital.getNome(), hospital.getCep(), hospital.getCidade()));
+        }
+        return lista;
+    }
+
+    /**
+     * @param idHospital ID do hospital
+     * @param tipoSanguineo Tipo sanguíneo
+     * @return Bolsas dentro da validade (0 se hospital ou tipo desconhecido)
+     */
+    public int getEstoque(long idHospital, String tipoSanguineo) {
+        int h = Arrays.binarySearch(ids, idHospital);
+        int t = tipo(tipoSanguineo);
+        return h >= 0 && t >= 0 ? estoque[h * TIPOS.length + t] : 0;
+    }
+
+    /**
+     * @param idHospital ID do hospital
+     * @param tipoSanguineo Tipo sanguíneo
+     * @return Nível alvo em bolsas (0 se hospital ou tipo desconhecido)
+     */
+    public int getNivelAlvo(long idHospital, String tipoSanguineo) {
+        int h = Arrays.binarySearch(ids, idHospital);
+        int t = tipo(tipoSanguineo);
+        return h >= 0 && t >= 0 ? alvo(h, t) : 0;
+    }
+
+    /**
+     * Indica se o hospital está abaixo do alvo no tipo, antes das
+     * transferências (ex.: filtro de {@link IndiceCep#buscarProximos} para
+     * encaminhar um doador).
+     *
+     * @param idHospital ID do hospital
+     * @param tipoSanguineo Tipo sanguíneo
+     * @return true se falta sangue do tipo no hospital
+     */
+    public boolean precisa(long idHospital, String tipoSanguineo) {
+        return getEstoque(idHospital, tipoSanguineo) < getNivelAlvo(idHospital, tipoSanguineo);
+    }
+
+    /**
+     * @param tipoSanguineo Tipo sanguíneo
+     * @return Bolsas que ainda faltam na rede depois das transferências sugeridas
+     */
+    public int getFaltaRestante(String tipoSanguineo) {
+        int t = tipo(tipoSanguineo);
+        if (t < 0) {
+            return 0;
+        }
+        int falta = 0;
+        for (int h = 0; h < hospitais.length; h++) {
+            falta += Math.max(0, alvo(h, t) - estoque[h * TIPOS.length + t]);
+        }
+        for (Transferencia transferencia : planos.get(t)) {
+            falta -= transferencia.getBolsas();
+        }
+        return falta;
+    }
+
+    /** @return Dia a que se refere o estoque (validade das bolsas) */
+    public LocalDate getDia() {
+        return LocalDate.ofEpochDay(dia);
+    }
+
+    /** @return Primeiro dia das doações que contam no estoque ou na demanda do dia dado */
+    private static int primeiroDia(int dia) {
+        return dia - Math.max(VALIDADE, JANELA) + 1;
+    }
+
+    static int tipo(String tipoSanguineo) {
+        if (tipoSanguineo != null) {
+            String busca = tipoSanguineo.trim().toUpperCase();
+            for (int t = 0; t < TIPOS.length; t++) {
+                if (TIPOS[t].equals(busca)) {
+                    return t;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long intervaloRecarga() {
+        return inteiro("hemoconnect.estoque.recarga", (int) RECARGA_PADRAO_MIN);
+    }
+
+    /** Propriedade inteira positiva, ou o padrão se ausente ou inválida */
+    private static int inteiro(String propriedade, int padrao) {
+        String valor = System.getProperty(propriedade);
+        if (valor != null && !valor.trim().isEmpty()) {
+            try {
+                int numero = Integer.parseInt(valor.trim());
+                if (numero > 0) {
+                    return numero;
+                }
+            } catch (NumberFormatException e) {
+                // usa o padrão
+            }
+            System.err.println("Valor inválido para " + propriedade + ": " + valor);
+        }
+        return padrao;
+    }
+
+    /** Mínimos por tipo de {@code hemoconnect.estoque.minimo}: "6" ou "O-:8,O+:12" */
+    private static int[] minimos() {
+        int[] minimos = new int[TIPOS.length];
+        Arrays.fill(minimos, MINIMO_PADRAO);
+        String valor = System.getProperty("hemoconnect.estoque.minimo");
+        if (valor == null || valor.trim().isEmpty()) {
+            return minimos;
+        }
+        try {
+            if (valor.indexOf(':') < 0) {
+                Arrays.fill(minimos, Math.max(0, Integer.parseInt(valor.trim())));
+                return minimos;
+            }
+            for (String par : valor.split(",")) {
+                String[] partes = par.split(":");
+                int t = tipo(partes[0]);
+                if (partes.length != 2 || t < 0) {
+                    throw new IllegalArgumentException(par);
+                }
+                minimos[t] = Math.max(0, Integer.parseInt(partes[1].trim()));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Valor inválido para hemoconnect.estoque.minimo: " + valor);
+            Arrays.fill(minimos, MINIMO_PADRAO);
+        }
+        return minimos;
+    }
+}
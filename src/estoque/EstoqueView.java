@@ -0,0 +1,143 @@
+package estoque;
+
+import hospital.Hospital;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * View - Classe EstoqueView
+ * Interface de linha de comando do balanceamento de estoque entre hospitais
+ */
+public class EstoqueView {
+
+    private static final Scanner scanner = new Scanner(System.in);
+
+    /**
+     * Solicita o tipo sanguíneo do balanceamento
+     * @return Tipo sanguíneo, "" para todos ou null se inválido
+     */
+    public static String solicitarTipoSanguineo() {
+        System.out.print("Tipo Sanguíneo (A+, A-, B+, B-, AB+, AB-, O+, O-) [todos]: ");
+        String entrada = scanner.nextLine().trim().toUpperCase();
+        if (entrada.isEmpty()) {
+            return "";
+        }
+        for (String tipo : EstoqueSangue.TIPOS) {
+            if (tipo.equals(entrada)) {
+                return tipo;
+            }
+        }
+        exibirMensagemErro("Tipo sanguíneo inválido: " + entrada);
+        return null;
+    }
+
+    /**
+     * Exibe as transferências sugeridas
+     * @param dia Dia a que se refere o estoque
+     * @param transferencias Transferências sugeridas
+     * @param faltas Bolsas que faltam na rede depois das transferências, por tipo
+     */
+    public static void exibirTransferencias(LocalDate dia, List<Transferencia> transferencias,
+                                            Map<String, Integer> faltas) {
+        System.out.println("=== TRANSFERÊNCIAS SUGERIDAS (" + dia + ") ===");
+
+        if (transferencias.isEmpty()) {
+            System.out.println("Nenhuma transferência necessária.");
+        } else {
+            System.out.println(String.format("|%-4s | %-25s| %-25s| %-7s| %-10s|",
+                "Tipo", "Origem", "Destino", "Bolsas", "Distância"));
+            System.out.println(String.format("|%s|%s|%s|%s|%s|",
+                "-".repeat(5), "-".repeat(26), "-".repeat(26), "-".repeat(8), "-".repeat(11)));
+
+            for (Transferencia transferencia : transferencias) {
+                Hospital origem = transferencia.getOrigem();
+                Hospital destino = transferencia.getDestino();
+                System.out.println(String.format("|%-4s | %-25s| %-25s| %7d| %10s|",
+                    transferencia.getTipoSanguineo(),
+                    origem.getNome(),
+                    destino.getNome(),
+                    transferencia.getBolsas(),
+                    String.format("%.1f km", transferencia.getDistanciaKm())));
+            }
+        }
+
+        for (Map.Entry<String, Integer> falta : faltas.entrySet()) {
+            if (falta.getValue() > 0) {
+                System.out.println("Ainda faltam " + falta.getValue() + " bolsa(s) " + falta.getKey()
+                    + " na rede (sem sobra em outros hospitais).");
+            }
+        }
+        System.out.println("(estoque = bolsas coletadas dentro da validade; transferências não são registradas)");
+        System.out.println("========================");
+    }
+
+    /**
+     * Solicita os dias à frente da previsão de estoque
+     * @return Dias (7 se vazio), ou -1 se inválido
+     */
+    public static int solicitarDiasPrevisao() {
+        System.out.print("Dias à frente (0 a " + PrevisaoDoacoes.HORIZONTE_MAXIMO_DIAS + ") [7]: ");
+        String entrada = scanner.nextLine().trim();
+        if (entrada.isEmpty()) {
+            return 7;
+        }
+        try {
+            int dias = Integer.parseInt(entrada);
+            if (dias >= 0 && dias <= PrevisaoDoacoes.HORIZONTE_MAXIMO_DIAS) {
+                return dias;
+            }
+        } catch (NumberFormatException e) {
+            // inválido
+        }
+        exibirMensagemErro("Quantidade de dias inválida: " + entrada);
+        return -1;
+    }
+
+    /**
+     * Exibe o estoque esperado de cada hospital e tipo
+     * @param dia Dia da previsão
+     * @param dias Dias à frente
+     * @param diasObservados Dias de histórico usados pelo modelo
+     * @param previsoes Previsões por hospital e tipo
+     */
+    public static void exibirPrevisoes(LocalDate dia, int dias, int diasObservados, List<PrevisaoEstoque> previsoes) {
+        System.out.println("=== PREVISÃO DE ESTOQUE PARA " + dia.plusDays(dias) + " ===");
+
+        if (previsoes.isEmpty()) {
+            System.out.println("Nenhum estoque ou coleta prevista.");
+        } else {
+            System.out.println(String.format("|%-25s | %-4s | %-7s| %-9s| %-8s| %-10s| %-8s|",
+                "Hospital", "Tipo", "Atual", "Coletas", "Vencem", "Projetado", "Erro/dia"));
+            System.out.println(String.format("|%s|%s|%s|%s|%s|%s|%s|",
+                "-".repeat(26), "-".repeat(6), "-".repeat(8), "-".repeat(10), "-".repeat(9), "-".repeat(11),
+                "-".repeat(9)));
+
+            for (PrevisaoEstoque previsao : previsoes) {
+                System.out.println(String.format("|%-25s | %-4s | %7d| %9.1f| %8.1f| %10.1f| %8.1f|",
+                    previsao.getHospital().getNome(),
+                    previsao.getTipoSanguineo(),
+                    previsao.getEstoqueAtual(),
+                    previsao.getColetasPrevistas(),
+                    previsao.getVencimentos(),
+                    previsao.getEstoqueProjetado(),
+                    previsao.getErroDiario()));
+            }
+        }
+
+        System.out.println("(coletas previstas pelo histórico de " + diasObservados
+            + " dia(s), com sazonalidade semanal; o consumo de bolsas não é registrado)");
+        System.out.println("========================");
+    }
+
+    /**
+     * Exibe mensagem de erro
+     * @param mensagem Mensagem de erro
+     */
+    public static void exibirMensagemErro(String mensagem) {
+        System.out.println("=== ERRO ===");
+        System.out.println(mensagem);
+        System.out.println("============");
+    }
+}
@@ -0,0 +1,148 @@
+package estoque;
+
+/**
+ * Suavização exponencial de Holt-Winters aditiva, com tendência amortecida e
+ * sazonalidade semanal, de muitas séries diárias ao mesmo tempo.
+ *
+ * <p>O estado de todas as séries fica em vetores primitivos (nível,
+ * tendência, sete fatores sazonais e erro médio de cada série) e cada dia
+ * observado atualiza todas em uma passada ({@link #observar(int[])}), sem
+ * guardar o histórico. A primeira semana só forma o estado inicial: nível pela
+ * média e fatores pelos desvios de cada dia da semana.</p>
+ *
+ * <p>Não é seguro para uso concorrente: quem publica um modelo para leitura
+ * deixa de alterá-lo e continua em uma {@link #copia()}.</p>
+ */
+public final class ModeloPrevisao {
+
+    /** Dias do ciclo sazonal */
+    public static final int SEMANA = 7;
+
+    /** Peso da observação no nível */
+    public static final double ALFA = 0.03;
+
+    /** Peso da variação do nível na tendência */
+    public static final double BETA = 0.005;
+
+    /** Peso do desvio do dia no fator sazonal */
+    public static final double GAMA = 0.05;
+
+    /** Amortecimento da tendência a cada dia projetado */
+    public static final double AMORTECIMENTO = 0.9;
+
+    /** Peso do erro do dia no erro médio */
+    private static final double PESO_ERRO = 0.05;
+
+    private final int series;
+    private final double[] nivel;
+    private final double[] tendencia;
+    private final double[] sazonal;     // [s * SEMANA + dia da semana]
+    private final double[] erro;        // erro absoluto médio de um dia à frente
+    private int observados;
+    private int fase;                   // dia da semana do próximo dia observado
+
+    /**
+     * @param series Quantidade de séries
+     * @param fase Dia da semana (0 a 6, em qualquer convenção fixa) do primeiro dia observado
+     */
+    public ModeloPrevisao(int series, int fase) {
+        this.series = series;
+        this.nivel = new double[series];
+        this.tendencia = new double[series];
+        this.sazonal = new double[series * SEMANA];
+        this.erro = new double[series];
+        this.fase = Math.floorMod(fase, SEMANA);
+    }
+
+    private ModeloPrevisao(ModeloPrevisao outro) {
+        this.series = outro.series;
+        this.nivel = outro.nivel.clone();
+        this.tendencia = outro.tendencia.clone();
+        this.sazonal = outro.sazonal.clone();
+        this.erro = outro.erro.clone();
+        this.observados = outro.observados;
+        this.fase = outro.fase;
+    }
+
+    /** @return Cópia independente do estado */
+    public ModeloPrevisao copia() {
+        return new ModeloPrevisao(this);
+    }
+
+    /**
+     * Observa o dia seguinte de todas as séries.
+     * @param contagens Valor do dia de cada série (null para zero em todas)
+     */
+    public void observar(int[] contagens) {
+        if (observados < SEMANA) {
+            iniciar(contagens);
+        } else {
+            for (int s = 0; s < series; s++) {
+                int i = s * SEMANA + fase;
+                double x = contagens != null ? contagens[s] : 0;
+                double anterior = nivel[s];
+                double projecao = anterior + AMORTECIMENTO * tendencia[s];
+
+                erro[s] += PESO_ERRO * (Math.abs(x - projecao - sazonal[i]) - erro[s]);
+                nivel[s] = ALFA * (x - sazonal[i]) + (1 - ALFA) * projecao;
+                tendencia[s] = BETA * (nivel[s] - anterior) + (1 - BETA) * AMORTECIMENTO * tendencia[s];
+                sazonal[i] = GAMA * (x - nivel[s]) + (1 - GAMA) * sazonal[i];
+            }
+        }
+        observados++;
+        fase = fase + 1 == SEMANA ? 0 : fase + 1;
+    }
+
+    /** Primeira semana: média no nível e valores brutos nos fatores, trocados por desvios no sétimo dia */
+    private void iniciar(int[] contagens) {
+        for (int s = 0; s < series; s++) {
+            double x = contagens != null ? contagens[s] : 0;
+            sazonal[s * SEMANA + fase] = x;
+            nivel[s] += (x - nivel[s]) / (observados + 1);
+        }
+        if (observados + 1 == SEMANA) {
+            for (int s = 0; s < series; s++) {
+                double desvio = 0;
+                for (int k = s * SEMANA; k < (s + 1) * SEMANA; k++) {
+                    sazonal[k] -= nivel[s];
+                    desvio += Math.abs(sazonal[k]);
+                }
+                erro[s] = desvio / SEMANA;
+            }
+        }
+    }
+
+    /**
+     * Valor esperado de uma série.
+     * @param s Série
+     * @param dias Dias à frente do último observado (1 = o próximo)
+     * @return Valor esperado no dia, nunca negativo
+     */
+    public double prever(int s, int dias) {
+        if (observados < SEMANA) {
+            return nivel[s];
+        }
+        // Tendência amortecida: φ + φ² + ... + φ^dias
+        double peso = AMORTECIMENTO * (1 - Math.pow(AMORTECIMENTO, dias)) / (1 - AMORTECIMENTO);
+        double valor = nivel[s] + peso * tendencia[s] + sazonal[s * SEMANA + (fase + dias - 1) % SEMANA];
+        return Math.max(0, valor);
+    }
+
+    /**
+     * @param s Série
+     * @return Erro absoluto médio da previsão de um dia à frente (0 antes da primeira semana)
+     */
+    public double getErro(int s) {
+        return erro[s];
+    }
+
+    /** @return Dias já observados */
+    public int getObservados() {
+        return observados;
+    }
+
+    /** @return Quantidade de séries */
+    public int getSeries() {
+        return series;
+    }
+}
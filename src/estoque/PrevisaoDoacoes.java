@@ -0,0 +1,565 @@
+package estoque;
+
+import database.DatabaseConnection;
+import database.InvalidacaoCache;
+import hospital.CatalogoHospitais;
+import hospital.Hospital;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import util.Calendario;
+import util.ConjuntoLongs;
+
+/**
+ * Previsão das doações por hospital e tipo sanguíneo e do estoque esperado
+ * alguns dias à frente.
+ *
+ * <p>A série diária de cada par hospital × tipo ({@code doacao ⋈ doador},
+ * hospital do doador) alimenta um {@link ModeloPrevisao} com todas as séries:
+ * os últimos {@value #HISTORICO_PADRAO_DIAS} dias
+ * ({@code hemoconnect.previsao.historico}) vêm de uma consulta em ordem de
+ * data e são somados dia a dia em vetores primitivos, sem guardar o
+ * histórico. O estoque segue as regras do {@link EstoqueSangue} (bolsas
+ * coletadas dentro da validade, sem consumo): o estoque esperado em N dias são
+ * as coletas, registradas ou previstas, dos últimos dias de validade até
+ * lá.</p>
+ *
+ * <p>O retrato é publicado por referência volátil. Cada doação de hoje
+ * registrada por este processo ({@link #registrarDoacao}) só incrementa um
+ * contador, e na virada do dia o modelo avança pelos dias que passaram sem
+ * reler o banco. As doações dos dias de validade ficam guardadas por doador
+ * ({@link DoacoesDoadores}): um doador alterado (também por outras
+ * instâncias, via {@link InvalidacaoCache}) tem só as suas doações relidas, e
+ * a diferença corrige as coletas desses dias e as de hoje; as anteriores
+ * continuam no modelo como foram observadas. Alterações e remoções de
+ * doações, alterações demais de uma vez e hospitais novos ou removidos
+ * descartam o retrato, relido na próxima consulta.</p>
+ */
+public final class PrevisaoDoacoes {
+
+    /** Dias de histórico lidos por padrão (52 semanas) */
+    public static final int HISTORICO_PADRAO_DIAS = 364;
+
+    /** Maior horizonte de projeção, em dias */
+    public static final int HORIZONTE_MAXIMO_DIAS = 90;
+
+    /** Leituras seguidas descartadas por doações registradas durante a leitura */
+    private static final int TENTATIVAS_CARGA = 3;
+
+    private static final String[] TIPOS = EstoqueSangue.TIPOS;
+    private static final int VALIDADE = EstoqueSangue.VALIDADE;
+    private static final int HISTORICO = historico();
+
+    private static volatile PrevisaoDoacoes atual;
+
+    /** Leituras e viradas de dia, uma por vez (os registros só usam a trava da classe) */
+    private static final Object CARGA = new Object();
+
+    /** Doações registradas e descartes do retrato, sob a trava da classe */
+    private static long geracao;
+
+    /** Doadores alterados, com as doações a reler, sob a trava da classe */
+    private static ConjuntoLongs doadoresAlterados = new ConjuntoLongs();
+    private static volatile boolean doadoresPendentes;
+
+    private final int dia;                      // epoch day
+    private final Hospital[] hospitais;         // ordem de ID
+    private final long[] ids;
+    private final ModeloPrevisao modelo;        // séries [h * TIPOS.length + t], observadas até ontem
+    private final int[] recentes;               // [s * VALIDADE + dia % VALIDADE], dias de validade até ontem
+    private final AtomicIntegerArray hoje;      // doações de hoje, por série
+    private final DoacoesDoadores doacoes;      // dias de validade até hoje, por doador
+
+    static {
+        // Doações de outras instâncias gravam ultima_doacao do doador; doadores podem mudar de hospital ou tipo
+        InvalidacaoCache.registrar("doador", new InvalidacaoCache.Ouvinte() {
+            @Override
+            public void invalidar(long id) {
+                agendarDoador(id);
+            }
+
+            @Override
+            public void invalidarTudo() {
+                agendarRecarga();
+            }
+        });
+    }
+
+    private PrevisaoDoacoes(int dia, Hospital[] hospitais, long[] ids, ModeloPrevisao modelo, int[] recentes,
+                            AtomicIntegerArray hoje, DoacoesDoadores doacoes) {
+        this.dia = dia;
+        this.hospitais = hospitais;
+        this.ids = ids;
+        this.modelo = modelo;
+        this.recentes = recentes;
+        this.hoje = hoje;
+        this.doacoes = doacoes;
+    }
+
+    /**
+     * Soma as contagens lidas em ordem de data, fechando cada dia no modelo.
+     * As coletas dos dias de validade e as de hoje vêm das doações por doador.
+     */
+    private static final class Montagem implements EstoqueDAO.LeitorDoacoesDiarias {
+        final long[] ids;
+        final ModeloPrevisao modelo;
+        final int[] doDia;
+        int aberto;                             // deslocamento do dia em doDia
+
+        Montagem(long[] ids, int inicio) {
+            int series = ids.length * TIPOS.length;
+            this.ids = ids;
+            this.modelo = new ModeloPrevisao(series, faseSemana(inicio));
+            this.doDia = new int[series];
+        }
+
+        @Override
+        public void ler(int dia, long idHospital, String tipoSanguineo, int doacoes) {
+            int h = Arrays.binarySearch(ids, idHospital);
+            int t = tipo(tipoSanguineo);
+            if (h < 0 || t < 0 || dia >= HISTORICO) {
+                return;
+            }
+            fecharAte(dia);
+            doDia[h * TIPOS.length + t] += doacoes;
+        }
+
+        /** Observa os dias abertos antes do deslocamento dado */
+        void fecharAte(int dia) {
+            while (aberto < dia) {
+                modelo.observar(doDia);
+                Arrays.fill(doDia, 0);
+                aberto++;
+            }
+        }
+    }
+
+    /**
+     * Retorna o retrato atual, lendo o histórico se ainda não tiver sido
+     * carregado e avançando o modelo se o dia virou.
+     *
+     * @return Previsão pronta para consulta
+     * @throws SQLException se houver erro na leitura
+     */
+    public static PrevisaoDoacoes obter() throws SQLException {
+        PrevisaoDoacoes previsao = atual;
+        if (previsao != null && previsao.dia == Calendario.hoje() && !doadoresPendentes
+                && previsao.mesmosHospitais()) {
+            return previsao;
+        }
+
+        synchronized (CARGA) {
+            int hoje = Calendario.hoje();
+            List<Hospital> lista = CatalogoHospitais.obter().todos();
+            lista.sort(Comparator.comparing(Hospital::getId));
+            long[] ids = new long[lista.size()];
+            for (int h = 0; h < ids.length; h++) {
+                ids[h] = lista.get(h).getId();
+            }
+            Hospital[] hospitais = lista.toArray(new Hospital[0]);
+
+            synchronized (PrevisaoDoacoes.class) {
+                previsao = atual;
+                if (previsao != null && Arrays.equals(previsao.ids, ids)) {
+                    long dias = (long) hoje - previsao.dia;
+                    if (dias >= 0 && dias <= HISTORICO) {
+                        // Virada do dia com os mesmos hospitais: o modelo continua sem reler o banco
+                        atual = previsao.avancar(hoje, hospitais);
+                        previsao = null;
+                    }
+                }
+            }
+
+            if (previsao != null || atual == null) {
+                previsao = carregar(hoje, hospitais, ids);
+                synchronized (PrevisaoDoacoes.class) {
+                    atual = previsao;
+                }
+            }
+            atualizarDoadores();
+            return atual;
+        }
+    }
+
+    /**
+     * Conta uma doação confirmada por este processo. Doações de hoje só
+     * incrementam o contador do hospital e tipo; datas passadas descartam o
+     * retrato.
+     *
+     * @param idDoador Doador
+     * @param idHospital Hospital do doador
+     * @param tipoSanguineo Tipo sanguíneo do doador
+     * @param data Data da doação
+     */
+    public static void registrarDoacao(Long idDoador, Long idHospital, String tipoSanguineo, Date data) {
+        int t = tipo(tipoSanguineo);
+        if (idDoador == null || idHospital == null || t < 0 || data == null) {
+            return;
+        }
+        synchronized (PrevisaoDoacoes.class) {
+            geracao++;
+            PrevisaoDoacoes previsao = atual;
+            if (previsao == null) {
+                return;
+            }
+            int h = Arrays.binarySearch(previsao.ids, idHospital);
+            if (h < 0 || Calendario.dia(data) != previsao.dia) {
+                // Hospital novo, data passada ou dia já virado no retrato: a releitura inclui a doação
+                atual = null;
+                return;
+            }
+            int serie = h * TIPOS.length + t;
+            previsao.hoje.incrementAndGet(serie);
+            atual = new PrevisaoDoacoes(previsao.dia, previsao.hospitais, previsao.ids, previsao.modelo,
+                    previsao.recentes, previsao.hoje, previsao.doacoes.comDoacao(idDoador, serie, previsao.dia));
+        }
+    }
+
+    /**
+     * Pede a releitura das doações de um doador alterado (hospital, tipo ou
+     * doações) na próxima consulta, corrigindo só a diferença.
+     *
+     * @param idDoador Doador alterado
+     */
+    public static void agendarDoador(long idDoador) {
+        synchronized (PrevisaoDoacoes.class) {
+            doadoresAlterados.adicionar(idDoador);
+            doadoresPendentes = true;
+        }
+    }
+
+    /**
+     * Relê as doações dos doadores alterados e publica o retrato com a
+     * diferença; com doações registradas durante a leitura, lê de novo. Sob
+     * a trava de carga.
+     */
+    private static void atualizarDoadores() throws SQLException {
+        long[] alterados;
+        synchronized (PrevisaoDoacoes.class) {
+            if (doadoresAlterados.vazio() || atual == null) {
+                return;
+            }
+            alterados = doadoresAlterados.paraArray();
+            doadoresAlterados = new ConjuntoLongs();
+            doadoresPendentes = false;
+        }
+        Arrays.sort(alterados);
+
+        try (Connection conn = DatabaseConnection.novaConexao()) {
+            for (int tentativa = 1; ; tentativa++) {
+                long antes;
+                PrevisaoDoacoes base;
+                synchronized (PrevisaoDoacoes.class) {
+                    antes = geracao;
+                    base = atual;
+                }
+                if (base == null) {
+                    return;
+                }
+                DoacoesDoadores lidas = DoacoesDoadores.ler(conn, base.dia - VALIDADE + 1, base.dia, alterados,
+                        base.ids);
+                synchronized (PrevisaoDoacoes.class) {
+                    if (antes == geracao || tentativa == TENTATIVAS_CARGA) {
+                        if (atual == base) {
+                            atual = base.comDoadores(alterados, lidas);
+                        }
+                        return;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // Sem a diferença, o histórico é relido
+            agendarRecarga();
+            throw e;
+        }
+    }
+
+    /** Descarta o retrato; o histórico é relido na próxima consulta */
+    public static void agendarRecarga() {
+        synchronized (PrevisaoDoacoes.class) {
+            // Uma leitura em andamento também é refeita
+            geracao++;
+            atual = null;
+            doadoresAlterados = new ConjuntoLongs();
+            doadoresPendentes = false;
+        }
+    }
+
+    /**
+     * Lê o histórico em conexão própria, uma passada em ordem de data.
+     * Doações registradas durante a leitura podem ou não estar nela: lê de
+     * novo, até {@value #TENTATIVAS_CARGA} vezes.
+     */
+    private static PrevisaoDoacoes carregar(int hoje, Hospital[] hospitais, long[] ids) throws SQLException {
+        int inicio = hoje - HISTORICO;
+        try (Connection conn = DatabaseConnection.novaConexao()) {
+            for (int tentativa = 1; ; tentativa++) {
+                long antes;
+                synchronized (PrevisaoDoacoes.class) {
+                    antes = geracao;
+                    // Já gravados: a leitura os inclui
+                    doadoresAlterados = new ConjuntoLongs();
+                    doadoresPendentes = false;
+                }
+                Montagem montagem = new Montagem(ids, inicio);
+                EstoqueDAO.lerDoacoesDiarias(conn, Calendario.paraDate(inicio), Calendario.paraDate(hoje), montagem);
+                montagem.fecharAte(HISTORICO);
+                DoacoesDoadores doacoes = DoacoesDoadores.ler(conn, hoje - VALIDADE + 1, hoje, null, ids);
+
+                synchronized (PrevisaoDoacoes.class) {
+                    if (antes == geracao || tentativa == TENTATIVAS_CARGA) {
+                        int series = ids.length * TIPOS.length;
+                        int[] recentes = new int[series * VALIDADE];
+                        int[] deHoje = new int[series];
+                        doacoes.paraCada((serie, dia) -> contar(recentes, deHoje, hoje, serie, dia, 1));
+                        return new PrevisaoDoacoes(hoje, hospitais, ids, montagem.modelo, recentes,
+                                new AtomicIntegerArray(deHoje), doacoes);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrato do dia dado, observando no modelo (em cópia) o último dia deste
+     * retrato e os dias seguintes sem doações registradas. Chamado sob a
+     * trava da classe: nenhuma doação de hoje se perde na troca.
+     */
+    private PrevisaoDoacoes avancar(int novoDia, Hospital[] novosHospitais) {
+        long dias = (long) novoDia - dia;
+        if (dias == 0) {
+            return new PrevisaoDoacoes(dia, novosHospitais, ids, modelo, recentes, hoje, doacoes);
+        }
+
+        int series = modelo.getSeries();
+        ModeloPrevisao seguinte = modelo.copia();
+        int[] novosRecentes = recentes.clone();
+        int[] contagens = new int[series];
+        for (int s = 0; s < series; s++) {
+            contagens[s] = hoje.get(s);
+        }
+        long epoca = dia;
+        for (long d = 0; d < dias; d++) {
+            seguinte.observar(d == 0 ? contagens : null);
+            if (d == 0) {
+                guardar(novosRecentes, epoca, contagens);
+            } else {
+                guardar(novosRecentes, epoca + d, null);
+            }
+        }
+        return new PrevisaoDoacoes(novoDia, novosHospitais, ids, seguinte, novosRecentes,
+                new AtomicIntegerArray(series), doacoes.aPartirDe(novoDia - VALIDADE + 1));
+    }
+
+    /**
+     * Retrato com as doações guardadas dos doadores trocadas pelas relidas,
+     * corrigindo as coletas dos dias de validade e as de hoje. Sob a trava da
+     * classe: nenhuma doação de hoje se perde na cópia.
+     */
+    private PrevisaoDoacoes comDoadores(long[] alterados, DoacoesDoadores lidas) {
+        int[] novosRecentes = recentes.clone();
+        int[] deHoje = new int[hoje.length()];
+        for (int s = 0; s < deHoje.length; s++) {
+            deHoje[s] = hoje.get(s);
+        }
+        DoacoesDoadores novasDoacoes = doacoes;
+        for (long idDoador : alterados) {
+            int[] antigas = doacoes.doDoador(idDoador);
+            int[] novas = lidas.doDoador(idDoador);
+            for (int k = 0; k < antigas.length; k += 2) {
+                contar(novosRecentes, deHoje, dia, antigas[k], antigas[k + 1], -1);
+            }
+            for (int k = 0; k < novas.length; k += 2) {
+                contar(novosRecentes, deHoje, dia, novas[k], novas[k + 1], 1);
+            }
+            novasDoacoes = novasDoacoes.comDoador(idDoador, novas);
+        }
+        return new PrevisaoDoacoes(dia, hospitais, ids, modelo, novosRecentes, new AtomicIntegerArray(deHoje),
+                novasDoacoes);
+    }
+
+    /** Soma (ou subtrai, com sinal -1) uma doação às coletas de hoje ou dos dias de validade anteriores */
+    private static void contar(int[] recentes, int[] deHoje, int hoje, int serie, int dia, int sinal) {
+        if (serie == DoacoesDoadores.FORA || dia > hoje || dia <= hoje - VALIDADE) {
+            return;
+        }
+        if (dia == hoje) {
+            deHoje[serie] += sinal;
+        } else {
+            recentes[serie * VALIDADE + Math.floorMod(dia, VALIDADE)] += sinal;
+        }
+    }
+
+    /** Guarda as contagens de um dia na posição circular dos dias de validade */
+    private static void guardar(int[] recentes, long epoca, int[] contagens) {
+        int k = (int) Math.floorMod(epoca, (long) VALIDADE);
+        for (int s = 0, i = k; i < recentes.length; s++, i += VALIDADE) {
+            recentes[i] = contagens != null ? contagens[s] : 0;
+        }
+    }
+
+    /** @return true se o catálogo de hospitais tem os mesmos IDs deste retrato */
+    private boolean mesmosHospitais() throws SQLException {
+        CatalogoHospitais catalogo = CatalogoHospitais.obter();
+        if (catalogo.tamanho() != ids.length) {
+            return false;
+        }
+        for (long id : ids) {
+            if (!catalogo.existe(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estoque esperado de um hospital e tipo.
+     *
+     * @param idHospital ID do hospital
+     * @param tipoSanguineo Tipo sanguíneo (ex.: "O-")
+     * @param dias Dias à frente (0 = fim de hoje, até {@value #HORIZONTE_MAXIMO_DIAS})
+     * @return Previsão, ou null se hospital ou tipo desconhecido
+     * @throws IllegalArgumentException se os dias estiverem fora do horizonte
+     */
+    public PrevisaoEstoque getPrevisao(long idHospital, String tipoSanguineo, int dias) {
+        validarDias(dias);
+        int h = Arrays.binarySearch(ids, idHospital);
+        int t = tipo(tipoSanguineo);
+        return h >= 0 && t >= 0 ? projetar(h, t, dias) : null;
+    }
+
+    /**
+     * Estoque esperado dos pares hospital × tipo com estoque ou coletas
+     * previstas, em ordem de ID do hospital e de tipo.
+     *
+     * @param idHospital ID do hospital, ou null para todos
+     * @param tipoSanguineo Tipo sanguíneo, ou null para todos
+     * @param dias Dias à frente (0 = fim de hoje, até {@value #HORIZONTE_MAXIMO_DIAS})
+     * @return Previsões (vazia se hospital ou tipo desconhecido)
+     * @throws IllegalArgumentException se os dias estiverem fora do horizonte
+     */
+    public List<PrevisaoEstoque> getPrevisoes(Long idHospital, String tipoSanguineo, int dias) {
+        validarDias(dias);
+        List<PrevisaoEstoque> previsoes = new ArrayList<>();
+        int t = tipoSanguineo != null ? tipo(tipoSanguineo) : -1;
+        if (tipoSanguineo != null && t < 0) {
+            return previsoes;
+        }
+
+        int de = 0;
+        int ate = hospitais.length;
+        if (idHospital != null) {
+            de = Arrays.binarySearch(ids, idHospital);
+            if (de < 0) {
+                return previsoes;
+            }
+            ate = de + 1;
+        }
+        for (int h = de; h < ate; h++) {
+            for (int tipo = 0; tipo < TIPOS.length; tipo++) {
+                if (t >= 0 && tipo != t) {
+                    continue;
+                }
+                PrevisaoEstoque previsao = projetar(h, tipo, dias);
+                if (previsao.getEstoqueAtual() > 0 || previsao.getColetasPrevistas() >= 0.05) {
+                    previsoes.add(previsao);
+                }
+            }
+        }
+        return previsoes;
+    }
+
+    /**
+     * Coletas dia a dia na janela de validade que termina no dia projetado:
+     * registradas antes de hoje, hoje (o maior entre o registrado e o
+     * previsto) e previstas depois.
+     */
+    private PrevisaoEstoque projetar(int h, int t, int dias) {
+        int s = h * TIPOS.length + t;
+        long epoca = dia;
+        int registradasHoje = hoje.get(s);
+        double esperadasHoje = Math.max(registradasHoje, modelo.prever(s, 1));
+
+        int estoque = registradasHoje;
+        for (long d = epoca - VALIDADE + 1; d < epoca; d++) {
+            estoque += recentes[s * VALIDADE + (int) Math.floorMod(d, (long) VALIDADE)];
+        }
+        double previstas = esperadasHoje - registradasHoje;
+        for (int d = 1; d <= dias; d++) {
+            previstas += modelo.prever(s, d + 1);
+        }
+
+        double projetado = 0;
+        for (long d = epoca + dias - VALIDADE + 1; d <= epoca + dias; d++) {
+            if (d < epoca) {
+                projetado += recentes[s * VALIDADE + (int) Math.floorMod(d, (long) VALIDADE)];
+            } else if (d == epoca) {
+                projetado += esperadasHoje;
+            } else {
+                projetado += modelo.prever(s, (int) (d - epoca) + 1);
+            }
+        }
+
+        Hospital hospital = hospitais[h];
+        return new PrevisaoEstoque(hospital, TIPOS[t], dia, dias, estoque, previstas,
+                estoque + previstas - projetado, modelo.getErro(s));
+    }
+
+    /** @return Dia da previsão (o modelo vai até o dia anterior) */
+    public LocalDate getDia() {
+        return LocalDate.ofEpochDay(dia);
+    }
+
+    /** @return Dias de histórico observados pelo modelo */
+    public int getDiasObservados() {
+        return modelo.getObservados();
+    }
+
+    private static void validarDias(int dias) {
+        if (dias < 0 || dias > HORIZONTE_MAXIMO_DIAS) {
+            throw new IllegalArgumentException("Dias de previsão fora de 0 a " + HORIZONTE_MAXIMO_DIAS + ": " + dias);
+        }
+    }
+
+    /** Dia da semana de 0 (segunda) a 6 (domingo), a fase do modelo */
+    private static int faseSemana(int dia) {
+        return Math.floorMod(dia + 3, ModeloPrevisao.SEMANA); // 01/01/1970 foi quinta-feira
+    }
+
+    private static int tipo(String tipoSanguineo) {
+        if (tipoSanguineo != null) {
+            String busca = tipoSanguineo.trim().toUpperCase();
+            for (int t = 0; t < TIPOS.length; t++) {
+                if (TIPOS[t].equals(busca)) {
+                    return t;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /** Dias de histórico de {@code hemoconnect.previsao.historico}, no mínimo duas semanas e a validade */
+    private static int historico() {
+        int minimo = Math.max(2 * ModeloPrevisao.SEMANA, VALIDADE);
+        String valor = System.getProperty("hemoconnect.previsao.historico");
+        if (valor != null && !valor.trim().isEmpty()) {
+            try {
+                int dias = Integer.parseInt(valor.trim());
+                if (dias >= minimo) {
+                    return dias;
+                }
+            } catch (NumberFormatException e) {
+                // usa o padrão
+            }
+            System.err.println("Valor inválido para hemoconnect.previsao.historico: " + valor
+                + " (mínimo " + minimo + " dias)");
+        }
+        return Math.max(HISTORICO_PADRAO_DIAS, minimo);
+    }
+}
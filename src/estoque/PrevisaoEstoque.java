@@ -0,0 +1,88 @@
+package estoque;
+
+import hospital.Hospital;
+import java.time.LocalDate;
+
+/**
+ * Estoque esperado de um tipo sanguíneo em um hospital daqui a alguns dias,
+ * calculado pela {@link PrevisaoDoacoes}.
+ */
+public final class PrevisaoEstoque {
+
+    private final Hospital hospital;
+    private final String tipoSanguineo;
+    private final int dia;                      // epoch day
+    private final int dias;
+    private final int estoqueAtual;
+    private final double coletasPrevistas;
+    private final double vencimentos;
+    private final double erroDiario;
+
+    PrevisaoEstoque(Hospital hospital, String tipoSanguineo, int dia, int dias, int estoqueAtual,
+                    double coletasPrevistas, double vencimentos, double erroDiario) {
+        this.hospital = hospital;
+        this.tipoSanguineo = tipoSanguineo;
+        this.dia = dia;
+        this.dias = dias;
+        this.estoqueAtual = estoqueAtual;
+        this.coletasPrevistas = coletasPrevistas;
+        this.vencimentos = vencimentos;
+        this.erroDiario = erroDiario;
+    }
+
+    /** @return Hospital (cópia) */
+    public Hospital getHospital() {
+        return new Hospital(hospital.getId(), hospital.getNome(), hospital.getCep(), hospital.getCidade());
+    }
+
+    /** @return Tipo sanguíneo (A+, A-, B+, B-, AB+, AB-, O+, O-) */
+    public String getTipoSanguineo() {
+        return tipoSanguineo;
+    }
+
+    /** @return Dia da previsão */
+    public LocalDate getDia() {
+        return LocalDate.ofEpochDay(dia);
+    }
+
+    /** @return Dias à frente projetados */
+    public int getDias() {
+        return dias;
+    }
+
+    /** @return Dia projetado */
+    public LocalDate getDiaProjetado() {
+        return LocalDate.ofEpochDay((long) dia + dias);
+    }
+
+    /** @return Bolsas dentro da validade hoje, com as coletas de hoje já registradas */
+    public int getEstoqueAtual() {
+        return estoqueAtual;
+    }
+
+    /** @return Coletas esperadas até o fim do dia projetado, além das já registradas */
+    public double getColetasPrevistas() {
+        return coletasPrevistas;
+    }
+
+    /** @return Bolsas, atuais ou previstas, que vencem até o fim do dia projetado */
+    public double getVencimentos() {
+        return vencimentos;
+    }
+
+    /** @return Bolsas esperadas dentro da validade no fim do dia projetado (sem consumo) */
+    public double getEstoqueProjetado() {
+        return estoqueAtual + coletasPrevistas - vencimentos;
+    }
+
+    /** @return Erro médio da previsão de um dia, em bolsas (referência da incerteza) */
+    public double getErroDiario() {
+        return erroDiario;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s em %s: %d -> %.1f bolsa(s)", hospital.getNome(), tipoSanguineo,
+                getDiaProjetado(), estoqueAtual, getEstoqueProjetado());
+    }
+}
@@ -0,0 +1,55 @@
+package estoque;
+
+import hospital.Hospital;
+
+/**
+ * Sugestão de transferência de bolsas de um tipo sanguíneo entre dois
+ * hospitais, calculada pelo {@link EstoqueSangue}.
+ */
+public final class Transferencia {
+
+    private final Hospital origem;
+    private final Hospital destino;
+    private final String tipoSanguineo;
+    private final int bolsas;
+    private final double distanciaKm;
+
+    Transferencia(Hospital origem, Hospital destino, String tipoSanguineo, int bolsas, double distanciaKm) {
+        this.origem = origem;
+        this.destino = destino;
+        this.tipoSanguineo = tipoSanguineo;
+        this.bolsas = bolsas;
+        this.distanciaKm = distanciaKm;
+    }
+
+    /** @return Hospital com sobra, que envia as bolsas (cópia) */
+    public Hospital getOrigem() {
+        return new Hospital(origem.getId(), origem.getNome(), origem.getCep(), origem.getCidade());
+    }
+
+    /** @return Hospital com falta, que recebe as bolsas (cópia) */
+    public Hospital getDestino() {
+        return new Hospital(destino.getId(), destino.getNome(), destino.getCep(), destino.getCidade());
+    }
+
+    /** @return Tipo sanguíneo (A+, A-, B+, B-, AB+, AB-, O+, O-) */
+    public String getTipoSanguineo() {
+        return tipoSanguineo;
+    }
+
+    /** @return Quantidade de bolsas */
+    public int getBolsas() {
+        return bolsas;
+    }
+
+    /** @return Distância estimada entre os hospitais, em km (ver {@code IndiceCep#distanciasMetros}) */
+    public double getDistanciaKm() {
+        return distanciaKm;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bolsa(s) %s: %s -> %s (%.1f km)", bolsas, tipoSanguineo, origem.getNome(),
+                destino.getNome(), distanciaKm);
+    }
+}
@@ -0,0 +1,71 @@
+package eventos;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Barramento de eventos no próprio processo: entrega cada evento aos
+ * consumidores assinados, na thread do {@link RetransmissorEventos}.
+ *
+ * <p>Os consumidores devem ser rápidos e tratar os próprios erros: uma
+ * exceção de um consumidor é registrada e não impede a entrega aos demais
+ * nem a marcação do lote como publicado (um consumidor com defeito não trava
+ * os outros destinos).</p>
+ */
+public final class BarramentoEventos implements DestinoEventos {
+
+    /** Consumidor assinado, com o tipo filtrado (null para todos) */
+    private static final class Assinatura {
+        final TipoEvento tipo;
+        final Consumer<Evento> consumidor;
+
+        Assinatura(TipoEvento tipo, Consumer<Evento> consumidor) {
+            this.tipo = tipo;
+            this.consumidor = consumidor;
+        }
+    }
+
+    private final List<Assinatura> assinaturas = new CopyOnWriteArrayList<>();
+
+    /**
+     * Assina todos os eventos.
+     * @param consumidor Recebe cada evento
+     */
+    public void assinar(Consumer<Evento> consumidor) {
+        assinaturas.add(new Assinatura(null, consumidor));
+    }
+
+    /**
+     * Assina os eventos de um tipo.
+     * @param tipo Tipo dos eventos
+     * @param consumidor Recebe cada evento do tipo
+     */
+    public void assinar(TipoEvento tipo, Consumer<Evento> consumidor) {
+        assinaturas.add(new Assinatura(tipo, consumidor));
+    }
+
+    /**
+     * Cancela todas as assinaturas do consumidor.
+     * @param consumidor Consumidor assinado
+     */
+    public void cancelar(Consumer<Evento> consumidor) {
+        assinaturas.removeIf(a -> a.consumidor == consumidor);
+    }
+
+    @Override
+    public void publicar(List<Evento> lote) {
+        for (Evento evento : lote) {
+            for (Assinatura assinatura : assinaturas) {
+                if (assinatura.tipo != null && assinatura.tipo != evento.getTipo()) {
+                    continue;
+                }
+                try {
+                    assinatura.consumidor.accept(evento);
+                } catch (RuntimeException e) {
+                    System.err.println("Erro no consumidor do evento " + evento.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package eventos;
+
+import database.DatabaseConnection;
+import database.Transacao;
+import database.UnidadeDeTrabalho;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Caixa de saída transacional dos eventos ({@code evento_saida}).
+ *
+ * <p>Os DAOs gravam o evento na mesma transação da alteração que ele
+ * descreve: se a doação não for gravada, o evento também não é, e não há
+ * evento perdido se o sistema parar logo depois da confirmação. A
+ * publicação para os destinos fica com o {@link RetransmissorEventos}, que
+ * lê a tabela em lotes.</p>
+ *
+ * <ul>
+ *   <li>{@link #registrar(TipoEvento, long, String)}: grava na conexão da
+ *       thread, dentro da transação de quem chama (ver
+ *       {@link database.Transacao});</li>
+ *   <li>{@link #registrar(UnidadeDeTrabalho, TipoEvento, UnidadeDeTrabalho.Chave, String)}:
+ *       enfileira na {@link UnidadeDeTrabalho}, depois da inserção cujo ID
+ *       gerado o evento usa.</li>
+ * </ul>
+ */
+public final class CaixaSaida {
+
+    private static final String INSERT_EVENTO =
+        "INSERT INTO evento_saida (tipo, agregado_id, dados) VALUES (?, ?, CAST(? AS jsonb))";
+
+    // Construtor privado: classe utilitária
+    private CaixaSaida() {}
+
+    /**
+     * Grava um evento na transação em andamento da conexão da thread; o
+     * retransmissor é acordado depois da confirmação.
+     *
+     * @param tipo Tipo do evento
+     * @param agregadoId ID da doação ou triagem
+     * @param dados Objeto JSON com os dados (ver {@link DadosEvento})
+     * @throws SQLException se houver erro na gravação
+     */
+    public static void registrar(TipoEvento tipo, long agregadoId, String dados) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_EVENTO)) {
+            preencher(stmt, tipo, agregadoId, dados);
+            stmt.executeUpdate();
+        }
+        Transacao.aposConfirmar(RetransmissorEventos::avisar);
+    }
+
+    /**
+     * Enfileira um evento na unidade de trabalho; ele é gravado na transação
+     * da unidade, depois da inserção que gera o ID do registro.
+     *
+     * @param unidade Unidade ativa
+     * @param tipo Tipo do evento
+     * @param agregado ID gerado pela inserção da doação ou triagem
+     * @param dados Objeto JSON com os dados (ver {@link DadosEvento})
+     */
+    public static void registrar(UnidadeDeTrabalho unidade, TipoEvento tipo, UnidadeDeTrabalho.Chave agregado,
+                                 String dados) {
+        unidade.inserir(INSERT_EVENTO, stmt -> preencher(stmt, tipo, agregado.valor(), dados), null);
+        UnidadeDeTrabalho.aposConfirmar(RetransmissorEventos::avisar);
+    }
+
+    private static void preencher(PreparedStatement stmt, TipoEvento tipo, long agregadoId, String dados)
+            throws SQLException {
+        stmt.setString(1, tipo.getCodigo());
+        stmt.setLong(2, agregadoId);
+        stmt.setString(3, dados);
+    }
+}
@@ -0,0 +1,119 @@
+package eventos;
+
+/**
+ * Monta o objeto JSON com os dados de um evento, campo a campo.
+ *
+ * <pre>
+ * String dados = new DadosEvento().texto("data", "2025-06-01").numero("volume", 450).json();
+ * </pre>
+ */
+public final class DadosEvento {
+
+    private final StringBuilder json = new StringBuilder(128).append('{');
+
+    /**
+     * @param nome Nome do campo
+     * @param valor Texto (null grava {@code null})
+     * @return Este objeto
+     */
+    public DadosEvento texto(String nome, Object valor) {
+        nome(nome);
+        if (valor == null) {
+            json.append("null");
+        } else {
+            escreverTexto(json, valor.toString());
+        }
+        return this;
+    }
+
+    /**
+     * @param nome Nome do campo
+     * @param valor Número inteiro
+     * @return Este objeto
+     */
+    public DadosEvento numero(String nome, long valor) {
+        nome(nome);
+        json.append(valor);
+        return this;
+    }
+
+    /**
+     * @param nome Nome do campo
+     * @param valor Número decimal
+     * @return Este objeto
+     */
+    public DadosEvento numero(String nome, double valor) {
+        nome(nome);
+        json.append(valor);
+        return this;
+    }
+
+    /**
+     * @param nome Nome do campo
+     * @param valor ID (null grava {@code null})
+     * @return Este objeto
+     */
+    public DadosEvento id(String nome, Long valor) {
+        nome(nome);
+        json.append(valor == null ? "null" : valor.toString());
+        return this;
+    }
+
+    /**
+     * @param nome Nome do campo
+     * @param valor Valor lógico
+     * @return Este objeto
+     */
+    public DadosEvento logico(String nome, boolean valor) {
+        nome(nome);
+        json.append(valor);
+        return this;
+    }
+
+    /**
+     * @return Objeto JSON com os campos escritos
+     */
+    public String json() {
+        return json.toString() + '}';
+    }
+
+    private void nome(String nome) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        escreverTexto(json, nome);
+        json.append(':');
+    }
+
+    /** Escreve o texto entre aspas, com os escapes do JSON */
+    static void escreverTexto(StringBuilder destino, String valor) {
+        destino.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    destino.append("\\\"");
+                    break;
+                case '\\':
+                    destino.append("\\\\");
+                    break;
+                case '\n':
+                    destino.append("\\n");
+                    break;
+                case '\r':
+                    destino.append("\\r");
+                    break;
+                case '\t':
+                    destino.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        destino.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        destino.append(c);
+                    }
+            }
+        }
+        destino.append('"');
+    }
+}
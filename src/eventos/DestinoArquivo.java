@@ -0,0 +1,56 @@
+package eventos;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Log local somente de acréscimo: um evento por linha, em JSON (JSON Lines).
+ *
+ * <p>Cada lote é escrito de uma vez no fim do arquivo. Com sincronização, o
+ * lote só é aceito depois de chegar ao disco ({@link FileChannel#force}), e
+ * um evento marcado como publicado nunca se perde numa queda da máquina; sem
+ * ela, a escrita é mais rápida e fica a cargo do sistema operacional.</p>
+ */
+public final class DestinoArquivo implements DestinoEventos {
+
+    private final FileChannel canal;
+    private final boolean sincronizar;
+
+    /**
+     * @param arquivo Arquivo do log (criado se não existir)
+     * @param sincronizar true para forçar a gravação em disco a cada lote
+     * @throws IOException se o arquivo não puder ser aberto
+     */
+    public DestinoArquivo(Path arquivo, boolean sincronizar) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.sincronizar = sincronizar;
+    }
+
+    @Override
+    public void publicar(List<Evento> lote) throws IOException {
+        StringBuilder linhas = new StringBuilder(lote.size() * 256);
+        for (Evento evento : lote) {
+            evento.escreverJson(linhas);
+            linhas.append('\n');
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        if (sincronizar) {
+            canal.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,27 @@
+package eventos;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino para onde o {@link RetransmissorEventos} publica os eventos.
+ *
+ * <p>Um lote só é marcado como publicado depois que todos os destinos o
+ * aceitaram; se algum lançar exceção, o lote inteiro é publicado de novo mais
+ * tarde, inclusive nos destinos que já o tinham recebido.</p>
+ */
+public interface DestinoEventos extends Closeable {
+
+    /**
+     * Publica um lote de eventos, em ordem de ID.
+     *
+     * @param lote Eventos a publicar (não vazio)
+     * @throws IOException se o lote não puder ser entregue
+     */
+    void publicar(List<Evento> lote) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,81 @@
+package eventos;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Envia os eventos por TCP a um processo local, um evento por linha em JSON.
+ *
+ * <p>A conexão é aberta no primeiro lote e reaberta depois de uma falha: o
+ * lote que falhou é publicado de novo pelo {@link RetransmissorEventos}
+ * (o receptor pode ver repetidos e deve descartá-los pelo ID).</p>
+ */
+public final class DestinoSocket implements DestinoEventos {
+
+    private static final int TEMPO_CONEXAO_MS = 2_000;
+
+    private final String host;
+    private final int porta;
+    private Socket socket;
+    private OutputStream saida;
+
+    /**
+     * @param host Endereço do receptor (ex.: "localhost")
+     * @param porta Porta do receptor
+     */
+    public DestinoSocket(String host, int porta) {
+        this.host = host;
+        this.porta = porta;
+    }
+
+    @Override
+    public void publicar(List<Evento> lote) throws IOException {
+        StringBuilder linhas = new StringBuilder(lote.size() * 256);
+        for (Evento evento : lote) {
+            evento.escreverJson(linhas);
+            linhas.append('\n');
+        }
+
+        try {
+            if (socket == null) {
+                conectar();
+            }
+            saida.write(linhas.toString().getBytes(StandardCharsets.UTF_8));
+            saida.flush();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void conectar() throws IOException {
+        Socket novo = new Socket();
+        try {
+            novo.setTcpNoDelay(true);
+            novo.connect(new InetSocketAddress(host, porta), TEMPO_CONEXAO_MS);
+            saida = new BufferedOutputStream(novo.getOutputStream(), 64 * 1024);
+            socket = novo;
+        } catch (IOException e) {
+            novo.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                System.err.println("Erro ao fechar conexão de eventos: " + e.getMessage());
+            }
+            socket = null;
+            saida = null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package eventos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento lido da caixa de saída ({@code evento_saida}) para publicação.
+ *
+ * <p>A entrega é pelo menos uma vez: o mesmo evento pode chegar de novo a um
+ * destino (ex.: depois de uma falha antes de o lote ser marcado como
+ * publicado). O {@link #getId() ID} é único e crescente na ordem de gravação,
+ * e os consumidores devem usá-lo para descartar repetidos.</p>
+ */
+public final class Evento {
+
+    private final long id;
+    private final TipoEvento tipo;
+    private final long agregadoId;
+    private final String dados;
+    private final LocalDateTime criadoEm;
+
+    /**
+     * @param id ID do evento na caixa de saída
+     * @param tipo Tipo do evento
+     * @param agregadoId ID da doação ou triagem
+     * @param dados Objeto JSON com os dados do evento
+     * @param criadoEm Momento da gravação
+     */
+    public Evento(long id, TipoEvento tipo, long agregadoId, String dados, LocalDateTime criadoEm) {
+        this.id = id;
+        this.tipo = tipo;
+        this.agregadoId = agregadoId;
+        this.dados = dados;
+        this.criadoEm = criadoEm;
+    }
+
+    /** @return ID do evento na caixa de saída */
+    public long getId() {
+        return id;
+    }
+
+    /** @return Tipo do evento */
+    public TipoEvento getTipo() {
+        return tipo;
+    }
+
+    /** @return ID da doação ou triagem */
+    public long getAgregadoId() {
+        return agregadoId;
+    }
+
+    /** @return Objeto JSON com os dados do evento */
+    public String getDados() {
+        return dados;
+    }
+
+    /** @return Momento da gravação */
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    /**
+     * Escreve o evento como uma linha JSON (sem a quebra de linha):
+     * {@code {"id":1,"tipo":"doacao.registrada","agregado":"doacao","agregadoId":10,"criadoEm":"...","dados":{...}}}
+     *
+     * @param destino Onde escrever
+     */
+    public void escreverJson(StringBuilder destino) {
+        destino.append("{\"id\":").append(id).append(",\"tipo\":");
+        DadosEvento.escreverTexto(destino, tipo.getCodigo());
+        destino.append(",\"agregado\":");
+        DadosEvento.escreverTexto(destino, tipo.getAgregado());
+        destino.append(",\"agregadoId\":").append(agregadoId).append(",\"criadoEm\":");
+        DadosEvento.escreverTexto(destino, criadoEm.toString());
+        destino.append(",\"dados\":").append(dados).append('}');
+    }
+
+    /**
+     * @return Evento como uma linha JSON
+     */
+    public String paraJson() {
+        StringBuilder json = new StringBuilder(160 + dados.length());
+        escreverJson(json);
+        return json.toString();
+    }
+
+    @Override
+    public String toString() {
+        return paraJson();
+    }
+}
@@ -0,0 +1,332 @@
+package eventos;
+
+import database.DatabaseConnection;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publica os eventos da {@link CaixaSaida} nos destinos, em lotes, em uma
+ * thread de fundo com conexão própria.
+ *
+ * <p>Cada rodada, em uma transação: lê até {@code tamanhoLote} eventos não
+ * publicados ({@code FOR UPDATE SKIP LOCKED}), entrega o lote a todos os
+ * destinos e marca os eventos como publicados. Se um destino falhar, a
+ * transação é desfeita e o lote volta a ser lido na rodada seguinte (entrega
+ * pelo menos uma vez). Com {@code SKIP LOCKED}, várias instâncias podem
+ * retransmitir do mesmo banco sem entregar o mesmo lote ao mesmo tempo; a
+ * ordem por ID só é garantida com um retransmissor.</p>
+ *
+ * <p>Um evento que não pode ser lido (ex.: tipo desconhecido, gravado por
+ * uma versão mais nova do sistema) não bloqueia a fila: sai dos pendentes
+ * com o motivo em {@code falha}, sem ser entregue, e fica na tabela (a
+ * limpeza só remove os publicados). Para reenviá-lo, basta limpar
+ * {@code publicado_em} e {@code falha}.</p>
+ *
+ * <p>Um lote cheio é seguido imediatamente de outro; com a caixa vazia, a
+ * thread espera {@value #INTERVALO_MS} ms ou até um {@link #avisar()} das
+ * gravações deste processo. O atraso fica em milissegundos enquanto a
+ * vazão da caixa de saída couber em lotes de {@value #LOTE_PADRAO}.</p>
+ *
+ * <p>Configuração padrão ({@link #iniciarPadrao()}), por propriedades de
+ * sistema: {@code hemoconnect.eventos.arquivo} (log JSON Lines) e
+ * {@code hemoconnect.eventos.porta} (socket em localhost). O
+ * {@link #getBarramento() barramento} do processo está sempre entre os
+ * destinos.</p>
+ */
+public final class RetransmissorEventos {
+
+    /** Eventos por lote */
+    public static final int LOTE_PADRAO = 500;
+
+    /** Espera máxima com a caixa de saída vazia */
+    public static final long INTERVALO_MS = 100;
+
+    /** Espera máxima depois de falhas seguidas */
+    private static final long ESPERA_MAXIMA_FALHA_MS = 5_000;
+
+    /** Eventos publicados há mais tempo são removidos da caixa de saída */
+    private static final int DIAS_RETENCAO = 7;
+
+    private static final long INTERVALO_LIMPEZA_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String SELECT_PENDENTES =
+        "SELECT id, tipo, agregado_id, dados::text, criado_em FROM evento_saida " +
+        "WHERE publicado_em IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String UPDATE_PUBLICADOS =
+        "UPDATE evento_saida SET publicado_em = clock_timestamp() WHERE id = ANY (?)";
+
+    private static final String UPDATE_FALHA =
+        "UPDATE evento_saida SET publicado_em = clock_timestamp(), falha = ? WHERE id = ?";
+
+    private static final String DELETE_PUBLICADOS =
+        "DELETE FROM evento_saida WHERE publicado_em < clock_timestamp() - make_interval(days => ?) " +
+        "AND falha IS NULL";
+
+    private static final BarramentoEventos BARRAMENTO = new BarramentoEventos();
+
+    /** Retransmissor em execução neste processo (para {@link #avisar()}) */
+    private static volatile RetransmissorEventos ativo;
+
+    private final List<DestinoEventos> destinos;
+    private final int tamanhoLote;
+    private volatile boolean rodando;
+    private Thread thread;
+    private Connection conn;
+
+    /**
+     * @param destinos Destinos dos eventos
+     * @param tamanhoLote Eventos por lote
+     */
+    public RetransmissorEventos(List<DestinoEventos> destinos, int tamanhoLote) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser positivo.");
+        }
+        this.destinos = new ArrayList<>(destinos);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /** @return Barramento de eventos deste processo */
+    public static BarramentoEventos getBarramento() {
+        return BARRAMENTO;
+    }
+
+    /**
+     * Inicia o retransmissor com os destinos das propriedades de sistema
+     * (além do barramento). Não faz nada se já houver um em execução.
+     */
+    public static synchronized void iniciarPadrao() {
+        if (ativo != null) {
+            return;
+        }
+        List<DestinoEventos> destinos = new ArrayList<>();
+        destinos.add(BARRAMENTO);
+
+        String arquivo = System.getProperty("hemoconnect.eventos.arquivo");
+        if (arquivo != null && !arquivo.trim().isEmpty()) {
+            try {
+                destinos.add(new DestinoArquivo(Paths.get(arquivo.trim()), true));
+            } catch (IOException e) {
+                System.err.println("Log de eventos não aberto (" + arquivo + "): " + e.getMessage());
+            }
+        }
+
+        String porta = System.getProperty("hemoconnect.eventos.porta");
+        if (porta != null && !porta.trim().isEmpty()) {
+            try {
+                destinos.add(new DestinoSocket("localhost", Integer.parseInt(porta.trim())));
+            } catch (NumberFormatException e) {
+                System.err.println("Porta de eventos inválida: " + porta);
+            }
+        }
+
+        new RetransmissorEventos(destinos, LOTE_PADRAO).iniciar();
+    }
+
+    /** Para o retransmissor padrão, se houver um em execução */
+    public static synchronized void pararPadrao() {
+        RetransmissorEventos atual = ativo;
+        if (atual != null) {
+            atual.parar();
+        }
+    }
+
+    /**
+     * Acorda o retransmissor deste processo para publicar logo (chamado
+     * depois de gravar eventos).
+     */
+    public static void avisar() {
+        RetransmissorEventos atual = ativo;
+        if (atual != null && atual.thread != null) {
+            LockSupport.unpark(atual.thread);
+        }
+    }
+
+    /**
+     * Inicia a thread de publicação.
+     */
+    public synchronized void iniciar() {
+        if (rodando) {
+            return;
+        }
+        rodando = true;
+        thread = new Thread(this::executar, "hemoconnect-eventos");
+        thread.setDaemon(true);
+        ativo = this;
+        thread.start();
+    }
+
+    /**
+     * Para a thread (terminando o lote em andamento) e fecha os destinos.
+     */
+    public synchronized void parar() {
+        if (!rodando) {
+            return;
+        }
+        rodando = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ativo == this) {
+            ativo = null;
+        }
+        for (DestinoEventos destino : destinos) {
+            try {
+                destino.close();
+            } catch (IOException e) {
+                System.err.println("Erro ao fechar destino de eventos: " + e.getMessage());
+            }
+        }
+    }
+
+    private void executar() {
+        long esperaFalha = 0;
+        long proximaLimpeza = 0;
+        while (rodando) {
+            try {
+                if (System.currentTimeMillis() >= proximaLimpeza) {
+                    removerPublicados();
+                    proximaLimpeza = System.currentTimeMillis() + INTERVALO_LIMPEZA_MS;
+                }
+                int publicados = publicarLote();
+                esperaFalha = 0;
+                if (publicados < tamanhoLote) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(INTERVALO_MS));
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                // Inclusive erros inesperados: a thread continua, senão a caixa de saída para de escoar
+                System.err.println("Erro ao publicar eventos: " + e);
+                fecharConexao();
+                esperaFalha = Math.min(Math.max(esperaFalha * 2, INTERVALO_MS), ESPERA_MAXIMA_FALHA_MS);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(esperaFalha));
+            }
+        }
+        fecharConexao();
+    }
+
+    /**
+     * Publica um lote de eventos pendentes.
+     *
+     * @return Quantidade de eventos publicados
+     * @throws SQLException se houver erro no banco (o lote não é marcado)
+     * @throws IOException se um destino recusar o lote (o lote não é marcado)
+     */
+    private int publicarLote() throws SQLException, IOException {
+        Connection conn = conexao();
+        try {
+            List<Evento> lote = lerPendentes(conn);
+            if (!lote.isEmpty()) {
+                for (DestinoEventos destino : destinos) {
+                    destino.publicar(lote);
+                }
+                marcarPublicados(conn, lote);
+            }
+            conn.commit();
+            return lote.size();
+        } catch (SQLException | IOException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Lê os eventos pendentes; os que não podem ser lidos são marcados com a
+     * falha na mesma transação e ficam fora do lote.
+     */
+    private List<Evento> lerPendentes(Connection conn) throws SQLException {
+        List<Evento> lote = new ArrayList<>(tamanhoLote);
+        List<Long> falhas = new ArrayList<>();
+        List<String> motivos = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_PENDENTES)) {
+            stmt.setInt(1, tamanhoLote);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    try {
+                        lote.add(new Evento(id, TipoEvento.porCodigo(rs.getString(2)), rs.getLong(3),
+                                rs.getString(4), rs.getObject(5, LocalDateTime.class)));
+                    } catch (RuntimeException e) {
+                        falhas.add(id);
+                        motivos.add(String.valueOf(e.getMessage()));
+                    }
+                }
+            }
+        }
+
+        if (!falhas.isEmpty()) {
+            try (PreparedStatement stmt = conn.prepareStatement(UPDATE_FALHA)) {
+                for (int i = 0; i < falhas.size(); i++) {
+                    System.err.println("Evento " + falhas.get(i) + " não publicado: " + motivos.get(i));
+                    stmt.setString(1, motivos.get(i));
+                    stmt.setLong(2, falhas.get(i));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+
+        return lote;
+    }
+
+    private static void marcarPublicados(Connection conn, List<Evento> lote) throws SQLException {
+        Long[] ids = new Long[lote.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = lote.get(i).getId();
+        }
+
+        Array array = conn.createArrayOf("bigint", ids);
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_PUBLICADOS)) {
+            stmt.setArray(1, array);
+            stmt.executeUpdate();
+        } finally {
+            array.free();
+        }
+    }
+
+    private void removerPublicados() throws SQLException {
+        Connection conn = conexao();
+
+        try (PreparedStatement stmt = conn.prepareStatement(DELETE_PUBLICADOS)) {
+            stmt.setInt(1, DIAS_RETENCAO);
+            stmt.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    private Connection conexao() throws SQLException {
+        if (conn == null || conn.isClosed()) {
+            conn = DatabaseConnection.novaConexao();
+            conn.setAutoCommit(false);
+        }
+        return conn;
+    }
+
+    private void fecharConexao() {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Erro ao fechar conexão de eventos: " + e.getMessage());
+            }
+            conn = null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package eventos;
+
+/**
+ * Tipos de evento publicados para os sistemas externos (laboratório,
+ * estoque, aplicativo do doador).
+ */
+public enum TipoEvento {
+
+    /** Doação gravada (dados: data, hora, volume, triagem e doador) */
+    DOACAO_REGISTRADA("doacao.registrada", "doacao"),
+
+    /** Data, hora ou volume de uma doação alterados */
+    DOACAO_ATUALIZADA("doacao.atualizada", "doacao"),
+
+    /** Doação removida (também na remoção em cascata da triagem) */
+    DOACAO_REMOVIDA("doacao.removida", "doacao"),
+
+    /** Triagem gravada, aprovada ou reprovada */
+    TRIAGEM_CRIADA("triagem.criada", "triagem"),
+
+    /** Medidas e status de uma triagem alterados */
+    TRIAGEM_ATUALIZADA("triagem.atualizada", "triagem"),
+
+    /** Triagem removida */
+    TRIAGEM_REMOVIDA("triagem.removida", "triagem");
+
+    private final String codigo;
+    private final String agregado;
+
+    TipoEvento(String codigo, String agregado) {
+        this.codigo = codigo;
+        this.agregado = agregado;
+    }
+
+    /**
+     * @return Código publicado (ex.: "doacao.registrada")
+     */
+    public String getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * @return Tabela do registro a que o evento se refere
+     */
+    public String getAgregado() {
+        return agregado;
+    }
+
+    /**
+     * @param codigo Código gravado na caixa de saída
+     * @return Tipo do código
+     * @throws IllegalArgumentException se o código não for conhecido
+     */
+    public static TipoEvento porCodigo(String codigo) {
+        for (TipoEvento tipo : values()) {
+            if (tipo.codigo.equals(codigo)) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de evento desconhecido: " + codigo);
+    }
+}
@@ -0,0 +1,299 @@
+package exportacao;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Saída em bytes bufferizada sobre um {@link FileChannel}.
+ *
+ * <p>Os bytes são acumulados em buffers de tamanho fixo e gravados diretamente
+ * no canal do arquivo, sem passar por Strings intermediárias. Quando a
+ * compressão gzip está ativa, os buffers cheios são entregues a uma thread
+ * dedicada de compressão através de uma fila limitada; a quantidade de buffers
+ * em circulação é fixa, de modo que o consumo de memória permanece constante
+ * independentemente do número de registros exportados.</p>
+ */
+public final class CanalBufferizado implements Closeable {
+
+    /** Tamanho de cada buffer de escrita */
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    /** Quantidade de buffers em circulação no pipeline de compressão */
+    private static final int BUFFERS_PIPELINE = 4;
+
+    /** Buffer vazio usado para sinalizar o fim do fluxo à thread de compressão */
+    private static final ByteBuffer FIM = ByteBuffer.allocate(0);
+
+    private final FileChannel canal;
+    private ByteBuffer buffer;
+
+    // Pipeline de compressão (nulos quando gzip está desativado)
+    private final BlockingQueue<ByteBuffer> cheios;
+    private final BlockingQueue<ByteBuffer> livres;
+    private final Thread compressor;
+    private volatile IOException erroCompressao;
+
+    private long bytesEscritos;
+    private boolean fechado;
+
+    /**
+     * Abre (ou sobrescreve) o arquivo de destino.
+     * @param destino Caminho do arquivo
+     * @param gzip true para comprimir a saída em uma thread separada
+     * @throws IOException se o arquivo não puder ser aberto
+     */
+    public CanalBufferizado(Path destino, boolean gzip) throws IOException {
+        this.canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        if (gzip) {
+            this.cheios = new ArrayBlockingQueue<>(BUFFERS_PIPELINE);
+            this.livres = new ArrayBlockingQueue<>(BUFFERS_PIPELINE);
+            for (int i = 1; i < BUFFERS_PIPELINE; i++) {
+                livres.add(ByteBuffer.allocateDirect(TAMANHO_BUFFER));
+            }
+            this.compressor = new Thread(this::executarCompressao, "exportacao-gzip");
+            this.compressor.setDaemon(true);
+            this.compressor.start();
+        } else {
+            this.cheios = null;
+            this.livres = null;
+            this.compressor = null;
+        }
+
+        this.buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+    }
+
+    /**
+     * Escreve um único byte.
+     */
+    public void escrever(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            descarregar();
+        }
+        buffer.put((byte) b);
+    }
+
+    /**
+     * Escreve uma sequência de caracteres que se sabe ser ASCII
+     * (nomes de colunas, datas ISO, literais de formatação).
+     */
+    public void escreverAscii(CharSequence texto) throws IOException {
+        for (int i = 0, n = texto.length(); i < n; i++) {
+            escrever(texto.charAt(i));
+        }
+    }
+
+    /**
+     * Escreve um caractere codificado em UTF-8.
+     * Pares substitutos devem ser tratados pelo chamador via {@link #escreverCodePoint(int)}.
+     */
+    public void escreverCaractere(char c) throws IOException {
+        if (c < 0x80) {
+            escrever(c);
+        } else if (c < 0x800) {
+            escrever(0xC0 | (c >> 6));
+            escrever(0x80 | (c & 0x3F));
+        } else {
+            escrever(0xE0 | (c >> 12));
+            escrever(0x80 | ((c >> 6) & 0x3F));
+            escrever(0x80 | (c & 0x3F));
+        }
+    }
+
+    /**
+     * Escreve um code point suplementar (fora do plano multilíngue básico) em UTF-8.
+     */
+    public void escreverCodePoint(int codePoint) throws IOException {
+        if (codePoint < 0x10000) {
+            escreverCaractere((char) codePoint);
+            return;
+        }
+        escrever(0xF0 | (codePoint >> 18));
+        escrever(0x80 | ((codePoint >> 12) & 0x3F));
+        escrever(0x80 | ((codePoint >> 6) & 0x3F));
+        escrever(0x80 | (codePoint & 0x3F));
+    }
+
+    /**
+     * Escreve um número inteiro em decimal sem criar objetos intermediários.
+     */
+    public void escreverLong(long valor) throws IOException {
+        if (valor == Long.MIN_VALUE) {
+            escreverAscii("-9223372036854775808");
+            return;
+        }
+        if (valor < 0) {
+            escrever('-');
+            valor = -valor;
+        }
+        if (valor < 10) {
+            escrever((int) ('0' + valor));
+            return;
+        }
+
+        long divisor = 1;
+        while (valor / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            escrever((int) ('0' + (valor / divisor) % 10));
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Escreve um número decimal com quantidade fixa de casas (arredondamento comercial).
+     * @param valor Valor a ser escrito
+     * @param casas Casas decimais (0 a 6)
+     */
+    public void escreverDecimal(double valor, int casas) throws IOException {
+        long escala = 1;
+        for (int i = 0; i < casas; i++) {
+            escala *= 10;
+        }
+
+        long inteiro = Math.round(Math.abs(valor) * escala);
+        if (valor < 0 && inteiro != 0) {
+            escrever('-');
+        }
+
+        escreverLong(inteiro / escala);
+        if (casas > 0) {
+            escrever('.');
+            long fracao = inteiro % escala;
+            for (long d = escala / 10; d > 0; d /= 10) {
+                escrever((int) ('0' + (fracao / d) % 10));
+            }
+        }
+    }
+
+    /**
+     * @return Total de bytes (não comprimidos) produzidos até o momento
+     */
+    public long getBytesEscritos() {
+        return bytesEscritos + buffer.position();
+    }
+
+    /**
+     * Envia o buffer atual para o disco (ou para a thread de compressão).
+     */
+    private void descarregar() throws IOException {
+        bytesEscritos += buffer.position();
+        buffer.flip();
+
+        if (compressor == null) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+            return;
+        }
+
+        verificarErroCompressao();
+        try {
+            cheios.put(buffer);
+            buffer = livres.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Exportação interrompida", e);
+        }
+        verificarErroCompressao();
+    }
+
+    private void verificarErroCompressao() throws IOException {
+        if (erroCompressao != null) {
+            throw new IOException("Erro na compressão: " + erroCompressao.getMessage(), erroCompressao);
+        }
+    }
+
+    /**
+     * Laço da thread de compressão: consome buffers cheios, comprime e os devolve ao pool.
+     */
+    private void executarCompressao() {
+        byte[] copia = new byte[TAMANHO_BUFFER];
+
+        // O canal é fechado por close(); o gzip só pode liberar os próprios recursos
+        OutputStream saidaCanal = new FilterOutputStream(Channels.newOutputStream(canal)) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saidaCanal, TAMANHO_BUFFER)) {
+            while (true) {
+                ByteBuffer cheio = cheios.take();
+                if (cheio == FIM) {
+                    break;
+                }
+
+                while (cheio.hasRemaining()) {
+                    int n = Math.min(copia.length, cheio.remaining());
+                    cheio.get(copia, 0, n);
+                    gzip.write(copia, 0, n);
+                }
+                cheio.clear();
+                livres.put(cheio);
+            }
+        } catch (IOException e) {
+            erroCompressao = e;
+            livres.clear();
+            livres.offer(ByteBuffer.allocateDirect(TAMANHO_BUFFER));
+        } catch (InterruptedException e) {
+            erroCompressao = new IOException("Thread de compressão interrompida", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Grava os bytes pendentes, encerra a thread de compressão (se houver)
+     * e fecha o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+
+        try {
+            if (buffer.position() > 0) {
+                descarregar();
+            }
+
+            if (compressor != null) {
+                try {
+                    while (compressor.isAlive() && !cheios.offer(FIM, 100, TimeUnit.MILLISECONDS)) {
+                        // aguarda espaço na fila enquanto a compressão estiver ativa
+                    }
+                    compressor.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Exportação interrompida", e);
+                }
+                verificarErroCompressao();
+            }
+
+            canal.force(false);
+        } finally {
+            canal.close();
+        }
+    }
+}
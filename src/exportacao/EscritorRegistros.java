@@ -0,0 +1,241 @@
+package exportacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Escreve registros campo a campo no formato escolhido (CSV ou JSON).
+ *
+ * <p>Os serializadores de cada entidade chamam {@link #iniciarRegistro()},
+ * os métodos {@code campo*} na ordem das colunas e {@link #finalizarRegistro()}.
+ * Toda a formatação (separadores, aspas, escapes) é feita aqui, diretamente
+ * sobre o {@link CanalBufferizado}, sem montar Strings por linha.</p>
+ */
+public final class EscritorRegistros implements Closeable {
+
+    private final CanalBufferizado saida;
+    private final FormatoExportacao formato;
+    private final String[] colunas;
+
+    private long registros;
+    private int campoAtual;
+
+    /**
+     * @param saida Canal de destino
+     * @param formato Formato do arquivo
+     * @param colunas Nomes das colunas (cabeçalho CSV / chaves JSON)
+     * @throws IOException se houver erro ao escrever o cabeçalho
+     */
+    public EscritorRegistros(CanalBufferizado saida, FormatoExportacao formato, String[] colunas) throws IOException {
+        this.saida = saida;
+        this.formato = formato;
+        this.colunas = colunas;
+        escreverInicio();
+    }
+
+    private void escreverInicio() throws IOException {
+        if (formato == FormatoExportacao.CSV) {
+            for (int i = 0; i < colunas.length; i++) {
+                if (i > 0) {
+                    saida.escrever(',');
+                }
+                saida.escreverAscii(colunas[i]);
+            }
+            saida.escrever('\n');
+        } else {
+            saida.escrever('[');
+        }
+    }
+
+    /**
+     * Inicia um novo registro.
+     */
+    public void iniciarRegistro() throws IOException {
+        campoAtual = 0;
+        if (formato == FormatoExportacao.JSON) {
+            saida.escreverAscii(registros == 0 ? "\n{" : ",\n{");
+        }
+    }
+
+    /**
+     * Finaliza o registro corrente.
+     */
+    public void finalizarRegistro() throws IOException {
+        saida.escrever(formato == FormatoExportacao.JSON ? '}' : '\n');
+        registros++;
+    }
+
+    /**
+     * Escreve um campo inteiro.
+     */
+    public void campoLong(long valor) throws IOException {
+        prefixoCampo();
+        saida.escreverLong(valor);
+    }
+
+    /**
+     * Escreve um campo decimal com a quantidade de casas informada.
+     */
+    public void campoDecimal(double valor, int casas) throws IOException {
+        prefixoCampo();
+        saida.escreverDecimal(valor, casas);
+    }
+
+    /**
+     * Escreve um campo booleano.
+     */
+    public void campoBooleano(boolean valor) throws IOException {
+        prefixoCampo();
+        saida.escreverAscii(valor ? "true" : "false");
+    }
+
+    /**
+     * Escreve um campo de texto livre, aplicando aspas e escapes do formato.
+     * @param valor Texto (null gera campo nulo)
+     */
+    public void campoTexto(String valor) throws IOException {
+        if (valor == null) {
+            campoNulo();
+            return;
+        }
+        prefixoCampo();
+        if (formato == FormatoExportacao.JSON) {
+            escreverTextoJson(valor);
+        } else {
+            escreverTextoCsv(valor);
+        }
+    }
+
+    /**
+     * Escreve um campo cujo conteúdo é sabidamente ASCII e sem caracteres especiais
+     * (datas e horas em formato ISO). Em JSON o valor é colocado entre aspas.
+     * @param valor Texto ASCII (null gera campo nulo)
+     */
+    public void campoIso(String valor) throws IOException {
+        if (valor == null) {
+            campoNulo();
+            return;
+        }
+        prefixoCampo();
+        if (formato == FormatoExportacao.JSON) {
+            saida.escrever('"');
+            saida.escreverAscii(valor);
+            saida.escrever('"');
+        } else {
+            saida.escreverAscii(valor);
+        }
+    }
+
+    /**
+     * Escreve um campo nulo (vazio em CSV, {@code null} em JSON).
+     */
+    public void campoNulo() throws IOException {
+        prefixoCampo();
+        if (formato == FormatoExportacao.JSON) {
+            saida.escreverAscii("null");
+        }
+    }
+
+    /**
+     * @return Quantidade de registros escritos
+     */
+    public long getRegistros() {
+        return registros;
+    }
+
+    private void prefixoCampo() throws IOException {
+        if (formato == FormatoExportacao.JSON) {
+            if (campoAtual > 0) {
+                saida.escrever(',');
+            }
+            saida.escrever('"');
+            saida.escreverAscii(colunas[campoAtual]);
+            saida.escreverAscii("\":");
+        } else if (campoAtual > 0) {
+            saida.escrever(',');
+        }
+        campoAtual++;
+    }
+
+    private void escreverTextoCsv(String valor) throws IOException {
+        boolean precisaAspas = false;
+        for (int i = 0, n = valor.length(); i < n; i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                precisaAspas = true;
+                break;
+            }
+        }
+
+        if (precisaAspas) {
+            saida.escrever('"');
+        }
+        for (int i = 0, n = valor.length(); i < n; i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                saida.escrever('"');
+            }
+            i = escreverChar(valor, i, c);
+        }
+        if (precisaAspas) {
+            saida.escrever('"');
+        }
+    }
+
+    private void escreverTextoJson(String valor) throws IOException {
+        saida.escrever('"');
+        for (int i = 0, n = valor.length(); i < n; i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    saida.escreverAscii("\\\"");
+                    break;
+                case '\\':
+                    saida.escreverAscii("\\\\");
+                    break;
+                case '\n':
+                    saida.escreverAscii("\\n");
+                    break;
+                case '\r':
+                    saida.escreverAscii("\\r");
+                    break;
+                case '\t':
+                    saida.escreverAscii("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        saida.escreverAscii("\\u00");
+                        saida.escrever(Character.forDigit(c >> 4, 16));
+                        saida.escrever(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        i = escreverChar(valor, i, c);
+                    }
+            }
+        }
+        saida.escrever('"');
+    }
+
+    /**
+     * Escreve o caractere na posição i tratando pares substitutos.
+     * @return Índice do último char consumido
+     */
+    private int escreverChar(String valor, int i, char c) throws IOException {
+        if (Character.isHighSurrogate(c) && i + 1 < valor.length()
+                && Character.isLowSurrogate(valor.charAt(i + 1))) {
+            saida.escreverCodePoint(Character.toCodePoint(c, valor.charAt(i + 1)));
+            return i + 1;
+        }
+        saida.escreverCaractere(c);
+        return i;
+    }
+
+    /**
+     * Finaliza o documento (fecha o array JSON) sem fechar o canal.
+     */
+    @Override
+    public void close() throws IOException {
+        if (formato == FormatoExportacao.JSON) {
+            saida.escreverAscii(registros == 0 ? "]\n" : "\n]\n");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package exportacao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Controller - Classe ExportacaoController
+ * Coordena a exportação mensal de doações, doadores e triagens para arquivos
+ * CSV ou JSON (opcionalmente comprimidos com gzip).
+ */
+public class ExportacaoController {
+
+    /**
+     * Obtém o serializador de uma entidade exportável.
+     * @param opcao 1 = doações, 2 = doadores, 3 = triagens
+     * @return Serializador correspondente ou null se a opção for inválida
+     */
+    public static SerializadorExportacao obterSerializador(int opcao) {
+        switch (opcao) {
+            case 1:
+                return new SerializadorDoacao();
+            case 2:
+                return new SerializadorDoador();
+            case 3:
+                return new SerializadorTriagem();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Exporta uma entidade para o arquivo informado.
+     * @param serializador Serializador da entidade
+     * @param formato Formato do arquivo
+     * @param destino Caminho do arquivo de saída
+     * @param gzip true para comprimir a saída
+     * @return Quantidade de registros exportados ou -1 em caso de erro
+     */
+    public static long exportar(SerializadorExportacao serializador, FormatoExportacao formato, Path destino, boolean gzip) {
+        try (CanalBufferizado canal = new CanalBufferizado(destino, gzip);
+             EscritorRegistros escritor = new EscritorRegistros(canal, formato, serializador.getColunas())) {
+
+            return ExportacaoDAO.exportar(serializador, escritor);
+
+        } catch (SQLException e) {
+            System.err.println("Erro ao consultar dados para exportação: " + e.getMessage());
+            return -1;
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar arquivo de exportação: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Monta o caminho padrão do arquivo: {@code <diretorio>/<entidade>_<data><extensao>[.gz]}.
+     */
+    public static Path montarDestino(String diretorio, SerializadorExportacao serializador, FormatoExportacao formato, boolean gzip) {
+        String arquivo = serializador.getNome() + "_" + LocalDate.now() + formato.getExtensao() + (gzip ? ".gz" : "");
+        return Paths.get(diretorio, arquivo);
+    }
+
+    /**
+     * Conduz a exportação através de interação com o usuário.
+     */
+    public static void exportarInterativo() {
+        SerializadorExportacao serializador = obterSerializador(ExportacaoView.solicitarEntidade());
+        if (serializador == null) {
+            ExportacaoView.exibirMensagemErro("Entidade inválida.");
+            return;
+        }
+
+        FormatoExportacao formato = ExportacaoView.solicitarFormato();
+        if (formato == null) {
+            ExportacaoView.exibirMensagemErro("Formato inválido.");
+            return;
+        }
+
+        boolean gzip = ExportacaoView.solicitarCompressao();
+        String diretorio = ExportacaoView.solicitarDiretorio();
+
+        try {
+            Files.createDirectories(Paths.get(diretorio));
+        } catch (IOException e) {
+            ExportacaoView.exibirMensagemErro("Não foi possível criar o diretório " + diretorio + ": " + e.getMessage());
+            return;
+        }
+
+        Path destino = montarDestino(diretorio, serializador, formato, gzip);
+        long inicio = System.nanoTime();
+        long registros = exportar(serializador, formato, destino, gzip);
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        if (registros >= 0) {
+            ExportacaoView.exibirMensagemSucesso(destino, registros, duracaoMs);
+        } else {
+            ExportacaoView.exibirMensagemErro("Falha ao exportar " + serializador.getNome());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package exportacao;
+
+import database.DatabaseConnection;
+import java.io.IOException;
+import java.sql.*;
+
+/**
+ * DAO de exportação: percorre tabelas inteiras através de um cursor no servidor.
+ *
+ * <p>O driver PostgreSQL só busca as linhas em lotes (em vez de carregar o
+ * resultado inteiro na memória) quando a consulta roda dentro de uma transação,
+ * com ResultSet {@code TYPE_FORWARD_ONLY} e fetch size positivo. Cada linha é
+ * entregue ao serializador assim que chega, sem ser acumulada em listas.</p>
+ */
+public class ExportacaoDAO {
+
+    /** Quantidade de linhas trazidas do servidor a cada ida ao banco */
+    private static final int TAMANHO_LOTE_CURSOR = 5000;
+
+    /**
+     * Exporta todas as linhas da consulta do serializador.
+     * @param serializador Serializador da entidade
+     * @param escritor Escritor de destino
+     * @return Quantidade de registros exportados
+     * @throws SQLException se houver erro na consulta
+     * @throws IOException se houver erro de escrita no arquivo
+     */
+    public static long exportar(SerializadorExportacao serializador, EscritorRegistros escritor) throws SQLException, IOException {
+        Connection conn = DatabaseConnection.getConnection();
+        boolean autoCommitOriginal = conn.getAutoCommit();
+
+        try {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(serializador.getConsulta(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(TAMANHO_LOTE_CURSOR);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        serializador.escrever(rs, escritor);
+                    }
+                }
+            }
+
+            conn.commit();
+            return escritor.getRegistros();
+
+        } catch (SQLException | IOException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackEx) {
+                System.err.println("Erro no rollback da exportação: " + rollbackEx.getMessage());
+            }
+            throw e;
+        } finally {
+            try {
+                conn.setAutoCommit(autoCommitOriginal);
+            } catch (SQLException e) {
+                System.err.println("Erro ao restaurar auto-commit: " + e.getMessage());
+            }
+        }
+    }
+}
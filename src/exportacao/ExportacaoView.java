@@ -0,0 +1,87 @@
+package exportacao;
+
+import java.nio.file.Path;
+import java.util.Scanner;
+
+/**
+ * View - Classe ExportacaoView
+ * Interface de linha de comando da exportação de dados
+ */
+public class ExportacaoView {
+
+    private static final Scanner scanner = new Scanner(System.in);
+
+    /** Diretório usado quando o usuário não informa outro */
+    private static final String DIRETORIO_PADRAO = "exportacao";
+
+    /**
+     * Solicita a entidade a ser exportada
+     * @return 1 = doações, 2 = doadores, 3 = triagens, -1 se inválido
+     */
+    public static int solicitarEntidade() {
+        System.out.println("=== EXPORTAR DADOS ===");
+        System.out.println("1. Doações");
+        System.out.println("2. Doadores");
+        System.out.println("3. Triagens");
+        System.out.print("Escolha a entidade: ");
+        try {
+            return Integer.parseInt(scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Solicita o formato do arquivo
+     * @return Formato escolhido ou null se inválido
+     */
+    public static FormatoExportacao solicitarFormato() {
+        System.out.print("Formato (CSV/JSON) [CSV]: ");
+        String entrada = scanner.nextLine().trim();
+        if (entrada.isEmpty()) {
+            return FormatoExportacao.CSV;
+        }
+        try {
+            return FormatoExportacao.valueOf(entrada.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Pergunta se a saída deve ser comprimida
+     */
+    public static boolean solicitarCompressao() {
+        System.out.print("Comprimir com gzip? (s/N): ");
+        return "s".equalsIgnoreCase(scanner.nextLine().trim());
+    }
+
+    /**
+     * Solicita o diretório de destino
+     */
+    public static String solicitarDiretorio() {
+        System.out.print("Diretório de destino [" + DIRETORIO_PADRAO + "]: ");
+        String diretorio = scanner.nextLine().trim();
+        return diretorio.isEmpty() ? DIRETORIO_PADRAO : diretorio;
+    }
+
+    /**
+     * Exibe o resultado de uma exportação concluída
+     */
+    public static void exibirMensagemSucesso(Path destino, long registros, long duracaoMs) {
+        System.out.println("=== EXPORTAÇÃO CONCLUÍDA ===");
+        System.out.println("Arquivo: " + destino.toAbsolutePath());
+        System.out.println("Registros: " + registros);
+        System.out.println("Tempo: " + duracaoMs + " ms");
+        System.out.println("============================");
+    }
+
+    /**
+     * Exibe mensagem de erro
+     */
+    public static void exibirMensagemErro(String mensagem) {
+        System.out.println("=== ERRO ===");
+        System.out.println(mensagem);
+        System.out.println("============");
+    }
+}
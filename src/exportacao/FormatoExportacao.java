@@ -0,0 +1,26 @@
+package exportacao;
+
+/**
+ * Formatos de arquivo suportados pela exportação de dados.
+ */
+public enum FormatoExportacao {
+
+    /** Valores separados por vírgula, com linha de cabeçalho (RFC 4180) */
+    CSV(".csv"),
+
+    /** Array JSON com um objeto por registro */
+    JSON(".json");
+
+    private final String extensao;
+
+    FormatoExportacao(String extensao) {
+        this.extensao = extensao;
+    }
+
+    /**
+     * @return Extensão de arquivo sugerida para o formato (sem ".gz")
+     */
+    public String getExtensao() {
+        return extensao;
+    }
+}
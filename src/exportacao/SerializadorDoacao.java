@@ -0,0 +1,56 @@
+package exportacao;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Serializador de exportação da tabela doacao.
+ */
+public final class SerializadorDoacao implements SerializadorExportacao {
+
+    private static final String CONSULTA =
+        "SELECT id, data, hora, volume, triagem_id, doador_id FROM doacao ORDER BY id";
+
+    private static final String[] COLUNAS =
+        {"id", "data", "hora", "volume", "triagem_id", "doador_id"};
+
+    @Override
+    public String getNome() {
+        return "doacoes";
+    }
+
+    @Override
+    public String getConsulta() {
+        return CONSULTA;
+    }
+
+    @Override
+    public String[] getColunas() {
+        return COLUNAS;
+    }
+
+    @Override
+    public void escrever(ResultSet rs, EscritorRegistros escritor) throws SQLException, IOException {
+        escritor.iniciarRegistro();
+        escritor.campoLong(rs.getLong(1));
+        escritor.campoIso(rs.getString(2));
+        escritor.campoIso(rs.getString(3));
+        escritor.campoDecimal(rs.getDouble(4), 1);
+
+        long triagemId = rs.getLong(5);
+        if (rs.wasNull()) {
+            escritor.campoNulo();
+        } else {
+            escritor.campoLong(triagemId);
+        }
+
+        long doadorId = rs.getLong(6);
+        if (rs.wasNull()) {
+            escritor.campoNulo();
+        } else {
+            escritor.campoLong(doadorId);
+        }
+        escritor.finalizarRegistro();
+    }
+}
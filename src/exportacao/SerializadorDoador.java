@@ -0,0 +1,62 @@
+package exportacao;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Serializador de exportação da tabela doador.
+ */
+public final class SerializadorDoador implements SerializadorExportacao {
+
+    private static final String CONSULTA =
+        "SELECT id, nome, cpf, sexo, tipo_sanguineo, data_nascimento, telefone, bairro, nacionalidade, cidade, ultima_doacao, id_hospital FROM doador ORDER BY id";
+
+    private static final String[] COLUNAS =
+        {"id", "nome", "cpf", "sexo", "tipo_sanguineo", "data_nascimento", "telefone",
+         "bairro", "nacionalidade", "cidade", "ultima_doacao", "id_hospital"};
+
+    @Override
+    public String getNome() {
+        return "doadores";
+    }
+
+    @Override
+    public String getConsulta() {
+        return CONSULTA;
+    }
+
+    @Override
+    public String[] getColunas() {
+        return COLUNAS;
+    }
+
+    @Override
+    public void escrever(ResultSet rs, EscritorRegistros escritor) throws SQLException, IOException {
+        escritor.iniciarRegistro();
+        escritor.campoLong(rs.getLong(1));
+        escritor.campoTexto(rs.getString(2));
+        campoLongAnulavel(rs, 3, escritor);
+        escritor.campoTexto(rs.getString(4));
+        escritor.campoTexto(rs.getString(5));
+        escritor.campoIso(rs.getString(6));
+        campoLongAnulavel(rs, 7, escritor);
+        escritor.campoTexto(rs.getString(8));
+        escritor.campoTexto(rs.getString(9));
+        escritor.campoTexto(rs.getString(10));
+        escritor.campoIso(rs.getString(11));
+        campoLongAnulavel(rs, 12, escritor);
+        escritor.finalizarRegistro();
+    }
+
+    /** Coluna numérica que pode ser NULL: sem o teste, NULL sairia como 0 */
+    private static void campoLongAnulavel(ResultSet rs, int coluna, EscritorRegistros escritor)
+            throws SQLException, IOException {
+        long valor = rs.getLong(coluna);
+        if (rs.wasNull()) {
+            escritor.campoNulo();
+        } else {
+            escritor.campoLong(valor);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package exportacao;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Contrato dos serializadores de exportação.
+ *
+ * <p>Cada implementação é escrita à mão para uma entidade: conhece a consulta,
+ * a posição de cada coluna no {@link ResultSet} e o tipo de cada campo, de modo
+ * que nenhuma reflexão ou objeto de modelo intermediário é necessário.</p>
+ */
+public interface SerializadorExportacao {
+
+    /**
+     * @return Nome usado no arquivo de saída (ex.: "doacoes")
+     */
+    String getNome();
+
+    /**
+     * @return Consulta SQL cujas colunas seguem a ordem de {@link #getColunas()}
+     */
+    String getConsulta();
+
+    /**
+     * @return Nomes das colunas exportadas
+     */
+    String[] getColunas();
+
+    /**
+     * Escreve a linha corrente do cursor.
+     * @param rs ResultSet posicionado em uma linha
+     * @param escritor Escritor do formato de destino
+     */
+    void escrever(ResultSet rs, EscritorRegistros escritor) throws SQLException, IOException;
+}
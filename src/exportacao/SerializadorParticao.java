@@ -0,0 +1,58 @@
+package exportacao;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Serializador que restringe outro serializador a uma única partição da tabela.
+ *
+ * <p>Usado no arquivamento de períodos encerrados: a consulta original é
+ * mantida, trocando apenas a tabela consultada pela partição, de modo que o
+ * arquivo gerado tem exatamente o mesmo formato da exportação completa.</p>
+ */
+public final class SerializadorParticao implements SerializadorExportacao {
+
+    private final SerializadorExportacao base;
+    private final String particao;
+    private final String consulta;
+
+    /**
+     * @param base Serializador da tabela particionada
+     * @param tabela Nome da tabela particionada (ex.: "doacao")
+     * @param particao Nome da partição a exportar (ex.: "doacao_p2024_01")
+     * @throws IllegalArgumentException se a consulta base não ler da tabela informada
+     */
+    public SerializadorParticao(SerializadorExportacao base, String tabela, String particao) {
+        String original = base.getConsulta();
+        String alvo = " FROM " + tabela + " ";
+
+        if (!original.contains(alvo)) {
+            throw new IllegalArgumentException("Consulta de " + base.getNome() + " não lê da tabela " + tabela);
+        }
+
+        this.base = base;
+        this.particao = particao;
+        this.consulta = original.replace(alvo, " FROM " + particao + " ");
+    }
+
+    @Override
+    public String getNome() {
+        return particao;
+    }
+
+    @Override
+    public String getConsulta() {
+        return consulta;
+    }
+
+    @Override
+    public String[] getColunas() {
+        return base.getColunas();
+    }
+
+    @Override
+    public void escrever(ResultSet rs, EscritorRegistros escritor) throws SQLException, IOException {
+        base.escrever(rs, escritor);
+    }
+}
@@ -0,0 +1,45 @@
+package exportacao;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Serializador de exportação da tabela triagem.
+ */
+public final class SerializadorTriagem implements SerializadorExportacao {
+
+    private static final String CONSULTA =
+        "SELECT id, batimentos_por_minuto, pressao_arterial, temperatura, peso, status, data FROM triagem ORDER BY id";
+
+    private static final String[] COLUNAS =
+        {"id", "batimentos_por_minuto", "pressao_arterial", "temperatura", "peso", "status", "data"};
+
+    @Override
+    public String getNome() {
+        return "triagens";
+    }
+
+    @Override
+    public String getConsulta() {
+        return CONSULTA;
+    }
+
+    @Override
+    public String[] getColunas() {
+        return COLUNAS;
+    }
+
+    @Override
+    public void escrever(ResultSet rs, EscritorRegistros escritor) throws SQLException, IOException {
+        escritor.iniciarRegistro();
+        escritor.campoLong(rs.getLong(1));
+        escritor.campoLong(rs.getInt(2));
+        escritor.campoTexto(rs.getString(3));
+        escritor.campoDecimal(rs.getDouble(4), 1);
+        escritor.campoDecimal(rs.getDouble(5), 2);
+        escritor.campoBooleano(rs.getBoolean(6));
+        escritor.campoIso(rs.getString(7));
+        escritor.finalizarRegistro();
+    }
+}
@@ -0,0 +1,420 @@
+package hospital;
+
+import database.DatabaseConnection;
+import database.InvalidacaoCache;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import util.NormalizadorTexto;
+
+/**
+ * Catálogo dos hospitais em memória, para consultas sem acesso ao banco.
+ *
+ * <p>Os hospitais mudam raramente e são consultados em quase toda tela
+ * (cadastro de doadores e administradores, listagens, buscas). O catálogo
+ * carrega a tabela inteira em um retrato imutável: os hospitais em ordem de
+ * nome, os IDs ordenados para busca binária e índices pelo nome e pela
+ * cidade normalizados ({@link NormalizadorTexto}, mesma regra de
+ * {@code hc_normalizar} no banco). Cada alteração monta um retrato novo e o
+ * publica de uma vez, por uma referência volátil: as leituras não usam trava
+ * e nunca veem um retrato pela metade.</p>
+ *
+ * <p>O retrato é trocado:</p>
+ * <ul>
+ *   <li>nas gravações deste processo ({@link #registrar(Hospital)} e
+ *       {@link #remover(long)}, chamados pelo {@link HospitalController}),
+ *       sem nova leitura do banco;</li>
+ *   <li>nas gravações de outras instâncias, avisadas pela
+ *       {@link InvalidacaoCache}, e a cada {@value #RECARGA_PADRAO_MIN} minutos
+ *       (propriedade {@code hemoconnect.hospitais.recarga}, em minutos), por
+ *       releitura completa em uma thread de fundo ({@link #iniciar()}).</li>
+ * </ul>
+ *
+ * <p>Os hospitais devolvidos são cópias: alterar um deles não altera o
+ * catálogo.</p>
+ */
+public final class CatalogoHospitais {
+
+    /** Intervalo padrão entre releituras completas, em minutos */
+    public static final long RECARGA_PADRAO_MIN = 10;
+
+    private static final Comparator<Hospital> ORDEM_NOME =
+        Comparator.comparing((Hospital h) -> NormalizadorTexto.normalizar(h.getNome()))
+                  .thenComparing(Hospital::getNome)
+                  .thenComparing(Hospital::getId);
+
+    private static volatile CatalogoHospitais atual;
+
+    /** Trocas feitas por este processo (gravações e descartes), sob a trava da classe */
+    private static long geracao;
+
+    private static volatile boolean rodando;
+    private static volatile boolean recargaPendente;
+    private static Thread thread;
+
+    private final Hospital[] hospitais;     // ordem de nome
+    private final String[] nomesBusca;      // normalizados, mesma ordem
+    private final long[] ids;               // ordenados
+    private final int[] posicaoPorId;       // posição em hospitais de cada ids[i]
+    private final Map<String, int[]> porNome;
+    private final Map<String, int[]> porCidade;
+
+    static {
+        InvalidacaoCache.registrar("hospital", new InvalidacaoCache.Ouvinte() {
+            @Override
+            public void invalidar(long id) {
+                agendarRecarga();
+            }
+
+            @Override
+            public void invalidarTudo() {
+                agendarRecarga();
+            }
+        });
+    }
+
+    private CatalogoHospitais(List<Hospital> lista) {
+        List<Hospital> ordenados = new ArrayList<>(lista);
+        ordenados.sort(ORDEM_NOME);
+
+        int n = ordenados.size();
+        hospitais = ordenados.toArray(new Hospital[0]);
+        nomesBusca = new String[n];
+        ids = new long[n];
+        posicaoPorId = new int[n];
+
+        Map<String, List<Integer>> nomes = new HashMap<>();
+        Map<String, List<Integer>> cidades = new HashMap<>();
+        long[][] pares = new long[n][];
+        for (int i = 0; i < n; i++) {
+            Hospital hospital = hospitais[i];
+            nomesBusca[i] = NormalizadorTexto.normalizar(hospital.getNome());
+            nomes.computeIfAbsent(nomesBusca[i], k -> new ArrayList<>()).add(i);
+            String cidade = NormalizadorTexto.normalizar(hospital.getCidade());
+            if (cidade != null) {
+                cidades.computeIfAbsent(cidade, k -> new ArrayList<>()).add(i);
+            }
+            pares[i] = new long[] {hospital.getId(), i};
+        }
+
+        Arrays.sort(pares, Comparator.comparingLong(par -> par[0]));
+        for (int i = 0; i < n; i++) {
+            ids[i] = pares[i][0];
+            posicaoPorId[i] = (int) pares[i][1];
+        }
+
+        porNome = paraArrays(nomes);
+        porCidade = paraArrays(cidades);
+    }
+
+    /**
+     * Retorna o retrato atual do catálogo, lendo a tabela se ainda não tiver
+     * sido carregada.
+     *
+     * @return Catálogo pronto para consulta
+     * @throws SQLException se houver erro na leitura dos hospitais
+     */
+    public static CatalogoHospitais obter() throws SQLException {
+        CatalogoHospitais catalogo = atual;
+        if (catalogo != null) {
+            return catalogo;
+        }
+        synchronized (CatalogoHospitais.class) {
+            if (atual == null) {
+                atual = new CatalogoHospitais(HospitalDAO.buscarTodos());
+            }
+            return atual;
+        }
+    }
+
+    /**
+     * Carrega o catálogo e inicia a thread de releitura (não faz nada se já
+     * estiver em execução). Falhas na carga são apenas registradas: o
+     * catálogo é lido na primeira consulta.
+     */
+    public static synchronized void iniciar() {
+        if (rodando) {
+            return;
+        }
+        try {
+            obter();
+        } catch (SQLException e) {
+            System.err.println("Erro ao carregar hospitais: " + e.getMessage());
+        }
+        rodando = true;
+        thread = new Thread(CatalogoHospitais::executar, "hemoconnect-hospitais");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Para a thread de releitura */
+    public static synchronized void parar() {
+        if (!rodando) {
+            return;
+        }
+        rodando = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Inclui ou substitui um hospital gravado por este processo.
+     * @param hospital Hospital com ID
+     */
+    public static synchronized void registrar(Hospital hospital) {
+        geracao++;
+        if (atual == null || hospital == null || hospital.getId() == null) {
+            return;
+        }
+        List<Hospital> lista = atual.copiaSem(hospital.getId());
+        lista.add(copia(hospital));
+        atual = new CatalogoHospitais(lista);
+    }
+
+    /**
+     * Retira um hospital removido por este processo.
+     * @param id ID do hospital
+     */
+    public static synchronized void remover(long id) {
+        geracao++;
+        if (atual == null || atual.posicao(id) < 0) {
+            return;
+        }
+        atual = new CatalogoHospitais(atual.copiaSem(id));
+    }
+
+    /**
+     * Relê a tabela, em conexão própria, e publica o retrato novo.
+     * @throws SQLException se houver erro na leitura (o retrato atual é mantido)
+     */
+    public static void recarregar() throws SQLException {
+        try (Connection conn = DatabaseConnection.novaConexao()) {
+            while (true) {
+                long inicio;
+                synchronized (CatalogoHospitais.class) {
+                    inicio = geracao;
+                }
+                // Leitura fora da trava: consultas e gravações locais não esperam o banco
+                CatalogoHospitais novo = new CatalogoHospitais(HospitalDAO.buscarTodos(conn));
+                synchronized (CatalogoHospitais.class) {
+                    // Uma gravação local no meio da leitura pode não estar nela: lê de novo
+                    if (inicio == geracao) {
+                        atual = novo;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Pede uma releitura à thread de fundo ou, se ela não estiver em
+     * execução, descarta o retrato (relido na próxima consulta).
+     */
+    static void agendarRecarga() {
+        if (rodando) {
+            recargaPendente = true;
+            LockSupport.unpark(thread);
+        } else {
+            synchronized (CatalogoHospitais.class) {
+                atual = null;
+                geracao++;
+            }
+        }
+    }
+
+    private static void executar() {
+        long intervalo = TimeUnit.MINUTES.toNanos(intervaloRecarga());
+        long proxima = System.nanoTime() + intervalo;
+        while (rodando) {
+            LockSupport.parkNanos(Math.max(0, proxima - System.nanoTime()));
+            if (!rodando) {
+                break;
+            }
+            if (!recargaPendente && System.nanoTime() - proxima < 0) {
+                continue;
+            }
+            recargaPendente = false;
+            try {
+                recarregar();
+            } catch (SQLException e) {
+                System.err.println("Erro ao recarregar hospitais: " + e.getMessage());
+            }
+            proxima = System.nanoTime() + intervalo;
+        }
+    }
+
+    private static long intervaloRecarga() {
+        String valor = System.getProperty("hemoconnect.hospitais.recarga");
+        if (valor != null && !valor.trim().isEmpty()) {
+            try {
+                long minutos = Long.parseLong(valor.trim());
+                if (minutos > 0) {
+                    return minutos;
+                }
+            } catch (NumberFormatException e) {
+                // usa o padrão
+            }
+            System.err.println("Intervalo de recarga de hospitais inválido: " + valor);
+        }
+        return RECARGA_PADRAO_MIN;
+    }
+
+    /** @return Quantidade de hospitais */
+    public int tamanho() {
+        return hospitais.length;
+    }
+
+    /** @return Todos os hospitais, em ordem de nome */
+    public List<Hospital> todos() {
+        List<Hospital> lista = new ArrayList<>(hospitais.length);
+        for (Hospital hospital : hospitais) {
+            lista.add(copia(hospital));
+        }
+        return lista;
+    }
+
+    /**
+     * @param id ID do hospital
+     * @return true se o hospital existe
+     */
+    public boolean existe(Long id) {
+        return id != null && posicao(id) >= 0;
+    }
+
+    /**
+     * Busca hospital por ID.
+     * @param id ID do hospital
+     * @return Hospital encontrado ou null se não existir
+     */
+    public Hospital buscarPorId(Long id) {
+        int posicao = id != null ? posicao(id) : -1;
+        return posicao >= 0 ? copia(hospitais[posicao]) : null;
+    }
+
+    /**
+     * Busca hospital por nome, sem distinção de acentos e maiúsculas. O nome
+     * exato tem preferência; sem ele, vale o primeiro, em ordem de nome, que
+     * contém o texto.
+     * @param nome Nome ou parte do nome
+     * @return Hospital encontrado ou null se não existir
+     */
+    public Hospital buscarPorNome(String nome) {
+        String busca = NormalizadorTexto.normalizar(nome);
+        if (busca == null) {
+            return null;
+        }
+        int[] exatos = porNome.get(busca);
+        if (exatos != null) {
+            return copia(hospitais[exatos[0]]);
+        }
+        for (int i = 0; i < nomesBusca.length; i++) {
+            if (nomesBusca[i].contains(busca)) {
+                return copia(hospitais[i]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Busca hospitais por cidade (parte do nome da cidade, sem distinção de
+     * acentos e maiúsculas).
+     * @param cidade Cidade ou parte do nome
+     * @return Hospitais das cidades encontradas, em ordem de nome
+     */
+    public List<Hospital> buscarPorCidade(String cidade) {
+        String busca = NormalizadorTexto.normalizar(cidade);
+        if (busca == null) {
+            return new ArrayList<>();
+        }
+        // Poucas cidades: a busca parcial percorre as chaves, não os hospitais
+        List<int[]> encontrados = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<String, int[]> entrada : porCidade.entrySet()) {
+            if (entrada.getKey().contains(busca)) {
+                encontrados.add(entrada.getValue());
+                total += entrada.getValue().length;
+            }
+        }
+        int[] posicoes = new int[total];
+        int n = 0;
+        for (int[] grupo : encontrados) {
+            System.arraycopy(grupo, 0, posicoes, n, grupo.length);
+            n += grupo.length;
+        }
+        Arrays.sort(posicoes);
+        return copias(posicoes);
+    }
+
+    /**
+     * Verifica se o nome já está em uso (comparação sem distinção de acentos,
+     * maiúsculas e espaços repetidos).
+     * @param nome Nome a verificar
+     * @param excludeId ID a desconsiderar (o próprio hospital, em atualizações)
+     * @return true se outro hospital tem o nome
+     */
+    public boolean nomeExiste(String nome, Long excludeId) {
+        int[] posicoes = porNome.get(NormalizadorTexto.normalizar(nome));
+        if (posicoes == null) {
+            return false;
+        }
+        for (int posicao : posicoes) {
+            if (excludeId == null || hospitais[posicao].getId().longValue() != excludeId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int posicao(long id) {
+        int i = Arrays.binarySearch(ids, id);
+        return i >= 0 ? posicaoPorId[i] : -1;
+    }
+
+    private List<Hospital> copiaSem(long id) {
+        List<Hospital> lista = new ArrayList<>(hospitais.length + 1);
+        for (Hospital hospital : hospitais) {
+            if (hospital.getId() != id) {
+                lista.add(hospital);
+            }
+        }
+        return lista;
+    }
+
+    private List<Hospital> copias(int[] posicoes) {
+        List<Hospital> lista = new ArrayList<>(posicoes.length);
+        for (int posicao : posicoes) {
+            lista.add(copia(hospitais[posicao]));
+        }
+        return lista;
+    }
+
+    private static Hospital copia(Hospital hospital) {
+        return new Hospital(hospital.getId(), hospital.getNome(), hospital.getCep(), hospital.getCidade());
+    }
+
+    private static Map<String, int[]> paraArrays(Map<String, List<Integer>> grupos) {
+        Map<String, int[]> resultado = new HashMap<>(grupos.size() * 2);
+        for (Map.Entry<String, List<Integer>> grupo : grupos.entrySet()) {
+            List<Integer> posicoes = grupo.getValue();
+            int[] array = new int[posicoes.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = posicoes.get(i);
+            }
+            resultado.put(grupo.getKey(), array);
+        }
+        return Collections.unmodifiableMap(resultado);
+    }
+}
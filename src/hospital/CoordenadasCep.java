@@ -0,0 +1,119 @@
+package hospital;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Coordenadas aproximadas (centroides) de faixas de CEP, para calcular a
+ * distância entre um CEP e os hospitais.
+ *
+ * <p>As faixas vêm de um arquivo local, uma por linha:
+ * {@code prefixo;latitude;longitude} (separador {@code ;}, {@code ,} ou
+ * tabulação, decimais com ponto, linhas iniciadas por {@code #} ignoradas).
+ * O prefixo tem de 1 a 8 dígitos: {@code 596} cobre toda a faixa
+ * 59600-000 a 59699-999 e {@code 59600000} um único CEP. Um CEP recebe as
+ * coordenadas do prefixo mais longo que o contém, numa árvore de prefixos
+ * com um nó por dígito (no máximo 8 passos por consulta).</p>
+ */
+public final class CoordenadasCep {
+
+    /** Sem coordenadas (nenhum prefixo carregado) */
+    public static final CoordenadasCep VAZIAS = new CoordenadasCep();
+
+    private static final class No {
+        final No[] filhos = new No[10];
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+    }
+
+    private final No raiz = new No();
+    private int prefixos;
+
+    private CoordenadasCep() {
+    }
+
+    /**
+     * Lê as faixas de um arquivo. Linhas inválidas são registradas e ignoradas.
+     *
+     * @param arquivo Arquivo de faixas (UTF-8)
+     * @return Coordenadas carregadas
+     * @throws IOException se o arquivo não puder ser lido
+     */
+    public static CoordenadasCep carregar(Path arquivo) throws IOException {
+        CoordenadasCep coordenadas = new CoordenadasCep();
+
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            int numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                String[] campos = linha.split("[;,\\t]");
+                try {
+                    if (campos.length != 3) {
+                        throw new IllegalArgumentException("esperados 3 campos");
+                    }
+                    coordenadas.adicionar(campos[0].trim(), Double.parseDouble(campos[1].trim()),
+                            Double.parseDouble(campos[2].trim()));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Faixa de CEP inválida na linha " + numero + " de " + arquivo + ": "
+                            + e.getMessage());
+                }
+            }
+        }
+
+        return coordenadas;
+    }
+
+    /** @return Quantidade de prefixos carregados */
+    public int tamanho() {
+        return prefixos;
+    }
+
+    /**
+     * Coordenadas do prefixo mais longo que contém o CEP.
+     *
+     * @param cep CEP ou prefixo, só dígitos (ver {@link IndiceCep#digitos(String)})
+     * @return {latitude, longitude} em graus, ou null se nenhuma faixa contém o CEP
+     */
+    public double[] localizar(String cep) {
+        No no = raiz;
+        No encontrado = null;
+        for (int i = 0; i < cep.length() && no != null; i++) {
+            no = no.filhos[cep.charAt(i) - '0'];
+            if (no != null && !Double.isNaN(no.latitude)) {
+                encontrado = no;
+            }
+        }
+        return encontrado != null ? new double[] {encontrado.latitude, encontrado.longitude} : null;
+    }
+
+    private void adicionar(String prefixo, double latitude, double longitude) {
+        if (prefixo.isEmpty() || prefixo.length() > IndiceCep.DIGITOS || !prefixo.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("prefixo deve ter de 1 a " + IndiceCep.DIGITOS + " dígitos");
+        }
+        if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new IllegalArgumentException("coordenadas fora da faixa");
+        }
+
+        No no = raiz;
+        for (int i = 0; i < prefixo.length(); i++) {
+            int digito = prefixo.charAt(i) - '0';
+            if (no.filhos[digito] == null) {
+                no.filhos[digito] = new No();
+            }
+            no = no.filhos[digito];
+        }
+        if (Double.isNaN(no.latitude)) {
+            prefixos++;
+        }
+        no.latitude = latitude;
+        no.longitude = longitude;
+    }
+}
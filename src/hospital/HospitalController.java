@@ -1,5 +1,6 @@
 package hospital;
 
+import database.VerificadorDependencias;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
@@ -21,7 +22,7 @@ public class HospitalController {
             }
             
       
-            if (HospitalDAO.nomeExiste(nome, null)) {
+            if (CatalogoHospitais.obter().nomeExiste(nome, null)) {
                 System.err.println("Nome do hospital já existe no sistema");
                 return null;
             }
@@ -34,8 +35,10 @@ public class HospitalController {
                 return null;
             }
             
-         
-            return HospitalDAO.inserir(hospital);
+ 
+            Hospital criado = HospitalDAO.inserir(hospital);
+            CatalogoHospitais.registrar(criado);
+            return criado;
             
         } catch (SQLException e) {
             System.err.println("Erro ao criar hospital: " + e.getMessage());
@@ -65,7 +68,7 @@ public class HospitalController {
      */
     public static List<Hospital> listarTodosHospitais() {
         try {
-            return HospitalDAO.buscarTodos();
+            return CatalogoHospitais.obter().todos();
         } catch (SQLException e) {
             System.err.println("Erro ao listar hospitais: " + e.getMessage());
             return new ArrayList<>();
@@ -74,7 +77,7 @@ public class HospitalController {
     
     public static void exibirTodosHospitais() {
         try {
-            List<Hospital> hospitais = HospitalDAO.buscarTodos();
+            List<Hospital> hospitais = CatalogoHospitais.obter().todos();
             HospitalView.exibirListaHospitais(hospitais);
         } catch (SQLException e) {
             System.err.println("Erro ao buscar hospitais: " + e.getMessage());
@@ -89,7 +92,7 @@ public class HospitalController {
      */
     public static Hospital buscarHospitalPorId(Long id) {
         try {
-            return HospitalDAO.buscarPorId(id);
+            return CatalogoHospitais.obter().buscarPorId(id);
         } catch (SQLException e) {
             System.err.println("Erro ao buscar hospital por ID: " + e.getMessage());
             return null;
@@ -103,7 +106,7 @@ public class HospitalController {
      */
     public static Hospital buscarHospitalPorNome(String nome) {
         try {
-            return HospitalDAO.buscarPorNome(nome);
+            return CatalogoHospitais.obter().buscarPorNome(nome);
         } catch (SQLException e) {
             System.err.println("Erro ao buscar hospital por nome: " + e.getMessage());
             return null;
@@ -117,7 +120,7 @@ public class HospitalController {
      */
     public static List<Hospital> buscarHospitaisPorCidade(String cidade) {
         try {
-            return HospitalDAO.buscarPorCidade(cidade);
+            return CatalogoHospitais.obter().buscarPorCidade(cidade);
         } catch (SQLException e) {
             System.err.println("Erro ao buscar hospitais por cidade: " + e.getMessage());
             return new ArrayList<>();
@@ -130,7 +133,7 @@ public class HospitalController {
      */
     public static void exibirHospitaisPorCidade(String cidade) {
         try {
-            List<Hospital> hospitais = HospitalDAO.buscarPorCidade(cidade);
+            List<Hospital> hospitais = CatalogoHospitais.obter().buscarPorCidade(cidade);
             HospitalView.exibirHospitaisPorCidade(cidade, hospitais);
         } catch (SQLException e) {
             System.err.println("Erro ao buscar hospitais por cidade: " + e.getMessage());
@@ -138,6 +141,85 @@ public class HospitalController {
         }
     }
     
+    /**
+     * Busca os hospitais mais próximos de um CEP, em memória (ver {@link IndiceCep})
+     * @param cep CEP ou faixa de CEP (1 a 8 dígitos)
+     * @param quantidade Quantidade máxima de hospitais
+     * @return Hospitais do mais próximo ao mais distante ou lista vazia se houve erro
+     */
+    public static List<IndiceCep.Proximo> buscarHospitaisProximos(String cep, int quantidade) {
+        try {
+            return IndiceCep.obter().buscarProximos(cep, quantidade);
+        } catch (SQLException | IllegalArgumentException e) {
+            System.err.println("Erro ao buscar hospitais próximos: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Exibe os hospitais mais próximos de um CEP
+     * @param cep CEP ou faixa de CEP
+     * @param quantidade Quantidade máxima de hospitais
+     */
+    public static void exibirHospitaisProximos(String cep, int quantidade) {
+        if (IndiceCep.digitos(cep) == null) {
+            HospitalView.exibirMensagemErro("CEP inválido: " + cep);
+            return;
+        }
+        HospitalView.exibirHospitaisProximos(cep, buscarHospitaisProximos(cep, quantidade));
+    }
+    
+    /**
+     * Obtém os indicadores de um hospital (ver {@link PainelHospitais})
+     * @param idHospital ID do hospital
+     * @return Indicadores ou null se o hospital não existir ou houve erro
+     */
+    public static IndicadoresHospital obterIndicadores(Long idHospital) {
+        if (idHospital == null) {
+            return null;
+        }
+        try {
+            return PainelHospitais.obter(idHospital);
+        } catch (SQLException e) {
+            System.err.println("Erro ao calcular indicadores do hospital: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Lista os indicadores de todos os hospitais
+     * @return Indicadores em ordem de nome do hospital ou lista vazia se houve erro
+     */
+    public static List<IndicadoresHospital> listarIndicadores() {
+        try {
+            return PainelHospitais.obterTodos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao calcular indicadores dos hospitais: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Exibe o painel de indicadores de um hospital ou de todos
+     * @param idHospital ID do hospital, ou null para todos
+     */
+    public static void exibirPainel(Long idHospital) {
+        try {
+            if (idHospital == null) {
+                HospitalView.exibirPainelHospitais(PainelHospitais.obterTodos());
+                return;
+            }
+            IndicadoresHospital indicadores = PainelHospitais.obter(idHospital);
+            if (indicadores != null) {
+                HospitalView.exibirPainelHospital(indicadores);
+            } else {
+                HospitalView.exibirMensagemErro("Hospital não encontrado");
+            }
+        } catch (SQLException e) {
+            HospitalView.exibirMensagemErro("Erro ao calcular indicadores: " + e.getMessage());
+        }
+    }
+    
     /**
      * Atualiza dados de um hospital
      * @param hospital Hospital com dados atualizados
@@ -156,12 +238,16 @@ public class HospitalController {
             }
             
             // Verificar se nome já existe (excluindo o próprio hospital)
-            if (HospitalDAO.nomeExiste(hospital.getNome(), hospital.getId())) {
+            if (CatalogoHospitais.obter().nomeExiste(hospital.getNome(), hospital.getId())) {
                 System.err.println("Nome do hospital já existe no sistema");
                 return false;
             }
             
-            return HospitalDAO.atualizar(hospital);
+            boolean sucesso = HospitalDAO.atualizar(hospital);
+            if (sucesso) {
+                CatalogoHospitais.registrar(hospital);
+            }
+            return sucesso;
             
         } catch (SQLException e) {
             System.err.println("Erro ao atualizar hospital: " + e.getMessage());
@@ -214,24 +300,18 @@ public class HospitalController {
                 return false;
             }
             
-            // Verificar se existem doadores vinculados ao hospital
-            List<doador.Doador> doadoresVinculados = consultarDoadoresVinculadosPorId(id);
-            if (!doadoresVinculados.isEmpty()) {
+            // Verificar se existem doadores ou administradores vinculados ao hospital
+            if (HospitalDAO.DEPENDENCIAS.existe(id)) {
                 System.err.println("Não é possível remover o hospital: existem " + 
-                                 doadoresVinculados.size() + " doador(es) vinculado(s) a este hospital");
+                                 HospitalDAO.DEPENDENCIAS.contar(id).descrever() + " vinculado(s) a este hospital");
                 return false;
             }
             
-            // Verificar se existem administradores vinculados ao hospital
-            List<administrador.Administrador> administradoresVinculados = 
-                administrador.AdministradorController.listarAdministradoresPorHospital(id);
-            if (!administradoresVinculados.isEmpty()) {
-                System.err.println("Não é possível remover o hospital: existem " + 
-                                 administradoresVinculados.size() + " administrador(es) vinculado(s) a este hospital");
-                return false;
+            boolean sucesso = HospitalDAO.remover(id);
+            if (sucesso) {
+                CatalogoHospitais.remover(id);
             }
-            
-            return HospitalDAO.remover(id);
+            return sucesso;
             
         } catch (SQLException e) {
             System.err.println("Erro ao remover hospital: " + e.getMessage());
@@ -248,20 +328,21 @@ public class HospitalController {
             if (hospital != null) {
                 HospitalView.exibirHospital(hospital);
                 
-                // Verificar vínculos antes de solicitar confirmação
-                List<doador.Doador> doadoresVinculados = consultarDoadoresVinculadosPorId(id);
-                List<administrador.Administrador> administradoresVinculados = 
-                    administrador.AdministradorController.listarAdministradoresPorHospital(id);
+                // Verificar vínculos antes de solicitar confirmação (contagens limitadas)
+                VerificadorDependencias.Resultado vinculos;
+                try {
+                    vinculos = HospitalDAO.DEPENDENCIAS.contar(id);
+                } catch (SQLException e) {
+                    System.err.println("Erro ao verificar vínculos do hospital: " + e.getMessage());
+                    HospitalView.exibirMensagemErro("Erro ao verificar vínculos do hospital: " + e.getMessage());
+                    return;
+                }
                 
-                if (!doadoresVinculados.isEmpty() || !administradoresVinculados.isEmpty()) {
+                if (vinculos.existe()) {
                     StringBuilder mensagemVinculos = new StringBuilder("Não é possível remover este hospital pois existem:");
                     
-                    if (!doadoresVinculados.isEmpty()) {
-                        mensagemVinculos.append("\n- ").append(doadoresVinculados.size()).append(" doador(es) vinculado(s)");
-                    }
-                    
-                    if (!administradoresVinculados.isEmpty()) {
-                        mensagemVinculos.append("\n- ").append(administradoresVinculados.size()).append(" administrador(es) vinculado(s)");
+                    for (VerificadorDependencias.Dependencia dependencia : vinculos.getDependencias()) {
+                        mensagemVinculos.append("\n- ").append(dependencia).append(" vinculado(s)");
                     }
                     
                     mensagemVinculos.append("\n\nRemova primeiro os vínculos antes de excluir o hospital.");
@@ -331,7 +412,7 @@ public class HospitalController {
      */
     public static List<doador.Doador> consultarDoadoresVinculadosPorId(Long idHospital) {
         try {
-            Hospital hospital = HospitalDAO.buscarPorId(idHospital);
+            Hospital hospital = CatalogoHospitais.obter().buscarPorId(idHospital);
             if (hospital == null) {
                 System.err.println("Hospital não encontrado");
                 return new ArrayList<>();
@@ -0,0 +1,78 @@
+package hospital;
+
+import database.ExecucaoAssincrona;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versões assíncronas das operações de {@link HospitalController}.
+ *
+ * <p>Cada método executa a operação correspondente em
+ * {@link ExecucaoAssincrona} e devolve um {@link CompletableFuture} com o
+ * mesmo resultado (inclusive null, false ou lista vazia em caso de erro).</p>
+ */
+public final class HospitalControllerAsync {
+
+    // Construtor privado: classe utilitária
+    private HospitalControllerAsync() {}
+
+    /** Assíncrono de {@link HospitalController#criarHospital(String, String, String)} */
+    public static CompletableFuture<Hospital> criarHospital(String nome, String cep, String cidade) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.criarHospital(nome, cep, cidade));
+    }
+
+    /** Assíncrono de {@link HospitalController#listarTodosHospitais()} */
+    public static CompletableFuture<List<Hospital>> listarTodosHospitais() {
+        return ExecucaoAssincrona.executar(() -> HospitalController.listarTodosHospitais());
+    }
+
+    /** Assíncrono de {@link HospitalController#buscarHospitalPorId(Long)} */
+    public static CompletableFuture<Hospital> buscarHospitalPorId(Long id) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.buscarHospitalPorId(id));
+    }
+
+    /** Assíncrono de {@link HospitalController#buscarHospitalPorNome(String)} */
+    public static CompletableFuture<Hospital> buscarHospitalPorNome(String nome) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.buscarHospitalPorNome(nome));
+    }
+
+    /** Assíncrono de {@link HospitalController#buscarHospitaisPorCidade(String)} */
+    public static CompletableFuture<List<Hospital>> buscarHospitaisPorCidade(String cidade) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.buscarHospitaisPorCidade(cidade));
+    }
+
+    /** Assíncrono de {@link HospitalController#buscarHospitaisProximos(String, int)} */
+    public static CompletableFuture<List<IndiceCep.Proximo>> buscarHospitaisProximos(String cep, int quantidade) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.buscarHospitaisProximos(cep, quantidade));
+    }
+
+    /** Assíncrono de {@link HospitalController#obterIndicadores(Long)} */
+    public static CompletableFuture<IndicadoresHospital> obterIndicadores(Long idHospital) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.obterIndicadores(idHospital));
+    }
+
+    /** Assíncrono de {@link HospitalController#listarIndicadores()} */
+    public static CompletableFuture<List<IndicadoresHospital>> listarIndicadores() {
+        return ExecucaoAssincrona.executar(() -> HospitalController.listarIndicadores());
+    }
+
+    /** Assíncrono de {@link HospitalController#atualizarHospital(Hospital)} */
+    public static CompletableFuture<Boolean> atualizarHospital(Hospital hospital) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.atualizarHospital(hospital));
+    }
+
+    /** Assíncrono de {@link HospitalController#removerHospital(Long)} */
+    public static CompletableFuture<Boolean> removerHospital(Long id) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.removerHospital(id));
+    }
+
+    /** Assíncrono de {@link HospitalController#consultarDoadoresVinculados(Hospital)} */
+    public static CompletableFuture<List<doador.Doador>> consultarDoadoresVinculados(Hospital hospital) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.consultarDoadoresVinculados(hospital));
+    }
+
+    /** Assíncrono de {@link HospitalController#consultarDoadoresVinculadosPorId(Long)} */
+    public static CompletableFuture<List<doador.Doador>> consultarDoadoresVinculadosPorId(Long idHospital) {
+        return ExecucaoAssincrona.executar(() -> HospitalController.consultarDoadoresVinculadosPorId(idHospital));
+    }
+}
@@ -1,12 +1,19 @@
 package hospital;
 
 import database.DatabaseConnection;
+import database.VerificadorDependencias;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import util.NormalizadorTexto;
 
 public class HospitalDAO {
     
+    /** Registros que impedem a remoção de um hospital */
+    public static final VerificadorDependencias DEPENDENCIAS = new VerificadorDependencias("hospital")
+        .referencia("doador", "id_hospital", "doador(es)")
+        .referencia("administrador", "id_hospital", "administrador(es)");
+    
     // Queries SQL preparadas
     private static final String INSERT_HOSPITAL = 
         "INSERT INTO hospital (nome, cep, cidade) VALUES (?, ?, ?)";
@@ -18,10 +25,10 @@ public class HospitalDAO {
         "SELECT id, nome, cep, cidade FROM hospital WHERE id = ?";
     
     private static final String SELECT_HOSPITAL_BY_NOME = 
-        "SELECT id, nome, cep, cidade FROM hospital WHERE nome ILIKE ?";
+        "SELECT id, nome, cep, cidade FROM hospital WHERE nome_busca LIKE '%' || hc_normalizar(?) || '%' ORDER BY nome LIMIT 1";
     
     private static final String SELECT_HOSPITAIS_BY_CIDADE = 
-        "SELECT id, nome, cep, cidade FROM hospital WHERE cidade ILIKE ? ORDER BY nome";
+        "SELECT id, nome, cep, cidade FROM hospital WHERE cidade_busca LIKE '%' || hc_normalizar(?) || '%' ORDER BY nome";
     
     private static final String UPDATE_HOSPITAL = 
         "UPDATE hospital SET nome = ?, cep = ?, cidade = ? WHERE id = ?";
@@ -30,7 +37,7 @@ public class HospitalDAO {
         "DELETE FROM hospital WHERE id = ?";
     
     private static final String CHECK_NOME_EXISTS = 
-        "SELECT COUNT(*) FROM hospital WHERE nome ILIKE ? AND id != ?";
+        "SELECT COUNT(*) FROM hospital WHERE nome_busca = hc_normalizar(?) AND id != ?";
 
     /**
      * Insere um novo hospital no banco de dados
@@ -67,14 +74,25 @@ public class HospitalDAO {
      * @throws SQLException se houver erro na consulta
      */
     public static List<Hospital> buscarTodos() throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
+        return buscarTodos(DatabaseConnection.getConnection());
+    }
+    
+    /**
+     * Busca todos os hospitais em uma conexão específica
+     * (ex.: a da releitura do {@link CatalogoHospitais}, em thread de fundo)
+     * @param conn Conexão a usar
+     * @return Lista de todos os hospitais
+     * @throws SQLException se houver erro na consulta
+     */
+    static List<Hospital> buscarTodos(Connection conn) throws SQLException {
         List<Hospital> hospitais = new ArrayList<>();
         
         try (PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_HOSPITAIS);
              ResultSet rs = stmt.executeQuery()) {
             
+            MapeadorHospital mapeador = new MapeadorHospital(rs);
             while (rs.next()) {
-                hospitais.add(mapResultSetToHospital(rs));
+                hospitais.add(mapeador.mapear(rs));
             }
         }
         
@@ -95,7 +113,7 @@ public class HospitalDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToHospital(rs);
+                    return new MapeadorHospital(rs).mapear(rs);
                 }
             }
         }
@@ -104,7 +122,7 @@ public class HospitalDAO {
     }
     
     /**
-     * Busca hospital por nome (busca parcial, case-insensitive)
+     * Busca hospital por nome (busca parcial, sem distinção de acentos e maiúsculas)
      * @param nome Nome do hospital
      * @return Hospital encontrado ou null se não existir
      * @throws SQLException se houver erro na consulta
@@ -113,11 +131,11 @@ public class HospitalDAO {
         Connection conn = DatabaseConnection.getConnection();
         
         try (PreparedStatement stmt = conn.prepareStatement(SELECT_HOSPITAL_BY_NOME)) {
-            stmt.setString(1, "%" + nome + "%");
+            stmt.setString(1, NormalizadorTexto.escaparLike(nome));
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToHospital(rs);
+                    return new MapeadorHospital(rs).mapear(rs);
                 }
             }
         }
@@ -126,7 +144,7 @@ public class HospitalDAO {
     }
     
     /**
-     * Busca hospitais por cidade
+     * Busca hospitais por cidade (busca parcial, sem distinção de acentos e maiúsculas)
      * @param cidade Cidade dos hospitais
      * @return Lista de hospitais da cidade
      * @throws SQLException se houver erro na consulta
@@ -136,11 +154,12 @@ public class HospitalDAO {
         List<Hospital> hospitais = new ArrayList<>();
         
         try (PreparedStatement stmt = conn.prepareStatement(SELECT_HOSPITAIS_BY_CIDADE)) {
-            stmt.setString(1, "%" + cidade + "%");
+            stmt.setString(1, NormalizadorTexto.escaparLike(cidade));
             
             try (ResultSet rs = stmt.executeQuery()) {
+                MapeadorHospital mapeador = new MapeadorHospital(rs);
                 while (rs.next()) {
-                    hospitais.add(mapResultSetToHospital(rs));
+                    hospitais.add(mapeador.mapear(rs));
                 }
             }
         }
@@ -150,6 +169,7 @@ public class HospitalDAO {
     
     /**
      * Verifica se um nome de hospital já existe no banco
+     * (comparação sem distinção de acentos, maiúsculas e espaços repetidos)
      * @param nome Nome a ser verificado
      * @param excludeId ID a ser excluído da verificação (útil para updates)
      * @return true se nome já existe, false caso contrário
@@ -206,19 +226,4 @@ public class HospitalDAO {
             return stmt.executeUpdate() > 0;
         }
     }
-    
-    /**
-     * Mapeia um ResultSet para um objeto Hospital
-     * @param rs ResultSet com dados do hospital
-     * @return Hospital criado a partir do ResultSet
-     * @throws SQLException se houver erro ao ler dados
-     */
-    private static Hospital mapResultSetToHospital(ResultSet rs) throws SQLException {
-        return new Hospital(
-            rs.getLong("id"),
-            rs.getString("nome"),
-            rs.getString("cep"),
-            rs.getString("cidade")
-        );
-    }
 }
\ No newline at end of file
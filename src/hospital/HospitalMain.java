@@ -1,5 +1,7 @@
 package hospital;
 
+import estoque.EstoqueController;
+import estoque.EstoqueView;
 import java.util.List;
 import java.util.Scanner;
 
@@ -7,6 +9,9 @@ public class HospitalMain {
     
     private static final Scanner scanner = new Scanner(System.in);
     
+    /** Hospitais exibidos na busca por proximidade */
+    private static final int HOSPITAIS_PROXIMOS = 5;
+    
     public static void main(String[] args) {
         executarMenuPrincipal();
     }
@@ -37,6 +42,18 @@ public class HospitalMain {
                 case 6:
                     removerHospital();
                     break;
+                case 7:
+                    buscarProximos();
+                    break;
+                case 8:
+                    balancearEstoque();
+                    break;
+                case 9:
+                    painelIndicadores();
+                    break;
+                case 10:
+                    preverEstoque();
+                    break;
                 case 0:
                     System.out.println("Retornando ao Menu Principal...");
                     break;
@@ -130,6 +147,54 @@ public class HospitalMain {
         HospitalController.removerHospitalInterativo();
     }
     
+    private static void buscarProximos() {
+        System.out.println("\n=== BUSCANDO HOSPITAIS PRÓXIMOS ===");
+        
+        String cep = HospitalView.solicitarCepParaBusca();
+        
+        if (cep != null) {
+            HospitalController.exibirHospitaisProximos(cep, HOSPITAIS_PROXIMOS);
+        }
+    }
+    
+    private static void balancearEstoque() {
+        System.out.println("\n=== BALANCEAMENTO DE ESTOQUE ===");
+        
+        String tipo = EstoqueView.solicitarTipoSanguineo();
+        
+        if (tipo != null) {
+            EstoqueController.exibirBalanceamento(tipo.isEmpty() ? null : tipo);
+        }
+    }
+    
+    private static void painelIndicadores() {
+        System.out.println("\n=== PAINEL DE INDICADORES ===");
+        
+        String id = HospitalView.solicitarIdParaPainel();
+        
+        if (id != null) {
+            HospitalController.exibirPainel(id.isEmpty() ? null : Long.valueOf(id));
+        }
+    }
+    
+    private static void preverEstoque() {
+        System.out.println("\n=== PREVISÃO DE ESTOQUE ===");
+        
+        String id = HospitalView.solicitarIdParaPainel();
+        if (id == null) {
+            return;
+        }
+        String tipo = EstoqueView.solicitarTipoSanguineo();
+        if (tipo == null) {
+            return;
+        }
+        int dias = EstoqueView.solicitarDiasPrevisao();
+        
+        if (dias >= 0) {
+            EstoqueController.exibirPrevisao(id.isEmpty() ? null : Long.valueOf(id), tipo.isEmpty() ? null : tipo, dias);
+        }
+    }
+    
     /**
      * Lê uma opção do menu
      * @return Opção escolhida pelo usuário
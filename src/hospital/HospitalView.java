@@ -75,6 +75,110 @@ public class HospitalView {
         System.out.println("========================");
     }
     
+    /**
+     * Exibe os hospitais mais próximos de um CEP, do mais próximo ao mais distante
+     * @param cep CEP procurado
+     * @param proximos Hospitais encontrados
+     */
+    public static void exibirHospitaisProximos(String cep, List<IndiceCep.Proximo> proximos) {
+        System.out.println("=== HOSPITAIS PRÓXIMOS DO CEP " + cep + " ===");
+        
+        if (proximos.isEmpty()) {
+            System.out.println("Nenhum hospital com CEP cadastrado.");
+            return;
+        }
+        
+        System.out.println(String.format("|%-5s | %-30s| %-10s| %-20s| %-10s|", "ID", "Nome", "CEP", "Cidade", "Distância"));
+        System.out.println(String.format("|%s|%s|%s|%s|%s|", 
+            "-".repeat(6), "-".repeat(31), "-".repeat(11), "-".repeat(21), "-".repeat(11)));
+        
+        for (IndiceCep.Proximo proximo : proximos) {
+            Hospital hospital = proximo.getHospital();
+            String distancia = proximo.temDistancia()
+                ? String.format("%.1f km", proximo.getDistanciaKm())
+                : proximo.getPrefixoComum() + " díg.";
+            System.out.println(String.format("|%-5s | %-30s| %-10s| %-20s| %-10s|", 
+                hospital.getId(),
+                hospital.getNome(),
+                hospital.getCep(),
+                hospital.getCidade(),
+                distancia));
+        }
+        
+        System.out.println("(díg. = dígitos iniciais do CEP em comum, sem coordenadas cadastradas)");
+        System.out.println("========================");
+    }
+    
+    /**
+     * Exibe os indicadores de um hospital
+     * @param indicadores Indicadores do hospital
+     */
+    public static void exibirPainelHospital(IndicadoresHospital indicadores) {
+        Hospital hospital = indicadores.getHospital();
+        System.out.println("=== PAINEL DO HOSPITAL " + hospital.getNome() + " (" + indicadores.getMes() + ") ===");
+        System.out.println("Doadores cadastrados: " + indicadores.getDoadores());
+        System.out.println("Doadores aptos hoje: " + indicadores.getDoadoresAptos());
+        System.out.println("Doações no mês: " + indicadores.getDoacoesMes());
+        System.out.println(String.format("Volume no mês: %.2f L", indicadores.getVolumeMes() / 1000));
+        
+        if (indicadores.getDoacoesMes() > 0) {
+            System.out.println(String.format("|%-4s | %-8s| %-11s|", "Tipo", "Doações", "Volume (L)"));
+            System.out.println(String.format("|%s|%s|%s|", "-".repeat(5), "-".repeat(9), "-".repeat(12)));
+            for (String tipo : IndicadoresHospital.TIPOS) {
+                if (indicadores.getDoacoesMes(tipo) > 0) {
+                    System.out.println(String.format("|%-4s | %8d| %11.2f|",
+                        tipo, indicadores.getDoacoesMes(tipo), indicadores.getVolumeMes(tipo) / 1000));
+                }
+            }
+        }
+        
+        exibirAprovacaoTriagens(indicadores);
+        System.out.println("========================");
+    }
+    
+    /**
+     * Exibe os indicadores de todos os hospitais
+     * @param indicadores Indicadores dos hospitais
+     */
+    public static void exibirPainelHospitais(List<IndicadoresHospital> indicadores) {
+        if (indicadores.isEmpty()) {
+            System.out.println("=== PAINEL DE HOSPITAIS ===");
+            System.out.println("Nenhum hospital cadastrado.");
+            return;
+        }
+        
+        System.out.println("=== PAINEL DE HOSPITAIS (" + indicadores.get(0).getMes() + ") ===");
+        System.out.println(String.format("|%-5s | %-30s| %-9s| %-7s| %-12s| %-12s|",
+            "ID", "Nome", "Doadores", "Aptos", "Doações mês", "Volume (L)"));
+        System.out.println(String.format("|%s|%s|%s|%s|%s|%s|",
+            "-".repeat(6), "-".repeat(31), "-".repeat(10), "-".repeat(8), "-".repeat(13), "-".repeat(13)));
+        
+        for (IndicadoresHospital linha : indicadores) {
+            Hospital hospital = linha.getHospital();
+            System.out.println(String.format("|%-5s | %-30s| %9d| %7d| %12d| %12.2f|",
+                hospital.getId(),
+                hospital.getNome(),
+                linha.getDoadores(),
+                linha.getDoadoresAptos(),
+                linha.getDoacoesMes(),
+                linha.getVolumeMes() / 1000));
+        }
+        
+        exibirAprovacaoTriagens(indicadores.get(0));
+        System.out.println("========================");
+    }
+    
+    private static void exibirAprovacaoTriagens(IndicadoresHospital indicadores) {
+        if (indicadores.getTriagensRede() == 0) {
+            System.out.println("Triagens aprovadas no mês (rede): sem triagens");
+        } else {
+            System.out.println(String.format("Triagens aprovadas no mês (rede): %d de %d (%.1f%%)",
+                indicadores.getTriagensAprovadasRede(), indicadores.getTriagensRede(),
+                indicadores.getTaxaAprovacaoRede()));
+        }
+        System.out.println("(calculado às " + indicadores.getCalculadoEm().toLocalTime().withNano(0) + ")");
+    }
+    
     /**
      * Exibe mensagem de hospital criado com sucesso
      * @param hospital Hospital criado
@@ -118,6 +222,20 @@ public class HospitalView {
         System.out.println("============");
     }
     
+    /**
+     * Solicita o hospital do painel de indicadores ou da previsão de estoque
+     * @return ID digitado, "" para todos ou null se inválido
+     */
+    public static String solicitarIdParaPainel() {
+        System.out.print("ID do hospital [todos]: ");
+        String entrada = scanner.nextLine().trim();
+        if (entrada.isEmpty() || entrada.matches("\\d{1,18}")) {
+            return entrada;
+        }
+        exibirMensagemErro("ID inválido. Deve ser um número.");
+        return null;
+    }
+    
     public static Long solicitarIdParaRemocao() {
         System.out.println("=== REMOVER HOSPITAL ===");
         System.out.print("Digite o ID do hospital a ser removido: ");
@@ -176,6 +294,21 @@ public class HospitalView {
         return cidade;
     }
     
+    public static String solicitarCepParaBusca() {
+        System.out.println("=== HOSPITAIS PRÓXIMOS ===");
+        System.out.print("Digite o CEP do doador (ou o início dele): ");
+        String cep = scanner.nextLine();
+        
+        if (cep.trim().isEmpty()) {
+            System.out.println("CEP não pode ser vazio.");
+            System.out.println("==========================");
+            return null;
+        }
+        
+        System.out.println("==========================");
+        return cep.trim();
+    }
+    
     public static String solicitarNomeParaBusca() {
         System.out.println("=== BUSCAR POR NOME ===");
         System.out.print("Digite o nome do hospital: ");
@@ -201,6 +334,10 @@ public class HospitalView {
         System.out.println("║ 4.  Buscar por Nome                 ║");
         System.out.println("║ 5.  Atualizar Hospital              ║");
         System.out.println("║ 6.  Remover Hospital                ║");
+        System.out.println("║ 7.  Hospitais Próximos (CEP)        ║");
+        System.out.println("║ 8.  Balanceamento de Estoque        ║");
+        System.out.println("║ 9.  Painel de Indicadores           ║");
+        System.out.println("║ 10. Previsão de Estoque             ║");
         System.out.println("║ 0.  Voltar ao Menu Principal        ║");
         System.out.println("╚═════════════════════════════════════╝");
         System.out.print("Escolha uma opção: ");
@@ -0,0 +1,126 @@
+package hospital;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Indicadores de um hospital calculados pelo {@link PainelHospitais}.
+ *
+ * <p>As triagens não guardam o doador nem o hospital, então a taxa de
+ * aprovação é a da rede inteira no mês, repetida em todos os hospitais.</p>
+ */
+public final class IndicadoresHospital {
+
+    /** Tipos sanguíneos, na ordem de {@link #getDoacoesMes(String)} e {@link #getVolumeMes(String)} */
+    public static final String[] TIPOS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+
+    private final Hospital hospital;
+    private final YearMonth mes;
+    private final LocalDateTime calculadoEm;
+    private final int doadores;
+    private final int doadoresAptos;
+    private final int[] doacoesPorTipo;
+    private final double[] volumePorTipo;
+    private final int triagensRede;
+    private final int triagensAprovadasRede;
+
+    IndicadoresHospital(Hospital hospital, YearMonth mes, LocalDateTime calculadoEm, int doadores, int doadoresAptos,
+                        int[] doacoesPorTipo, double[] volumePorTipo, int triagensRede, int triagensAprovadasRede) {
+        this.hospital = hospital;
+        this.mes = mes;
+        this.calculadoEm = calculadoEm;
+        this.doadores = doadores;
+        this.doadoresAptos = doadoresAptos;
+        this.doacoesPorTipo = doacoesPorTipo;
+        this.volumePorTipo = volumePorTipo;
+        this.triagensRede = triagensRede;
+        this.triagensAprovadasRede = triagensAprovadasRede;
+    }
+
+    /** @return Hospital (cópia) */
+    public Hospital getHospital() {
+        return new Hospital(hospital.getId(), hospital.getNome(), hospital.getCep(), hospital.getCidade());
+    }
+
+    /** @return Mês das doações e triagens */
+    public YearMonth getMes() {
+        return mes;
+    }
+
+    /** @return Momento do cálculo (os indicadores ficam em cache por alguns segundos) */
+    public LocalDateTime getCalculadoEm() {
+        return calculadoEm;
+    }
+
+    /** @return Doadores cadastrados no hospital */
+    public int getDoadores() {
+        return doadores;
+    }
+
+    /** @return Doadores aptos a doar hoje: 16 a 69 anos e sem doação nos últimos 60 dias */
+    public int getDoadoresAptos() {
+        return doadoresAptos;
+    }
+
+    /** @return Doações do mês de doadores do hospital */
+    public int getDoacoesMes() {
+        int total = 0;
+        for (int doacoes : doacoesPorTipo) {
+            total += doacoes;
+        }
+        return total;
+    }
+
+    /**
+     * @param tipoSanguineo Tipo sanguíneo (ex.: "O-")
+     * @return Doações do mês do tipo (0 se o tipo for inválido)
+     */
+    public int getDoacoesMes(String tipoSanguineo) {
+        int t = tipo(tipoSanguineo);
+        return t >= 0 ? doacoesPorTipo[t] : 0;
+    }
+
+    /** @return Volume coletado no mês, em mL */
+    public double getVolumeMes() {
+        double total = 0;
+        for (double volume : volumePorTipo) {
+            total += volume;
+        }
+        return total;
+    }
+
+    /**
+     * @param tipoSanguineo Tipo sanguíneo (ex.: "O-")
+     * @return Volume coletado no mês do tipo, em mL (0 se o tipo for inválido)
+     */
+    public double getVolumeMes(String tipoSanguineo) {
+        int t = tipo(tipoSanguineo);
+        return t >= 0 ? volumePorTipo[t] : 0;
+    }
+
+    /** @return Triagens do mês na rede */
+    public int getTriagensRede() {
+        return triagensRede;
+    }
+
+    /** @return Triagens aprovadas do mês na rede */
+    public int getTriagensAprovadasRede() {
+        return triagensAprovadasRede;
+    }
+
+    /** @return Percentual de triagens aprovadas no mês na rede (NaN sem triagens) */
+    public double getTaxaAprovacaoRede() {
+        return triagensRede > 0 ? 100.0 * triagensAprovadasRede / triagensRede : Double.NaN;
+    }
+
+    static int tipo(String tipoSanguineo) {
+        if (tipoSanguineo != null) {
+            for (int t = 0; t < TIPOS.length; t++) {
+                if (TIPOS[t].equalsIgnoreCase(tipoSanguineo.trim())) {
+                    return t;
+                }
+            }
+        }
+        return -1;
+    }
+}
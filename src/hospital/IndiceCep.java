@@ -0,0 +1,508 @@
+package hospital;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice dos hospitais pelo CEP, para encaminhar um doador aos hospitais
+ * mais próximos (triagem na chegada, campanhas em lote).
+ *
+ * <p>Os dígitos do CEP são hierárquicos (região, sub-região, setor,
+ * subsetor...): os hospitais ficam ordenados por CEP e numa árvore de
+ * prefixos com um nó por dígito, em que cada nó é o intervalo contíguo dos
+ * hospitais da sua faixa. A consulta desce pelos dígitos do CEP procurado e
+ * sobe a partir da faixa mais específica com hospitais: primeiro os que
+ * compartilham mais dígitos e, no mesmo nível, os de CEP numericamente mais
+ * perto, avançando para os dois lados a partir da faixa de baixo (custo
+ * proporcional à profundidade mais a quantidade pedida).</p>
+ *
+ * <p>Com as coordenadas das faixas de CEP ({@link CoordenadasCep}, arquivo
+ * indicado pela propriedade {@code hemoconnect.cep.coordenadas}), a ordem é
+ * pela distância em linha reta. As coordenadas são por faixa, então os
+ * hospitais ficam agrupados por ponto distinto, guardado como vetor unitário:
+ * a consulta percorre os pontos (bem menos que os hospitais), compara pela
+ * distância da corda (três multiplicações, mesma ordem da distância sobre a
+ * esfera) e só calcula a distância em km dos escolhidos. Hospitais sem
+ * coordenadas entram depois, pela ordem de prefixo. A consulta percorre
+ * arrays primitivos, sem acesso ao banco, e leva microssegundos mesmo com
+ * milhares de hospitais (ver {@code benchmark.BenchmarkIndiceCep}).</p>
+ *
+ * <p>O índice é imutável e acompanha o {@link CatalogoHospitais}: quando o
+ * retrato do catálogo muda, o próximo {@link #obter()} monta um índice novo.</p>
+ */
+public final class IndiceCep {
+
+    /** Dígitos de um CEP */
+    public static final int DIGITOS = 8;
+
+    private static final double RAIO_TERRA_KM = 6371.0;
+
+    private static final int[] POTENCIAS = {10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+
+    /**
+     * Distância presumida entre dois CEPs sem coordenadas, pelos dígitos
+     * iniciais em comum (0 a 8): mesma região, sub-região, setor...
+     */
+    private static final int[] DISTANCIA_POR_PREFIXO_KM = {1500, 600, 250, 80, 30, 10, 5, 2, 0};
+
+    /** Hospital encontrado, com a proximidade em relação ao CEP procurado */
+    public static final class Proximo {
+
+        private final Hospital hospital;
+        private final int prefixoComum;
+        private final double distanciaKm;
+
+        Proximo(Hospital hospital, int prefixoComum, double distanciaKm) {
+            this.hospital = hospital;
+            this.prefixoComum = prefixoComum;
+            this.distanciaKm = distanciaKm;
+        }
+
+        /** @return Hospital (cópia) */
+        public Hospital getHospital() {
+            return hospital;
+        }
+
+        /** @return Dígitos iniciais em comum com o CEP procurado */
+        public int getPrefixoComum() {
+            return prefixoComum;
+        }
+
+        /** @return Distância em linha reta, em km (NaN sem coordenadas) */
+        public double getDistanciaKm() {
+            return distanciaKm;
+        }
+
+        /** @return true se a distância é conhecida */
+        public boolean temDistancia() {
+            return !Double.isNaN(distanciaKm);
+        }
+    }
+
+    /** Faixa de CEP: hospitais[inicio .. fim) */
+    private static final class No {
+        final No[] filhos = new No[10];
+        int inicio;
+        int fim;
+    }
+
+    private static volatile IndiceCep atual;
+    private static CoordenadasCep coordenadasPadrao;
+
+    private final CatalogoHospitais origem;
+    private final Hospital[] hospitais;
+    private final int[] ceps;            // 8 dígitos como número
+    private final double[] x;            // posição no vetor unitário (NaN sem coordenadas)
+    private final double[] y;
+    private final double[] z;
+    private final double[] pontoX;       // pontos distintos (hospitais com as mesmas coordenadas)
+    private final double[] pontoY;
+    private final double[] pontoZ;
+    private final int[] inicioPonto;     // hospitais do ponto p: membrosPonto[inicioPonto[p] .. inicioPonto[p + 1])
+    private final int[] membrosPonto;
+    private final No raiz = new No();
+    private final CoordenadasCep coordenadas;
+
+    private IndiceCep(CatalogoHospitais origem, List<Hospital> lista, CoordenadasCep coordenadas) {
+        this.origem = origem;
+        this.coordenadas = coordenadas;
+
+        List<String[]> validos = new ArrayList<>(lista.size());
+        Map<String, Hospital> porChave = new HashMap<>();
+        for (Hospital hospital : lista) {
+            String cep = digitos(hospital.getCep());
+            if (cep != null && cep.length() == DIGITOS) {
+                String chave = cep + ":" + hospital.getId();
+                validos.add(new String[] {cep, chave});
+                porChave.put(chave, hospital);
+            }
+        }
+        validos.sort((a, b) -> a[0].compareTo(b[0]));
+
+        int n = validos.size();
+        hospitais = new Hospital[n];
+        ceps = new int[n];
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            String cep = validos.get(i)[0];
+            hospitais[i] = porChave.get(validos.get(i)[1]);
+            ceps[i] = Integer.parseInt(cep);
+            double[] posicao = vetor(coordenadas.localizar(cep));
+            x[i] = posicao[0];
+            y[i] = posicao[1];
+            z[i] = posicao[2];
+
+            // Em ordem de CEP, cada faixa recebe hospitais consecutivos
+            No no = raiz;
+            no.fim = i + 1;
+            for (int d = 0; d < DIGITOS; d++) {
+                int digito = cep.charAt(d) - '0';
+                if (no.filhos[digito] == null) {
+                    no.filhos[digito] = new No();
+                    no.filhos[digito].inicio = i;
+                }
+                no = no.filhos[digito];
+                no.fim = i + 1;
+            }
+        }
+
+        // Agrupa os hospitais com coordenadas por ponto
+        Map<String, List<Integer>> porPonto = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(x[i])) {
+                porPonto.computeIfAbsent(x[i] + ";" + y[i] + ";" + z[i], k -> new ArrayList<>()).add(i);
+            }
+        }
+        pontoX = new double[porPonto.size()];
+        pontoY = new double[porPonto.size()];
+        pontoZ = new double[porPonto.size()];
+        inicioPonto = new int[porPonto.size() + 1];
+        List<Integer> membros = new ArrayList<>();
+        int ponto = 0;
+        for (List<Integer> grupo : porPonto.values()) {
+            int primeiro = grupo.get(0);
+            pontoX[ponto] = x[primeiro];
+            pontoY[ponto] = y[primeiro];
+            pontoZ[ponto] = z[primeiro];
+            inicioPonto[ponto] = membros.size();
+            membros.addAll(grupo);
+            ponto++;
+        }
+        inicioPonto[ponto] = membros.size();
+        membrosPonto = new int[membros.size()];
+        for (int m = 0; m < membrosPonto.length; m++) {
+            membrosPonto[m] = membros.get(m);
+        }
+    }
+
+    /**
+     * Retorna o índice do retrato atual do {@link CatalogoHospitais},
+     * montando-o se o catálogo mudou.
+     *
+     * @return Índice pronto para consulta
+     * @throws SQLException se o catálogo ainda não carregado não puder ser lido
+     */
+    public static IndiceCep obter() throws SQLException {
+        CatalogoHospitais catalogo = CatalogoHospitais.obter();
+        IndiceCep indice = atual;
+        if (indice == null || indice.origem != catalogo) {
+            // Montagens concorrentes produzem índices equivalentes; fica o último
+            indice = new IndiceCep(catalogo, catalogo.todos(), coordenadasPadrao());
+            atual = indice;
+        }
+        return indice;
+    }
+
+    /**
+     * Monta um índice avulso (ex.: para simulações de campanha ou medições).
+     *
+     * @param hospitais Hospitais a indexar (os sem CEP válido ficam de fora)
+     * @param coordenadas Coordenadas das faixas de CEP ({@link CoordenadasCep#VAZIAS} para só prefixos)
+     * @return Índice montado
+     */
+    public static IndiceCep construir(List<Hospital> hospitais, CoordenadasCep coordenadas) {
+        return new IndiceCep(null, hospitais, coordenadas);
+    }
+
+    /**
+     * Extrai os dígitos de um CEP ("59600-000", "59600.000" ou "59600000").
+     *
+     * @param cep CEP digitado
+     * @return Dígitos (1 a 8; menos de 8 é uma faixa) ou null se o texto não for um CEP
+     */
+    public static String digitos(String cep) {
+        if (cep == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(DIGITOS);
+        for (int i = 0; i < cep.length(); i++) {
+            char c = cep.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            } else if (c != '-' && c != '.' && !Character.isWhitespace(c)) {
+                return null;
+            }
+        }
+        return sb.length() >= 1 && sb.length() <= DIGITOS ? sb.toString() : null;
+    }
+
+    /** @return Quantidade de hospitais indexados (com CEP válido) */
+    public int tamanho() {
+        return hospitais.length;
+    }
+
+    /**
+     * Distâncias estimadas entre hospitais, para planejar deslocamentos (ex.:
+     * transferências de estoque): em linha reta quando os dois CEPs têm
+     * coordenadas; senão, presumida pelos dígitos iniciais em comum, de 1500 km
+     * (regiões diferentes) a 2 km (mesmo subsetor).
+     *
+     * @param lista Hospitais (indexados ou não)
+     * @return Distâncias em metros: [i][j] entre lista.get(i) e lista.get(j)
+     */
+    public int[][] distanciasMetros(List<Hospital> lista) {
+        int n = lista.size();
+        String[] digitos = new String[n];
+        double[][] posicoes = new double[n][];
+        for (int i = 0; i < n; i++) {
+            digitos[i] = digitos(lista.get(i).getCep());
+            posicoes[i] = vetor(digitos[i] != null ? coordenadas.localizar(digitos[i]) : null);
+        }
+
+        int[][] distancias = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double[] a = posicoes[i];
+                double[] b = posicoes[j];
+                double km;
+                if (!Double.isNaN(a[0]) && !Double.isNaN(b[0])) {
+                    double dx = a[0] - b[0];
+                    double dy = a[1] - b[1];
+                    double dz = a[2] - b[2];
+                    km = 2 * RAIO_TERRA_KM * Math.asin(Math.min(1.0, Math.sqrt(dx * dx + dy * dy + dz * dz) / 2));
+                } else {
+                    km = DISTANCIA_POR_PREFIXO_KM[comum(digitos[i], digitos[j])];
+                }
+                distancias[i][j] = (int) Math.round(km * 1000);
+                distancias[j][i] = distancias[i][j];
+            }
+        }
+        return distancias;
+    }
+
+    /**
+     * Busca os hospitais mais próximos de um CEP.
+     *
+     * @param cep CEP ou faixa (1 a 8 dígitos)
+     * @param quantidade Quantidade máxima de hospitais
+     * @return Hospitais do mais próximo ao mais distante
+     */
+    public List<Proximo> buscarProximos(String cep, int quantidade) {
+        return buscarProximos(cep, quantidade, null);
+    }
+
+    /**
+     * Busca os hospitais mais próximos de um CEP entre os aceitos pelo filtro
+     * (ex.: os que precisam do tipo sanguíneo do doador).
+     *
+     * @param cep CEP ou faixa (1 a 8 dígitos)
+     * @param quantidade Quantidade máxima de hospitais
+     * @param aceitar Filtro pelo ID do hospital (null aceita todos)
+     * @return Hospitais do mais próximo ao mais distante
+     * @throws IllegalArgumentException se o CEP for inválido
+     */
+    public List<Proximo> buscarProximos(String cep, int quantidade, LongPredicate aceitar) {
+        String procurado = digitos(cep);
+        if (procurado == null) {
+            throw new IllegalArgumentException("CEP deve ter de 1 a " + DIGITOS + " dígitos: " + cep);
+        }
+        List<Proximo> resultado = new ArrayList<>(Math.max(0, quantidade));
+        if (quantidade <= 0 || hospitais.length == 0) {
+            return resultado;
+        }
+
+        quantidade = Math.min(quantidade, hospitais.length);
+        int alvo = Integer.parseInt(procurado) * POTENCIAS[procurado.length() - 1];
+
+        int[] escolhidos = {};
+        double[] posicao = vetor(coordenadas.localizar(procurado));
+        if (!Double.isNaN(posicao[0])) {
+            escolhidos = porDistancia(posicao, alvo, procurado.length(), quantidade, aceitar, resultado);
+        }
+        if (resultado.size() < quantidade) {
+            porPrefixo(procurado, posicao, alvo, quantidade, aceitar, escolhidos, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Hospitais com coordenadas, pela distância da corda ao ponto procurado.
+     * @return Posições dos hospitais escolhidos
+     */
+    private int[] porDistancia(double[] p, int alvo, int digitosProcurados, int quantidade, LongPredicate aceitar,
+                               List<Proximo> resultado) {
+        int[] melhores = new int[quantidade];
+        double[] cordas = new double[quantidade];
+        int encontrados = 0;
+
+        for (int ponto = 0; ponto < pontoX.length; ponto++) {
+            double dx = pontoX[ponto] - p[0];
+            double dy = pontoY[ponto] - p[1];
+            double dz = pontoZ[ponto] - p[2];
+            double corda = dx * dx + dy * dy + dz * dz;
+            for (int m = inicioPonto[ponto]; m < inicioPonto[ponto + 1]; m++) {
+                if (encontrados == quantidade && corda >= cordas[encontrados - 1]) {
+                    break;
+                }
+                int i = membrosPonto[m];
+                if (aceitar != null && !aceitar.test(hospitais[i].getId())) {
+                    continue;
+                }
+                encontrados = inserirOrdenado(melhores, cordas, encontrados, i, corda);
+            }
+        }
+
+        for (int j = 0; j < encontrados; j++) {
+            int i = melhores[j];
+            resultado.add(new Proximo(copia(hospitais[i]), prefixoComum(ceps[i], alvo, digitosProcurados),
+                    distanciaKm(i, p)));
+        }
+        return Arrays.copyOf(melhores, encontrados);
+    }
+
+    /**
+     * Hospitais pela faixa de CEP em comum e, no mesmo nível, pela diferença
+     * numérica: em cada nível, os candidatos estão dos dois lados do
+     * intervalo do nível de baixo, em ordem de CEP.
+     */
+    private void porPrefixo(String procurado, double[] p, int alvo, int quantidade, LongPredicate aceitar,
+                            int[] escolhidos, List<Proximo> resultado) {
+        No[] caminho = new No[DIGITOS + 1];
+        caminho[0] = raiz;
+        int profundidade = 0;
+        while (profundidade < procurado.length()) {
+            No filho = caminho[profundidade].filhos[procurado.charAt(profundidade) - '0'];
+            if (filho == null) {
+                break;
+            }
+            caminho[++profundidade] = filho;
+        }
+
+        // Na faixa mais específica, parte da posição do CEP procurado
+        No fundo = caminho[profundidade];
+        int direita = Arrays.binarySearch(ceps, fundo.inicio, fundo.fim, alvo);
+        if (direita < 0) {
+            direita = -direita - 1;
+        } else {
+            while (direita > fundo.inicio && ceps[direita - 1] == alvo) {
+                direita--;
+            }
+        }
+        int esquerda = direita - 1;
+
+        for (int nivel = profundidade; nivel >= 0 && resultado.size() < quantidade; nivel--) {
+            No no = caminho[nivel];
+            if (nivel < profundidade) {
+                esquerda = caminho[nivel + 1].inicio - 1;
+                direita = caminho[nivel + 1].fim;
+            }
+            while (resultado.size() < quantidade && (esquerda >= no.inicio || direita < no.fim)) {
+                int i;
+                if (direita >= no.fim
+                        || (esquerda >= no.inicio && (long) alvo - ceps[esquerda] <= (long) ceps[direita] - alvo)) {
+                    i = esquerda--;
+                } else {
+                    i = direita++;
+                }
+                // Os ponteiros não repetem posições; só os escolhidos por distância ficam de fora
+                if (contem(escolhidos, i) || (aceitar != null && !aceitar.test(hospitais[i].getId()))) {
+                    continue;
+                }
+                resultado.add(new Proximo(copia(hospitais[i]), nivel, distanciaKm(i, p)));
+            }
+        }
+    }
+
+    /**
+     * Insere na lista ordenada de melhores (tamanho máximo = capacidade do
+     * array), descartando o pior se estiver cheia.
+     * @return Nova quantidade na lista
+     */
+    private static int inserirOrdenado(int[] posicoes, double[] chaves, int quantidade, int posicao, double chave) {
+        int capacidade = posicoes.length;
+        int j = quantidade < capacidade ? quantidade : capacidade - 1;
+        while (j > 0 && chaves[j - 1] > chave) {
+            posicoes[j] = posicoes[j - 1];
+            chaves[j] = chaves[j - 1];
+            j--;
+        }
+        posicoes[j] = posicao;
+        chaves[j] = chave;
+        return quantidade < capacidade ? quantidade + 1 : capacidade;
+    }
+
+    /** Distância sobre a esfera a partir da corda; NaN se um dos lados não tem coordenadas */
+    private double distanciaKm(int i, double[] p) {
+        if (Double.isNaN(p[0]) || Double.isNaN(x[i])) {
+            return Double.NaN;
+        }
+        double dx = x[i] - p[0];
+        double dy = y[i] - p[1];
+        double dz = z[i] - p[2];
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1.0, Math.sqrt(dx * dx + dy * dy + dz * dz) / 2));
+    }
+
+    private static boolean contem(int[] posicoes, int posicao) {
+        for (int p : posicoes) {
+            if (p == posicao) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Dígitos iniciais em comum entre dois CEPs (0 se um deles for inválido) */
+    private static int comum(String a, String b) {
+        if (a == null || b == null) {
+            return 0;
+        }
+        int comum = 0;
+        while (comum < a.length() && comum < b.length() && a.charAt(comum) == b.charAt(comum)) {
+            comum++;
+        }
+        return comum;
+    }
+
+    private static int prefixoComum(int cep, int alvo, int digitosProcurados) {
+        int comum = 0;
+        while (comum < digitosProcurados && digito(cep, comum) == digito(alvo, comum)) {
+            comum++;
+        }
+        return comum;
+    }
+
+    private static int digito(int cep, int posicao) {
+        return cep / POTENCIAS[posicao] % 10;
+    }
+
+    /** Latitude e longitude em graus para vetor unitário; NaN se não houver coordenadas */
+    private static double[] vetor(double[] coordenada) {
+        if (coordenada == null) {
+            return new double[] {Double.NaN, Double.NaN, Double.NaN};
+        }
+        double latitude = Math.toRadians(coordenada[0]);
+        double longitude = Math.toRadians(coordenada[1]);
+        double cosLatitude = Math.cos(latitude);
+        return new double[] {cosLatitude * Math.cos(longitude), cosLatitude * Math.sin(longitude), Math.sin(latitude)};
+    }
+
+    private static Hospital copia(Hospital hospital) {
+        return new Hospital(hospital.getId(), hospital.getNome(), hospital.getCep(), hospital.getCidade());
+    }
+
+    /** Coordenadas do arquivo de {@code hemoconnect.cep.coordenadas}, lidas uma vez */
+    private static synchronized CoordenadasCep coordenadasPadrao() {
+        if (coordenadasPadrao == null) {
+            coordenadasPadrao = CoordenadasCep.VAZIAS;
+            String arquivo = System.getProperty("hemoconnect.cep.coordenadas");
+            if (arquivo != null && !arquivo.trim().isEmpty()) {
+                try {
+                    coordenadasPadrao = CoordenadasCep.carregar(Paths.get(arquivo.trim()));
+                } catch (IOException e) {
+                    System.err.println("Coordenadas de CEP não carregadas (" + arquivo + "): " + e.getMessage());
+                }
+            }
+        }
+        return coordenadasPadrao;
+    }
+}
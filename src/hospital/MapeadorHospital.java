@@ -0,0 +1,49 @@
+package hospital;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import util.InternadorTextos;
+
+/**
+ * Mapeador de linhas da tabela {@code hospital} para {@link Hospital}.
+ *
+ * <p>Os índices das colunas são resolvidos uma vez por consulta e cada linha
+ * é lida por posição; a cidade é internada.</p>
+ */
+public final class MapeadorHospital {
+
+    private static final InternadorTextos CIDADES = new InternadorTextos(1024);
+
+    private final int id;
+    private final int nome;
+    private final int cep;
+    private final int cidade;
+
+    /**
+     * Resolve os índices das colunas do ResultSet.
+     * @param rs ResultSet da consulta
+     * @throws SQLException se alguma coluna de hospital não estiver na consulta
+     */
+    public MapeadorHospital(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        nome = rs.findColumn("nome");
+        cep = rs.findColumn("cep");
+        cidade = rs.findColumn("cidade");
+    }
+
+    /**
+     * Lê a linha corrente.
+     * @param rs ResultSet posicionado em uma linha
+     * @return Hospital da linha
+     * @throws SQLException se houver erro ao ler dados
+     */
+    public Hospital mapear(ResultSet rs) throws SQLException {
+        long valorId = rs.getLong(id);
+        return new Hospital(
+            valorId,
+            rs.getString(nome),
+            rs.getString(cep),
+            CIDADES.internar(rs.getString(cidade))
+        );
+    }
+}
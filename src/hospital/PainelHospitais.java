@@ -0,0 +1,231 @@
+package hospital;
+
+import database.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import util.Calendario;
+
+/**
+ * Painel de indicadores por hospital: doadores cadastrados e aptos, doações
+ * e volume do mês por tipo sanguíneo e aprovação das triagens do mês.
+ *
+ * <p>Todos os indicadores vêm de uma única consulta, de um hospital ou de
+ * todos de uma vez: cada parte ({@code doador} agrupado por hospital,
+ * {@code doacao ⋈ doador} do mês agrupado por hospital e tipo, e
+ * {@code triagem} do mês) é uma linha marcada da mesma resposta, somada em
+ * uma passada. Para um hospital, os filtros usam os índices de
+ * {@code doador.id_hospital} e de {@code doacao.data}. O dia de referência
+ * (mês, aptidão pela idade e pela última doação) vem de {@link Calendario},
+ * como na verificação de {@code DoadorController}.</p>
+ *
+ * <p>Os resultados ficam em cache por {@value #VALIDADE_PADRAO_S} segundos
+ * (propriedade {@code hemoconnect.painel.validade}, em segundos). O painel de
+ * todos os hospitais também atende as consultas de um só enquanto for
+ * válido.</p>
+ */
+public final class PainelHospitais {
+
+    /** Idade mínima e máxima para doar e intervalo mínimo entre doações (mesmas regras de DoadorController) */
+    private static final int IDADE_MINIMA = 16;
+    private static final int IDADE_MAXIMA = 69;
+    private static final int INTERVALO_MINIMO_DIAS = 60;
+
+    /** Validade padrão dos indicadores em cache, em segundos */
+    public static final long VALIDADE_PADRAO_S = 30;
+
+    private static final String DOADORES =
+        "SELECT 'D' AS parte, id_hospital, NULL AS tipo, COUNT(*) AS quantidade, " +
+        "COUNT(*) FILTER (WHERE (ultima_doacao IS NULL OR ultima_doacao <= ?) " +
+        "AND data_nascimento > ? AND data_nascimento <= ?) AS outra, NULL AS volume " +
+        "FROM doador %s GROUP BY id_hospital";
+
+    private static final String DOACOES =
+        "SELECT 'V', d.id_hospital, d.tipo_sanguineo, COUNT(*), 0, SUM(dc.volume) " +
+        "FROM doacao dc JOIN doador d ON d.id = dc.doador_id " +
+        "WHERE dc.data >= ? AND dc.data < ? %s GROUP BY d.id_hospital, d.tipo_sanguineo";
+
+    private static final String TRIAGENS =
+        "SELECT 'T', NULL, NULL, COUNT(*), COUNT(*) FILTER (WHERE status), NULL " +
+        "FROM triagem WHERE data >= ? AND data < ?";
+
+    private static final String SELECT_TODOS =
+        String.format(DOADORES, "") + " UNION ALL " + String.format(DOACOES, "") + " UNION ALL " + TRIAGENS;
+
+    private static final String SELECT_HOSPITAL =
+        String.format(DOADORES, "WHERE id_hospital = ?") + " UNION ALL "
+        + String.format(DOACOES, "AND d.id_hospital = ?") + " UNION ALL " + TRIAGENS;
+
+    /** Indicadores calculados e o momento em que deixam de valer */
+    private static final class Entrada<T> {
+        final T valor;
+        final long expiraEm;
+
+        Entrada(T valor, long expiraEm) {
+            this.valor = valor;
+            this.expiraEm = expiraEm;
+        }
+
+        boolean valida() {
+            return System.nanoTime() - expiraEm < 0;
+        }
+    }
+
+    private static final long VALIDADE_NS = TimeUnit.SECONDS.toNanos(validade());
+
+    private static volatile Entrada<Map<Long, IndicadoresHospital>> todos;
+    private static final Map<Long, Entrada<IndicadoresHospital>> porHospital = new ConcurrentHashMap<>();
+
+    // Construtor privado: classe utilitária
+    private PainelHospitais() {}
+
+    /**
+     * Indicadores de um hospital.
+     *
+     * @param idHospital ID do hospital
+     * @return Indicadores, ou null se o hospital não existir
+     * @throws SQLException se houver erro na consulta
+     */
+    public static IndicadoresHospital obter(long idHospital) throws SQLException {
+        Entrada<Map<Long, IndicadoresHospital>> geral = todos;
+        if (geral != null && geral.valida()) {
+            return geral.valor.get(idHospital);
+        }
+        Entrada<IndicadoresHospital> entrada = porHospital.get(idHospital);
+        if (entrada != null && entrada.valida()) {
+            return entrada.valor;
+        }
+
+        Hospital hospital = CatalogoHospitais.obter().buscarPorId(idHospital);
+        if (hospital == null) {
+            porHospital.remove(idHospital);
+            return null;
+        }
+        List<Hospital> lista = new ArrayList<>();
+        lista.add(hospital);
+        IndicadoresHospital indicadores = calcular(lista, true).get(idHospital);
+        porHospital.put(idHospital, new Entrada<>(indicadores, System.nanoTime() + VALIDADE_NS));
+        return indicadores;
+    }
+
+    /**
+     * Indicadores de todos os hospitais.
+     *
+     * @return Indicadores em ordem de nome do hospital
+     * @throws SQLException se houver erro na consulta
+     */
+    public static List<IndicadoresHospital> obterTodos() throws SQLException {
+        Entrada<Map<Long, IndicadoresHospital>> geral = todos;
+        if (geral == null || !geral.valida()) {
+            Map<Long, IndicadoresHospital> calculados = calcular(CatalogoHospitais.obter().todos(), false);
+            geral = new Entrada<>(calculados, System.nanoTime() + VALIDADE_NS);
+            todos = geral;
+            porHospital.clear();
+        }
+        return new ArrayList<>(geral.valor.values());
+    }
+
+    /** Descarta os indicadores em cache (recalculados na próxima consulta) */
+    public static void invalidar() {
+        todos = null;
+        porHospital.clear();
+    }
+
+    /**
+     * Calcula os indicadores em uma consulta.
+     * @param hospitais Hospitais do painel, na ordem do resultado
+     * @param umHospital true para filtrar pelo único hospital da lista
+     */
+    private static Map<Long, IndicadoresHospital> calcular(List<Hospital> hospitais, boolean umHospital)
+            throws SQLException {
+        int hoje = Calendario.hoje();
+        YearMonth mes = YearMonth.from(LocalDate.ofEpochDay(hoje));
+        Date inicio = Date.valueOf(mes.atDay(1));
+        Date fim = Date.valueOf(mes.plusMonths(1).atDay(1));
+
+        Map<Long, int[]> doadores = new HashMap<>();
+        Map<Long, int[]> doacoes = new HashMap<>();
+        Map<Long, double[]> volumes = new HashMap<>();
+        int triagens = 0;
+        int aprovadas = 0;
+
+        Connection conn = DatabaseConnection.getConnection();
+        try (PreparedStatement stmt = conn.prepareStatement(umHospital ? SELECT_HOSPITAL : SELECT_TODOS)) {
+            int p = 1;
+            // Aptos: idade de 16 a 69 anos e 60 dias desde a última doação
+            stmt.setDate(p++, Calendario.paraDate(hoje - INTERVALO_MINIMO_DIAS));
+            stmt.setDate(p++, Calendario.paraDate(Calendario.anosAntes(hoje, IDADE_MAXIMA + 1)));
+            stmt.setDate(p++, Calendario.paraDate(Calendario.anosAntes(hoje, IDADE_MINIMA)));
+            if (umHospital) {
+                stmt.setLong(p++, hospitais.get(0).getId());
+            }
+            stmt.setDate(p++, inicio);
+            stmt.setDate(p++, fim);
+            if (umHospital) {
+                stmt.setLong(p++, hospitais.get(0).getId());
+            }
+            stmt.setDate(p++, inicio);
+            stmt.setDate(p, fim);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String parte = rs.getString(1);
+                    long id = rs.getLong(2);
+                    if ("D".equals(parte)) {
+                        doadores.put(id, new int[] {rs.getInt(4), rs.getInt(5)});
+                    } else if ("V".equals(parte)) {
+                        int t = IndicadoresHospital.tipo(rs.getString(3));
+                        if (t >= 0) {
+                            doacoes.computeIfAbsent(id, k -> new int[IndicadoresHospital.TIPOS.length])[t] = rs.getInt(4);
+                            volumes.computeIfAbsent(id, k -> new double[IndicadoresHospital.TIPOS.length])[t] =
+                                rs.getDouble(6);
+                        }
+                    } else {
+                        triagens = rs.getInt(4);
+                        aprovadas = rs.getInt(5);
+                    }
+                }
+            }
+        }
+
+        LocalDateTime agora = LocalDateTime.now(Calendario.getRelogio());
+        Map<Long, IndicadoresHospital> resultado = new LinkedHashMap<>();
+        for (Hospital hospital : hospitais) {
+            long id = hospital.getId();
+            int[] contagem = doadores.getOrDefault(id, new int[2]);
+            resultado.put(id, new IndicadoresHospital(hospital, mes, agora, contagem[0], contagem[1],
+                doacoes.getOrDefault(id, new int[IndicadoresHospital.TIPOS.length]),
+                volumes.getOrDefault(id, new double[IndicadoresHospital.TIPOS.length]),
+                triagens, aprovadas));
+        }
+        return resultado;
+    }
+
+    private static long validade() {
+        String valor = System.getProperty("hemoconnect.painel.validade");
+        if (valor != null && !valor.trim().isEmpty()) {
+            try {
+                long segundos = Long.parseLong(valor.trim());
+                if (segundos >= 0) {
+                    return segundos;
+                }
+            } catch (NumberFormatException e) {
+                // usa o padrão
+            }
+            System.err.println("Validade do painel de hospitais inválida: " + valor);
+        }
+        return VALIDADE_PADRAO_S;
+    }
+}
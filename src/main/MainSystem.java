@@ -2,10 +2,14 @@ package main;
 
 import administrador.AdministradorMain;
 import administrador.AdministradorController;
+import database.InvalidacaoCache;
 import doador.DoadorMain;
+import estoque.EstoqueSangue;
+import hospital.CatalogoHospitais;
 import hospital.HospitalMain;
 import triagem.TriagemMain;
 import doacao.DoacaoMain;
+import eventos.RetransmissorEventos;
 import java.util.Scanner;
 
 public class MainSystem {
@@ -24,6 +28,15 @@ public class MainSystem {
             return;
         }
         
+        // Publica os eventos de doações e triagens para os sistemas externos
+        RetransmissorEventos.iniciarPadrao();
+        // Caches em memória acompanham as gravações das outras instâncias
+        InvalidacaoCache.iniciar();
+        // Hospitais consultados em memória, relidos em segundo plano
+        CatalogoHospitais.iniciar();
+        // Estoque por hospital e transferências sugeridas, refeitas a cada doação
+        EstoqueSangue.iniciar();
+        
         int opcao;
         
         do {
@@ -38,6 +51,10 @@ public class MainSystem {
             
         } while (opcao != 0);
         
+        RetransmissorEventos.pararPadrao();
+        EstoqueSangue.parar();
+        CatalogoHospitais.parar();
+        InvalidacaoCache.parar();
         exibirDespedida();
     }
     
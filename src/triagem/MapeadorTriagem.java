@@ -0,0 +1,65 @@
+package triagem;
+
+import database.ControleVersao;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import util.InternadorTextos;
+
+/**
+ * Mapeador de linhas da tabela {@code triagem} para {@link Triagem}.
+ *
+ * <p>Os índices das colunas são resolvidos uma vez por consulta e cada linha
+ * é lida por posição. A pressão arterial (ex.: "120/80") se repete muito
+ * entre triagens e é internada. A versão ({@code updated_at}) vai para
+ * {@link Triagem#getVersao()}, para a atualização otimista.</p>
+ */
+public final class MapeadorTriagem {
+
+    private static final InternadorTextos PRESSOES = new InternadorTextos(1024);
+
+    private final int id;
+    private final int batimentos;
+    private final int pressao;
+    private final int temperatura;
+    private final int peso;
+    private final int status;
+    private final int data;
+    private final int versao;
+
+    /**
+     * Resolve os índices das colunas do ResultSet.
+     * @param rs ResultSet da consulta
+     * @throws SQLException se alguma coluna de triagem não estiver na consulta
+     */
+    public MapeadorTriagem(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        batimentos = rs.findColumn("batimentos_por_minuto");
+        pressao = rs.findColumn("pressao_arterial");
+        temperatura = rs.findColumn("temperatura");
+        peso = rs.findColumn("peso");
+        status = rs.findColumn("status");
+        data = rs.findColumn("data");
+        versao = rs.findColumn(ControleVersao.COLUNA);
+    }
+
+    /**
+     * Lê a linha corrente.
+     * @param rs ResultSet posicionado em uma linha
+     * @return Triagem da linha
+     * @throws SQLException se houver erro ao ler dados
+     */
+    public Triagem mapear(ResultSet rs) throws SQLException {
+        long valorId = rs.getLong(id);
+        Triagem triagem = new Triagem(
+            valorId,
+            rs.getInt(batimentos),
+            PRESSOES.internar(rs.getString(pressao)),
+            rs.getDouble(temperatura),
+            rs.getDouble(peso),
+            rs.getBoolean(status),
+            rs.getDate(data)
+        );
+        triagem.setVersao(ControleVersao.ler(rs, versao));
+        return triagem;
+    }
+}
@@ -0,0 +1,50 @@
+package triagem;
+
+import java.time.LocalDate;
+
+/**
+ * Resumo de triagem para as telas de listagem: ID, data (epoch day) e resultado.
+ *
+ * <p>Evita carregar sinais vitais, pressão e datas de auditoria quando a
+ * tela mostra apenas a data e o status de cada triagem.</p>
+ */
+public final class ResumoTriagem {
+
+    private final long id;
+    private final int dataDia;
+    private final boolean aprovada;
+
+    /**
+     * @param id ID da triagem
+     * @param dataDia Data da triagem em epoch day
+     * @param aprovada true se a triagem foi aprovada
+     */
+    public ResumoTriagem(long id, int dataDia, boolean aprovada) {
+        this.id = id;
+        this.dataDia = dataDia;
+        this.aprovada = aprovada;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /** @return Data da triagem em epoch day */
+    public int getDataDia() {
+        return dataDia;
+    }
+
+    /** @return Data da triagem */
+    public LocalDate getData() {
+        return LocalDate.ofEpochDay(dataDia);
+    }
+
+    public boolean isAprovada() {
+        return aprovada;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumoTriagem{id=" + id + ", data=" + getData() + ", aprovada=" + aprovada + "}";
+    }
+}
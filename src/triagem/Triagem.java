@@ -7,6 +7,9 @@ import java.sql.Date;
  * Representa a entidade Triagem com dados e regras de negócio
  */
 public class Triagem {
+    /** Versão de triagem que não veio do banco */
+    public static final long SEM_VERSAO = Long.MIN_VALUE;
+    
     /** ID único da triagem (chave primária no banco de dados) */
     private Long id;
     
@@ -27,6 +30,9 @@ public class Triagem {
     
     /** Data de realização da triagem */
     private Date date;
+    
+    /** Versão do registro lida do banco ({@code updated_at} em microssegundos) */
+    private long versao = SEM_VERSAO;
 
     /**
      * Construtor completo para triagem com ID (para objetos vindos do banco de dados)
@@ -179,6 +185,22 @@ public class Triagem {
     public void setDate(Date date) {
         this.date = date;
     }
+    
+    /**
+     * Obtém a versão do registro, conferida na atualização
+     * @return Versão lida do banco ou {@link #SEM_VERSAO}
+     */
+    public long getVersao() {
+        return versao;
+    }
+    
+    /**
+     * Define a versão do registro
+     * @param versao Versão lida do banco
+     */
+    public void setVersao(long versao) {
+        this.versao = versao;
+    }
 
     /**
      * Verifica se os critérios médicos para triagem são atendidos
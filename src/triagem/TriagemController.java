@@ -1,10 +1,14 @@
 package triagem;
 
+import database.ConflitoAtualizacaoException;
+import estoque.EstoqueSangue;
+import estoque.PrevisaoDoacoes;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Calendar;
+import util.Calendario;
 
 /**
  * Controller - Classe TriagemController
@@ -63,7 +67,7 @@ public class TriagemController {
      */
     public static void exibirTriagensDodia() {
         try {
-            Date hoje = new Date(System.currentTimeMillis());
+            Date hoje = Calendario.dataHoje();
             List<Triagem> triagensHoje = TriagemDAO.buscarPorData(hoje);
             
             TriagemView.exibirTriagensDodia(hoje, triagensHoje);
@@ -111,6 +115,9 @@ public class TriagemController {
             // Atualiza no PostgreSQL
             return TriagemDAO.atualizar(triagem);
             
+        } catch (ConflitoAtualizacaoException e) {
+            System.err.println("Triagem alterada por outro usuário desde a consulta. Consulte novamente e refaça a alteração.");
+            return false;
         } catch (SQLException e) {
             System.err.println("Erro ao atualizar triagem: " + e.getMessage());
             return false;
@@ -130,7 +137,13 @@ public class TriagemController {
                 return false;
             }
             
-            return TriagemDAO.remover(triagem.getId());
+            boolean sucesso = TriagemDAO.remover(triagem.getId());
+            if (sucesso) {
+                // As doações da triagem saem junto: as bolsas delas saem do estoque
+                EstoqueSangue.agendarRecarga();
+                PrevisaoDoacoes.agendarRecarga();
+            }
+            return sucesso;
             
         } catch (SQLException e) {
             System.err.println("Erro ao remover triagem: " + e.getMessage());
@@ -151,6 +164,19 @@ public class TriagemController {
         }
     }
     
+    /**
+     * Obtém o resumo (ID, data e status) de todas as triagens, para listagens e contagens
+     * @return Resumos das triagens ou lista vazia se houve erro
+     */
+    public static List<ResumoTriagem> obterResumosTriagens() {
+        try {
+            return TriagemDAO.buscarResumos();
+        } catch (SQLException e) {
+            System.err.println("Erro ao obter resumos das triagens: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
     /**
      * Busca uma triagem específica por ID
      * @return Triagem encontrada ou null se não existe ou houve erro
@@ -202,7 +228,7 @@ public class TriagemController {
      * Exibe todas as triagens do sistema
      */
     public static void exibirTodasTriagens() {
-        List<Triagem> todasTriagens = obterTodasTriagens();
+        List<ResumoTriagem> todasTriagens = obterResumosTriagens();
         TriagemView.exibirListaTriagens(todasTriagens);
     }
     
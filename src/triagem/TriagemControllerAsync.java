@@ -0,0 +1,58 @@
+package triagem;
+
+import database.ExecucaoAssincrona;
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versões assíncronas das operações de {@link TriagemController}.
+ *
+ * <p>Cada método executa a operação correspondente em
+ * {@link ExecucaoAssincrona} e devolve um {@link CompletableFuture} com o
+ * mesmo resultado (inclusive null, false ou lista vazia em caso de erro).</p>
+ */
+public final class TriagemControllerAsync {
+
+    // Construtor privado: classe utilitária
+    private TriagemControllerAsync() {}
+
+    /** Assíncrono de {@link TriagemController#criarTriagem(int, String, double, double, Date)} */
+    public static CompletableFuture<Triagem> criarTriagem(int batimentosPorMinuto, String pressaoArterial,
+            double temperatura, double peso, Date date) {
+        return ExecucaoAssincrona.executar(() -> TriagemController.criarTriagem(
+                batimentosPorMinuto, pressaoArterial, temperatura, peso, date));
+    }
+
+    /** Assíncrono de {@link TriagemController#listarTriagemDate(Date)} */
+    public static CompletableFuture<List<Triagem>> listarTriagemDate(Date date) {
+        return ExecucaoAssincrona.executar(() -> TriagemController.listarTriagemDate(date));
+    }
+
+    /** Assíncrono de {@link TriagemController#atualizarTriagem(Triagem, int, String, double, double)} */
+    public static CompletableFuture<Boolean> atualizarTriagem(Triagem triagem, int batimentosPorMinuto,
+            String pressaoArterial, double temperatura, double peso) {
+        return ExecucaoAssincrona.executar(() -> TriagemController.atualizarTriagem(
+                triagem, batimentosPorMinuto, pressaoArterial, temperatura, peso));
+    }
+
+    /** Assíncrono de {@link TriagemController#removerTriagem(Triagem)} */
+    public static CompletableFuture<Boolean> removerTriagem(Triagem triagem) {
+        return ExecucaoAssincrona.executar(() -> TriagemController.removerTriagem(triagem));
+    }
+
+    /** Assíncrono de {@link TriagemController#obterTodasTriagens()} */
+    public static CompletableFuture<List<Triagem>> obterTodasTriagens() {
+        return ExecucaoAssincrona.executar(() -> TriagemController.obterTodasTriagens());
+    }
+
+    /** Assíncrono de {@link TriagemController#obterResumosTriagens()} */
+    public static CompletableFuture<List<ResumoTriagem>> obterResumosTriagens() {
+        return ExecucaoAssincrona.executar(() -> TriagemController.obterResumosTriagens());
+    }
+
+    /** Assíncrono de {@link TriagemController#buscarTriagemPorId(Long)} */
+    public static CompletableFuture<Triagem> buscarTriagemPorId(Long id) {
+        return ExecucaoAssincrona.executar(() -> TriagemController.buscarTriagemPorId(id));
+    }
+}
@@ -1,6 +1,14 @@
 package triagem;
 
+import database.ControleVersao;
 import database.DatabaseConnection;
+import database.Transacao;
+import database.UnidadeDeTrabalho;
+import database.VerificadorDependencias;
+import doacao.DoacaoDAO;
+import eventos.CaixaSaida;
+import eventos.DadosEvento;
+import eventos.TipoEvento;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +19,10 @@ import java.util.List;
  */
 public class TriagemDAO {
     
+    /** Registros removidos junto com a triagem (ver {@link #remover(Long)}) */
+    public static final VerificadorDependencias DEPENDENCIAS = new VerificadorDependencias("triagem")
+        .referencia("doacao", "triagem_id", "doação(ões)");
+    
     // Queries SQL preparadas
     private static final String INSERT_TRIAGEM = 
         "INSERT INTO triagem (batimentos_por_minuto, pressao_arterial, temperatura, peso, status, data) VALUES (?, ?, ?, ?, ?, ?)";
@@ -18,48 +30,73 @@ public class TriagemDAO {
     private static final String SELECT_ALL_TRIAGENS = 
         "SELECT id, batimentos_por_minuto, pressao_arterial, temperatura, peso, status, data, created_at, updated_at FROM triagem ORDER BY data DESC, created_at DESC";
     
+    private static final String SELECT_RESUMOS_TRIAGENS = 
+        "SELECT id, data - DATE '1970-01-01', status FROM triagem ORDER BY data DESC, created_at DESC";
+    
     private static final String SELECT_TRIAGEM_BY_ID = 
         "SELECT id, batimentos_por_minuto, pressao_arterial, temperatura, peso, status, data, created_at, updated_at FROM triagem WHERE id = ?";
     
     private static final String SELECT_TRIAGENS_BY_DATE = 
         "SELECT id, batimentos_por_minuto, pressao_arterial, temperatura, peso, status, data, created_at, updated_at FROM triagem WHERE data = ? ORDER BY created_at DESC";
     
+    private static final String SELECT_TRIAGENS_BY_PERIODO = 
+        "SELECT id, batimentos_por_minuto, pressao_arterial, temperatura, peso, status, data, created_at, updated_at FROM triagem WHERE data >= ? AND data <= ? ORDER BY data DESC, created_at DESC";
+    
+    // Atualização otimista: só grava se a versão lida ainda for a do banco
     private static final String UPDATE_TRIAGEM = 
-        "UPDATE triagem SET batimentos_por_minuto = ?, pressao_arterial = ?, temperatura = ?, peso = ?, status = ? WHERE id = ?";
+        "UPDATE triagem SET batimentos_por_minuto = ?, pressao_arterial = ?, temperatura = ?, peso = ?, status = ?, " +
+        "updated_at = " + ControleVersao.NOVA_VERSAO + " WHERE id = ? AND " + ControleVersao.CONDICAO + " RETURNING updated_at";
     
     private static final String DELETE_TRIAGEM = 
         "DELETE FROM triagem WHERE id = ?";
     
     /**
-     * Insere uma nova triagem no banco de dados
+     * Insere uma nova triagem no banco de dados, gravando o evento
+     * {@link TipoEvento#TRIAGEM_CRIADA} na mesma transação
      * @param triagem Triagem a ser inserida
      * @return Triagem com ID gerado pelo banco
      * @throws SQLException se houver erro na inserção
      */
     public static Triagem inserir(Triagem triagem) throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(INSERT_TRIAGEM, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setInt(1, triagem.getBatimentosPorMinuto());
-            stmt.setString(2, triagem.getPressaoArterial());
-            stmt.setDouble(3, triagem.getTemperatura());
-            stmt.setDouble(4, triagem.getPeso());
-            stmt.setBoolean(5, triagem.isStatus());
-            stmt.setDate(6, triagem.getDate());
+        return Transacao.executar(() -> {
+            Connection conn = DatabaseConnection.getConnection();
             
-            int rowsAffected = stmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                // Obter ID gerado
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        triagem.setId(generatedKeys.getLong(1));
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_TRIAGEM, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, triagem.getBatimentosPorMinuto());
+                stmt.setString(2, triagem.getPressaoArterial());
+                stmt.setDouble(3, triagem.getTemperatura());
+                stmt.setDouble(4, triagem.getPeso());
+                stmt.setBoolean(5, triagem.isStatus());
+                stmt.setDate(6, triagem.getDate());
+                
+                int rowsAffected = stmt.executeUpdate();
+                
+                if (rowsAffected > 0) {
+                    // Obter ID gerado
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            long id = generatedKeys.getLong(1);
+                            CaixaSaida.registrar(TipoEvento.TRIAGEM_CRIADA, id, dadosEvento(triagem));
+                            triagem.setId(id);
+                        }
                     }
                 }
+                
+                return triagem;
             }
-            
-            return triagem;
-        }
+        });
+    }
+    
+    /** Dados dos eventos de triagem criada e atualizada */
+    private static String dadosEvento(Triagem triagem) {
+        return new DadosEvento()
+                .texto("data", triagem.getDate())
+                .numero("batimentosPorMinuto", triagem.getBatimentosPorMinuto())
+                .texto("pressaoArterial", triagem.getPressaoArterial())
+                .numero("temperatura", triagem.getTemperatura())
+                .numero("peso", triagem.getPeso())
+                .logico("aprovada", triagem.isStatus())
+                .json();
     }
     
     /**
@@ -74,8 +111,9 @@ public class TriagemDAO {
         try (PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_TRIAGENS);
              ResultSet rs = stmt.executeQuery()) {
             
+            MapeadorTriagem mapeador = new MapeadorTriagem(rs);
             while (rs.next()) {
-                triagens.add(mapResultSetToTriagem(rs));
+                triagens.add(mapeador.mapear(rs));
             }
         }
         
@@ -83,12 +121,37 @@ public class TriagemDAO {
     }
     
     /**
-     * Busca triagem por ID
+     * Busca o resumo de listagem (ID, data e status) de todas as triagens
+     * @return Resumos de todas as triagens, das mais recentes para as mais antigas
+     * @throws SQLException se houver erro na consulta
+     */
+    public static List<ResumoTriagem> buscarResumos() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        List<ResumoTriagem> resumos = new ArrayList<>();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_RESUMOS_TRIAGENS);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                resumos.add(new ResumoTriagem(rs.getLong(1), rs.getInt(2), rs.getBoolean(3)));
+            }
+        }
+        
+        return resumos;
+    }
+    
+    /**
+     * Busca triagem por ID (dentro de uma {@link UnidadeDeTrabalho}, lida
+     * do banco uma única vez)
      * @param id ID da triagem
      * @return Triagem encontrada ou null se não existir
      * @throws SQLException se houver erro na consulta
      */
     public static Triagem buscarPorId(Long id) throws SQLException {
+        return UnidadeDeTrabalho.carregar(Triagem.class, id, null, () -> consultarPorId(id));
+    }
+    
+    private static Triagem consultarPorId(Long id) throws SQLException {
         Connection conn = DatabaseConnection.getConnection();
         
         try (PreparedStatement stmt = conn.prepareStatement(SELECT_TRIAGEM_BY_ID)) {
@@ -96,7 +159,7 @@ public class TriagemDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToTriagem(rs);
+                    return new MapeadorTriagem(rs).mapear(rs);
                 }
             }
         }
@@ -118,8 +181,39 @@ public class TriagemDAO {
             stmt.setDate(1, data);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                MapeadorTriagem mapeador = new MapeadorTriagem(rs);
+                while (rs.next()) {
+                    triagens.add(mapeador.mapear(rs));
+                }
+            }
+        }
+        
+        return triagens;
+    }
+    
+    /**
+     * Busca triagens de um período (datas inclusivas)
+     * 
+     * <p>O filtro por intervalo de {@code data} permite ao banco ler apenas as
+     * partições mensais do período.</p>
+     * 
+     * @param inicio Data inicial
+     * @param fim Data final
+     * @return Lista de triagens do período
+     * @throws SQLException se houver erro na consulta
+     */
+    public static List<Triagem> buscarPorPeriodo(Date inicio, Date fim) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        List<Triagem> triagens = new ArrayList<>();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_TRIAGENS_BY_PERIODO)) {
+            stmt.setDate(1, inicio);
+            stmt.setDate(2, fim);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeadorTriagem mapeador = new MapeadorTriagem(rs);
                 while (rs.next()) {
-                    triagens.add(mapResultSetToTriagem(rs));
+                    triagens.add(mapeador.mapear(rs));
                 }
             }
         }
@@ -131,18 +225,19 @@ public class TriagemDAO {
      * Busca triagens por mês e ano
      */
     public static List<Triagem> buscarPorMes(int mes, int ano) throws SQLException {
-        String sql = "SELECT * FROM triagem WHERE EXTRACT(MONTH FROM data) = ? AND EXTRACT(YEAR FROM data) = ? ORDER BY data DESC";
+        String sql = "SELECT * FROM triagem WHERE data >= ? AND data < ? ORDER BY data DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, mes);
-            stmt.setInt(2, ano);
+            definirIntervaloMes(stmt, mes, ano);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 List<Triagem> triagens = new ArrayList<>();
+                MapeadorTriagem mapeador = new MapeadorTriagem(rs);
                 while (rs.next()) {
-                    triagens.add(mapResultSetToTriagem(rs));
+                    triagens.add(mapeador.mapear(rs));
                 }
                 return triagens;
             }
@@ -161,8 +256,9 @@ public class TriagemDAO {
                     "SUM(CASE WHEN status = false THEN 1 ELSE 0 END) as reprovadas " +
                     "FROM triagem WHERE data = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setDate(1, data);
             
@@ -191,13 +287,13 @@ public class TriagemDAO {
         String sql = "SELECT COUNT(*) as total, " +
                     "SUM(CASE WHEN status = true THEN 1 ELSE 0 END) as aprovadas, " +
                     "SUM(CASE WHEN status = false THEN 1 ELSE 0 END) as reprovadas " +
-                    "FROM triagem WHERE EXTRACT(MONTH FROM data) = ? AND EXTRACT(YEAR FROM data) = ?";
+                    "FROM triagem WHERE data >= ? AND data < ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = DatabaseConnection.getConnection();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setInt(1, mes);
-            stmt.setInt(2, ano);
+            definirIntervaloMes(stmt, mes, ano);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -214,113 +310,113 @@ public class TriagemDAO {
     }
     
     /**
-     * Atualiza uma triagem existente
+     * Atualiza uma triagem existente, desde que ela não tenha sido alterada
+     * depois da leitura; em caso de sucesso a triagem recebe a nova versão e
+     * o evento {@link TipoEvento#TRIAGEM_ATUALIZADA} é gravado na mesma transação
      * @param triagem Triagem com dados atualizados
-     * @return true se a atualização foi bem-sucedida
+     * @return true se a atualização foi bem-sucedida, false se a triagem não existe mais
+     * @throws database.ConflitoAtualizacaoException se outro usuário alterou a triagem antes
      * @throws SQLException se houver erro na atualização
      */
     public static boolean atualizar(Triagem triagem) throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_TRIAGEM)) {
-            stmt.setInt(1, triagem.getBatimentosPorMinuto());
-            stmt.setString(2, triagem.getPressaoArterial());
-            stmt.setDouble(3, triagem.getTemperatura());
-            stmt.setDouble(4, triagem.getPeso());
-            stmt.setBoolean(5, triagem.isStatus());
-            stmt.setLong(6, triagem.getId());
+        long versao = Transacao.executar(() -> {
+            Connection conn = DatabaseConnection.getConnection();
             
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+            try (PreparedStatement stmt = conn.prepareStatement(UPDATE_TRIAGEM)) {
+                stmt.setInt(1, triagem.getBatimentosPorMinuto());
+                stmt.setString(2, triagem.getPressaoArterial());
+                stmt.setDouble(3, triagem.getTemperatura());
+                stmt.setDouble(4, triagem.getPeso());
+                stmt.setBoolean(5, triagem.isStatus());
+                stmt.setLong(6, triagem.getId());
+                ControleVersao.definir(stmt, 7, triagem.getVersao());
+                
+                long novaVersao = ControleVersao.executar(stmt, "triagem", triagem.getId());
+                if (novaVersao != ControleVersao.SEM_VERSAO) {
+                    CaixaSaida.registrar(TipoEvento.TRIAGEM_ATUALIZADA, triagem.getId(), dadosEvento(triagem));
+                }
+                return novaVersao;
+            }
+        });
+        if (versao == ControleVersao.SEM_VERSAO) {
+            return false;
         }
+        triagem.setVersao(versao);
+        return true;
     }
     
     /**
      * Remove uma triagem e todas as doações associadas (CASCADE)
      * ESTE É O MÉTODO RECOMENDADO PARA DELETAR TRIAGENS
+     * Os eventos de remoção (triagem e cada doação) vão na mesma transação
      * REGRA DE NEGÓCIO: Se uma triagem é deletada, suas doações dependentes também devem ser
      * @param id ID da triagem a ser removida
      * @return true se a remoção foi bem-sucedida
      * @throws SQLException se houver erro na remoção
      */
     public static boolean remover(Long id) throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
-        
+        // Quantidade de doações removidas em cascata, ou -1 se a triagem não existir
+        int totalDoacoes;
         try {
-            conn.setAutoCommit(false);
-            
-            String countDoacoes = "SELECT COUNT(*) FROM doacao WHERE triagem_id = ?";
-            int totalDoacoes = 0;
-            
-            try (PreparedStatement countStmt = conn.prepareStatement(countDoacoes)) {
-                countStmt.setLong(1, id);
-                try (ResultSet rs = countStmt.executeQuery()) {
-                    if (rs.next()) {
-                        totalDoacoes = rs.getInt(1);
+            totalDoacoes = Transacao.executar(() -> {
+                Connection conn = DatabaseConnection.getConnection();
+                
+                // A triagem primeiro: se não existir, nada é removido
+                try (PreparedStatement stmtTriagem = conn.prepareStatement(DELETE_TRIAGEM)) {
+                    stmtTriagem.setLong(1, id);
+                    if (stmtTriagem.executeUpdate() == 0) {
+                        return -1;
                     }
                 }
-            }
-            
-            if (totalDoacoes > 0) {
-                String deleteDoacoes = "DELETE FROM doacao WHERE triagem_id = ?";
-                try (PreparedStatement stmtDoacoes = conn.prepareStatement(deleteDoacoes)) {
-                    stmtDoacoes.setLong(1, id);
-                    int doacoesDeletadas = stmtDoacoes.executeUpdate();
-                    System.out.println("Doações removidas em cascata: " + doacoesDeletadas + " de " + totalDoacoes);
-                }
-            }
-            
-            try (PreparedStatement stmtTriagem = conn.prepareStatement(DELETE_TRIAGEM)) {
-                stmtTriagem.setLong(1, id);
-                int triagensDeletadas = stmtTriagem.executeUpdate();
                 
-                if (triagensDeletadas > 0) {
-                    conn.commit(); // Confirmar transação
-                    if (totalDoacoes > 0) {
-                        System.out.println("Triagem ID " + id + " removida com " + totalDoacoes + " doação(ões) em cascata");
-                    } else {
-                        System.out.println("Triagem ID " + id + " removida (sem doações associadas)");
+                // EXISTS para no primeiro vínculo; a quantidade vem do próprio DELETE
+                int removidas = 0;
+                if (DEPENDENCIAS.existe(id)) {
+                    String deleteDoacoes = "DELETE FROM doacao WHERE triagem_id = ? RETURNING id, data, doador_id";
+                    try (PreparedStatement stmtDoacoes = conn.prepareStatement(deleteDoacoes)) {
+                        stmtDoacoes.setLong(1, id);
+                        try (ResultSet rs = stmtDoacoes.executeQuery()) {
+                            while (rs.next()) {
+                                DoacaoDAO.registrarRemocao(rs.getLong(1), rs.getDate(2), id, rs.getLong(3));
+                                removidas++;
+                            }
+                        }
                     }
-                    return true;
-                } else {
-                    conn.rollback(); // Reverter se triagem não foi encontrada
-                    System.out.println("Triagem ID " + id + " não encontrada para remoção");
-                    return false;
+                    System.out.println("Doações removidas em cascata: " + removidas);
                 }
-            }
-            
+                
+                CaixaSaida.registrar(TipoEvento.TRIAGEM_REMOVIDA, id, new DadosEvento()
+                        .numero("doacoesRemovidas", removidas)
+                        .json());
+                return removidas;
+            });
         } catch (SQLException e) {
-            try {
-                conn.rollback(); // Reverter em caso de erro
-                System.err.println("Erro ao remover triagem ID " + id + ": " + e.getMessage());
-            } catch (SQLException rollbackEx) {
-                System.err.println("Erro crítico no rollback: " + rollbackEx.getMessage());
-            }
+            System.err.println("Erro ao remover triagem ID " + id + ": " + e.getMessage());
             throw e;
-        } finally {
-            try {
-                conn.setAutoCommit(true); // Restaurar auto-commit
-            } catch (SQLException e) {
-                System.err.println("Erro ao restaurar auto-commit: " + e.getMessage());
-            }
         }
+        
+        if (totalDoacoes < 0) {
+            System.out.println("Triagem ID " + id + " não encontrada para remoção");
+            return false;
+        }
+        if (totalDoacoes > 0) {
+            System.out.println("Triagem ID " + id + " removida com " + totalDoacoes + " doação(ões) em cascata");
+        } else {
+            System.out.println("Triagem ID " + id + " removida (sem doações associadas)");
+        }
+        return true;
     }
     
     /**
-     * Mapeia ResultSet para objeto Triagem
-     * @param rs ResultSet do banco
-     * @return Objeto Triagem mapeado
-     * @throws SQLException se houver erro no mapeamento
+     * Define os parâmetros 1 e 2 como o intervalo [primeiro dia do mês, primeiro dia do mês seguinte).
+     * Comparar {@code data} com um intervalo permite o uso de índices e a poda de partições.
      */
-    private static Triagem mapResultSetToTriagem(ResultSet rs) throws SQLException {
-        return new Triagem(
-            rs.getLong("id"),
-            rs.getInt("batimentos_por_minuto"),
-            rs.getString("pressao_arterial"),
-            rs.getDouble("temperatura"),
-            rs.getDouble("peso"),
-            rs.getBoolean("status"),
-            rs.getDate("data")
-        );
+    private static void definirIntervaloMes(PreparedStatement stmt, int mes, int ano) throws SQLException {
+        if (mes < 1 || mes > 12) {
+            throw new SQLException("Mês inválido: " + mes);
+        }
+        java.time.LocalDate inicio = java.time.LocalDate.of(ano, mes, 1);
+        stmt.setDate(1, Date.valueOf(inicio));
+        stmt.setDate(2, Date.valueOf(inicio.plusMonths(1)));
     }
 }
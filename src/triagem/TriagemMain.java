@@ -3,6 +3,7 @@ package triagem;
 import java.sql.Date;
 import java.util.Scanner;
 import java.util.InputMismatchException;
+import util.Calendario;
 
 /**
  * Sistema de Triagem HemoConnect - Menu Interativo
@@ -121,7 +122,7 @@ public class TriagemMain {
             System.out.print("Peso (kg): ");
             double peso = lerDouble();
             
-            Date hoje = new Date(System.currentTimeMillis());
+            Date hoje = Calendario.dataHoje();
             
             // Usar Controller para criar triagem
             TriagemController.criarTriagemComMensagem(bpm, pressao, temperatura, peso, hoje);
@@ -143,7 +144,7 @@ public class TriagemMain {
             
             Date data;
             if (dataInput.trim().isEmpty()) {
-                data = new Date(System.currentTimeMillis());
+                data = Calendario.dataHoje();
             } else {
                 data = Date.valueOf(dataInput);
             }
@@ -275,7 +276,7 @@ public class TriagemMain {
     private static void exibirEstatisticas() {
         System.out.println("\n=== ESTATÍSTICAS DO SISTEMA ===");
         
-        var todasTriagens = TriagemController.obterTodasTriagens();
+        var todasTriagens = TriagemController.obterResumosTriagens();
         int total = todasTriagens.size();
         
         if (total == 0) {
@@ -283,7 +284,7 @@ public class TriagemMain {
             return;
         }
         
-        long aprovadas = todasTriagens.stream().mapToLong(t -> t.isStatus() ? 1 : 0).sum();
+        long aprovadas = todasTriagens.stream().mapToLong(t -> t.isAprovada() ? 1 : 0).sum();
         long reprovadas = total - aprovadas;
         
         System.out.println("Total de triagens: " + total);
@@ -292,7 +293,7 @@ public class TriagemMain {
         System.out.println("Taxa de aprovação: " + String.format("%.1f%%", (double) aprovadas / total * 100));
         
         // Estatísticas do dia atual
-        Date hoje = new Date(System.currentTimeMillis());
+        Date hoje = Calendario.dataHoje();
         var triagensHoje = TriagemController.listarTriagemDate(hoje);
         System.out.println("\nTriagens realizadas hoje: " + triagensHoje.size());
     }
@@ -29,7 +29,7 @@ public class TriagemView {
     /**
      * Exibe uma lista de triagens
      */
-    public static void exibirListaTriagens(List<Triagem> triagens) {
+    public static void exibirListaTriagens(List<ResumoTriagem> triagens) {
         if (triagens.isEmpty()) {
             System.out.println("Nenhuma triagem encontrada.");
             return;
@@ -40,9 +40,9 @@ public class TriagemView {
         System.out.println("------------------------");
         
         for (int i = 0; i < triagens.size(); i++) {
-            Triagem triagem = triagens.get(i);
-            System.out.println((i + 1) + ". " + triagem.getDate() + " - " + 
-                             (triagem.isStatus() ? "APROVADO" : "REPROVADO"));
+            ResumoTriagem triagem = triagens.get(i);
+            System.out.println((i + 1) + ". " + triagem.getData() + " - " + 
+                             (triagem.isAprovada() ? "APROVADO" : "REPROVADO"));
         }
         System.out.println("========================");
     }
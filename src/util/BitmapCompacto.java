@@ -0,0 +1,458 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto imutável de inteiros não negativos, compactado por blocos.
+ *
+ * <p>Os valores são divididos em blocos de 65.536 posições (16 bits altos).
+ * Cada bloco é guardado como um array ordenado de {@code char} quando tem até
+ * 4.096 valores, ou como um mapa de bits de 1.024 palavras quando é mais denso
+ * — o mesmo esquema dos bitmaps "roaring". Assim, filtros raros ocupam poucos
+ * bytes por valor e filtros densos ocupam no máximo 8 KiB por bloco, e as
+ * operações E/OU/EXCETO trabalham bloco a bloco, palavra a palavra.</p>
+ *
+ * <p>Usado pelos índices em memória, com ordinais densos (0..n-1) como valores.</p>
+ */
+public final class BitmapCompacto {
+
+    /** Blocos com até essa quantidade de valores são guardados como array */
+    private static final int LIMITE_ARRAY = 4096;
+
+    /** Palavras de 64 bits de um bloco em mapa de bits */
+    private static final int PALAVRAS_POR_BLOCO = 1024;
+
+    private static final BitmapCompacto VAZIO = new BitmapCompacto(new char[0], new Object[0], new int[0], 0);
+
+    /** 16 bits altos de cada bloco, em ordem crescente */
+    private final char[] chaves;
+
+    /** Conteúdo de cada bloco: {@code char[]} ordenado ou {@code long[1024]} */
+    private final Object[] blocos;
+
+    /** Quantidade de valores de cada bloco */
+    private final int[] cardinalidades;
+
+    private final int quantidadeBlocos;
+    private final int cardinalidade;
+
+    private BitmapCompacto(char[] chaves, Object[] blocos, int[] cardinalidades, int quantidadeBlocos) {
+        this.chaves = chaves;
+        this.blocos = blocos;
+        this.cardinalidades = cardinalidades;
+        this.quantidadeBlocos = quantidadeBlocos;
+        int total = 0;
+        for (int i = 0; i < quantidadeBlocos; i++) {
+            total += cardinalidades[i];
+        }
+        this.cardinalidade = total;
+    }
+
+    /** @return Bitmap sem nenhum valor */
+    public static BitmapCompacto vazio() {
+        return VAZIO;
+    }
+
+    /**
+     * @param fim Limite superior (exclusivo)
+     * @return Bitmap com todos os valores de 0 a {@code fim - 1}
+     */
+    public static BitmapCompacto ate(int fim) {
+        Construtor construtor = new Construtor();
+        for (int valor = 0; valor < fim; valor++) {
+            construtor.adicionar(valor);
+        }
+        return construtor.construir();
+    }
+
+    /**
+     * Monta um bitmap a partir de valores adicionados em ordem crescente.
+     */
+    public static final class Construtor {
+        private final Acumulador acumulador = new Acumulador();
+        private int chaveAtual = -1;
+        private char[] array = new char[16];
+        private long[] palavras;
+        private int quantidade;
+        private int ultimo = -1;
+
+        /**
+         * @param valor Valor não negativo, maior que o último adicionado
+         * @throws IllegalArgumentException se o valor não estiver em ordem crescente
+         */
+        public Construtor adicionar(int valor) {
+            if (valor <= ultimo) {
+                throw new IllegalArgumentException("Valores devem ser adicionados em ordem crescente: " + valor);
+            }
+            ultimo = valor;
+
+            int chave = valor >>> 16;
+            char baixo = (char) valor;
+            if (chave != chaveAtual) {
+                fecharBloco();
+                chaveAtual = chave;
+            }
+
+            if (palavras != null) {
+                palavras[baixo >>> 6] |= 1L << baixo;
+            } else if (quantidade < LIMITE_ARRAY) {
+                if (quantidade == array.length) {
+                    array = Arrays.copyOf(array, Math.min(LIMITE_ARRAY, quantidade * 2));
+                }
+                array[quantidade] = baixo;
+            } else {
+                palavras = paraPalavras(array, quantidade);
+                palavras[baixo >>> 6] |= 1L << baixo;
+            }
+            quantidade++;
+            return this;
+        }
+
+        public BitmapCompacto construir() {
+            fecharBloco();
+            return acumulador.construir();
+        }
+
+        private void fecharBloco() {
+            if (quantidade > 0) {
+                Object bloco = palavras != null ? palavras : Arrays.copyOf(array, quantidade);
+                acumulador.adicionar((char) chaveAtual, bloco, quantidade);
+            }
+            palavras = null;
+            quantidade = 0;
+        }
+    }
+
+    /** @return Quantidade de valores */
+    public int cardinalidade() {
+        return cardinalidade;
+    }
+
+    /** @return true se o bitmap não tem nenhum valor */
+    public boolean estaVazio() {
+        return cardinalidade == 0;
+    }
+
+    /**
+     * @param valor Valor procurado
+     * @return true se o valor pertence ao bitmap
+     */
+    public boolean contem(int valor) {
+        int i = Arrays.binarySearch(chaves, 0, quantidadeBlocos, (char) (valor >>> 16));
+        if (valor < 0 || i < 0) {
+            return false;
+        }
+        char baixo = (char) valor;
+        Object bloco = blocos[i];
+        if (bloco instanceof long[]) {
+            return (((long[]) bloco)[baixo >>> 6] & (1L << baixo)) != 0;
+        }
+        return Arrays.binarySearch((char[]) bloco, 0, cardinalidades[i], baixo) >= 0;
+    }
+
+    /** @return Interseção com outro bitmap */
+    public BitmapCompacto e(BitmapCompacto outro) {
+        Acumulador resultado = new Acumulador();
+        int i = 0;
+        int j = 0;
+        while (i < quantidadeBlocos && j < outro.quantidadeBlocos) {
+            if (chaves[i] < outro.chaves[j]) {
+                i++;
+            } else if (chaves[i] > outro.chaves[j]) {
+                j++;
+            } else {
+                resultado.adicionarCompactando(chaves[i], e(blocos[i], cardinalidades[i], outro.blocos[j], outro.cardinalidades[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado.construir();
+    }
+
+    /** @return União com outro bitmap */
+    public BitmapCompacto ou(BitmapCompacto outro) {
+        Acumulador resultado = new Acumulador();
+        int i = 0;
+        int j = 0;
+        while (i < quantidadeBlocos || j < outro.quantidadeBlocos) {
+            if (j >= outro.quantidadeBlocos || (i < quantidadeBlocos && chaves[i] < outro.chaves[j])) {
+                resultado.adicionar(chaves[i], blocos[i], cardinalidades[i]);
+                i++;
+            } else if (i >= quantidadeBlocos || chaves[i] > outro.chaves[j]) {
+                resultado.adicionar(outro.chaves[j], outro.blocos[j], outro.cardinalidades[j]);
+                j++;
+            } else {
+                resultado.adicionarCompactando(chaves[i], ou(blocos[i], cardinalidades[i], outro.blocos[j], outro.cardinalidades[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado.construir();
+    }
+
+    /** @return Valores deste bitmap que não estão no outro */
+    public BitmapCompacto exceto(BitmapCompacto outro) {
+        Acumulador resultado = new Acumulador();
+        int j = 0;
+        for (int i = 0; i < quantidadeBlocos; i++) {
+            while (j < outro.quantidadeBlocos && outro.chaves[j] < chaves[i]) {
+                j++;
+            }
+            if (j < outro.quantidadeBlocos && outro.chaves[j] == chaves[i]) {
+                resultado.adicionarCompactando(chaves[i], exceto(blocos[i], cardinalidades[i], outro.blocos[j], outro.cardinalidades[j]));
+            } else {
+                resultado.adicionar(chaves[i], blocos[i], cardinalidades[i]);
+            }
+        }
+        return resultado.construir();
+    }
+
+    /**
+     * @param universo Bitmap com todos os valores possíveis
+     * @return Valores do universo que não estão neste bitmap
+     */
+    public BitmapCompacto complemento(BitmapCompacto universo) {
+        return universo.exceto(this);
+    }
+
+    /** @return Todos os valores, em ordem crescente */
+    public int[] paraArray() {
+        return paraArray(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param limite Quantidade máxima de valores
+     * @return Os menores valores do bitmap, em ordem crescente
+     */
+    public int[] paraArray(int limite) {
+        int[] valores = new int[Math.min(limite, cardinalidade)];
+        int n = 0;
+        for (int i = 0; i < quantidadeBlocos && n < valores.length; i++) {
+            int alto = chaves[i] << 16;
+            Object bloco = blocos[i];
+            if (bloco instanceof long[]) {
+                long[] palavras = (long[]) bloco;
+                for (int p = 0; p < PALAVRAS_POR_BLOCO && n < valores.length; p++) {
+                    long palavra = palavras[p];
+                    while (palavra != 0 && n < valores.length) {
+                        valores[n++] = alto | (p << 6) | Long.numberOfTrailingZeros(palavra);
+                        palavra &= palavra - 1;
+                    }
+                }
+            } else {
+                char[] array = (char[]) bloco;
+                for (int k = 0; k < cardinalidades[i] && n < valores.length; k++) {
+                    valores[n++] = alto | array[k];
+                }
+            }
+        }
+        return valores;
+    }
+
+    /** @return Memória aproximada ocupada pelos blocos, em bytes */
+    public long bytesOcupados() {
+        long total = 0;
+        for (int i = 0; i < quantidadeBlocos; i++) {
+            total += blocos[i] instanceof long[] ? PALAVRAS_POR_BLOCO * 8L : cardinalidades[i] * 2L;
+        }
+        return total + quantidadeBlocos * 6L;
+    }
+
+    // ----- operações entre blocos (resultado sem compactar: char[] exato ou long[]) -----
+
+    private static Object e(Object a, int ca, Object b, int cb) {
+        if (a instanceof char[] && b instanceof char[]) {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            char[] saida = new char[Math.min(ca, cb)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < ca && j < cb) {
+                if (x[i] < y[j]) {
+                    i++;
+                } else if (x[i] > y[j]) {
+                    j++;
+                } else {
+                    saida[n++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(saida, n);
+        }
+        if (a instanceof char[] || b instanceof char[]) {
+            char[] array = (char[]) (a instanceof char[] ? a : b);
+            int tamanho = a instanceof char[] ? ca : cb;
+            long[] palavras = (long[]) (a instanceof char[] ? b : a);
+            char[] saida = new char[tamanho];
+            int n = 0;
+            for (int i = 0; i < tamanho; i++) {
+                char v = array[i];
+                if ((palavras[v >>> 6] & (1L << v)) != 0) {
+                    saida[n++] = v;
+                }
+            }
+            return Arrays.copyOf(saida, n);
+        }
+        long[] x = (long[]) a;
+        long[] y = (long[]) b;
+        long[] saida = new long[PALAVRAS_POR_BLOCO];
+        for (int p = 0; p < PALAVRAS_POR_BLOCO; p++) {
+            saida[p] = x[p] & y[p];
+        }
+        return saida;
+    }
+
+    private static Object ou(Object a, int ca, Object b, int cb) {
+        if (a instanceof char[] && b instanceof char[] && ca + cb <= LIMITE_ARRAY) {
+            char[] x = (char[]) a;
+            char[] y = (char[]) b;
+            char[] saida = new char[ca + cb];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < ca || j < cb) {
+                if (j >= cb || (i < ca && x[i] < y[j])) {
+                    saida[n++] = x[i++];
+                } else if (i >= ca || x[i] > y[j]) {
+                    saida[n++] = y[j++];
+                } else {
+                    saida[n++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(saida, n);
+        }
+        long[] saida = a instanceof long[] ? ((long[]) a).clone() : paraPalavras((char[]) a, ca);
+        if (b instanceof long[]) {
+            long[] y = (long[]) b;
+            for (int p = 0; p < PALAVRAS_POR_BLOCO; p++) {
+                saida[p] |= y[p];
+            }
+        } else {
+            char[] y = (char[]) b;
+            for (int k = 0; k < cb; k++) {
+                saida[y[k] >>> 6] |= 1L << y[k];
+            }
+        }
+        return saida;
+    }
+
+    private static Object exceto(Object a, int ca, Object b, int cb) {
+        if (a instanceof char[]) {
+            char[] x = (char[]) a;
+            char[] saida = new char[ca];
+            int n = 0;
+            if (b instanceof long[]) {
+                long[] y = (long[]) b;
+                for (int i = 0; i < ca; i++) {
+                    if ((y[x[i] >>> 6] & (1L << x[i])) == 0) {
+                        saida[n++] = x[i];
+                    }
+                }
+            } else {
+                char[] y = (char[]) b;
+                int j = 0;
+                for (int i = 0; i < ca; i++) {
+                    while (j < cb && y[j] < x[i]) {
+                        j++;
+                    }
+                    if (j >= cb || y[j] != x[i]) {
+                        saida[n++] = x[i];
+                    }
+                }
+            }
+            return Arrays.copyOf(saida, n);
+        }
+        long[] saida = ((long[]) a).clone();
+        if (b instanceof long[]) {
+            long[] y = (long[]) b;
+            for (int p = 0; p < PALAVRAS_POR_BLOCO; p++) {
+                saida[p] &= ~y[p];
+            }
+        } else {
+            char[] y = (char[]) b;
+            for (int k = 0; k < cb; k++) {
+                saida[y[k] >>> 6] &= ~(1L << y[k]);
+            }
+        }
+        return saida;
+    }
+
+    private static long[] paraPalavras(char[] array, int tamanho) {
+        long[] palavras = new long[PALAVRAS_POR_BLOCO];
+        for (int k = 0; k < tamanho; k++) {
+            palavras[array[k] >>> 6] |= 1L << array[k];
+        }
+        return palavras;
+    }
+
+    /**
+     * Acumula blocos em ordem de chave para montar um novo bitmap.
+     */
+    private static final class Acumulador {
+        private char[] chaves = new char[4];
+        private Object[] blocos = new Object[4];
+        private int[] cardinalidades = new int[4];
+        private int quantidade;
+
+        void adicionar(char chave, Object bloco, int cardinalidade) {
+            if (quantidade == chaves.length) {
+                chaves = Arrays.copyOf(chaves, quantidade * 2);
+                blocos = Arrays.copyOf(blocos, quantidade * 2);
+                cardinalidades = Arrays.copyOf(cardinalidades, quantidade * 2);
+            }
+            chaves[quantidade] = chave;
+            blocos[quantidade] = bloco;
+            cardinalidades[quantidade] = cardinalidade;
+            quantidade++;
+        }
+
+        /**
+         * Adiciona o resultado de uma operação, escolhendo a representação
+         * adequada à quantidade de valores (blocos vazios são descartados).
+         */
+        void adicionarCompactando(char chave, Object bloco) {
+            if (bloco instanceof char[]) {
+                char[] array = (char[]) bloco;
+                if (array.length > 0) {
+                    adicionar(chave, array, array.length);
+                }
+                return;
+            }
+
+            long[] palavras = (long[]) bloco;
+            int total = 0;
+            for (long palavra : palavras) {
+                total += Long.bitCount(palavra);
+            }
+            if (total == 0) {
+                return;
+            }
+            if (total > LIMITE_ARRAY) {
+                adicionar(chave, palavras, total);
+                return;
+            }
+
+            char[] array = new char[total];
+            int n = 0;
+            for (int p = 0; p < PALAVRAS_POR_BLOCO; p++) {
+                long palavra = palavras[p];
+                while (palavra != 0) {
+                    array[n++] = (char) ((p << 6) | Long.numberOfTrailingZeros(palavra));
+                    palavra &= palavra - 1;
+                }
+            }
+            adicionar(chave, array, total);
+        }
+
+        BitmapCompacto construir() {
+            if (quantidade == 0) {
+                return VAZIO;
+            }
+            return new BitmapCompacto(chaves, blocos, cardinalidades, quantidade);
+        }
+    }
+}
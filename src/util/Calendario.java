@@ -0,0 +1,255 @@
+package util;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.TimeZone;
+
+/**
+ * Datas como dias desde 01/01/1970 (epoch day, um {@code int}) para as
+ * verificações de idade, intervalo entre doações e "mesmo dia".
+ *
+ * <p>As contas são feitas com aritmética de calendário sobre o epoch day,
+ * sem criar objetos e sem dividir milissegundos por 86.400.000 ou dias por
+ * 365: a idade é contada em aniversários completos (quem nasceu em 29/02
+ * faz aniversário em 01/03 nos anos não bissextos) e a conversão de
+ * {@link Date} usa o deslocamento do fuso no próprio instante, o que mantém
+ * o resultado certo nas trocas de horário de verão.</p>
+ *
+ * <p>O dia atual vem de um {@link Clock} substituível
+ * ({@link #usarRelogio(Clock)}), para simulações e verificações com data
+ * fixa. Ele é calculado uma vez por dia: as chamadas seguintes só comparam o
+ * instante atual com o início e o fim do dia guardados. Thread-safe.</p>
+ */
+public final class Calendario {
+
+    private static final long MILLIS_DIA = 24L * 60 * 60 * 1000;
+
+    /** Dias de 0000-03-01 até 1970-01-01, base do cálculo de datas civis */
+    private static final long DIAS_ATE_1970 = 719_468;
+
+    /** Dias em um ciclo de 400 anos do calendário gregoriano */
+    private static final long DIAS_CICLO = 146_097;
+
+    /** Fuso em que {@link Date} guarda a meia-noite de cada data */
+    private static final TimeZone FUSO_DATAS = TimeZone.getDefault();
+
+    /** Dia atual e o intervalo de instantes em que ele vale */
+    private static final class Dia {
+        final int epochDay;
+        final long inicio;
+        final long fim;
+
+        Dia(int epochDay, long inicio, long fim) {
+            this.epochDay = epochDay;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+    }
+
+    private static volatile Clock relogio = Clock.systemDefaultZone();
+    private static volatile Dia atual = new Dia(0, Long.MAX_VALUE, Long.MIN_VALUE);
+
+    private Calendario() {
+    }
+
+    /**
+     * Substitui o relógio usado como "agora" (por padrão, o do sistema no
+     * fuso padrão).
+     * @param novo Relógio a usar
+     */
+    public static void usarRelogio(Clock novo) {
+        if (novo == null) {
+            throw new IllegalArgumentException("Relógio não pode ser nulo.");
+        }
+        relogio = novo;
+        atual = new Dia(0, Long.MAX_VALUE, Long.MIN_VALUE);
+    }
+
+    /** @return Relógio em uso */
+    public static Clock getRelogio() {
+        return relogio;
+    }
+
+    /**
+     * @return Dia atual no relógio em uso (epoch day)
+     */
+    public static int hoje() {
+        Clock clock = relogio;
+        long agora = clock.millis();
+        Dia dia = atual;
+        if (agora >= dia.inicio && agora < dia.fim) {
+            return dia.epochDay;
+        }
+        return calcularHoje(clock, agora);
+    }
+
+    /** Recalcula o dia atual; chamado uma vez por dia (ou após trocar o relógio) */
+    private static int calcularHoje(Clock clock, long agora) {
+        ZoneId fuso = clock.getZone();
+        LocalDate data = Instant.ofEpochMilli(agora).atZone(fuso).toLocalDate();
+        long inicio = data.atStartOfDay(fuso).toInstant().toEpochMilli();
+        long fim = data.plusDays(1).atStartOfDay(fuso).toInstant().toEpochMilli();
+        int epochDay = (int) data.toEpochDay();
+        if (clock == relogio) {
+            atual = new Dia(epochDay, inicio, fim);
+        }
+        return epochDay;
+    }
+
+    /**
+     * @return Data atual no relógio em uso, para gravar ou exibir
+     */
+    public static Date dataHoje() {
+        return paraDate(hoje());
+    }
+
+    /**
+     * Converte uma data SQL para epoch day, sem criar objetos.
+     * @param data Data (meia-noite no fuso padrão, como em {@link Date#valueOf(String)})
+     * @return Epoch day da data
+     */
+    public static int dia(java.util.Date data) {
+        long millis = data.getTime();
+        return (int) Math.floorDiv(millis + FUSO_DATAS.getOffset(millis), MILLIS_DIA);
+    }
+
+    /**
+     * @param dia Epoch day
+     * @return Data SQL do dia
+     */
+    public static Date paraDate(int dia) {
+        return Date.valueOf(LocalDate.ofEpochDay(dia));
+    }
+
+    /**
+     * @param a Primeira data
+     * @param b Segunda data
+     * @return true se as duas datas caem no mesmo dia (false se alguma for null)
+     */
+    public static boolean mesmoDia(java.util.Date a, java.util.Date b) {
+        return a != null && b != null && dia(a) == dia(b);
+    }
+
+    /**
+     * @param dia Epoch day
+     * @return true se o dia é hoje no relógio em uso
+     */
+    public static boolean ehHoje(int dia) {
+        return dia == hoje();
+    }
+
+    /**
+     * @param dia Epoch day passado
+     * @return Dias completos entre o dia informado e hoje
+     */
+    public static long diasDesde(int dia) {
+        return (long) hoje() - dia;
+    }
+
+    /**
+     * Idade em anos completos na data atual.
+     * @param nascimento Data de nascimento (epoch day)
+     * @return Idade em anos
+     */
+    public static int idade(int nascimento) {
+        return idade(nascimento, hoje());
+    }
+
+    /**
+     * Idade em anos completos em uma data de referência.
+     * @param nascimento Data de nascimento (epoch day)
+     * @param referencia Data em que a idade é calculada (epoch day)
+     * @return Idade em anos (negativa se a referência for anterior ao nascimento)
+     */
+    public static int idade(int nascimento, int referencia) {
+        int n = civil(nascimento);
+        int r = civil(referencia);
+        int anos = anoCivil(r) - anoCivil(n);
+        // Compara mês e dia (os bits baixos da data civil empacotada)
+        if ((r & MES_DIA) < (n & MES_DIA)) {
+            anos--;
+        }
+        return anos;
+    }
+
+    /**
+     * O mesmo dia e mês, {@code anos} antes (28/02 quando o dia é 29/02 e o
+     * ano resultante não é bissexto). Com esse limite,
+     * {@code idade(nascimento, dia) >= anos} equivale a
+     * {@code nascimento <= anosAntes(dia, anos)}.
+     *
+     * @param dia Epoch day de referência
+     * @param anos Quantidade de anos
+     * @return Epoch day resultante
+     */
+    public static int anosAntes(int dia, int anos) {
+        int c = civil(dia);
+        int ano = anoCivil(c) - anos;
+        int mes = mesCivil(c);
+        int diaDoMes = diaCivil(c);
+        if (mes == 2 && diaDoMes == 29 && !bissexto(ano)) {
+            diaDoMes = 28;
+        }
+        return epochDay(ano, mes, diaDoMes);
+    }
+
+    /**
+     * @param ano Ano
+     * @param mes Mês (1 a 12)
+     * @param diaDoMes Dia do mês
+     * @return Epoch day da data
+     */
+    public static int epochDay(int ano, int mes, int diaDoMes) {
+        long a = mes <= 2 ? ano - 1 : ano;
+        long era = Math.floorDiv(a, 400);
+        long anoDaEra = a - era * 400;
+        long diaDoAno = (153 * (mes > 2 ? mes - 3 : mes + 9) + 2) / 5 + diaDoMes - 1;
+        long diaDaEra = anoDaEra * 365 + anoDaEra / 4 - anoDaEra / 100 + diaDoAno;
+        return (int) (era * DIAS_CICLO + diaDaEra - DIAS_ATE_1970);
+    }
+
+    /** @return Ano do epoch day */
+    public static int ano(int dia) {
+        return anoCivil(civil(dia));
+    }
+
+    private static boolean bissexto(int ano) {
+        return (ano & 3) == 0 && (ano % 100 != 0 || ano % 400 == 0);
+    }
+
+    /*
+     * Data civil empacotada em um int: ano << 9 | mês << 5 | dia. Comparar os
+     * 9 bits baixos compara (mês, dia).
+     */
+
+    private static final int MES_DIA = (1 << 9) - 1;
+
+    private static int anoCivil(int civil) {
+        return civil >> 9;
+    }
+
+    private static int mesCivil(int civil) {
+        return (civil >> 5) & 0xF;
+    }
+
+    private static int diaCivil(int civil) {
+        return civil & 0x1F;
+    }
+
+    /** Conversão de epoch day para ano, mês e dia do calendário gregoriano */
+    private static int civil(int epochDay) {
+        long z = epochDay + DIAS_ATE_1970;
+        long era = Math.floorDiv(z, DIAS_CICLO);
+        long diaDaEra = z - era * DIAS_CICLO;
+        long anoDaEra = (diaDaEra - diaDaEra / 1460 + diaDaEra / 36_524 - diaDaEra / 146_096) / 365;
+        long diaDoAno = diaDaEra - (365 * anoDaEra + anoDaEra / 4 - anoDaEra / 100);
+        long mp = (5 * diaDoAno + 2) / 153;
+        int diaDoMes = (int) (diaDoAno - (153 * mp + 2) / 5 + 1);
+        int mes = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int ano = (int) (anoDaEra + era * 400 + (mes <= 2 ? 1 : 0));
+        return ano << 9 | mes << 5 | diaDoMes;
+    }
+}
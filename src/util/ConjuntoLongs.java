@@ -0,0 +1,142 @@
+package util;
+
+/**
+ * Conjunto de valores {@code long} primitivos com endereçamento aberto.
+ *
+ * <p>Evita o boxing de {@code HashSet<Long>} (um objeto Long e um nó de
+ * tabela por elemento), o que reduz o consumo de memória em cerca de dez vezes
+ * em conjuntos com milhões de CPFs ou IDs. Não é thread-safe.</p>
+ */
+public final class ConjuntoLongs {
+
+    /** Valor usado para marcar posições vazias da tabela */
+    private static final long VAZIO = 0L;
+
+    private long[] tabela;
+    private int mascara;
+    private int tamanho;
+    private boolean contemZero;
+
+    /**
+     * Cria um conjunto dimensionado para a quantidade esperada de elementos.
+     * @param capacidadeEsperada Quantidade de elementos prevista
+     */
+    public ConjuntoLongs(int capacidadeEsperada) {
+        int capacidade = Integer.highestOneBit(Math.max(4, capacidadeEsperada * 2 - 1)) << 1;
+        this.tabela = new long[capacidade];
+        this.mascara = capacidade - 1;
+    }
+
+    /**
+     * Cria um conjunto com capacidade inicial pequena.
+     */
+    public ConjuntoLongs() {
+        this(16);
+    }
+
+    /**
+     * Adiciona um valor ao conjunto.
+     * @param valor Valor a ser adicionado
+     * @return true se o valor foi adicionado, false se já existia
+     */
+    public boolean adicionar(long valor) {
+        if (valor == VAZIO) {
+            if (contemZero) {
+                return false;
+            }
+            contemZero = true;
+            tamanho++;
+            return true;
+        }
+
+        int i = indice(valor);
+        while (tabela[i] != VAZIO) {
+            if (tabela[i] == valor) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        tabela[i] = valor;
+        tamanho++;
+        if (tamanho * 2 > tabela.length) {
+            redimensionar();
+        }
+        return true;
+    }
+
+    /**
+     * Verifica se o valor pertence ao conjunto.
+     */
+    public boolean contem(long valor) {
+        if (valor == VAZIO) {
+            return contemZero;
+        }
+
+        int i = indice(valor);
+        while (tabela[i] != VAZIO) {
+            if (tabela[i] == valor) {
+                return true;
+            }
+            i = (i + 1) & mascara;
+        }
+        return false;
+    }
+
+    /**
+     * @return Quantidade de elementos no conjunto
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * @return true se o conjunto está vazio
+     */
+    public boolean vazio() {
+        return tamanho == 0;
+    }
+
+    /**
+     * Copia os elementos para um array (ordem não especificada).
+     */
+    public long[] paraArray() {
+        long[] resultado = new long[tamanho];
+        int n = 0;
+        if (contemZero) {
+            resultado[n++] = 0L;
+        }
+        for (long valor : tabela) {
+            if (valor != VAZIO) {
+                resultado[n++] = valor;
+            }
+        }
+        return resultado;
+    }
+
+    private int indice(long valor) {
+        // Mistura dos bits (finalizador do MurmurHash3) para espalhar CPFs sequenciais
+        long h = valor;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mascara;
+    }
+
+    private void redimensionar() {
+        long[] antiga = tabela;
+        tabela = new long[antiga.length * 2];
+        mascara = tabela.length - 1;
+        for (long valor : antiga) {
+            if (valor != VAZIO) {
+                int i = indice(valor);
+                while (tabela[i] != VAZIO) {
+                    i = (i + 1) & mascara;
+                }
+                tabela[i] = valor;
+            }
+        }
+    }
+}
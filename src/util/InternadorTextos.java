@@ -0,0 +1,74 @@
+package util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabela de instâncias canônicas para textos com poucos valores distintos.
+ *
+ * <p>O driver cria uma nova {@code String} para cada coluna de cada linha;
+ * para colunas como tipo sanguíneo ou sexo isso significa centenas de milhares
+ * de cópias de "A+" ou "M" nos objetos carregados. {@link #internar(String)}
+ * devolve sempre a mesma instância para o mesmo texto, e a cópia lida do
+ * banco é descartada logo em seguida (coleta barata na geração jovem).</p>
+ *
+ * <p>Ao contrário de {@link String#intern()}, a tabela tem capacidade
+ * limitada: atingido o limite, textos novos são devolvidos como vieram, o que
+ * impede que uma coluna de alta cardinalidade cresça a tabela sem fim.
+ * Thread-safe.</p>
+ *
+ * <p>Na frente da tabela há um cache de acesso direto, sem sincronização, com
+ * os textos vistos recentemente: para colunas como tipo sanguíneo, quase toda
+ * leitura é resolvida com um hash e uma comparação. Escritas concorrentes nele
+ * são inofensivas (no pior caso, uma consulta a mais à tabela).</p>
+ */
+public final class InternadorTextos {
+
+    /** Posições do cache de acesso direto (potência de 2) */
+    private static final int RECENTES = 256;
+
+    private final ConcurrentHashMap<String, String> tabela;
+    private final int capacidade;
+    private final String[] recentes = new String[RECENTES];
+
+    /**
+     * @param capacidade Quantidade máxima de textos distintos mantidos
+     */
+    public InternadorTextos(int capacidade) {
+        this.capacidade = capacidade;
+        this.tabela = new ConcurrentHashMap<>(Math.min(capacidade, 64));
+    }
+
+    /**
+     * @param texto Texto lido (pode ser null)
+     * @return Instância canônica do texto, ou o próprio texto se a tabela estiver cheia
+     */
+    public String internar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        int hash = texto.hashCode();
+        int posicao = (hash ^ (hash >>> 16)) & (RECENTES - 1);
+        String recente = recentes[posicao];
+        if (recente != null && recente.equals(texto)) {
+            return recente;
+        }
+
+        String canonico = tabela.get(texto);
+        if (canonico == null) {
+            if (tabela.size() >= capacidade) {
+                return texto;
+            }
+            canonico = tabela.putIfAbsent(texto, texto);
+            if (canonico == null) {
+                canonico = texto;
+            }
+        }
+        recentes[posicao] = canonico;
+        return canonico;
+    }
+
+    /** @return Quantidade de textos distintos na tabela */
+    public int tamanho() {
+        return tabela.size();
+    }
+}
@@ -0,0 +1,92 @@
+package util;
+
+import java.util.Locale;
+
+/**
+ * Normalização de textos para busca sem distinção de acentos e maiúsculas.
+ *
+ * <p>Reproduz em Java a função SQL {@code hc_normalizar(text)} criada pelo
+ * {@code GerenciadorSchema}: remove acentos do alfabeto latino usado em
+ * português, converte para minúsculas, elimina espaços nas extremidades e
+ * reduz sequências de espaços a um único espaço. As duas implementações
+ * devem ser mantidas com a mesma tabela de caracteres, para que buscas em
+ * memória e no banco retornem os mesmos resultados.</p>
+ */
+public final class NormalizadorTexto {
+
+    /** Caracteres acentuados (mesma ordem de {@link #SEM_ACENTO}) */
+    public static final String COM_ACENTO =
+        "ÁÀÂÃÄÅáàâãäåÉÈÊËéèêëÍÌÎÏíìîïÓÒÔÕÖóòôõöÚÙÛÜúùûüÇçÑñÝýÿ";
+
+    /** Equivalentes sem acento de {@link #COM_ACENTO} */
+    public static final String SEM_ACENTO =
+        "AAAAAAaaaaaaEEEEeeeeIIIIiiiiOOOOOoooooUUUUuuuuCcNnYyy";
+
+    /** Tabela de substituição indexada pelo código do caractere (Latin-1) */
+    private static final char[] MAPA = new char[256];
+
+    static {
+        for (int i = 0; i < MAPA.length; i++) {
+            MAPA[i] = Character.toLowerCase((char) i);
+        }
+        for (int i = 0; i < COM_ACENTO.length(); i++) {
+            MAPA[COM_ACENTO.charAt(i)] = Character.toLowerCase(SEM_ACENTO.charAt(i));
+        }
+    }
+
+    // Construtor privado: classe utilitária
+    private NormalizadorTexto() {}
+
+    /**
+     * Normaliza um texto para comparação.
+     * @param texto Texto original (pode ser null)
+     * @return Texto sem acentos, em minúsculas e com espaços simplificados; null se a entrada for null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(texto.length());
+        boolean espacoPendente = false;
+
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                espacoPendente = sb.length() > 0;
+                continue;
+            }
+            if (espacoPendente) {
+                sb.append(' ');
+                espacoPendente = false;
+            }
+
+            if (c < MAPA.length) {
+                sb.append(MAPA[c]);
+            } else {
+                sb.append(String.valueOf(c).toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Escapa os curingas de LIKE ({@code %}, {@code _} e a barra invertida),
+     * para que o texto digitado pelo usuário seja comparado literalmente.
+     * @param texto Texto a ser escapado
+     * @return Texto seguro para compor um padrão LIKE com escape padrão ({@code \})
+     */
+    public static String escaparLike(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length() + 4);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabela de códigos de 1 byte para textos de domínio pequeno (tipo
+ * sanguíneo, sexo), usada para guardar um {@code byte} por objeto em vez de
+ * uma referência para {@code String}.
+ *
+ * <p>O código {@link #NULO} representa null. Os valores informados na criação
+ * recebem os primeiros códigos e textos novos são registrados na primeira vez
+ * em que aparecem, até {@value #CAPACIDADE} valores distintos; depois disso
+ * {@link #codigo(String)} devolve {@link #SEM_CODIGO} e quem guarda o código
+ * precisa guardar o texto à parte. A leitura ({@link #texto(byte)}) não tem
+ * sincronização: o array de textos é republicado por campo volatile a cada
+ * registro; a busca do código de um texto já registrado também não bloqueia.</p>
+ */
+public final class TabelaCodigos {
+
+    /** Código do valor null */
+    public static final byte NULO = 0;
+
+    /** Código devolvido quando a tabela está cheia */
+    public static final byte SEM_CODIGO = -1;
+
+    /** Quantidade máxima de textos distintos (códigos 1 a 127) */
+    public static final int CAPACIDADE = Byte.MAX_VALUE;
+
+    private final ConcurrentHashMap<String, Byte> codigos = new ConcurrentHashMap<>();
+    private volatile String[] textos = {null};
+
+    /**
+     * @param conhecidos Valores mais comuns, registrados na ordem informada
+     */
+    public TabelaCodigos(String... conhecidos) {
+        for (String texto : conhecidos) {
+            codigo(texto);
+        }
+    }
+
+    /**
+     * @param texto Texto a codificar (pode ser null)
+     * @return Código do texto ou {@link #SEM_CODIGO} se a tabela estiver cheia
+     */
+    public byte codigo(String texto) {
+        if (texto == null) {
+            return NULO;
+        }
+        Byte codigo = codigos.get(texto);
+        if (codigo != null) {
+            return codigo;
+        }
+        synchronized (this) {
+            codigo = codigos.get(texto);
+            if (codigo != null) {
+                return codigo;
+            }
+            String[] atuais = textos;
+            if (atuais.length > CAPACIDADE) {
+                return SEM_CODIGO;
+            }
+            String[] novos = new String[atuais.length + 1];
+            System.arraycopy(atuais, 0, novos, 0, atuais.length);
+            novos[atuais.length] = texto;
+            byte novo = (byte) atuais.length;
+            codigos.put(texto, novo);
+            textos = novos;
+            return novo;
+        }
+    }
+
+    /**
+     * @param codigo Código obtido de {@link #codigo(String)} (exceto {@link #SEM_CODIGO})
+     * @return Texto do código (null para {@link #NULO})
+     */
+    public String texto(byte codigo) {
+        return textos[codigo];
+    }
+}